@@ -140,7 +140,7 @@ public final class Move implements Comparable<Move> {
      * @return type of move
      */
     public int getMoveType() {
-    	return (data & MOVE_TYPE_MASK) >>> MOVE_TYPE_SHIFT;
+    	return getMoveType(data);
     }
 
     /**
@@ -148,7 +148,7 @@ public final class Move implements Comparable<Move> {
      * @return moving piece type
      */
     public int getMovingPieceType() {
-    	return (data & MOVING_PIECE_TYPE_MASK) >>> MOVING_PIECE_TYPE_SHIFT;
+    	return getMovingPieceType(data);
     }
 
     /**
@@ -156,7 +156,7 @@ public final class Move implements Comparable<Move> {
      * @return begin square of move
      */
     public int getBeginSquare() {
-    	return (data & BEGIN_SQUARE_MASK) >>> BEGIN_SQUARE_SHIFT;
+    	return getBeginSquare(data);
     }
 
     /**
@@ -164,7 +164,7 @@ public final class Move implements Comparable<Move> {
      * @return target square of move
      */
     public int getTargetSquare() {
-    	return (data & TARGET_SQUARE_MASK) >>> TARGET_SQUARE_SHIFT;
+    	return getTargetSquare(data);
     }
 
     /**
@@ -172,7 +172,7 @@ public final class Move implements Comparable<Move> {
      * @return type of captured piece
      */
     public int getCapturedPieceType() {
-    	return (data & CAPTURED_PIECE_TYPE_MASK) >>> CAPTURED_PIECE_TYPE_SHIFT;
+    	return getCapturedPieceType(data);
     }
 
     /**
@@ -180,7 +180,7 @@ public final class Move implements Comparable<Move> {
      * @return type of promotion piece
      */
     public int getPromotionPieceType() {
-    	return (data & PROMOTION_PIECE_TYPE_MASK) >>> PROMOTION_PIECE_TYPE_SHIFT;
+    	return getPromotionPieceType(data);
     }
 
     /**
@@ -188,7 +188,7 @@ public final class Move implements Comparable<Move> {
      * @return castling right index before the move
      */
 	public int getPreviousCastlingRigthIndex() {
-		return (data & PREVIOUS_CASTLING_RIGHT_INDEX_MASK) >>> PREVIOUS_CASTLING_RIGHT_INDEX_SHIFT;
+		return getPreviousCastlingRigthIndex(data);
 	}
 
     /**
@@ -196,6 +196,78 @@ public final class Move implements Comparable<Move> {
      * @return EP file before the move
      */
 	public int getPreviousEpFile() {
+		return getPreviousEpFile(data);
+	}
+
+	/**
+	 * Returns type of move from packed move data.
+	 * @param data move data
+	 * @return type of move
+	 */
+	public static int getMoveType (final int data) {
+		return (data & MOVE_TYPE_MASK) >>> MOVE_TYPE_SHIFT;
+	}
+
+	/**
+	 * Returns moving piece type from packed move data.
+	 * @param data move data
+	 * @return moving piece type
+	 */
+	public static int getMovingPieceType (final int data) {
+		return (data & MOVING_PIECE_TYPE_MASK) >>> MOVING_PIECE_TYPE_SHIFT;
+	}
+
+	/**
+	 * Returns begin square of move from packed move data.
+	 * @param data move data
+	 * @return begin square of move
+	 */
+	public static int getBeginSquare (final int data) {
+		return (data & BEGIN_SQUARE_MASK) >>> BEGIN_SQUARE_SHIFT;
+	}
+
+	/**
+	 * Returns target square of move from packed move data.
+	 * @param data move data
+	 * @return target square of move
+	 */
+	public static int getTargetSquare (final int data) {
+		return (data & TARGET_SQUARE_MASK) >>> TARGET_SQUARE_SHIFT;
+	}
+
+	/**
+	 * Returns type of captured piece from packed move data.
+	 * @param data move data
+	 * @return type of captured piece
+	 */
+	public static int getCapturedPieceType (final int data) {
+		return (data & CAPTURED_PIECE_TYPE_MASK) >>> CAPTURED_PIECE_TYPE_SHIFT;
+	}
+
+	/**
+	 * Returns type of promotion piece from packed move data.
+	 * @param data move data
+	 * @return type of promotion piece
+	 */
+	public static int getPromotionPieceType (final int data) {
+		return (data & PROMOTION_PIECE_TYPE_MASK) >>> PROMOTION_PIECE_TYPE_SHIFT;
+	}
+
+	/**
+	 * Returns castling right index before the move from packed move data.
+	 * @param data move data
+	 * @return castling right index before the move
+	 */
+	public static int getPreviousCastlingRigthIndex (final int data) {
+		return (data & PREVIOUS_CASTLING_RIGHT_INDEX_MASK) >>> PREVIOUS_CASTLING_RIGHT_INDEX_SHIFT;
+	}
+
+	/**
+	 * Returns EP file before the move from packed move data.
+	 * @param data move data
+	 * @return EP file before the move
+	 */
+	public static int getPreviousEpFile (final int data) {
 		return (data & PREVIOUS_EP_FILE_MASK) >>> PREVIOUS_EP_FILE_SHIFT;
 	}
 
@@ -257,9 +329,10 @@ public final class Move implements Comparable<Move> {
 
     /**
      * Returns data of this move.
+     * The data can be passed to methods that works with packed moves like Position.makeMove(int).
      * @return move data
      */
-	int getData() {
+	public int getData() {
 		return data;
 	}
 
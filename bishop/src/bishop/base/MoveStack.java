@@ -22,16 +22,42 @@ public class MoveStack {
 		move.setData((int) (stack[index] & MOVE_MASK));
 	}
 
+	/**
+	 * Returns packed data of the move with given index.
+	 * @param index index of the record
+	 * @return move data
+	 */
+	public int getMoveData (final int index) {
+		return (int) (stack[index] & MOVE_MASK);
+	}
+
 	public int getEvaluation (final int index) {
 		return (int) (stack[index] >>> EVALUATION_SHIFT);
 	}
 
 	public void setRecord (final int index, final Move move, final int evaluation) {
-		final long movePart = ((long) move.getData()) & MOVE_MASK;
+		setRecord(index, move.getData(), evaluation);
+	}
+
+	public void setRecord (final int index, final int moveData, final int evaluation) {
+		final long movePart = ((long) moveData) & MOVE_MASK;
 		final long evaluationPart = (long) evaluation << EVALUATION_SHIFT;
 		
 		stack[index] = movePart | evaluationPart;
 	}
+
+	/**
+	 * Changes evaluation of the record with given index, the move is kept.
+	 * @param index index of the record
+	 * @param evaluation new evaluation
+	 */
+	public void setEvaluation (final int index, final int evaluation) {
+		setRecord(index, getMoveData(index), evaluation);
+	}
+
+	public int getSize() {
+		return stack.length;
+	}
 	
 	public void copyRecords (final MoveStack source, final int srcIndex, final int dstIndex, final int size) {
 		System.arraycopy(source.stack, srcIndex, this.stack, dstIndex, size);
@@ -52,18 +52,18 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 
 	/**
 	 * Makes given normal move.
-	 * @param move move
+	 * @param moveData data of the move
 	 */
-	private void makeNormalMove (final Move move) {
-		final int movingPieceType = move.getMovingPieceType();
+	private void makeNormalMove (final int moveData) {
+		final int movingPieceType = Move.getMovingPieceType(moveData);
 
-		final int beginSquare = move.getBeginSquare();
+		final int beginSquare = Move.getBeginSquare(moveData);
 		final long beginSquareMask = BitBoard.getSquareMask(beginSquare);
 
-		final int targetSquare = move.getTargetSquare();
+		final int targetSquare = Move.getTargetSquare(moveData);
 		final long targetSquareMask = BitBoard.getSquareMask(targetSquare);
 
-		final int capturedPieceType = move.getCapturedPieceType();
+		final int capturedPieceType = Move.getCapturedPieceType(moveData);
 		final int oppositeColor = Color.getOppositeColor (onTurn);
 		
 		final long moveMask = beginSquareMask | targetSquareMask;
@@ -113,18 +113,18 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 
 	/**
 	 * Makes given normal move.
-	 * @param move move
+	 * @param moveData data of the move
 	 */
-	private void undoNormalMove (final Move move) {
-		final int movingPieceType = move.getMovingPieceType();
+	private void undoNormalMove (final int moveData) {
+		final int movingPieceType = Move.getMovingPieceType(moveData);
 
-		final int beginSquare = move.getBeginSquare();
+		final int beginSquare = Move.getBeginSquare(moveData);
 		final long beginSquareMask = BitBoard.getSquareMask(beginSquare);
 
-		final int targetSquare = move.getTargetSquare();
+		final int targetSquare = Move.getTargetSquare(moveData);
 		final long targetSquareMask = BitBoard.getSquareMask(targetSquare);
 
-		final int capturedPieceType = move.getCapturedPieceType();
+		final int capturedPieceType = Move.getCapturedPieceType(moveData);
 		final int oppositeColor = onTurn;
 		
 		// On turn
@@ -149,7 +149,7 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 		}
 
 		// Update castling rights
-		final int prevCastlingRightIndex = move.getPreviousCastlingRigthIndex();
+		final int prevCastlingRightIndex = Move.getPreviousCastlingRigthIndex(moveData);
 		
 		if (prevCastlingRightIndex != castlingRights.getIndex()) {
 			caching.changeCastlingRights(castlingRights.getIndex(), prevCastlingRightIndex);
@@ -157,7 +157,7 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 		}
 
 		// Update EP file
-		final int prevEpFile = move.getPreviousEpFile();
+		final int prevEpFile = Move.getPreviousEpFile(moveData);
 		
 		if (prevEpFile != epFile) {
 			caching.changeEpFile(epFile, prevEpFile);
@@ -167,17 +167,17 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 
 	/**
 	 * Makes given promotion move.
-	 * @param move move
+	 * @param moveData data of the move
 	 */
-	private void makePromotionMove (final Move move) {
-		final int beginSquare = move.getBeginSquare();
+	private void makePromotionMove (final int moveData) {
+		final int beginSquare = Move.getBeginSquare(moveData);
 		final long beginSquareMask = BitBoard.getSquareMask(beginSquare);
 
-		final int targetSquare = move.getTargetSquare();
+		final int targetSquare = Move.getTargetSquare(moveData);
 		final long targetSquareMask = BitBoard.getSquareMask(targetSquare);
 
-		final int capturedPieceType = move.getCapturedPieceType();
-		final int promotionPieceType = move.getPromotionPieceType();
+		final int capturedPieceType = Move.getCapturedPieceType(moveData);
+		final int promotionPieceType = Move.getPromotionPieceType(moveData);
 		final int oppositeColor = Color.getOppositeColor (onTurn);
 		
 		final long moveMask = beginSquareMask | targetSquareMask;
@@ -212,17 +212,17 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 
 	/**
 	 * Undos given promotion move.
-	 * @param move move
+	 * @param moveData data of the move
 	 */
-	private void undoPromotionMove (final Move move) {
-		final int beginSquare = move.getBeginSquare();
+	private void undoPromotionMove (final int moveData) {
+		final int beginSquare = Move.getBeginSquare(moveData);
 		final long beginSquareMask = BitBoard.getSquareMask(beginSquare);
 
-		final int targetSquare = move.getTargetSquare();
+		final int targetSquare = Move.getTargetSquare(moveData);
 		final long targetSquareMask = BitBoard.getSquareMask(targetSquare);
 
-		final int capturedPieceType = move.getCapturedPieceType();
-		final int promotionPieceType = move.getPromotionPieceType();
+		final int capturedPieceType = Move.getCapturedPieceType(moveData);
+		final int promotionPieceType = Move.getPromotionPieceType(moveData);
 		final int oppositeColor = onTurn;
 		
 		// On turn
@@ -249,7 +249,7 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 		}
 
 		// Update castling rights
-		final int prevCastlingRightIndex = move.getPreviousCastlingRigthIndex();
+		final int prevCastlingRightIndex = Move.getPreviousCastlingRigthIndex(moveData);
 		
 		if (prevCastlingRightIndex != castlingRights.getIndex()) {
 			caching.changeCastlingRights(castlingRights.getIndex(), prevCastlingRightIndex);
@@ -257,17 +257,17 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 		}
 		
 		// EP file
-		epFile = move.getPreviousEpFile();
+		epFile = Move.getPreviousEpFile(moveData);
 		caching.changeEpFile(File.NONE, epFile);
 	}
 
 	/**
 	 * Makes given castling move.
-	 * @param move move
+	 * @param moveData data of the move
 	 */
-	private void makeCastlingMove (final Move move) {
-		final int beginSquare = move.getBeginSquare();
-		final int targetSquare = move.getTargetSquare();
+	private void makeCastlingMove (final int moveData) {
+		final int beginSquare = Move.getBeginSquare(moveData);
+		final int targetSquare = Move.getTargetSquare(moveData);
 		final int oppositeColor = Color.getOppositeColor (onTurn);
 
 		final int castlingType = (beginSquare > targetSquare) ? CastlingType.LONG : CastlingType.SHORT;
@@ -305,11 +305,11 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 
 	/**
 	 * Undo given castling move.
-	 * @param move move
+	 * @param moveData data of the move
 	 */
-	private void undoCastlingMove (final Move move) {
-		final int beginSquare = move.getBeginSquare();
-		final int targetSquare = move.getTargetSquare();
+	private void undoCastlingMove (final int moveData) {
+		final int beginSquare = Move.getBeginSquare(moveData);
+		final int targetSquare = Move.getTargetSquare(moveData);
 		final int oppositeColor = onTurn;
 		
 		// On turn
@@ -337,24 +337,24 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 		occupancy ^= occupancyChanges;
 
 		// Update castling rights
-		final int prevCastlingRightIndex = move.getPreviousCastlingRigthIndex();
+		final int prevCastlingRightIndex = Move.getPreviousCastlingRigthIndex(moveData);
 		caching.changeCastlingRights(prevCastlingRightIndex, castlingRights.getIndex());
 		castlingRights.setIndex (prevCastlingRightIndex);
 		
 		// EP file
-		epFile = move.getPreviousEpFile();		
+		epFile = Move.getPreviousEpFile(moveData);		
 		caching.changeEpFile(File.NONE, epFile);
 	}
 
 	/**
 	 * Makes given en-passant move.
-	 * @param move move
+	 * @param moveData data of the move
 	 */
-	private void makeEnPassantMove (final Move move) {
-		final int beginSquare = move.getBeginSquare();
+	private void makeEnPassantMove (final int moveData) {
+		final int beginSquare = Move.getBeginSquare(moveData);
 		final long beginSquareMask = BitBoard.getSquareMask(beginSquare);
 
-		final int targetSquare = move.getTargetSquare();
+		final int targetSquare = Move.getTargetSquare(moveData);
 		final long targetSquareMask = BitBoard.getSquareMask(targetSquare);
 
 		final int oppositeColor = Color.getOppositeColor (onTurn);
@@ -383,13 +383,13 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 
 	/**
 	 * Undos given en-passant move.
-	 * @param move move
+	 * @param moveData data of the move
 	 */
-	private void undoEnPassantMove (final Move move) {
-		final int beginSquare = move.getBeginSquare();
+	private void undoEnPassantMove (final int moveData) {
+		final int beginSquare = Move.getBeginSquare(moveData);
 		final long beginSquareMask = BitBoard.getSquareMask(beginSquare);
 
-		final int targetSquare = move.getTargetSquare();
+		final int targetSquare = Move.getTargetSquare(moveData);
 		final long targetSquareMask = BitBoard.getSquareMask(targetSquare);
 		final int oppositeColor = onTurn;
 		
@@ -398,7 +398,7 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 		caching.swapOnTurn();
 		
 		// EP file
-		epFile = move.getPreviousEpFile();
+		epFile = Move.getPreviousEpFile(moveData);
 		caching.changeEpFile(File.NONE, epFile);
 		
 		final int epSquare = Square.onFileRank(epFile, Square.getRank (beginSquare));
@@ -419,9 +419,9 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 	
 	/**
 	 * Makes given null move.
-	 * @param move move
+	 * @param moveData data of the move
 	 */
-	private void makeNullMove (final Move move) {
+	private void makeNullMove (final int moveData) {
 		// EP file
 		caching.changeEpFile(epFile, File.NONE);
 		epFile = File.NONE;
@@ -433,15 +433,15 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 
 	/**
 	 * Makes given null move.
-	 * @param move move
+	 * @param moveData data of the move
 	 */
-	private void undoNullMove (final Move move) {
+	private void undoNullMove (final int moveData) {
 		// On turn
 		onTurn = Color.getOppositeColor (onTurn);
 		caching.swapOnTurn();
 		
 		// EP file
-		epFile = move.getPreviousEpFile();
+		epFile = Move.getPreviousEpFile(moveData);
 		caching.changeEpFile(File.NONE, epFile);
 	}
 
@@ -789,25 +789,35 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 	 * @param move move
 	 */
 	public void makeMove (final Move move) {
-		switch (move.getMoveType()) {
+		makeMove(move.getData());
+	}
+
+	/**
+	 * Makes given move.
+	 * This variant works directly with packed data of the move so moves
+	 * stored in MoveStack can be made without conversion to Move object.
+	 * @param moveData data of the move
+	 */
+	public void makeMove (final int moveData) {
+		switch (Move.getMoveType(moveData)) {
 			case MoveType.NORMAL:
-				makeNormalMove (move);
+				makeNormalMove (moveData);
 				break;
 	
 			case MoveType.PROMOTION:
-				makePromotionMove (move);
+				makePromotionMove (moveData);
 				break;
 	
 			case MoveType.CASTLING:
-				makeCastlingMove (move);
+				makeCastlingMove (moveData);
 				break;
 	
 			case MoveType.EN_PASSANT:
-				makeEnPassantMove (move);
+				makeEnPassantMove (moveData);
 				break;
 				
 			case MoveType.NULL:
-				makeNullMove (move);
+				makeNullMove (moveData);
 				break;
 
 			default:
@@ -821,25 +831,33 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 	 * @param move move
 	 */
 	public void undoMove (final Move move) {
-		switch (move.getMoveType()) {
+		undoMove(move.getData());
+	}
+
+	/**
+	 * Undos given move.
+	 * @param moveData data of the move
+	 */
+	public void undoMove (final int moveData) {
+		switch (Move.getMoveType(moveData)) {
 			case MoveType.NORMAL:
-				undoNormalMove (move);
+				undoNormalMove (moveData);
 				break;
 	
 			case MoveType.PROMOTION:
-				undoPromotionMove (move);
+				undoPromotionMove (moveData);
 				break;
 	
 			case MoveType.CASTLING:
-				undoCastlingMove (move);
+				undoCastlingMove (moveData);
 				break;
 	
 			case MoveType.EN_PASSANT:
-				undoEnPassantMove (move);
+				undoEnPassantMove (moveData);
 				break;
 
 			case MoveType.NULL:
-				undoNullMove (move);
+				undoNullMove (moveData);
 				break;
 
 			default:
@@ -1110,11 +1128,11 @@ public final class Position implements IPosition, ICopyable<Position>, IAssignab
 			epCheckMove.setBeginSquare (beginSquare);
 			epCheckMove.finishEnPassant (BoardConstants.getEpTargetSquare(oppositeColor, epFile));
 
-			makeEnPassantMove(epCheckMove);
+			makeEnPassantMove(epCheckMove.getData());
 
 			final boolean isCheck = isKingNotOnTurnAttacked();
 
-			undoEnPassantMove(epCheckMove);
+			undoEnPassantMove(epCheckMove.getData());
 
 			if (!isCheck)
 				return true;
@@ -12,15 +12,23 @@ import bishop.tables.PawnMoveTable;
  * and also some non-checking ones (it is not perfect).
  * The generator can also be configured to generate moves that has a chance to stop the check in position. Again,
  * more moves can be generated. Both options can be used at the same time.  
+ * The generator can also be restricted to generate only tactical moves (captures, promotions and en-passant)
+ * or only quiet moves (all other moves including castling) so the search can generate the moves in stages.
  * @author Ing. Petr Ležák
  */
 public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase {
 
 	public static final int MAX_MOVES_IN_POSITION = 321;
+
+	// Sets of generated moves
+	public static final int MOVES_ALL = 0;
+	public static final int MOVES_TACTICAL = 1;   // Captures, promotions and en-passant
+	public static final int MOVES_QUIET = 2;      // All other moves
 	
 	// Settings
 	private boolean reduceMovesInCheck;
 	private boolean generateOnlyChecks;
+	private int generatedMoves = MOVES_ALL;
 	
 	// Cached from position
 	private int onTurn;
@@ -38,6 +46,10 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
 	// opposite king.
 	// If generateOnlychecks is false - BitBoard.FULL so begin squares are not masked.
 	private long indirectCheckingBlockers;
+
+	// Masks of target squares given by generated moves.
+	private long figureTargetSquareMask;
+	private long pawnTargetSquareMask;
 	
     // Generates moves of some figure.
     // Returns if generation should continue.
@@ -66,7 +78,7 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
 				// Make and process move
 				move.finishNormalMove(targetSquare, capturedPieceType);
 
-				if (!walker.processMove(move))
+				if (!processMove())
 					return false;
     		}
     	}
@@ -103,7 +115,7 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
 				// Make and process move
 				move.finishNormalMove(targetSquare, capturedPieceType);
 
-				if (!walker.processMove(move))
+				if (!processMove())
 					return false;
     		}
     	}
@@ -140,7 +152,7 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
 				// Make and process move
 				move.finishNormalMove(targetSquare, capturedPieceType);
 
-				if (!walker.processMove(move))
+				if (!processMove())
 					return false;
     		}
     	}
@@ -182,7 +194,7 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
 				// Make and process move
 				move.finishNormalMove(targetSquare, capturedPieceType);
 
-				if (!walker.processMove(move))
+				if (!processMove())
 					return false;
     		}
     	}
@@ -229,7 +241,7 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
     		
     		final long moveMask = PawnMoveTable.getItem(onTurn, beginSquare) & ~occupancy;
     		final long captureMask = PawnAttackTable.getItem(onTurn, beginSquare) & opponentSquares;
-    		final long targetSquareMask = (moveMask | captureMask) & possibleTargetSquaresForReductionInCheck;
+    		final long targetSquareMask = (moveMask | captureMask) & possibleTargetSquaresForReductionInCheck & pawnTargetSquareMask;
 
     		// Loop through all target squares
     		for (targetSquareLoop.init(targetSquareMask); targetSquareLoop.hasNextSquare(); ) {
@@ -244,7 +256,7 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
     					for (int promotionFigure = PieceType.PROMOTION_FIGURE_FIRST; promotionFigure < PieceType.PROMOTION_FIGURE_LAST; promotionFigure++) {
     						move.finishPromotion(targetSquare, capturedPieceType, promotionFigure);
 
-    						if (!walker.processMove(move))
+    						if (!processMove())
     							return false;
     					}
     				}
@@ -252,7 +264,7 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
     					// Normal move
     					move.finishNormalMove (targetSquare, capturedPieceType);
 
-						if (!walker.processMove(move))
+						if (!processMove())
 							return false;
     				}
     			}
@@ -297,7 +309,7 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
   				final int kingTargetSquare = CastlingConstants.of(onTurn, castlingType).getKingTargetSquare();
   				move.finishCastling(kingTargetSquare);
 
-  				if (!walker.processMove(move))
+  				if (!processMove())
   					return false;
   	  		}
     	}
@@ -352,6 +364,33 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
     	this.generateOnlyChecks = onlyChecks;
     }
 
+    /**
+     * Sets which moves are generated.
+     * @param generatedMoves MOVES_ALL, MOVES_TACTICAL or MOVES_QUIET
+     */
+    public void setGeneratedMoves(final int generatedMoves) {
+    	this.generatedMoves = generatedMoves;
+    }
+
+    private void updateTargetSquareMasks() {
+    	switch (generatedMoves) {
+    		case MOVES_TACTICAL:
+    			figureTargetSquareMask = position.getColorOccupancy(oppositeColor);
+    			pawnTargetSquareMask = figureTargetSquareMask | BoardConstants.RANK_18_MASK;
+    			break;
+
+    		case MOVES_QUIET:
+    			figureTargetSquareMask = ~position.getOccupancy();
+    			pawnTargetSquareMask = figureTargetSquareMask & ~BoardConstants.RANK_18_MASK;
+    			break;
+
+    		default:
+    			figureTargetSquareMask = BitBoard.FULL;
+    			pawnTargetSquareMask = BitBoard.FULL;
+    			break;
+    	}
+    }
+
     /**
      * Calculates possible target squares of the piece. This mask cannot be used for king moves, castling or en-passant.
      * If reduceMovesInCheck is false or if there is no check it simply returns mask of squares not occupied by own pieces.
@@ -436,6 +475,7 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
     	final long notOwnSquares = ~position.getColorOccupancy(onTurn);
 
     	move.initialize(castlingRightIndex, epFile);
+    	updateTargetSquareMasks();
 
     	if (generateOnlyChecks)
     		updateCheckingMasksOnlyChecks();
@@ -444,29 +484,30 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
 
     	// Generate figure moves, starting with king - this speeds up legal move checking
     	if (getGenerateMovesOfPiece(PieceType.KING)) {
-	    	if (!generateShortMovingFigureMoves(PieceType.KING, notOwnSquares))
+	    	if (!generateShortMovingFigureMoves(PieceType.KING, notOwnSquares & figureTargetSquareMask))
 	    		return;
     	}
 
     	final long possibleTargetSquaresForReductionInCheck = calculatePossibleTargetSquaresForReductionInCheck();
+    	final long figureTargetSquares = possibleTargetSquaresForReductionInCheck & figureTargetSquareMask;
     	
     	if (getGenerateMovesOfPiece(PieceType.KNIGHT)) {
-	    	if (!generateShortMovingFigureMoves(PieceType.KNIGHT, possibleTargetSquaresForReductionInCheck))
+	    	if (!generateShortMovingFigureMoves(PieceType.KNIGHT, figureTargetSquares))
 	    		return;
     	}
     	
     	if (getGenerateMovesOfPiece(PieceType.QUEEN)) {
-	    	if (!generateQueenMoves(possibleTargetSquaresForReductionInCheck))
+	    	if (!generateQueenMoves(figureTargetSquares))
 	    		return;
     	}
     	
     	if (getGenerateMovesOfPiece(PieceType.ROOK)) {
-	    	if (!generateRookMoves(possibleTargetSquaresForReductionInCheck))
+	    	if (!generateRookMoves(figureTargetSquares))
 	    		return;
     	}
     	
     	if (getGenerateMovesOfPiece(PieceType.BISHOP)) {
-	    	if (!generateBishopMoves(possibleTargetSquaresForReductionInCheck))
+	    	if (!generateBishopMoves(figureTargetSquares))
 	    		return;
     	}
     	
@@ -475,12 +516,12 @@ public final class PseudoLegalMoveGenerator extends PseudoLegalMoveGeneratorBase
 	    		return;
     	}
 
-    	if (getGenerateMovesOfPiece(PieceType.KING)) {
+    	if (getGenerateMovesOfPiece(PieceType.KING) && generatedMoves != MOVES_TACTICAL) {
 	    	if (!generateCastlingMoves())
 	    		return;
     	}
 
-    	if (getGenerateMovesOfPiece(PieceType.PAWN)) {
+    	if (getGenerateMovesOfPiece(PieceType.PAWN) && generatedMoves != MOVES_QUIET) {
     		generateEnPassantMoves();
     	}
     }
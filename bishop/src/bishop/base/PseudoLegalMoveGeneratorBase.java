@@ -7,6 +7,8 @@ public abstract class PseudoLegalMoveGeneratorBase implements IMoveGenerator {
 	protected Position position;
 	protected IMoveWalker walker;
 	protected final Move move = new Move();
+	private MoveStack targetStack;
+	private int targetStackTop;
 	private final boolean[] pieceTypesToGenerate = new boolean[PieceType.LAST];
 	
 	
@@ -40,13 +42,49 @@ public abstract class PseudoLegalMoveGeneratorBase implements IMoveGenerator {
 			move.setBeginSquare(beginSquare);
 			move.finishEnPassant (BoardConstants.getEpTargetSquare(oppositeColor, epFile));
 
-			if (!walker.processMove(move))
+			if (!processMove())
 				return false;
     	}
 
     	return true;
     }
 
+    /**
+     * Passes generated move into the target stack or to the walker.
+     * @return true if generation should continue
+     */
+    protected final boolean processMove() {
+    	if (targetStack != null) {
+    		targetStack.setRecord(targetStackTop, move.getData(), 0);
+    		targetStackTop++;
+
+    		return true;
+    	}
+    	else
+    		return walker.processMove(move);
+    }
+
+    /**
+     * Generates moves directly into given move stack.
+     * Moves are stored with zero evaluation from given index, the walker is not called.
+     * @param stack target stack
+     * @param beginIndex index of first generated move
+     * @return index after the last generated move
+     */
+    public int generateMoves (final MoveStack stack, final int beginIndex) {
+    	targetStack = stack;
+    	targetStackTop = beginIndex;
+
+    	try {
+    		generateMoves();
+    	}
+    	finally {
+    		targetStack = null;
+    	}
+
+    	return targetStackTop;
+    }
+
     /**
      * Sets position for move generation.
      * Given object may be used - it may or may not be copied.
@@ -27,7 +27,7 @@ public final class QuiescencePseudoLegalMoveGenerator extends PseudoLegalMoveGen
 			// Make and process move
 			move.finishNormalMove(targetSquare, capturedPieceType);
 
-			if (!walker.processMove(move))
+			if (!processMove())
 				return false;
 		}
 
@@ -60,7 +60,7 @@ public final class QuiescencePseudoLegalMoveGenerator extends PseudoLegalMoveGen
 				// Make and process move
 				move.finishNormalMove(targetSquare, capturedPieceType);
 
-				if (!walker.processMove(move))
+				if (!processMove())
 					return false;
 			}
 		}
@@ -99,7 +99,7 @@ public final class QuiescencePseudoLegalMoveGenerator extends PseudoLegalMoveGen
 					// Make and process move
 					move.finishNormalMove(targetSquare, capturedPieceType);
 	
-					if (!walker.processMove(move))
+					if (!processMove())
 						return false;
 	    		}
     		}
@@ -139,7 +139,7 @@ public final class QuiescencePseudoLegalMoveGenerator extends PseudoLegalMoveGen
 					// Make and process move
 					move.finishNormalMove(targetSquare, capturedPieceType);
 	
-					if (!walker.processMove(move))
+					if (!processMove())
 						return false;
 	    		}
     		}
@@ -184,7 +184,7 @@ public final class QuiescencePseudoLegalMoveGenerator extends PseudoLegalMoveGen
 					// Make and process move
 					move.finishNormalMove(targetSquare, capturedPieceType);
 	
-					if (!walker.processMove(move))
+					if (!processMove())
 						return false;
 	    		}
     		}
@@ -224,7 +224,7 @@ public final class QuiescencePseudoLegalMoveGenerator extends PseudoLegalMoveGen
 			for (int promotionFigure = PieceType.PROMOTION_FIGURE_FIRST; promotionFigure < PieceType.PROMOTION_FIGURE_LAST; promotionFigure++) {
 				move.finishPromotion(targetSquare, capturedPieceType, promotionFigure);
 
-				if (!walker.processMove(move))
+				if (!processMove())
 					return false;
 			}
     	}
@@ -250,7 +250,7 @@ public final class QuiescencePseudoLegalMoveGenerator extends PseudoLegalMoveGen
 					for (int promotionFigure = PieceType.PROMOTION_FIGURE_FIRST; promotionFigure < PieceType.PROMOTION_FIGURE_LAST; promotionFigure++) {
 						move.finishPromotion(targetSquare, capturedPieceType, promotionFigure);
 
-						if (!walker.processMove(move))
+						if (!processMove())
 							return false;
 					}
 				}
@@ -258,7 +258,7 @@ public final class QuiescencePseudoLegalMoveGenerator extends PseudoLegalMoveGen
 					// Normal move
 					move.finishNormalMove (targetSquare, capturedPieceType);
 
-					if (!walker.processMove(move))
+					if (!processMove())
 						return false;
 				}
     		}
@@ -0,0 +1,314 @@
+package bishop.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import bishop.base.CombinedPositionEvaluationTable;
+import bishop.base.Move;
+import bishop.base.MoveList;
+import bishop.base.PieceTypeEvaluations;
+import bishop.base.StandardAlgebraicNotationWriter;
+import bishop.controller.BlockingSearch;
+import bishop.controller.EngineSettings;
+import bishop.controller.SearchResources;
+import bishop.engine.HashTableType;
+import bishop.engine.HashTables;
+import bishop.engine.IPositionEvaluation;
+import bishop.engine.ISearchManager;
+import bishop.engine.PositionEvaluationCoeffs;
+import bishop.engine.SearchResult;
+import bishop.engine.SerialSearchEngine;
+import bishop.engine.SerialSearchEngineFactory;
+import bishop.engine.TablebasePositionEvaluator;
+import utils.Logger;
+
+/**
+ * Analyzer of EPD or FEN files.
+ * Positions are analyzed concurrently by independent workers. Each worker owns search manager
+ * with one single threaded search engine and its own hash table so there is no contention between
+ * the workers. Managers run in deterministic mode so the result of the position does not depend
+ * on the order of the positions and it is reproducible if the search is not limited by time.
+ * Results are written to the output as CSV lines in order in which the positions are finished,
+ * the first column contains the index of the position in the input. Evaluation is written
+ * in internal units from the point of view of the side on turn.
+ * @author Ing. Petr Ležák
+ */
+public final class BatchAnalyzer {
+
+	public static final String OUTPUT_HEADER = "index,id,depth,nodes,time,evaluation,bestMove,solved";
+
+	public static final int DEFAULT_HASH_TABLE_SIZE = 16;   // [MB]
+	public static final int DEFAULT_DEPTH = 10;
+
+	private static final String COMMENT_PREFIX = "#";
+
+	private final URL rootUrl;
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private int hashTableSize = DEFAULT_HASH_TABLE_SIZE;   // [MB] per worker
+	private HashTableType hashTableType = HashTableType.DEFAULT;
+	private int maxDepth = DEFAULT_DEPTH;
+	private long maxNodeCount = ISearchManager.NODE_COUNT_INFINITY;
+	private long timeForPosition = ISearchManager.TIME_FOR_MOVE_INFINITY;   // [ms]
+	private String tablebasePath = "";
+
+	// Statistics of the last analysis
+	private final AtomicInteger positionCount = new AtomicInteger();
+	private final AtomicInteger testedPositionCount = new AtomicInteger();
+	private final AtomicInteger solvedPositionCount = new AtomicInteger();
+	private final AtomicLong totalNodeCount = new AtomicLong();
+
+	public BatchAnalyzer (final URL rootUrl) {
+		this.rootUrl = rootUrl;
+	}
+
+	public void setThreadCount (final int threadCount) {
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Sets size of the hash table of one worker.
+	 * @param hashTableSize size of the hash table [MB]
+	 */
+	public void setHashTableSize (final int hashTableSize) {
+		this.hashTableSize = hashTableSize;
+	}
+
+	/**
+	 * Sets type of the hash tables of the workers.
+	 * @param hashTableType type of the hash tables
+	 */
+	public void setHashTableType (final HashTableType hashTableType) {
+		this.hashTableType = hashTableType;
+	}
+
+	/**
+	 * Sets maximal depth of the search.
+	 * @param maxDepth depth in plies
+	 */
+	public void setMaxDepth (final int maxDepth) {
+		this.maxDepth = maxDepth;
+	}
+
+	public void setMaxNodeCount (final long maxNodeCount) {
+		this.maxNodeCount = maxNodeCount;
+	}
+
+	/**
+	 * Sets time limit of one position.
+	 * @param timeForPosition time [ms]
+	 */
+	public void setTimeForPosition (final long timeForPosition) {
+		this.timeForPosition = timeForPosition;
+	}
+
+	public void setTablebasePath (final String tablebasePath) {
+		this.tablebasePath = tablebasePath;
+	}
+
+	public int getPositionCount() {
+		return positionCount.get();
+	}
+
+	/**
+	 * Returns number of positions with best or avoid moves.
+	 * @return number of positions with expected moves
+	 */
+	public int getTestedPositionCount() {
+		return testedPositionCount.get();
+	}
+
+	public int getSolvedPositionCount() {
+		return solvedPositionCount.get();
+	}
+
+	public long getTotalNodeCount() {
+		return totalNodeCount.get();
+	}
+
+	/**
+	 * Analyzes given lines of EPD or FEN file.
+	 * Empty lines and lines starting with # are ignored.
+	 * @param lines lines with positions
+	 * @param output target stream
+	 */
+	public void analyze (final List<String> lines, final PrintStream output) throws InterruptedException, ExecutionException {
+		final List<String> positionLines = new ArrayList<>();
+
+		for (String line: lines) {
+			final String trimmedLine = line.trim();
+
+			if (!trimmedLine.isEmpty() && !trimmedLine.startsWith(COMMENT_PREFIX))
+				positionLines.add(trimmedLine);
+		}
+
+		positionCount.set(positionLines.size());
+		testedPositionCount.set(0);
+		solvedPositionCount.set(0);
+		totalNodeCount.set(0);
+
+		output.println(OUTPUT_HEADER);
+		output.flush();
+
+		final PositionEvaluationCoeffs evaluationCoeffs = SearchResources.createEvaluationCoeffs(rootUrl);
+		final Supplier<IPositionEvaluation> evaluationFactory = SearchResources.createEvaluationFactory(evaluationCoeffs);
+		final PieceTypeEvaluations pieceTypeEvaluations = evaluationCoeffs.getPieceTypeEvaluations();
+		final CombinedPositionEvaluationTable combinedEvaluationTable = new CombinedPositionEvaluationTable(evaluationCoeffs);
+		final TablebasePositionEvaluator tablebaseEvaluator = new TablebasePositionEvaluator(new File(tablebasePath));
+
+		final SerialSearchEngineFactory engineFactory = SearchResources.createSerialEngineFactory(evaluationFactory, pieceTypeEvaluations);
+
+		final int workerCount = Math.max(Math.min(threadCount, positionLines.size()), 1);
+		final AtomicInteger nextLineIndex = new AtomicInteger();
+		final List<Worker> workerList = new ArrayList<>();
+
+		for (int i = 0; i < workerCount; i++) {
+			final Worker worker = new Worker(positionLines, nextLineIndex, output);
+			worker.initialize(engineFactory, pieceTypeEvaluations, combinedEvaluationTable, tablebaseEvaluator);
+
+			workerList.add(worker);
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+
+		try {
+			final List<Future<Void>> futureList = executor.invokeAll(workerList);
+
+			for (Future<Void> future: futureList)
+				future.get();
+		}
+		finally {
+			executor.shutdown();
+
+			for (Worker worker: workerList)
+				worker.stop();
+		}
+	}
+
+	/**
+	 * Worker that takes positions from the shared list and analyzes them one by one.
+	 */
+	private final class Worker implements Callable<Void> {
+
+		private final List<String> positionLines;
+		private final AtomicInteger nextLineIndex;
+		private final PrintStream output;
+
+		private final HashTables hashTables = hashTableType.createHashTables();
+		private BlockingSearch search;
+
+		public Worker (final List<String> positionLines, final AtomicInteger nextLineIndex, final PrintStream output) {
+			this.positionLines = positionLines;
+			this.nextLineIndex = nextLineIndex;
+			this.output = output;
+		}
+
+		public void initialize (final SerialSearchEngineFactory engineFactory, final PieceTypeEvaluations pieceTypeEvaluations, final CombinedPositionEvaluationTable combinedEvaluationTable, final TablebasePositionEvaluator tablebaseEvaluator) {
+			hashTables.resizeToMemory(hashTableSize * EngineSettings.MEGABYTE);
+
+			search = new BlockingSearch(engineFactory, pieceTypeEvaluations, combinedEvaluationTable, tablebaseEvaluator);
+
+			final ISearchManager manager = search.getManager();
+			hashTables.setToManager(manager);
+			manager.setThreadCount(1);
+			manager.setDeterministicMode(true);
+			manager.setMaxHorizon(maxDepth * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION);
+			manager.setMaxNodeCount(maxNodeCount);
+			manager.setTimeLimits(timeForPosition, timeForPosition);
+
+			search.start();
+		}
+
+		public void stop() {
+			search.stop();
+		}
+
+		@Override
+		public Void call() throws InterruptedException {
+			while (true) {
+				final int index = nextLineIndex.getAndIncrement();
+
+				if (index >= positionLines.size())
+					break;
+
+				final String line = positionLines.get(index);
+
+				try {
+					analyzePosition(index, EpdRecord.parse(line));
+				}
+				catch (IOException | RuntimeException ex) {
+					Logger.logMessage("Cannot analyze position " + index + " '" + line + "': " + ex.getMessage());
+				}
+			}
+
+			return null;
+		}
+
+		private void analyzePosition (final int index, final EpdRecord record) throws InterruptedException {
+			final long beginTime = System.currentTimeMillis();
+			final SearchResult result = search.search(record.getPosition());
+			final long elapsedTime = System.currentTimeMillis() - beginTime;
+			final MoveList principalVariation = result.getPrincipalVariation();
+
+			final String bestMoveString;
+			final String solvedString;
+
+			if (principalVariation.getSize() > 0) {
+				final Move bestMove = principalVariation.get(0);
+				final StringWriter stringWriter = new StringWriter();
+
+				try (PrintWriter printWriter = new PrintWriter(stringWriter)) {
+					new StandardAlgebraicNotationWriter().writeMove(printWriter, record.getPosition(), bestMove);
+				}
+
+				bestMoveString = stringWriter.toString();
+
+				if (record.hasExpectedMoves()) {
+					testedPositionCount.incrementAndGet();
+
+					if (record.isSolvedBy(bestMove)) {
+						solvedPositionCount.incrementAndGet();
+						solvedString = "1";
+					}
+					else
+						solvedString = "0";
+				}
+				else
+					solvedString = "";
+			}
+			else {
+				bestMoveString = "";
+				solvedString = "";
+			}
+
+			totalNodeCount.addAndGet(result.getNodeCount());
+
+			final String resultLine = index + ",\"" + record.getId() + "\"," +
+				(result.getHorizon() / SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION) + "," +
+				result.getNodeCount() + "," +
+				elapsedTime + "," +
+				result.getEvaluation() + "," +
+				bestMoveString + "," +
+				solvedString;
+
+			synchronized (output) {
+				output.println(resultLine);
+				output.flush();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,159 @@
+package bishop.batch;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import bishop.base.Fen;
+import bishop.base.Move;
+import bishop.base.Position;
+import bishop.base.StandardAlgebraicNotationReader;
+import utils.IoUtils;
+
+/**
+ * One line of EPD or FEN file.
+ * EPD line contains 4 fields of the FEN (without move clocks) followed by operations
+ * separated by semicolons, i.e. '... w - - bm Nf3; id "test 1";'. Operations 'bm' (best moves),
+ * 'am' (avoid moves) and 'id' are recognized, other operations are ignored.
+ * FEN line contains all 6 fields and no operations.
+ * @author Ing. Petr Ležák
+ */
+public final class EpdRecord {
+
+	private static final int EPD_FIELD_COUNT = 4;
+	private static final int FEN_FIELD_COUNT = 6;
+	private static final String DEFAULT_MOVE_CLOCKS = " 0 1";
+
+	private final Position position;
+	private final String id;
+	private final List<Move> bestMoves;
+	private final List<Move> avoidMoves;
+
+	private EpdRecord (final Position position, final String id, final List<Move> bestMoves, final List<Move> avoidMoves) {
+		this.position = position;
+		this.id = id;
+		this.bestMoves = Collections.unmodifiableList(bestMoves);
+		this.avoidMoves = Collections.unmodifiableList(avoidMoves);
+	}
+
+	public Position getPosition() {
+		return position;
+	}
+
+	/**
+	 * Returns ID of the position.
+	 * @return value of the 'id' operation or empty string if there is no such operation
+	 */
+	public String getId() {
+		return id;
+	}
+
+	public List<Move> getBestMoves() {
+		return bestMoves;
+	}
+
+	public List<Move> getAvoidMoves() {
+		return avoidMoves;
+	}
+
+	/**
+	 * Checks if given move solves the position.
+	 * @param move move to check
+	 * @return true if the move is one of the best moves and it is not one of the avoid moves
+	 */
+	public boolean isSolvedBy (final Move move) {
+		if (!bestMoves.isEmpty() && !bestMoves.contains(move))
+			return false;
+
+		return !avoidMoves.contains(move);
+	}
+
+	/**
+	 * Checks if the record contains some expected moves.
+	 * @return true if there are best or avoid moves
+	 */
+	public boolean hasExpectedMoves() {
+		return !bestMoves.isEmpty() || !avoidMoves.isEmpty();
+	}
+
+	/**
+	 * Parses EPD or FEN line.
+	 * @param line line to parse
+	 * @return parsed record
+	 * @throws IOException when the line has wrong format
+	 */
+	public static EpdRecord parse (final String line) throws IOException {
+		final List<String> tokens = Arrays.asList(line.trim().split("\\s+"));
+
+		if (tokens.size() < EPD_FIELD_COUNT)
+			throw new IOException("Too few fields in line: " + line);
+
+		// Move clocks are optional
+		final boolean hasMoveClocks = tokens.size() >= FEN_FIELD_COUNT && isNumber(tokens.get(4)) && isNumber(tokens.get(5));
+		final int fieldCount = (hasMoveClocks) ? FEN_FIELD_COUNT : EPD_FIELD_COUNT;
+
+		String fenString = String.join(" ", tokens.subList(0, fieldCount));
+
+		if (!hasMoveClocks)
+			fenString += DEFAULT_MOVE_CLOCKS;
+
+		final Position position = Fen.positionFromString(fenString);
+		final String operations = String.join(" ", tokens.subList(fieldCount, tokens.size()));
+
+		String id = "";
+		final List<Move> bestMoves = new ArrayList<>();
+		final List<Move> avoidMoves = new ArrayList<>();
+
+		for (String operation: operations.split(";")) {
+			final String trimmedOperation = operation.trim();
+
+			if (trimmedOperation.isEmpty())
+				continue;
+
+			final int spaceIndex = trimmedOperation.indexOf(' ');
+			final String opcode = (spaceIndex >= 0) ? trimmedOperation.substring(0, spaceIndex) : trimmedOperation;
+			final String operand = (spaceIndex >= 0) ? trimmedOperation.substring(spaceIndex + 1).trim() : "";
+
+			switch (opcode) {
+				case "id":
+					id = operand.replace("\"", "");
+					break;
+
+				case "bm":
+					readMoves(position, operand, bestMoves);
+					break;
+
+				case "am":
+					readMoves(position, operand, avoidMoves);
+					break;
+			}
+		}
+
+		return new EpdRecord(position, id, bestMoves, avoidMoves);
+	}
+
+	private static boolean isNumber (final String str) {
+		return str.matches("\\d+");
+	}
+
+	private static void readMoves (final Position position, final String operand, final List<Move> moveList) throws IOException {
+		final StandardAlgebraicNotationReader notationReader = new StandardAlgebraicNotationReader();
+		final PushbackReader reader = IoUtils.getPushbackReader(operand);
+
+		while (true) {
+			IoUtils.skipWhiteSpace(reader);
+
+			if (IoUtils.isEndOfStream(reader))
+				break;
+
+			final Move move = new Move();
+			notationReader.readMove(reader, position, move);
+
+			moveList.add(move);
+		}
+	}
+
+}
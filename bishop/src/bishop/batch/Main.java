@@ -0,0 +1,113 @@
+package bishop.batch;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import bishop.engine.HashTableType;
+import utils.Logger;
+
+
+/**
+ * Entry point of the batch analysis of EPD or FEN files.
+ * Usage: Main [options] input [output]
+ * Options:
+ *   -threads count   number of positions analyzed concurrently, default is number of processors
+ *   -hash size       size of hash table of one thread [MB]
+ *   -table type      type of hash tables, separate (default), bucketed or unified
+ *   -depth depth     maximal depth [plies]
+ *   -nodes count     maximal number of nodes per position
+ *   -time time       maximal time per position [ms]
+ *   -tablebase path  directory with tablebases
+ *   -debug           writes log (including rejected positions) to standard error output
+ * Results are written to the output file or to the standard output if the output file is not given.
+ * Resources (evaluation coefficients) are read from the current directory.
+ * @author Ing. Petr Ležák
+ */
+public class Main {
+
+	public static void main (final String[] args) {
+		try {
+			final URL rootUrl = new File(".").toURI().toURL();
+			final BatchAnalyzer analyzer = new BatchAnalyzer(rootUrl);
+
+			int index = 0;
+
+			while (index < args.length && args[index].startsWith("-")) {
+				final String option = args[index];
+
+				if (option.equals("-debug")) {
+					Logger.setStream(System.err);
+					index++;
+					continue;
+				}
+
+				final String value = args[index + 1];
+
+				switch (option) {
+					case "-threads":
+						analyzer.setThreadCount(Integer.parseInt(value));
+						break;
+
+					case "-hash":
+						analyzer.setHashTableSize(Integer.parseInt(value));
+						break;
+
+					case "-table":
+						analyzer.setHashTableType(HashTableType.forName(value));
+						break;
+
+					case "-depth":
+						analyzer.setMaxDepth(Integer.parseInt(value));
+						break;
+
+					case "-nodes":
+						analyzer.setMaxNodeCount(Long.parseLong(value));
+						break;
+
+					case "-time":
+						analyzer.setTimeForPosition(Long.parseLong(value));
+						break;
+
+					case "-tablebase":
+						analyzer.setTablebasePath(value);
+						break;
+
+					default:
+						throw new RuntimeException("Unknown option " + option);
+				}
+
+				index += 2;
+			}
+
+			if (index >= args.length)
+				throw new RuntimeException("Input file is not specified");
+
+			final List<String> lines = Files.readAllLines(Paths.get(args[index]), StandardCharsets.UTF_8);
+			final boolean hasOutputFile = index + 1 < args.length;
+			final long beginTime = System.currentTimeMillis();
+
+			try (PrintStream output = (hasOutputFile) ? new PrintStream(new FileOutputStream(args[index + 1])) : new PrintStream(System.out)) {
+				analyzer.analyze(lines, output);
+			}
+
+			final long elapsedTime = System.currentTimeMillis() - beginTime;
+
+			System.err.println("Positions: " + analyzer.getPositionCount());
+			System.err.println("Solved: " + analyzer.getSolvedPositionCount() + " / " + analyzer.getTestedPositionCount());
+			System.err.println("Nodes: " + analyzer.getTotalNodeCount());
+			System.err.println("Time: " + elapsedTime + "ms");
+			System.err.println("NPS: " + (1000 * analyzer.getTotalNodeCount() / Math.max(elapsedTime, 1)));
+		}
+		catch (Exception ex) {
+			ex.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+}
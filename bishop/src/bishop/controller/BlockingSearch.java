@@ -0,0 +1,95 @@
+package bishop.controller;
+
+import bishop.base.CombinedPositionEvaluationTable;
+import bishop.base.PieceTypeEvaluations;
+import bishop.base.Position;
+import bishop.engine.ISearchEngineFactory;
+import bishop.engine.ISearchManager;
+import bishop.engine.ISearchManagerHandler;
+import bishop.engine.SearchInfo;
+import bishop.engine.SearchResult;
+import bishop.engine.TablebasePositionEvaluator;
+
+/**
+ * Search manager without user interface that searches positions one by one.
+ * Method search starts the search and waits until it is complete, so tools like
+ * benchmark or batch analyzer can use the manager as a function of the position.
+ * Book and single move search are disabled so the engine always searches the position.
+ * @author Ing. Petr Ležák
+ */
+public final class BlockingSearch {
+
+	private final ISearchManager manager;
+	private boolean searchFinished;   // Guarded by this
+
+	private final ISearchManagerHandler handler = new ISearchManagerHandler() {
+		@Override
+		public void onSearchComplete(final ISearchManager manager) {
+			synchronized (BlockingSearch.this) {
+				searchFinished = true;
+				BlockingSearch.this.notifyAll();
+			}
+		}
+
+		@Override
+		public void onSearchInfoUpdate(final SearchInfo info) {
+		}
+	};
+
+	/**
+	 * Creates the search. Hash tables, thread count and limits of the search must be set
+	 * to the manager (see getManager) before the search is started.
+	 * @param engineFactory factory of search engines
+	 * @param pieceTypeEvaluations piece type evaluations
+	 * @param combinedEvaluationTable combined position evaluation table
+	 * @param tablebaseEvaluator tablebase evaluator
+	 */
+	public BlockingSearch (final ISearchEngineFactory engineFactory, final PieceTypeEvaluations pieceTypeEvaluations, final CombinedPositionEvaluationTable combinedEvaluationTable, final TablebasePositionEvaluator tablebaseEvaluator) {
+		manager = SearchResources.createSearchManager(engineFactory, pieceTypeEvaluations, combinedEvaluationTable, tablebaseEvaluator);
+		manager.setBookSearchEnabled(false);
+		manager.setSingleMoveSearchEnabled(false);
+		manager.getHandlerRegistrar().addHandler(handler);
+	}
+
+	public ISearchManager getManager() {
+		return manager;
+	}
+
+	/**
+	 * Starts the manager.
+	 */
+	public void start() {
+		manager.start();
+	}
+
+	/**
+	 * Stops the manager.
+	 */
+	public void stop() {
+		manager.stop();
+	}
+
+	/**
+	 * Searches given position and waits until the search is complete.
+	 * Manager must be started.
+	 * @param position position to search
+	 * @return result of the search
+	 */
+	public SearchResult search (final Position position) throws InterruptedException {
+		synchronized (this) {
+			searchFinished = false;
+		}
+
+		manager.startSearching(position);
+
+		synchronized (this) {
+			while (!searchFinished)
+				wait();
+		}
+
+		manager.stopSearching();
+
+		return manager.getResult();
+	}
+
+}
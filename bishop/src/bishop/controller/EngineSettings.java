@@ -3,23 +3,32 @@ package bishop.controller;
 import org.w3c.dom.Element;
 
 import bishop.base.Copyable;
-import bishop.engine.EvaluationHashTableImpl;
-import utils.IntUtils;
+import bishop.engine.UnifiedHashTableImpl;
 
 public class EngineSettings implements Copyable<EngineSettings> {
 
 	private int threadCount;
-	private int hashTableExponent;
+	private int hashTableSize;   // [MB]
 	private String tablebaseDirectory;
+	private boolean ponderingEnabled;
+	private int analysisLineCount;
 	
 	
 	private static final String ELEMENT_THREAD_COUNT = "thread_count";
+	private static final String ELEMENT_HASH_TABLE_SIZE = "hashTableSize";
 	private static final String ELEMENT_HASH_TABLE_EXPONENT = "hashTableExponent";
 	private static final String ELEMENT_TABLEBASE_DIRECTORY = "tablebaseDirectory";
+	private static final String ELEMENT_PONDERING_ENABLED = "ponderingEnabled";
+	private static final String ELEMENT_ANALYSIS_LINE_COUNT = "analysisLineCount";
 	
-	public static final int MIN_HASH_TABLE_EXPONENT = 17;
-	public static final int MAX_HASH_TABLE_EXPONENT = EvaluationHashTableImpl.MAX_EXPONENT;
-	public static final int HASH_TABLE_EXPONENT_OFFSET = IntUtils.ceilLog(EvaluationHashTableImpl.ITEM_SIZE);
+	public static final long MEGABYTE = 1L << 20;
+	public static final int MIN_HASH_TABLE_SIZE = 1;
+	public static final int MAX_HASH_TABLE_SIZE = (int) (UnifiedHashTableImpl.MAX_ITEM_COUNT * UnifiedHashTableImpl.ITEM_SIZE / MEGABYTE);
+	public static final int DEFAULT_HASH_TABLE_SIZE = 128;
+	public static final boolean DEFAULT_PONDERING_ENABLED = true;
+	public static final int MIN_ANALYSIS_LINE_COUNT = 1;
+	public static final int MAX_ANALYSIS_LINE_COUNT = 20;
+	public static final int DEFAULT_ANALYSIS_LINE_COUNT = 1;
 	
 	
 	public int getThreadCount() {
@@ -30,12 +39,24 @@ public class EngineSettings implements Copyable<EngineSettings> {
 		this.threadCount = threadCount;
 	}
 
-	public int getHashTableExponent() {
-		return hashTableExponent;
+	/**
+	 * Returns size of the hash table.
+	 * @return size of the hash table [MB]
+	 */
+	public int getHashTableSize() {
+		return hashTableSize;
 	}
 
-	public void setHashTableExponent(int hashTableExponent) {
-		this.hashTableExponent = hashTableExponent;
+	public void setHashTableSize(final int hashTableSize) {
+		this.hashTableSize = hashTableSize;
+	}
+
+	/**
+	 * Returns size of the hash table.
+	 * @return size of the hash table [B]
+	 */
+	public long getHashTableMemorySize() {
+		return hashTableSize * MEGABYTE;
 	}
 	
 	public String getTablebaseDirectory() {
@@ -46,40 +67,90 @@ public class EngineSettings implements Copyable<EngineSettings> {
 		this.tablebaseDirectory = tablebaseDirectory;
 	}
 
+	/**
+	 * Checks if engine searches in the time of the opponent.
+	 * @return true if pondering is enabled
+	 */
+	public boolean isPonderingEnabled() {
+		return ponderingEnabled;
+	}
+
+	public void setPonderingEnabled(final boolean enabled) {
+		this.ponderingEnabled = enabled;
+	}
+
+	/**
+	 * Returns number of best lines shown in the analysis.
+	 * @return number of lines
+	 */
+	public int getAnalysisLineCount() {
+		return analysisLineCount;
+	}
+
+	public void setAnalysisLineCount(final int analysisLineCount) {
+		this.analysisLineCount = analysisLineCount;
+	}
+
 	public void readFromXmlElement (final Element parentElement) {
 		final Element elementThreadCount = Utils.getElementByName(parentElement, ELEMENT_THREAD_COUNT);
 		threadCount = Integer.parseInt(elementThreadCount.getTextContent());
 		
-		final Element elementHashTableExponent = Utils.getElementByName(parentElement, ELEMENT_HASH_TABLE_EXPONENT);
-		hashTableExponent = Integer.parseInt(elementHashTableExponent.getTextContent());
+		final Element elementHashTableSize = Utils.findElementByName(parentElement, ELEMENT_HASH_TABLE_SIZE);
+
+		if (elementHashTableSize != null)
+			hashTableSize = Integer.parseInt(elementHashTableSize.getTextContent());
+		else {
+			// Settings of older versions contains binary logarithm of number of items of two tables with 8 byte items
+			final Element elementHashTableExponent = Utils.getElementByName(parentElement, ELEMENT_HASH_TABLE_EXPONENT);
+			final int hashTableExponent = Integer.parseInt(elementHashTableExponent.getTextContent());
+
+			final long oldSize = (2L * Long.BYTES << hashTableExponent) / MEGABYTE;
+			hashTableSize = (int) Math.min(Math.max(oldSize, MIN_HASH_TABLE_SIZE), MAX_HASH_TABLE_SIZE);
+		}
 		
 		final Element elementTablebaseDirectory = Utils.getElementByName(parentElement, ELEMENT_TABLEBASE_DIRECTORY);
 		tablebaseDirectory = elementTablebaseDirectory.getTextContent();
+		
+		final Element elementPonderingEnabled = Utils.findElementByName(parentElement, ELEMENT_PONDERING_ENABLED);
+		ponderingEnabled = (elementPonderingEnabled != null) ? Boolean.parseBoolean(elementPonderingEnabled.getTextContent()) : DEFAULT_PONDERING_ENABLED;
+		
+		final Element elementAnalysisLineCount = Utils.findElementByName(parentElement, ELEMENT_ANALYSIS_LINE_COUNT);
+		analysisLineCount = (elementAnalysisLineCount != null) ? Integer.parseInt(elementAnalysisLineCount.getTextContent()) : DEFAULT_ANALYSIS_LINE_COUNT;
 	}
 
 	public void writeToXmlElement (final Element parentElement) {
 		final Element elementThreadCount = Utils.addChildElement(parentElement, ELEMENT_THREAD_COUNT);
 		elementThreadCount.setTextContent(Integer.toString(threadCount));
 		
-		final Element elementHashTableExponent = Utils.addChildElement(parentElement, ELEMENT_HASH_TABLE_EXPONENT);
-		elementHashTableExponent.setTextContent(Integer.toString(hashTableExponent));
+		final Element elementHashTableSize = Utils.addChildElement(parentElement, ELEMENT_HASH_TABLE_SIZE);
+		elementHashTableSize.setTextContent(Integer.toString(hashTableSize));
 		
 		final Element elementTablebaseDirectory = Utils.addChildElement(parentElement, ELEMENT_TABLEBASE_DIRECTORY);
 		elementTablebaseDirectory.setTextContent(tablebaseDirectory);
+		
+		final Element elementPonderingEnabled = Utils.addChildElement(parentElement, ELEMENT_PONDERING_ENABLED);
+		elementPonderingEnabled.setTextContent(Boolean.toString(ponderingEnabled));
+		
+		final Element elementAnalysisLineCount = Utils.addChildElement(parentElement, ELEMENT_ANALYSIS_LINE_COUNT);
+		elementAnalysisLineCount.setTextContent(Integer.toString(analysisLineCount));
 	}
 
 	public void setDefaults() {
 		final Runtime runtime = Runtime.getRuntime();
 		
 		threadCount = runtime.availableProcessors();
-		hashTableExponent = 23;
+		hashTableSize = DEFAULT_HASH_TABLE_SIZE;
 		tablebaseDirectory = "";
+		ponderingEnabled = DEFAULT_PONDERING_ENABLED;
+		analysisLineCount = DEFAULT_ANALYSIS_LINE_COUNT;
 	}
 	
 	public void assign (final EngineSettings orig) {
 		this.threadCount = orig.threadCount;
-		this.hashTableExponent = orig.hashTableExponent;
+		this.hashTableSize = orig.hashTableSize;
 		this.tablebaseDirectory = orig.tablebaseDirectory;
+		this.ponderingEnabled = orig.ponderingEnabled;
+		this.analysisLineCount = orig.analysisLineCount;
 	}
 
 	public EngineSettings copy() {
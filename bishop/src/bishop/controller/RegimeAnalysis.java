@@ -27,6 +27,7 @@ public class RegimeAnalysis extends MoveRegime<IMoveRegimeListener> {
 		searchManager.setBookSearchEnabled(false);
 		searchManager.setSingleMoveSearchEnabled(false);
 		searchManager.setMaxTimeForMove(ISearchManager.TIME_FOR_MOVE_INFINITY);
+		searchManager.setMultiPvCount(application.getSettings().getEngineSettings().getAnalysisLineCount());
 		searchManager.start();
 		
 		positionChanged();
@@ -3,6 +3,7 @@ package bishop.controller;
 import javax.swing.SwingUtilities;
 
 import bishop.base.HandlerRegistrarImpl;
+import bishop.base.Move;
 import bishop.base.MoveList;
 import bishop.base.Position;
 import bishop.engine.ISearchManager;
@@ -13,8 +14,12 @@ import bishop.engine.SearchResult;
 
 
 public class RegimePlay extends MoveRegime<IRegimePlayListener> {
+
+	private static final int SOFT_LIMIT_DIVISOR = 2;   // Soft limit is time for move divided by this number
 	
 	private boolean searchingEnabled;
+	private Move expectedReply;   // Expected move of the opponent from the last search or null
+	private Position ponderPosition;   // Position after expected move of the opponent or null
 	
 	/**
 	 * Creates the regime.
@@ -29,6 +34,8 @@ public class RegimePlay extends MoveRegime<IRegimePlayListener> {
 	 */
 	public void activateRegime() {
 		searchingEnabled = false;
+		expectedReply = null;
+		ponderPosition = null;
 
 		super.activateRegime();
 				
@@ -69,6 +76,7 @@ public class RegimePlay extends MoveRegime<IRegimePlayListener> {
 		
 		searchManager.setBookSearchEnabled(true);
 		searchManager.setSingleMoveSearchEnabled(true);
+		searchManager.setMultiPvCount(1);
 		
 		resources.updateSettings();
 		resources.getSearchManager().start();
@@ -87,38 +95,88 @@ public class RegimePlay extends MoveRegime<IRegimePlayListener> {
 		final SearchResources searchResources = application.getSearchResources();
 		final ISearchManager searchManager = searchResources.getSearchManager();
 		
+		final GameEditor gameEditor = application.getActualGameEditor();
+		final Position actualPosition = gameEditor.getActualPositionSource().getPosition();
+		final GameSettings gameSettings = application.getSettings().getGameSettings();
+		final SideSettings sideSettings = getSideSettingsOnTurn();
+		
+		// Opponent played the expected move - pondering continues as normal search
+		final boolean isPonderHit = searchingEnabled && sideSettings.getSideType() == SideType.COMPUTER &&
+				ponderPosition != null && ponderPosition.equals(actualPosition) && searchManager.isPondering();
+		
+		ponderPosition = null;
+		
 		// Stop search
-		if (searchManager.getManagerState() == ManagerState.SEARCHING)
+		if (searchManager.getManagerState() == ManagerState.SEARCHING && !isPonderHit)
 			searchManager.stopSearching();
 		
 		// Deactivate user input
 		for (IRegimePlayListener listener: regimeListenerRegistrar.getHandlers())
 			listener.deactivateUserInput();
 
-		final GameEditor gameEditor = application.getActualGameEditor();
-		final Position actualPosition = gameEditor.getActualPositionSource().getPosition();
-		final GameSettings gameSettings = application.getSettings().getGameSettings();
-		final SideSettings sideSettings = getSideSettingsOnTurn();
-		
 		switch (sideSettings.getSideType()) {
 			case HUMAN:
 				for (IRegimePlayListener listener: regimeListenerRegistrar.getHandlers())
 					listener.activateUserInput();
 				
+				if (searchingEnabled)
+					startPondering(searchManager, actualPosition);
+				
 				break;
 			
 			case COMPUTER:
-				if (searchingEnabled) {
-					final int onTurn = actualPosition.getOnTurn();
-					
-					searchManager.setMaxTimeForMove(gameSettings.getSideSettings(onTurn).getTimeForMove());
-					searchManager.startSearching(actualPosition);
+				if (isPonderHit)
+					searchManager.ponderHit();
+				else {
+					if (searchingEnabled) {
+						final int onTurn = actualPosition.getOnTurn();
+						
+						setTimeLimits(searchManager, gameSettings.getSideSettings(onTurn).getTimeForMove());
+						searchManager.startSearching(actualPosition);
+					}
 				}
 				
 				break;
 		}
 	}
 	
+	/**
+	 * Starts pondering of the position after the expected move of the human opponent.
+	 * The expected move is the second move of principal variation of the last search.
+	 * @param searchManager search manager
+	 * @param actualPosition actual position with human on turn
+	 */
+	private void startPondering(final ISearchManager searchManager, final Position actualPosition) {
+		final EngineSettings engineSettings = application.getSettings().getEngineSettings();
+		
+		if (!engineSettings.isPonderingEnabled() || expectedReply == null)
+			return;
+		
+		final Position position = actualPosition.copy();
+		position.makeMove(expectedReply);
+		expectedReply = null;
+		
+		final GameSettings gameSettings = application.getSettings().getGameSettings();
+		final SideSettings sideSettings = gameSettings.getSideSettings(position.getOnTurn());
+		
+		if (sideSettings.getSideType() == SideType.COMPUTER) {
+			setTimeLimits(searchManager, sideSettings.getTimeForMove());
+			searchManager.startPondering(position);
+			
+			ponderPosition = position;
+		}
+	}
+	
+	/**
+	 * Sets time limits of the search for given time for move. The search is terminated
+	 * at the time for move, new iteration is not started after the soft limit.
+	 * @param searchManager search manager
+	 * @param timeForMove time for move [ms]
+	 */
+	private static void setTimeLimits(final ISearchManager searchManager, final long timeForMove) {
+		searchManager.setTimeLimits(timeForMove / SOFT_LIMIT_DIVISOR, timeForMove);
+	}
+
 	private ISearchManagerHandler searchManagerHandler = new ISearchManagerHandler() {
 		public void onSearchComplete(final ISearchManager manager) {
 			final Runnable runnable = new Runnable() {
@@ -128,6 +186,8 @@ public class RegimePlay extends MoveRegime<IRegimePlayListener> {
 					final SearchResult result = manager.getResult();
 					final MoveList principalVariation = result.getPrincipalVariation();
 					
+					expectedReply = (principalVariation.getSize() > 1) ? principalVariation.get(1) : null;
+					
 					if (principalVariation.getSize() > 0) {
 						final GameEditor gameEditor = application.getActualGameEditor();
 						gameEditor.getMoveListener().onMove(principalVariation.get(0));
@@ -146,6 +206,7 @@ public class RegimePlay extends MoveRegime<IRegimePlayListener> {
 	private IGameListener gameListener = new IGameListener() {
 		public void onActualPositionChanged() {
 			searchingEnabled = false;
+			expectedReply = null;
 			
 			updateSide();
 		}
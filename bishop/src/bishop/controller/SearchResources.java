@@ -12,15 +12,13 @@ import java.util.function.Supplier;
 public class SearchResources {
 	
 	private static final int MAX_TOTAL_DEPTH = 256;
-	private static final int DEFAULT_HASH_TABLE_EXPONENT = 9;
 	
 	private static final String BOOK_PATH = "book.dat";
 	private static final String EVALUATION_COEFFS_PATH = "coeffs.tbl";
 
 	private final IApplication application;
 	private final SerialSearchEngineFactory searchEngineFactory;
-	private final EvaluationHashTableImpl evaluationHashTable;
-	private final BestMoveHashTableImpl bestMoveHashTable;
+	private final HashTables hashTables;
 	private final ISearchManager searchManager;
 	private final TablebasePositionEvaluator tablebasePositionEvaluator;
 	
@@ -29,34 +27,23 @@ public class SearchResources {
 	public SearchResources(final IApplication application) {
 		this.application = application;
 		
-		searchEngineFactory = new SerialSearchEngineFactory();
-		
 		final int threadCount = application.getSettings().getEngineSettings().getThreadCount();
 
 		final PositionEvaluationCoeffs evaluationCoeffs = createEvaluationCoeffs(application.getRootUrl());
 		evaluationFactory = createEvaluationFactory(evaluationCoeffs);
 
 		final PieceTypeEvaluations pieceTypeEvaluations = evaluationCoeffs.getPieceTypeEvaluations();
-		final PositionEvaluatorSwitchFactory evaluatorFactory = new PositionEvaluatorSwitchFactory(getEvaluationFactory());
-
-		searchEngineFactory.setPositionEvaluatorFactory(evaluatorFactory);
-		searchEngineFactory.setMaximalDepth(MAX_TOTAL_DEPTH);
-		searchEngineFactory.setPieceTypeEvaluations(pieceTypeEvaluations);
+		searchEngineFactory = createSerialEngineFactory(evaluationFactory, pieceTypeEvaluations);
 		
-		evaluationHashTable = new EvaluationHashTableImpl(DEFAULT_HASH_TABLE_EXPONENT);
-		bestMoveHashTable = new BestMoveHashTableImpl(DEFAULT_HASH_TABLE_EXPONENT);
+		hashTables = HashTableType.DEFAULT.createHashTables();
 		
 		final EngineSettings engineSettings = application.getSettings().getEngineSettings();
 		final java.io.File tbbsDir = new java.io.File (engineSettings.getTablebaseDirectory());
 		tablebasePositionEvaluator = new TablebasePositionEvaluator(tbbsDir);
 		
-		searchManager = new SearchManagerImpl();
-		searchManager.setEngineFactory(searchEngineFactory);
-		searchManager.setHashTable(evaluationHashTable, bestMoveHashTable);
-		searchManager.setTablebaseEvaluator (tablebasePositionEvaluator);
+		searchManager = createSearchManager(searchEngineFactory, pieceTypeEvaluations, new CombinedPositionEvaluationTable(evaluationCoeffs), tablebasePositionEvaluator);
+		hashTables.setToManager(searchManager);
 		searchManager.setThreadCount(threadCount);
-		searchManager.setPieceTypeEvaluations (pieceTypeEvaluations);
-		searchManager.setCombinedPositionEvaluationTable(new CombinedPositionEvaluationTable(evaluationCoeffs));
 		
 		setBookToManager();
 		updateSettings();
@@ -65,6 +52,40 @@ public class SearchResources {
 	public static Supplier<IPositionEvaluation> createEvaluationFactory(PositionEvaluationCoeffs evaluationCoeffs) {
 		return () -> new AlgebraicPositionEvaluation(evaluationCoeffs);
 	}
+
+	/**
+	 * Creates factory of serial search engines with the standard position evaluator.
+	 * @param evaluationFactory factory of position evaluations
+	 * @param pieceTypeEvaluations piece type evaluations
+	 * @return engine factory
+	 */
+	public static SerialSearchEngineFactory createSerialEngineFactory(final Supplier<IPositionEvaluation> evaluationFactory, final PieceTypeEvaluations pieceTypeEvaluations) {
+		final SerialSearchEngineFactory engineFactory = new SerialSearchEngineFactory();
+		engineFactory.setPositionEvaluatorFactory(new PositionEvaluatorSwitchFactory(evaluationFactory));
+		engineFactory.setMaximalDepth(MAX_TOTAL_DEPTH);
+		engineFactory.setPieceTypeEvaluations(pieceTypeEvaluations);
+
+		return engineFactory;
+	}
+
+	/**
+	 * Creates search manager with given engines and evaluation tables.
+	 * Hash tables, thread count and handlers must be set by the caller before the manager is started.
+	 * @param engineFactory factory of search engines
+	 * @param pieceTypeEvaluations piece type evaluations
+	 * @param combinedEvaluationTable combined position evaluation table
+	 * @param tablebaseEvaluator tablebase evaluator
+	 * @return search manager in STOPPED state
+	 */
+	public static ISearchManager createSearchManager(final ISearchEngineFactory engineFactory, final PieceTypeEvaluations pieceTypeEvaluations, final CombinedPositionEvaluationTable combinedEvaluationTable, final TablebasePositionEvaluator tablebaseEvaluator) {
+		final ISearchManager manager = new SearchManagerImpl();
+		manager.setEngineFactory(engineFactory);
+		manager.setTablebaseEvaluator(tablebaseEvaluator);
+		manager.setPieceTypeEvaluations(pieceTypeEvaluations);
+		manager.setCombinedPositionEvaluationTable(combinedEvaluationTable);
+
+		return manager;
+	}
 	
 	private void setBookToManager() {
 		try {
@@ -110,8 +131,7 @@ public class SearchResources {
 		final ApplicationSettings applicationSettings = application.getSettings();
 		final EngineSettings engineSettings = applicationSettings.getEngineSettings();
 		
-		evaluationHashTable.resize (engineSettings.getHashTableExponent());
-		bestMoveHashTable.resize (engineSettings.getHashTableExponent());
+		hashTables.resizeToMemory (engineSettings.getHashTableMemorySize());
 		searchManager.setThreadCount(engineSettings.getThreadCount());
 	}
 	
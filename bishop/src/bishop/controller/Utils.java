@@ -56,13 +56,22 @@ public final class Utils {
 		return filter;
 	}
 
-	public static Element getElementByName (final Element element, final String name) {
+	public static Element findElementByName (final Element element, final String name) {
 		for (Node childNode = element.getFirstChild(); childNode != null; childNode = childNode.getNextSibling()) {
 			if (childNode.getNodeType() == Node.ELEMENT_NODE && childNode.getNodeName().equals(name))
 				return (Element) childNode;
 		}
 		
-		throw new RuntimeException ("Element " + name + " not found");
+		return null;
+	}
+	
+	public static Element getElementByName (final Element element, final String name) {
+		final Element childElement = findElementByName(element, name);
+		
+		if (childElement == null)
+			throw new RuntimeException ("Element " + name + " not found");
+		
+		return childElement;
 	}
 	
 	public static Element addChildElement (final Element parent, final String name) {
@@ -6,41 +6,71 @@ import bishop.base.Position;
 import java.util.concurrent.atomic.AtomicLongArray;
 
 public class BestMoveHashTableImpl implements IBestMoveHashTable {
-	private int exponent;
 	private AtomicLongArray table;
-	private long indexMask;
+	private int itemCount;
+	private final HashTableGeneration generation = new HashTableGeneration(GENERATION_BITS, MAX_GENERATION_AGE);
 
 	private static final int HORIZON_DIFF = 0;
 
 	private static final int HORIZON_SHIFT              = 0;
 	private static final int COMPRESSED_BEST_MOVE_SHIFT = 8;
+	private static final int GENERATION_SHIFT           = 23;
 
 	private static final long HORIZON_MASK              = 0x00000000000000FFL;
 	private static final long COMPRESSED_BEST_MOVE_MASK = 0x00000000007FFF00L;
-	private static final long HASH_MASK                 = 0xFFFFFFFFFF800000L;
+	private static final long GENERATION_MASK           = 0x000000007F800000L;
+	private static final long HASH_MASK                 = 0xFFFFFFFF80000000L;
+
+	// Bits 23-31 of the hash are always part of the index, so the generation doesn't decrease the verification
+	private static final int GENERATION_BITS = 8;
+	private static final int MAX_GENERATION_AGE = 32;
+
+	// Horizon that is subtracted from the record for each generation of its age
+	private static final int GENERATION_AGE_HORIZON = 4 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
 
 	public static final int MIN_EXPONENT = 0;
-	public static final int MAX_EXPONENT = 31;
+	public static final int MAX_EXPONENT = 30;
+	public static final int MIN_ITEM_COUNT = 1 << MIN_EXPONENT;
+	public static final int MAX_ITEM_COUNT = 1 << MAX_EXPONENT;
 	public static final int ITEM_SIZE =  Long.BYTES;   // Size of hash item [B]
 
 	public BestMoveHashTableImpl(final int exponent) {
 		resize(exponent);
 	}
 
+	/**
+	 * Changes size of the table.
+	 * @param exponent binary logarithm of number of items
+	 */
 	public void resize (final int exponent) {
 		if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT)
 			throw new RuntimeException("Exponent out of range: " + exponent);
 
-		if (this.exponent != exponent) {
-			this.exponent = exponent;
+		resizeToItemCount(1 << exponent);
+	}
+
+	/**
+	 * Changes size of the table so it fits into given memory.
+	 * @param memorySize size of the memory [B]
+	 */
+	public void resizeToMemory (final long memorySize) {
+		final long count = Math.min(Math.max(memorySize / ITEM_SIZE, MIN_ITEM_COUNT), MAX_ITEM_COUNT);
 
-			final int recordCount = 1 << exponent;
+		resizeToItemCount((int) count);
+	}
 
-			table = new AtomicLongArray(recordCount);
-			indexMask = recordCount - 1;
+	private void resizeToItemCount (final int count) {
+		if (table == null || itemCount != count) {
+			table = null;   // Release the old table before allocating the new one
+			table = new AtomicLongArray(count);
+			itemCount = count;
 		}
 	}
 
+	public int getItemCount() {
+		return itemCount;
+	}
+
 	/**
 	 * Returns hash record for given position.
 	 * @param position position
@@ -56,7 +86,7 @@ public class BestMoveHashTableImpl implements IBestMoveHashTable {
 	 * @return true if record is found, false if not
 	 */
 	public int getRecord (final long hash) {
-		final int index = (int) (hash & indexMask);
+		final int index = (int) EvaluationHashTableImpl.getItemIndex(hash, itemCount);
 		final long tableItem = table.get(index);
 
 		if (((tableItem ^ hash) & HASH_MASK) == 0)
@@ -82,18 +112,21 @@ public class BestMoveHashTableImpl implements IBestMoveHashTable {
 	 * @param compressedBestMove compressed best move
 	 */
 	public void updateRecord (final long hash, final int horizon, final int compressedBestMove) {
-		final int index = (int) (hash & indexMask);
+		final int index = (int) EvaluationHashTableImpl.getItemIndex(hash, itemCount);
 
 		long data = 0;
 		data |= ((long) horizon << HORIZON_SHIFT) & HORIZON_MASK;
 		data |= ((long) compressedBestMove << COMPRESSED_BEST_MOVE_SHIFT) & COMPRESSED_BEST_MOVE_MASK;
+		data |= ((long) generation.getGeneration() << GENERATION_SHIFT) & GENERATION_MASK;
 		data |= hash & HASH_MASK;
 
 		while (true) {
 			final long oldTableItem = table.get(index);
 			final int oldHorizon = (int) ((oldTableItem & HORIZON_MASK) >> HORIZON_SHIFT);
+			final int oldGeneration = (int) ((oldTableItem & GENERATION_MASK) >>> GENERATION_SHIFT);
+			final int oldAge = generation.getAge(oldGeneration);
 
-			if (horizon + HORIZON_DIFF < oldHorizon)
+			if (horizon + HORIZON_DIFF < oldHorizon - oldAge * GENERATION_AGE_HORIZON)
 				break;
 
 			if (table.compareAndSet(index, oldTableItem, data))
@@ -101,6 +134,31 @@ public class BestMoveHashTableImpl implements IBestMoveHashTable {
 		}
 	}
 
+	/**
+	 * Starts new generation of records.
+	 * Records from previous generations are kept, but they are preferred in the replacement.
+	 */
+	public void nextGeneration() {
+		if (generation.next())
+			sweepGenerations();
+	}
+
+	/**
+	 * Saturates the age of the items. Each item is rewritten just once when it reaches the maximal age.
+	 */
+	private void sweepGenerations() {
+		for (int i = 0; i < table.length(); i++) {
+			final long tableItem = table.get(i);
+			final int itemGeneration = (int) ((tableItem & GENERATION_MASK) >>> GENERATION_SHIFT);
+			final int sweptGeneration = generation.getSweptGeneration(itemGeneration);
+
+			if (tableItem != 0 && sweptGeneration != itemGeneration) {
+				final long sweptItem = (tableItem & ~GENERATION_MASK) | (((long) sweptGeneration << GENERATION_SHIFT) & GENERATION_MASK);
+				table.compareAndSet(i, tableItem, sweptItem);
+			}
+		}
+	}
+
 	/**
 	 * Clears the table.
 	 */
@@ -0,0 +1,207 @@
+package bishop.engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import bishop.base.Position;
+
+/**
+ * Implementation of the hash table with buckets.
+ * The table is divided into buckets of BUCKET_SIZE items, one bucket has 64 bytes. AtomicLongArray
+ * doesn't guarantee alignment of its elements so the bucket can span two adjacent cache lines.
+ * Index of the bucket is given by the hash (see EvaluationHashTableImpl.getItemIndex), the record
+ * can be stored into any item of the bucket.
+ * Records of the same position with different horizons are stored in the same bucket. When new record is written it replaces
+ * the record with the same horizon or the cheapest record in the bucket.
+ * The items has the same format as in EvaluationHashTableImpl.
+ * @author Ing. Petr Ležák
+ */
+public final class BucketedEvaluationHashTableImpl implements IEvaluationHashTable {
+
+	public static final int BUCKET_EXPONENT = 3;
+	public static final int BUCKET_SIZE = 1 << BUCKET_EXPONENT;   // Number of items in one bucket
+
+	public static final int MIN_EXPONENT = BUCKET_EXPONENT;
+	public static final int MAX_EXPONENT = 30;
+	public static final int MIN_ITEM_COUNT = 1 << MIN_EXPONENT;
+	public static final int MAX_ITEM_COUNT = 1 << MAX_EXPONENT;
+	public static final int ITEM_SIZE = Long.BYTES;   // Size of hash item [B]
+
+	private AtomicLongArray table;
+	private int bucketCount;
+	private final HashTableGeneration generation = new HashTableGeneration(EvaluationHashTableImpl.GENERATION_BITS, EvaluationHashTableImpl.MAX_GENERATION_AGE);
+
+	public BucketedEvaluationHashTableImpl(final int exponent) {
+		resize(exponent);
+	}
+
+	/**
+	 * Changes size of the table.
+	 * @param exponent binary logarithm of number of items
+	 */
+	public void resize (final int exponent) {
+		if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT)
+			throw new RuntimeException("Exponent out of range: " + exponent);
+
+		resizeToBucketCount(1 << (exponent - BUCKET_EXPONENT));
+	}
+
+	/**
+	 * Changes size of the table so it fits into given memory.
+	 * @param memorySize size of the memory [B]
+	 */
+	public void resizeToMemory (final long memorySize) {
+		final long itemCount = Math.min(Math.max(memorySize / ITEM_SIZE, MIN_ITEM_COUNT), MAX_ITEM_COUNT);
+
+		resizeToBucketCount((int) (itemCount >>> BUCKET_EXPONENT));
+	}
+
+	private void resizeToBucketCount (final int count) {
+		if (table == null || bucketCount != count) {
+			table = null;   // Release the old table before allocating the new one
+			table = new AtomicLongArray(count << BUCKET_EXPONENT);
+			bucketCount = count;
+		}
+	}
+
+	public int getItemCount() {
+		return bucketCount << BUCKET_EXPONENT;
+	}
+
+	private int getBucketBegin (final long hash) {
+		return (int) EvaluationHashTableImpl.getItemIndex(hash, bucketCount) << BUCKET_EXPONENT;
+	}
+
+	@Override
+	public boolean getRecord (final Position position, final int expectedHorizon, final HashRecord record) {
+		return getRecord(position.getHash(), expectedHorizon, record);
+	}
+
+	public boolean getRecord (final long hash, final int expectedHorizon, final HashRecord record) {
+		final int bucketBegin = getBucketBegin(hash);
+
+		for (int i = 0; i < BUCKET_SIZE; i++) {
+			final long tableItem = table.get(bucketBegin + i);
+
+			if (EvaluationHashTableImpl.isItemOfRecord(tableItem, hash, expectedHorizon)) {
+				EvaluationHashTableImpl.readItem(tableItem, record);
+
+				return true;
+			}
+		}
+
+		record.setType(HashRecordType.INVALID);
+
+		return false;
+	}
+
+	/**
+	 * Returns hash record with the highest horizon for given position.
+	 * All records of the position are in the same bucket so this is one probe.
+	 * @param position position
+	 * @param record storage for the record
+	 * @return true if record is found, false if not
+	 */
+	@Override
+	public boolean getDeepestRecord (final Position position, final HashRecord record) {
+		return getDeepestRecord(position.getHash(), record);
+	}
+
+	public boolean getDeepestRecord (final long hash, final HashRecord record) {
+		final int bucketBegin = getBucketBegin(hash);
+		long bestItem = 0;
+		int bestHorizon = -1;
+
+		for (int i = 0; i < BUCKET_SIZE; i++) {
+			final long tableItem = table.get(bucketBegin + i);
+
+			if (EvaluationHashTableImpl.isItemOfPosition(tableItem, hash)) {
+				final int horizon = EvaluationHashTableImpl.getItemHorizon(tableItem);
+
+				if (horizon > bestHorizon) {
+					bestItem = tableItem;
+					bestHorizon = horizon;
+				}
+			}
+		}
+
+		if (bestHorizon >= 0) {
+			EvaluationHashTableImpl.readItem(bestItem, record);
+
+			return true;
+		}
+
+		record.setType(HashRecordType.INVALID);
+
+		return false;
+	}
+
+	@Override
+	public void updateRecord (final Position position, final HashRecord record) {
+		updateRecord(position.getHash(), record);
+	}
+
+	public void updateRecord (final long hash, final HashRecord record) {
+		final int horizon = record.getHorizon();
+		final int bucketBegin = getBucketBegin(hash);
+
+		final long data = EvaluationHashTableImpl.createItem(hash, record, generation.getGeneration());
+		final int newCost = EvaluationHashTableImpl.getCost(horizon, record.getType());
+
+		while (true) {
+			// Find the item with the same record or the cheapest one
+			int replacedIndex = -1;
+			long replacedItem = 0;
+			int replacedCost = Integer.MAX_VALUE;
+
+			for (int i = 0; i < BUCKET_SIZE; i++) {
+				final int index = bucketBegin + i;
+				final long tableItem = table.get(index);
+
+				if (EvaluationHashTableImpl.isItemOfRecord(tableItem, hash, horizon)) {
+					replacedIndex = index;
+					replacedItem = tableItem;
+					replacedCost = EvaluationHashTableImpl.getItemCost(tableItem, generation);
+					break;
+				}
+
+				final int cost = EvaluationHashTableImpl.getItemCost(tableItem, generation);
+
+				if (cost < replacedCost) {
+					replacedIndex = index;
+					replacedItem = tableItem;
+					replacedCost = cost;
+				}
+			}
+
+			if (newCost < replacedCost)
+				break;
+
+			if (table.compareAndSet(replacedIndex, replacedItem, data))
+				break;
+		}
+	}
+
+	/**
+	 * Starts new generation of records.
+	 * Records from previous generations are kept, but they are preferred in the replacement.
+	 */
+	@Override
+	public void nextGeneration() {
+		if (generation.next())
+			EvaluationHashTableImpl.sweepGenerations(table, generation);
+	}
+
+	/**
+	 * Clears the table.
+	 */
+	@Override
+	public void clear() {
+		// Non-volatile writes
+		for (int i = table.length() - 1; i > 0; i--)
+			table.lazySet(i, 0);
+
+		// Volatile write to flush cache
+		table.set(0, 0);
+	}
+
+}
@@ -0,0 +1,96 @@
+package bishop.engine;
+
+import bishop.base.Position;
+
+/**
+ * Hash table that delegates all calls to another table and counts probes
+ * of the evaluation and how many of them were successful.
+ * Counters are not synchronized so the table should be used by one engine.
+ * @author Ing. Petr Ležák
+ */
+public final class CountingHashTable implements IEvaluationHashTable, IBestMoveHashTable {
+
+	private final IEvaluationHashTable evaluationHashTable;
+	private final IBestMoveHashTable bestMoveHashTable;
+
+	private long probeCount;
+	private long hitCount;
+
+	public CountingHashTable (final IEvaluationHashTable evaluationHashTable, final IBestMoveHashTable bestMoveHashTable) {
+		this.evaluationHashTable = evaluationHashTable;
+		this.bestMoveHashTable = bestMoveHashTable;
+	}
+
+	@Override
+	public boolean getRecord (final Position position, final int expectedHorizon, final HashRecord record) {
+		final boolean success = evaluationHashTable.getRecord(position, expectedHorizon, record);
+
+		probeCount++;
+
+		if (success)
+			hitCount++;
+
+		return success;
+	}
+
+	@Override
+	public boolean getDeepestRecord (final Position position, final HashRecord record) {
+		return evaluationHashTable.getDeepestRecord(position, record);
+	}
+
+	@Override
+	public void updateRecord (final Position position, final HashRecord record) {
+		evaluationHashTable.updateRecord(position, record);
+	}
+
+	@Override
+	public int getRecord (final Position position) {
+		return bestMoveHashTable.getRecord(position);
+	}
+
+	@Override
+	public void updateRecord (final Position position, final int horizon, final int compressedBestMove) {
+		bestMoveHashTable.updateRecord(position, horizon, compressedBestMove);
+	}
+
+	@Override
+	public void nextGeneration() {
+		evaluationHashTable.nextGeneration();
+
+		if (bestMoveHashTable != evaluationHashTable)
+			bestMoveHashTable.nextGeneration();
+	}
+
+	@Override
+	public void clear() {
+		evaluationHashTable.clear();
+
+		if (bestMoveHashTable != evaluationHashTable)
+			bestMoveHashTable.clear();
+	}
+
+	public long getProbeCount() {
+		return probeCount;
+	}
+
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns ratio of successful probes.
+	 * @return hit rate or 0 if there was no probe
+	 */
+	public double getHitRate() {
+		return (probeCount > 0) ? (double) hitCount / (double) probeCount : 0.0;
+	}
+
+	/**
+	 * Clears the counters.
+	 */
+	public void resetStatistics() {
+		probeCount = 0;
+		hitCount = 0;
+	}
+
+}
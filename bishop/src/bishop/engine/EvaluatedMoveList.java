@@ -29,6 +29,26 @@ public class EvaluatedMoveList extends MoveStack {
 	public void clear() {
 		size = 0;
 	}
+
+	/**
+	 * Exchanges moves on given indices but keeps evaluations on their places.
+	 * This changes the order of moves in sorted list.
+	 * @param index1 index of first move
+	 * @param index2 index of second move
+	 */
+	public void exchangeMoves (final int index1, final int index2) {
+		final Move move1 = new Move();
+		getMove(index1, move1);
+
+		final Move move2 = new Move();
+		getMove(index2, move2);
+
+		final int evaluation1 = getEvaluation(index1);
+		final int evaluation2 = getEvaluation(index2);
+
+		setRecord(index1, move2, evaluation1);
+		setRecord(index2, move1, evaluation2);
+	}
 	
 	@Override
 	public String toString() {
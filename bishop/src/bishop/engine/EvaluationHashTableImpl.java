@@ -5,48 +5,61 @@ import java.util.concurrent.atomic.AtomicLongArray;
 import bishop.base.Move;
 import bishop.base.Position;
 import utils.IntArrayBuilder;
+import utils.IntUtils;
 import utils.Mixer;
 
 /**
  * Implementation of the hash table.
- * The hash table stores records in AtomicLongArray. The "serialized" record is xored with the
- * difused hash. The index of the item in array is also calculated from the hash by masking the lower
- * bits of the hash by indexMask. This is why we need to diffuse the hash before xoring to spread
- * non-masked bits to whole item except bits where the horizon is stored.
+ * The hash table stores records in AtomicLongArray. Each item contains the upper 32 bits
+ * of the hash (HASH_MASK) together with the "serialized" record. The index of the item in array
+ * is calculated from the lower 32 bits of the hash by multiplication with number of items
+ * (see getItemIndex) so the table can have any size, not just the power of two. Records with
+ * different horizons of the same position are stored in consecutive items.
  * If more records belongs to the same item in array the item with
  * greater horizon wins because it is more important.
+ * Each item also contains generation of the search that has written it. Items from older generations
+ * are cheaper in the replacement so they are aged out instead of clearing the table between searches.
+ * The item has just 2 bits for the generation so the table is swept in every generation to saturate
+ * the age of the old items (see HashTableGeneration). The sweep reads whole table, but it writes just
+ * the items that have become old.
  * When the record is read we verify that it contains searched position by:
- * - verifying hash stored in HASH_MASK - it contains 19 bits just with the diffused hash, without data
- * - verifying evaluation - we allow 105542 / 1048576 combination = 3.31 bits
- * - verifying type - we allow 3 / 4 combination = 0.42 bits
- * In total we verifies 22.73 bits which is not enough. The caller should try to uncompress the best move.
- * This would verify if the move is pseudolegal in the position so it will also indirectly verify the
- * hash. If we count up to 40 moves in the position this is additional 9.68 bits of verification.
- * So in total we would have 32.41 bits which is enough, the probability of obtaining an undetected
- * collision is one in 5.7 billion for one read. This means that if we are running a search for 3 minutes
- * with speed 10 million of nodes per second we can expect 0.31 undetected collisions at most
- * (it is actually less because the search engine is not querying the hash table for every node).
+ * - verifying hash stored in HASH_MASK - it contains 32 bits of the hash that are not used
+ *   by the index in tables up to 2^32 items, so all of them are independent on the index
+ * - verifying horizon - it only rejects records of positions with different index, so it is not
+ *   counted as verification
+ * Evaluation and type are not xored with the hash so they do not verify anything.
+ * In total we verify 32 bits, the probability of obtaining an undetected collision is one
+ * in 4.3 billion for one read. This means that if we are running a search for 3 minutes with speed
+ * 10 million of nodes per second we can expect 0.42 undetected collisions at most (it is actually
+ * less because the search engine is not querying the hash table for every node).
  * @author Ing. Petr Ležák
  */
 public final class EvaluationHashTableImpl implements IEvaluationHashTable {
 	
-	private int exponent;
 	private AtomicLongArray table;
-	private long indexMask;
+	private int itemCount;
+	private final HashTableGeneration generation = new HashTableGeneration(GENERATION_BITS, MAX_GENERATION_AGE);
 	
 	private static final int HORIZON_SHIFT              = 0;
 	private static final int EVALUATION_SHIFT           = 8;
 	private static final int TYPE_SHIFT                 = 28;
+	private static final int GENERATION_SHIFT           = 30;
 
 	private static final long HORIZON_MASK              = 0x00000000000000FFL;
 	private static final long EVALUATION_MASK           = 0x000000000FFFFF00L;
 	private static final long TYPE_MASK                 = 0x0000000030000000L;
-	private static final long HASH_MASK                 = 0xFFFFFFFFC0000000L;
+	private static final long GENERATION_MASK           = 0x00000000C0000000L;
+	private static final long HASH_MASK                 = 0xFFFFFFFF00000000L;
+
+	static final int GENERATION_BITS = 2;
+	static final int MAX_GENERATION_AGE = 2;
 
 	private static final int EVALUATION_OFFSET = Evaluation.MIN;
 	
 	public static final int MIN_EXPONENT = 0;
-	public static final int MAX_EXPONENT = 31;
+	public static final int MAX_EXPONENT = 30;
+	public static final int MIN_ITEM_COUNT = 1 << MIN_EXPONENT;
+	public static final int MAX_ITEM_COUNT = 1 << MAX_EXPONENT;
 	public static final int ITEM_SIZE = Long.BYTES;   // Size of hash item [B]
 
 	private static final int[] RECORD_TYPE_COSTS = new IntArrayBuilder(HashRecordType.LAST)
@@ -57,53 +70,104 @@ public final class EvaluationHashTableImpl implements IEvaluationHashTable {
 			.build();
 
 	private static final int HORIZON_COST_SHIFT = 2;
+
+	// Cost of one generation of record age - it is equivalent to 4 moves of horizon
+	private static final int GENERATION_AGE_COST = (4 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION) << HORIZON_COST_SHIFT;
 		
-	// Probability that the collision will be detected by the hash table itself (without uncompressing move)
-	public static final double PRIMARY_COLLISION_RATE = Math.pow(2, -(19 + 3.31 + 0.42));
+	// Probability that the collision will not be detected by the hash table itself (without uncompressing move)
+	public static final double PRIMARY_COLLISION_RATE = Math.pow(2, -Long.bitCount(HASH_MASK));
 
 	public static int getCost (final int horizon, final int type) {
 		return (horizon << HORIZON_COST_SHIFT) + RECORD_TYPE_COSTS[type];
 	}
+
+	/**
+	 * Returns cost of the record with given age.
+	 * @param horizon horizon of the record
+	 * @param type type of the record
+	 * @param age number of generations since the record was written
+	 * @return cost
+	 */
+	public static int getCost (final int horizon, final int type, final int age) {
+		return getCost(horizon, type) - age * GENERATION_AGE_COST;
+	}
 	
 	public EvaluationHashTableImpl(final int exponent) {
 		resize(exponent);
 	}
 	
+	/**
+	 * Changes size of the table.
+	 * @param exponent binary logarithm of number of items
+	 */
 	public void resize (final int exponent) {
 		if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT)
 			throw new RuntimeException("Exponent out of range: " + exponent);
 		
-		if (this.exponent != exponent) {
-			this.exponent = exponent;
-			
-			final int recordCount = 1 << exponent;
-			
-			table = new AtomicLongArray(recordCount);
-			indexMask = recordCount - 1;
+		resizeToItemCount(1 << exponent);
+	}
+
+	/**
+	 * Changes size of the table so it fits into given memory.
+	 * @param memorySize size of the memory [B]
+	 */
+	public void resizeToMemory (final long memorySize) {
+		final long count = Math.min(Math.max(memorySize / ITEM_SIZE, MIN_ITEM_COUNT), MAX_ITEM_COUNT);
+
+		resizeToItemCount((int) count);
+	}
+
+	private void resizeToItemCount (final int count) {
+		if (table == null || itemCount != count) {
+			table = null;   // Release the old table before allocating the new one
+			table = new AtomicLongArray(count);
+			itemCount = count;
 		}
 	}
+
+	public int getItemCount() {
+		return itemCount;
+	}
+
+	/**
+	 * Returns index of the item for given hash.
+	 * The lower 32 bits of the hash are mapped into range <0; itemCount) by the multiplication
+	 * instead of masking so the number of items doesn't need to be power of two.
+	 * The upper bits of the hash are used as less significant bits of the fixed point number
+	 * so they affect the index only in tables with more than 2^32 items.
+	 * @param hash hash
+	 * @param itemCount number of items in the table
+	 * @return index of the item
+	 */
+	public static long getItemIndex (final long hash, final long itemCount) {
+		return IntUtils.unsignedMultiplyHigh(Long.rotateLeft(hash, Integer.SIZE), itemCount);
+	}
+
+	/**
+	 * Returns index of the item with record with given hash and horizon.
+	 * Records with different horizons are stored in the consecutive items.
+	 * @param hash hash
+	 * @param horizon horizon
+	 * @return index of the item
+	 */
+	private int getIndex (final long hash, final int horizon) {
+		final long index = getItemIndex(hash, itemCount) + horizon;
+
+		return (int) ((index < itemCount) ? index : index % itemCount);
+	}
 	
 	public boolean getRecord (final Position position, final int expectedHorizon, final HashRecord record) {
 		return getRecord(position.getHash(), expectedHorizon, record);
 	}
 
 	public boolean getRecord (final long hash, final int expectedHorizon, final HashRecord record) {
-		final int index = (int) ((hash + expectedHorizon) & indexMask);
+		final int index = getIndex(hash, expectedHorizon);
 		final long tableItem = table.get(index);
 
-		if (((tableItem ^ hash) & HASH_MASK) == 0) {
-			final int horizon = (int) ((tableItem & HORIZON_MASK) >>> HORIZON_SHIFT);
-
-			if (horizon == expectedHorizon) {
-				final int evaluation = (int) ((tableItem & EVALUATION_MASK) >>> EVALUATION_SHIFT) + EVALUATION_OFFSET;
-				final int type = (int) ((tableItem & TYPE_MASK) >>> TYPE_SHIFT);
-
-				record.setEvaluation(evaluation);
-				record.setHorizon(horizon);
-				record.setType(type);
+		if (isItemOfRecord(tableItem, hash, expectedHorizon)) {
+			readItem(tableItem, record);
 
-				return true;
-			}
+			return true;
 		}
 
 		record.setType(HashRecordType.INVALID);
@@ -117,23 +181,14 @@ public final class EvaluationHashTableImpl implements IEvaluationHashTable {
 	
 	public void updateRecord (final long hash, final HashRecord record) {
 		final int horizon = record.getHorizon();
-		final int index = (int) ((hash + horizon) & indexMask);
-
-		final long biasedEvaluation = record.getEvaluation() - EVALUATION_OFFSET;
-		
-		long data = 0;
-		data |= ((long) biasedEvaluation << EVALUATION_SHIFT) & EVALUATION_MASK;
-		data |= ((long) horizon << HORIZON_SHIFT) & HORIZON_MASK;
-		data |= ((long) record.getType() << TYPE_SHIFT) & TYPE_MASK;
-		data |= hash & HASH_MASK;
+		final int index = getIndex(hash, horizon);
 
+		final long data = createItem(hash, record, generation.getGeneration());
 		final int newCost = getCost(horizon, record.getType());
 
 		while (true) {
 			final long oldTableItem = table.get(index);
-			final int oldHorizon = (int) ((oldTableItem & HORIZON_MASK) >> HORIZON_SHIFT);
-			final int oldType = (int) ((oldTableItem & TYPE_MASK) >>> TYPE_SHIFT);
-			final int oldCost = getCost(oldHorizon, oldType);
+			final int oldCost = getItemCost(oldTableItem, generation);
 			
 			if (newCost < oldCost)
 				break;
@@ -142,7 +197,114 @@ public final class EvaluationHashTableImpl implements IEvaluationHashTable {
 				break;
 		}
 	}
-	
+
+	/**
+	 * Checks if given table item contains record of given position and horizon.
+	 * @param tableItem table item
+	 * @param hash hash of the position
+	 * @param expectedHorizon horizon of the record
+	 * @return true if item contains the record
+	 */
+	static boolean isItemOfRecord (final long tableItem, final long hash, final int expectedHorizon) {
+		return ((tableItem ^ hash) & HASH_MASK) == 0 && getItemHorizon(tableItem) == expectedHorizon;
+	}
+
+	/**
+	 * Checks if given table item contains valid record of given position.
+	 * @param tableItem table item
+	 * @param hash hash of the position
+	 * @return true if item contains record of the position
+	 */
+	static boolean isItemOfPosition (final long tableItem, final long hash) {
+		return ((tableItem ^ hash) & HASH_MASK) == 0 && ((tableItem & TYPE_MASK) >>> TYPE_SHIFT) != HashRecordType.INVALID;
+	}
+
+	/**
+	 * Returns horizon of the record stored in given table item.
+	 * @param tableItem table item
+	 * @return horizon
+	 */
+	static int getItemHorizon (final long tableItem) {
+		return (int) ((tableItem & HORIZON_MASK) >>> HORIZON_SHIFT);
+	}
+
+	/**
+	 * Reads record from given table item.
+	 * @param tableItem table item
+	 * @param record target record
+	 */
+	static void readItem (final long tableItem, final HashRecord record) {
+		final int horizon = (int) ((tableItem & HORIZON_MASK) >>> HORIZON_SHIFT);
+		final int evaluation = (int) ((tableItem & EVALUATION_MASK) >>> EVALUATION_SHIFT) + EVALUATION_OFFSET;
+		final int type = (int) ((tableItem & TYPE_MASK) >>> TYPE_SHIFT);
+
+		record.setEvaluation(evaluation);
+		record.setHorizon(horizon);
+		record.setType(type);
+	}
+
+	/**
+	 * Creates table item from given record.
+	 * @param hash hash of the position
+	 * @param record record
+	 * @param generation current generation
+	 * @return table item
+	 */
+	static long createItem (final long hash, final HashRecord record, final int generation) {
+		final long biasedEvaluation = record.getEvaluation() - EVALUATION_OFFSET;
+		
+		long data = 0;
+		data |= ((long) biasedEvaluation << EVALUATION_SHIFT) & EVALUATION_MASK;
+		data |= ((long) record.getHorizon() << HORIZON_SHIFT) & HORIZON_MASK;
+		data |= ((long) record.getType() << TYPE_SHIFT) & TYPE_MASK;
+		data |= ((long) generation << GENERATION_SHIFT) & GENERATION_MASK;
+		data |= hash & HASH_MASK;
+
+		return data;
+	}
+
+	/**
+	 * Returns cost of record stored in given table item.
+	 * @param tableItem table item
+	 * @param generation current generation
+	 * @return cost of the record
+	 */
+	static int getItemCost (final long tableItem, final HashTableGeneration generation) {
+		final int horizon = (int) ((tableItem & HORIZON_MASK) >> HORIZON_SHIFT);
+		final int type = (int) ((tableItem & TYPE_MASK) >>> TYPE_SHIFT);
+		final int itemGeneration = (int) ((tableItem & GENERATION_MASK) >>> GENERATION_SHIFT);
+
+		return getCost(horizon, type, generation.getAge(itemGeneration));
+	}
+
+	/**
+	 * Saturates the age of the items in given table.
+	 * Each item is rewritten just once when it reaches the maximal age, so the sweep mostly just reads the table.
+	 * @param table table with items
+	 * @param generation current generation
+	 */
+	static void sweepGenerations (final AtomicLongArray table, final HashTableGeneration generation) {
+		for (int i = 0; i < table.length(); i++) {
+			final long tableItem = table.get(i);
+			final int itemGeneration = (int) ((tableItem & GENERATION_MASK) >>> GENERATION_SHIFT);
+			final int sweptGeneration = generation.getSweptGeneration(itemGeneration);
+
+			if (tableItem != 0 && sweptGeneration != itemGeneration) {
+				final long sweptItem = (tableItem & ~GENERATION_MASK) | (((long) sweptGeneration << GENERATION_SHIFT) & GENERATION_MASK);
+				table.compareAndSet(i, tableItem, sweptItem);
+			}
+		}
+	}
+
+	/**
+	 * Starts new generation of records.
+	 * Records from previous generations are kept, but they are preferred in the replacement.
+	 */
+	public void nextGeneration() {
+		if (generation.next())
+			sweepGenerations(table, generation);
+	}
+
 	/**
 	 * Clears the table.
 	 */
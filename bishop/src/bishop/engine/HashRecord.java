@@ -63,7 +63,7 @@ public final class HashRecord {
 		this.evaluation = normalizeMateEvaluation (evaluation, currentDepth);
 	}
 	
-	private static int normalizeMateEvaluation(final int evaluation, final int currentDepth) {
+	static int normalizeMateEvaluation(final int evaluation, final int currentDepth) {
 		if (evaluation > Evaluation.MATE_MIN)
 			return evaluation + currentDepth;
 
@@ -0,0 +1,90 @@
+package bishop.engine;
+
+/**
+ * Generation of the records in the hash table.
+ * The items of the table contains generation of the search that has written them. The generation
+ * has limited number of bits so it would wrap around and an old record would look like a new one.
+ * To prevent this the highest value of the generation is reserved for saturated records, the other
+ * values rotates. When next() returns true the table must sweep its items and replace their generation
+ * by getSweptGeneration - records with age maxAge or higher gets the saturated generation.
+ * The sweep is needed once per (2^generationBits - 1 - maxAge) generations and it rewrites each
+ * record at most once.
+ * @author Ing. Petr Ležák
+ */
+final class HashTableGeneration {
+
+	private final int saturatedGeneration;
+	private final int maxAge;
+	private final int sweepPeriod;
+	private int generation;
+	private int generationsToSweep;
+
+	/**
+	 * Creates the generation.
+	 * @param generationBits number of bits of the generation stored in the items
+	 * @param maxAge age of the saturated records, must be lower than 2^generationBits - 1
+	 */
+	public HashTableGeneration (final int generationBits, final int maxAge) {
+		this.saturatedGeneration = (1 << generationBits) - 1;
+		this.maxAge = maxAge;
+		this.sweepPeriod = saturatedGeneration - maxAge;
+
+		if (sweepPeriod <= 0)
+			throw new RuntimeException("Too high max age " + maxAge + " for " + generationBits + " bits");
+
+		this.generationsToSweep = sweepPeriod;
+	}
+
+	/**
+	 * Returns current generation.
+	 * @return generation
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Returns age of the record with given generation.
+	 * @param itemGeneration generation stored in the item
+	 * @return number of generations since the record was written, at most maxAge
+	 */
+	public int getAge (final int itemGeneration) {
+		if (itemGeneration == saturatedGeneration)
+			return maxAge;
+
+		final int difference = generation - itemGeneration;
+		final int age = (difference >= 0) ? difference : difference + saturatedGeneration;
+
+		return Math.min(age, maxAge);
+	}
+
+	/**
+	 * Starts new generation.
+	 * @return true if the table must sweep the items
+	 */
+	public boolean next() {
+		generation++;
+
+		if (generation == saturatedGeneration)
+			generation = 0;
+
+		generationsToSweep--;
+
+		if (generationsToSweep > 0)
+			return false;
+
+		generationsToSweep = sweepPeriod;
+
+		return true;
+	}
+
+	/**
+	 * Returns generation that must be stored into the item by the sweep.
+	 * @param itemGeneration generation stored in the item
+	 * @return new generation of the item
+	 */
+	public int getSweptGeneration (final int itemGeneration) {
+		return (getAge(itemGeneration) >= maxAge) ? saturatedGeneration : itemGeneration;
+	}
+
+}
@@ -0,0 +1,86 @@
+package bishop.engine;
+
+/**
+ * Type of the hash tables used by the search.
+ * @author Ing. Petr Ležák
+ */
+public enum HashTableType {
+	/**
+	 * Separate evaluation and best move tables. Evaluation table stores records with different
+	 * horizons of the same position in different items so shallow records are kept next to the deep ones.
+	 * The memory is split evenly between the tables.
+	 */
+	SEPARATE ("separate") {
+		@Override
+		public HashTables createHashTables() {
+			final EvaluationHashTableImpl evaluationHashTable = new EvaluationHashTableImpl(EvaluationHashTableImpl.MIN_EXPONENT);
+			final BestMoveHashTableImpl bestMoveHashTable = new BestMoveHashTableImpl(BestMoveHashTableImpl.MIN_EXPONENT);
+
+			return new HashTables(this, evaluationHashTable, bestMoveHashTable, memorySize -> {
+				evaluationHashTable.resizeToMemory(memorySize / 2);
+				bestMoveHashTable.resizeToMemory(memorySize / 2);
+			});
+		}
+	},
+
+	/**
+	 * Separate evaluation and best move tables like SEPARATE but the evaluation table is divided into buckets.
+	 * Records of the same position with different horizons are stored into the same bucket so probe
+	 * of all horizons touches just one part of the memory.
+	 * The memory is split evenly between the tables.
+	 */
+	BUCKETED ("bucketed") {
+		@Override
+		public HashTables createHashTables() {
+			final BucketedEvaluationHashTableImpl evaluationHashTable = new BucketedEvaluationHashTableImpl(BucketedEvaluationHashTableImpl.MIN_EXPONENT);
+			final BestMoveHashTableImpl bestMoveHashTable = new BestMoveHashTableImpl(BestMoveHashTableImpl.MIN_EXPONENT);
+
+			return new HashTables(this, evaluationHashTable, bestMoveHashTable, memorySize -> {
+				evaluationHashTable.resizeToMemory(memorySize / 2);
+				bestMoveHashTable.resizeToMemory(memorySize / 2);
+			});
+		}
+	},
+
+	/**
+	 * One table that stores evaluation and best move in one slot, so the node pays just one
+	 * cache miss. The slot holds one record of the position regardless of the horizon.
+	 * The deep record answers only probes with the same horizon and it blocks shallower records
+	 * of the same position.
+	 */
+	UNIFIED ("unified") {
+		@Override
+		public HashTables createHashTables() {
+			final UnifiedHashTableImpl hashTable = new UnifiedHashTableImpl(UnifiedHashTableImpl.MIN_EXPONENT);
+
+			return new HashTables(this, hashTable, hashTable, hashTable::resizeToMemory);
+		}
+	};
+
+	public static final HashTableType DEFAULT = SEPARATE;
+
+	private final String name;
+
+	private HashTableType (final String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Creates new hash tables of this type with minimal size.
+	 * @return hash tables
+	 */
+	public abstract HashTables createHashTables();
+
+	public String getName() {
+		return name;
+	}
+
+	public static HashTableType forName (final String name) {
+		for (HashTableType type: values()) {
+			if (type.name.equals(name))
+				return type;
+		}
+
+		throw new RuntimeException("Unknown hash table type " + name);
+	}
+}
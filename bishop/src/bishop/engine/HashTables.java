@@ -0,0 +1,63 @@
+package bishop.engine;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Evaluation and best move hash tables used by the search manager.
+ * Both tables can be the same instance if the type of the tables stores both records in one slot.
+ * @author Ing. Petr Ležák
+ */
+public final class HashTables {
+
+	private final HashTableType type;
+	private final IEvaluationHashTable evaluationHashTable;
+	private final IBestMoveHashTable bestMoveHashTable;
+	private final LongConsumer resizer;
+
+	HashTables (final HashTableType type, final IEvaluationHashTable evaluationHashTable, final IBestMoveHashTable bestMoveHashTable, final LongConsumer resizer) {
+		this.type = type;
+		this.evaluationHashTable = evaluationHashTable;
+		this.bestMoveHashTable = bestMoveHashTable;
+		this.resizer = resizer;
+	}
+
+	public HashTableType getType() {
+		return type;
+	}
+
+	public IEvaluationHashTable getEvaluationHashTable() {
+		return evaluationHashTable;
+	}
+
+	public IBestMoveHashTable getBestMoveHashTable() {
+		return bestMoveHashTable;
+	}
+
+	/**
+	 * Changes size of the tables so they fit together into given memory.
+	 * @param memorySize size of the memory [B]
+	 */
+	public void resizeToMemory (final long memorySize) {
+		resizer.accept(memorySize);
+	}
+
+	/**
+	 * Sets the tables to given search manager.
+	 * Manager must be in STOPPED state.
+	 * @param manager search manager
+	 */
+	public void setToManager (final ISearchManager manager) {
+		manager.setHashTable(evaluationHashTable, bestMoveHashTable);
+	}
+
+	/**
+	 * Clears the tables.
+	 */
+	public void clear() {
+		evaluationHashTable.clear();
+
+		if (bestMoveHashTable != evaluationHashTable)
+			bestMoveHashTable.clear();
+	}
+
+}
@@ -18,6 +18,12 @@ public interface IBestMoveHashTable {
 	 */
 	public void updateRecord (final Position position, final int horizon, final int compressedBestMove);
 
+	/**
+	 * Starts new generation of records. Records from previous generations
+	 * are kept, but they are preferred in the replacement.
+	 */
+	public void nextGeneration();
+
 	/**
 	 * Clears the table.
 	 */
@@ -11,6 +11,23 @@ public interface IEvaluationHashTable {
 	 */
 	public boolean getRecord (final Position position, final int expectedHorizon, final HashRecord record);
 	
+	/**
+	 * Returns hash record with the highest horizon for given position.
+	 * Default implementation probes all horizons, implementations should override it
+	 * if they can find the record with less probes.
+	 * @param position position
+	 * @param record storage for the record
+	 * @return true if record is found, false if not
+	 */
+	public default boolean getDeepestRecord (final Position position, final HashRecord record) {
+		for (int horizon = ISearchEngine.MAX_HORIZON - 1; horizon >= 0; horizon--) {
+			if (getRecord(position, horizon, record))
+				return true;
+		}
+		
+		return false;
+	}
+	
 	/**
 	 * Updates hash record for given position.
 	 * @param position position
@@ -18,6 +35,12 @@ public interface IEvaluationHashTable {
 	 */
 	public void updateRecord (final Position position, final HashRecord record);
 	
+	/**
+	 * Starts new generation of records. Records from previous generations
+	 * are kept, but they are preferred in the replacement.
+	 */
+	public void nextGeneration();
+
 	/**
 	 * Clears the table.
 	 */
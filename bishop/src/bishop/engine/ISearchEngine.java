@@ -27,13 +27,6 @@ public interface ISearchEngine {
 	 */
 	public void setPieceTypeEvaluations(final PieceTypeEvaluations pieceTypeEvaluations);
 
-	/**
-	 * Sets position evaluator.
-	 * Engine must be in STOPPED state.
-	 * @param evaluator position evaluator
-	 */
-	public void setPositionEvaluator (final IPositionEvaluator evaluator);
-	
 	/**
 	 * Sets hash table for the manager.
 	 * Engine must be in STOPPED state.
@@ -108,9 +101,22 @@ public interface ISearchEngine {
 	 */
 	public long getNodeCount();
 
+	/**
+	 * Adds published statistics of the engine into given statistics.
+	 * Method doesn't lock the engine so it can be called during the search.
+	 * @param statistics target statistics
+	 */
+	public void addStatistics (final SearchStatistics statistics);
+
 	/**
 	 * Clears the engine.
 	 * Engine must be in STOPPED state.
 	 */
 	public void clear();
+
+	/**
+	 * Releases resources of the engine, e.g. threads.
+	 * Engine must be in STOPPED state and it cannot be used after this call.
+	 */
+	public void dispose();
 }
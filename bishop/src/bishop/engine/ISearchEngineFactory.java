@@ -6,4 +6,23 @@ public interface ISearchEngineFactory {
 	 * @return new engine
 	 */
 	public ISearchEngine createEngine();
+
+	/**
+	 * Returns true if engines created by this factory are searching by more threads.
+	 * Otherwise the manager creates one engine per thread.
+	 * @return true if created engines are parallel
+	 */
+	public default boolean isParallel() {
+		return false;
+	}
+
+	/**
+	 * Creates new instance of search engine that uses given number of threads.
+	 * Serial engines ignores the thread count.
+	 * @param threadCount number of threads
+	 * @return new engine
+	 */
+	public default ISearchEngine createEngine(final int threadCount) {
+		return createEngine();
+	}
 }
@@ -12,6 +12,7 @@ public interface ISearchManager {
 	};
 	
 	public static final long TIME_FOR_MOVE_INFINITY = 1000000000000L;
+	public static final long NODE_COUNT_INFINITY = Long.MAX_VALUE;
 	
 	/**
 	 * Starts the manager.
@@ -39,12 +40,47 @@ public interface ISearchManager {
 	 */
 	public void setSearchInfoTimeout (final long timeout);
 
+	/**
+	 * Sets number of best lines searched with exact evaluation (multi PV).
+	 * Lines are reported by SearchInfo after each iteration.
+	 * Manager must be in STOPPED or WAITING state.
+	 * @param count number of lines, 1 for normal search
+	 */
+	public void setMultiPvCount (final int count);
+	
+	/**
+	 * Sets maximal number of nodes searched for one move.
+	 * Manager must be in STOPPED or WAITING state.
+	 * @param count maximal number of nodes
+	 */
+	public void setMaxNodeCount (final long count);
+	
+	/**
+	 * Enables or disables deterministic mode. In deterministic mode the hash tables
+	 * and the engines are cleared before each search and just one engine searches
+	 * so the same search always returns the same result and number of nodes
+	 * if it is limited by horizon or number of nodes.
+	 * Manager must be in STOPPED or WAITING state.
+	 * @param deterministic true to enable deterministic mode
+	 */
+	public void setDeterministicMode (final boolean deterministic);
+	
 	/**
 	 * Sets maximal time for move.
 	 * @param time maximal time for search of one move
 	 */
 	public void setMaxTimeForMove (final long time);
 	
+	/**
+	 * Sets time limits for the search of one move.
+	 * New iteration is not started after the soft limit or if it is predicted
+	 * that it would not finish before the hard limit. The search is terminated
+	 * after the hard limit.
+	 * @param softLimit soft limit [ms]
+	 * @param hardLimit hard limit [ms]
+	 */
+	public void setTimeLimits (final long softLimit, final long hardLimit);
+	
 	/**
 	 * Sets book.
 	 * Manager must be in STOPPED state.
@@ -59,6 +95,29 @@ public interface ISearchManager {
 	 */
 	public void startSearching (final Position position);
 	
+	/**
+	 * Starts pondering - searching of the position after the expected move
+	 * of the opponent in the time of the opponent.
+	 * Changes state from WAITING to SEARCHING. Time limits are not applied
+	 * and the result is not sent until ponderHit is called. If the opponent plays
+	 * different move the pondering is terminated by stopSearching without the result.
+	 * @param position position after the expected move of the opponent
+	 */
+	public void startPondering (final Position position);
+	
+	/**
+	 * Notifies the manager that the opponent played the expected move.
+	 * The pondering continues as normal search with time limits measured from now.
+	 * Manager must be in SEARCHING state and pondering.
+	 */
+	public void ponderHit();
+	
+	/**
+	 * Checks if the manager is pondering.
+	 * @return true if pondering was started and ponderHit was not called yet
+	 */
+	public boolean isPondering();
+	
 	/**
 	 * Stops searching.
 	 * Changes state from SEARCHING to TERMINATING and later to WAITING.
@@ -71,6 +130,13 @@ public interface ISearchManager {
 	 * @return result of the search
 	 */
 	public SearchResult getResult();
+
+	/**
+	 * Returns statistics of the current or last search summed over all engines.
+	 * Method doesn't lock the manager or the engines so it can be called during the search.
+	 * @return snapshot of the statistics
+	 */
+	public SearchStatistics getStatistics();
 	
 	/**
 	 * Returns handler registrar.
@@ -155,6 +155,14 @@ public class MoveEstimator {
 		historyTable.clear();
 	}
 
+	/**
+	 * Closes the sample writer if it is opened.
+	 */
+	public void close() {
+		if (sampleWriter != null)
+			sampleWriter.close();
+	}
+
 	public void log() {
 		System.out.println("Move estimator confusion matrix");
 
@@ -13,6 +13,10 @@ public class NullBestMoveHashTable implements IBestMoveHashTable {
 	public void updateRecord(final Position position, final int horizon, final int compressedBestMove) {
 	}
 
+	@Override
+	public void nextGeneration() {
+	}
+
 	@Override
 	public void clear() {
 	}
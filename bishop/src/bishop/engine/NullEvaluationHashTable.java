@@ -17,6 +17,19 @@ public final class NullEvaluationHashTable implements IEvaluationHashTable {
 		return false;
 	}
 	
+	/**
+	 * Returns hash record with the highest horizon for given position.
+	 * @param position position
+	 * @param record storage for the record
+	 * @return true if record is found, false if not
+	 */
+	@Override
+	public boolean getDeepestRecord (final Position position, final HashRecord record) {
+		record.setType(HashRecordType.INVALID);
+		
+		return false;
+	}
+	
 	/**
 	 * Updates hash record for given position.
 	 * @param position position
@@ -26,6 +39,13 @@ public final class NullEvaluationHashTable implements IEvaluationHashTable {
 	public void updateRecord (final Position position, final HashRecord record) {
 	}
 	
+	/**
+	 * Starts new generation of records.
+	 */
+	@Override
+	public void nextGeneration() {
+	}
+
 	/**
 	 * Clears the table.
 	 */
@@ -0,0 +1,974 @@
+package bishop.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import bishop.base.*;
+import utils.Logger;
+
+/**
+ * Search engine that splits the tree in PV and ALL nodes using young brothers wait concept.
+ * The first move in the split node is searched alone, remaining moves are searched
+ * in parallel by ForkJoinPool with work stealing. Nodes deeper than split depth
+ * are searched by serial engines - each running subtree has its own serial engine.
+ */
+public final class ParallelSearchEngine implements ISearchEngine {
+
+	public static final int DEFAULT_MAX_SPLIT_DEPTH = 2;
+
+	private static final int MIN_SPLIT_HORIZON = 3 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
+	private static final int EXTENSION_HASH_MASK = (1 << SearchSettings.EXTENSION_FRACTION_BITS) - 1;
+
+	private static final int HASH_BEST_MOVE_ESTIMATE = Integer.MAX_VALUE;
+	private static final int NOT_HASHED_MOVE_ESTIMATE = 2 * Evaluation.MIN;   // Added to captured piece evaluation, lower than any hashed evaluation
+
+	/**
+	 * Node of the tree where moves are searched in parallel.
+	 */
+	private final class SplitPoint {
+		private final SplitPoint parent;
+		private final int depth;
+		private final Position position;
+		private final RepeatedPositionRegister repeatedPositionRegister;
+		private final int horizon;
+		private final int positionExtension;
+		private final int beta;
+		private int alpha;
+		private int evaluation;
+		private final MoveList principalVariation;
+		private volatile boolean cutoff;
+
+		public SplitPoint(final SplitPoint parent, final int depth, final Position position, final RepeatedPositionRegister repeatedPositionRegister, final int horizon, final int positionExtension, final int alpha, final int beta) {
+			this.parent = parent;
+			this.depth = depth;
+			this.position = position;
+			this.repeatedPositionRegister = repeatedPositionRegister;
+			this.horizon = horizon;
+			this.positionExtension = positionExtension;
+			this.alpha = alpha;
+			this.beta = beta;
+			this.evaluation = Evaluation.MIN;
+			this.principalVariation = new MoveList();
+		}
+
+		public synchronized int getAlpha() {
+			return alpha;
+		}
+
+		/**
+		 * Updates the split point by result of searched move.
+		 * @param move searched move
+		 * @param result result of the move from the point of view of this node, principal variation begins by the move
+		 * @return true in case of beta cutoff
+		 */
+		public boolean updateByMove(final Move move, final SearchResult result) {
+			final SearchResult rootResult;
+
+			synchronized (this) {
+				final int moveEvaluation = result.getEvaluation();
+
+				if (moveEvaluation > evaluation) {
+					evaluation = moveEvaluation;
+					alpha = Math.max(alpha, evaluation);
+					principalVariation.assign(result.getPrincipalVariation());
+
+					if (evaluation > beta)
+						cutoff = true;
+				}
+
+				if (depth == 0) {
+					rootMoveList.addRecord(move, moveEvaluation);
+					rootResult = createResult(this);
+				}
+				else
+					rootResult = null;
+			}
+
+			if (cutoff)
+				terminateAbortedLeaves();
+
+			if (rootResult != null) {
+				for (ISearchEngineHandler handler: handlerRegistrar.getHandlers())
+					handler.onResultUpdate(rootResult);
+			}
+
+			return cutoff;
+		}
+
+		/**
+		 * Checks if children of this node should stop searching.
+		 * @return true if children are aborted
+		 */
+		public boolean isAborted() {
+			return cutoff || isNodeAborted();
+		}
+
+		/**
+		 * Checks if this node should stop searching.
+		 * @return true if this node is aborted
+		 */
+		public boolean isNodeAborted() {
+			return (parent != null) ? parent.isAborted() : searchStopped;
+		}
+	}
+
+	/**
+	 * Searches one move of the split point except the first one.
+	 */
+	@SuppressWarnings("serial")
+	private final class MoveSearchTask extends RecursiveTask<SearchResult> {
+		private final SplitPoint splitPoint;
+		private final Move move;
+
+		public MoveSearchTask(final SplitPoint splitPoint, final Move move) {
+			this.splitPoint = splitPoint;
+			this.move = move;
+		}
+
+		@Override
+		protected SearchResult compute() {
+			if (splitPoint.isAborted())
+				throw new SearchTerminatedException();
+
+			final int alpha = splitPoint.getAlpha();
+			final int beta = splitPoint.beta;
+			SearchResult result;
+
+			if (alpha != beta) {
+				// Null window search, then research if the move is better
+				result = searchMove(splitPoint, move, alpha, alpha);
+
+				final int researchAlpha = Math.max(result.getEvaluation(), splitPoint.getAlpha());
+
+				if (result.getEvaluation() > alpha && researchAlpha <= beta)
+					result = searchMove(splitPoint, move, researchAlpha, beta);
+			}
+			else
+				result = searchMove(splitPoint, move, alpha, beta);
+
+			splitPoint.updateByMove(move, result);
+
+			return result;
+		}
+	}
+
+	/**
+	 * Searches the root node.
+	 */
+	@SuppressWarnings("serial")
+	private final class RootSearchTask extends RecursiveTask<SearchResult> {
+		@Override
+		protected SearchResult compute() {
+			return searchRoot();
+		}
+	}
+
+	// Settings
+	private final ISearchEngineFactory workerEngineFactory;
+	private final int maxSplitDepth;
+	private int maxTotalDepth;
+	private PieceTypeEvaluations pieceTypeEvaluations;
+	private SearchSettings searchSettings;
+	private IEvaluationHashTable evaluationHashTable;
+	private IBestMoveHashTable bestMoveHashTable;
+	private CombinedPositionEvaluationTable combinedPositionEvaluationTable;
+	private TablebasePositionEvaluator tablebaseEvaluator;
+
+	// Workers
+	private final MoveExtensionEvaluator moveExtensionEvaluator;
+	private final ForkJoinPool pool;
+	private final List<ISearchEngine> workerEngineList = new CopyOnWriteArrayList<>();   // Workers are created rarely, list is iterated without lock
+	private final Queue<ISearchEngine> idleEngineQueue = new ConcurrentLinkedQueue<>();
+	private final Set<ISearchEngine> runningEngineSet = ConcurrentHashMap.newKeySet();
+	private final Map<SearchTask, SplitPoint> runningLeafTaskMap = new ConcurrentHashMap<>();
+
+	// Actual task
+	private SearchTask task;
+	private final EvaluatedMoveList rootMoveList;
+	private final AtomicLong finishedNodeCount = new AtomicLong();
+	private volatile SplitPoint rootSplitPoint;
+	private volatile boolean searchStopped;
+
+	// Synchronization
+	private EngineState engineState;
+	private final Object monitor;
+	private final HandlerRegistrarImpl<ISearchEngineHandler> handlerRegistrar;
+
+
+	/**
+	 * Creates the engine.
+	 * @param workerEngineFactory factory of serial engines that searches subtrees below split depth
+	 * @param threadCount number of threads
+	 * @param maxSplitDepth nodes with depth lower than this are split
+	 */
+	public ParallelSearchEngine(final ISearchEngineFactory workerEngineFactory, final int threadCount, final int maxSplitDepth) {
+		this.workerEngineFactory = workerEngineFactory;
+		this.maxSplitDepth = maxSplitDepth;
+		this.pool = new ForkJoinPool(threadCount);
+		this.rootMoveList = new EvaluatedMoveList(PseudoLegalMoveGenerator.MAX_MOVES_IN_POSITION);
+		this.handlerRegistrar = new HandlerRegistrarImpl<>();
+		this.engineState = EngineState.STOPPED;
+		this.monitor = new Object();
+		this.searchSettings = new SearchSettings();
+		this.moveExtensionEvaluator = new MoveExtensionEvaluator();
+		this.moveExtensionEvaluator.setSettings(searchSettings);
+
+		setHashTable(new NullEvaluationHashTable(), new NullBestMoveHashTable());
+
+		// Serial engine per thread, more are created when needed
+		for (int i = 0; i < threadCount; i++)
+			idleEngineQueue.add(createWorkerEngine());
+	}
+
+	/**
+	 * Checks if engine is in one of given expected states. If not exception is
+	 * thrown. Expects that calling thread owns the monitor.
+	 * @param expectedStates expected engine states
+	 */
+	private void checkEngineState(final EngineState... expectedStates) {
+		for (EngineState state : expectedStates) {
+			if (state == engineState)
+				return;
+		}
+
+		throw new RuntimeException("Engine is not in expected state, but in state " + engineState.name());
+	}
+
+	private ISearchEngine createWorkerEngine() {
+		synchronized (monitor) {
+			final ISearchEngine engine = workerEngineFactory.createEngine();
+			configureWorkerEngine(engine);
+
+			workerEngineList.add(engine);
+
+			return engine;
+		}
+	}
+
+	/**
+	 * Propagates settings of this engine into the worker engine.
+	 * Expects that calling thread owns the monitor.
+	 * @param engine worker engine
+	 */
+	private void configureWorkerEngine(final ISearchEngine engine) {
+		if (maxTotalDepth > 0)
+			engine.setMaximalDepth(maxTotalDepth);
+
+		if (pieceTypeEvaluations != null)
+			engine.setPieceTypeEvaluations(pieceTypeEvaluations);
+
+		if (combinedPositionEvaluationTable != null)
+			engine.setCombinedPositionEvaluationTable(combinedPositionEvaluationTable);
+
+		engine.setSearchSettings(searchSettings);
+		engine.setHashTable(evaluationHashTable, bestMoveHashTable);
+		engine.setTablebaseEvaluator(tablebaseEvaluator);
+	}
+
+	private ISearchEngine acquireWorkerEngine() {
+		ISearchEngine engine = idleEngineQueue.poll();
+
+		if (engine == null)
+			engine = createWorkerEngine();
+
+		runningEngineSet.add(engine);
+
+		return engine;
+	}
+
+	private void releaseWorkerEngine(final ISearchEngine engine) {
+		finishedNodeCount.addAndGet(engine.getNodeCount());
+		runningEngineSet.remove(engine);
+		idleEngineQueue.add(engine);
+	}
+
+	/**
+	 * Terminates all running serial searches that belongs to aborted split points.
+	 */
+	private void terminateAbortedLeaves() {
+		for (Map.Entry<SearchTask, SplitPoint> entry: runningLeafTaskMap.entrySet()) {
+			if (entry.getValue().isAborted())
+				entry.getKey().setTerminated(true);
+		}
+	}
+
+	private SearchResult searchRoot() {
+		final Position position = task.getPosition().copy();
+
+		if (pieceTypeEvaluations != null)
+			position.setPieceTypeEvaluations(pieceTypeEvaluations);
+
+		if (combinedPositionEvaluationTable != null)
+			position.setCombinedPositionEvaluationTable(combinedPositionEvaluationTable);
+		final RepeatedPositionRegister register = task.getRepeatedPositionRegister();
+
+		return searchNode(null, position, register, 0, task.getHorizon(), task.getAlpha(), task.getBeta());
+	}
+
+	/**
+	 * Searches given node by splitting it.
+	 * @param parent parent split point, null for root
+	 * @param position position of the node
+	 * @param register repeated positions including the node
+	 * @param depth depth of the node
+	 * @param horizon horizon of the node
+	 * @param alpha lower boundary
+	 * @param beta upper boundary
+	 * @return result of the node
+	 */
+	private SearchResult searchNode(final SplitPoint parent, final Position position, final RepeatedPositionRegister register, final int depth, final int horizon, final int initialAlpha, final int initialBeta) {
+		final HashRecord hashRecord = new HashRecord();
+		int alpha = initialAlpha;
+		int beta = initialBeta;
+
+		// Hash table
+		if (depth > 0 && evaluationHashTable.getRecord(position, horizon, hashRecord) && hashRecord.getHorizon() == horizon) {
+			final int hashEvaluation = hashRecord.getNormalizedEvaluation(depth);
+
+			switch (hashRecord.getType()) {
+				case HashRecordType.VALUE:
+					return createResult(hashEvaluation);
+
+				case HashRecordType.LOWER_BOUND:
+					if (hashEvaluation > beta)
+						return createResult(hashEvaluation);
+
+					alpha = Math.max(alpha, hashEvaluation);
+					break;
+
+				case HashRecordType.UPPER_BOUND:
+					if (hashEvaluation < alpha)
+						return createResult(hashEvaluation);
+
+					beta = Math.min(beta, hashEvaluation);
+					break;
+			}
+		}
+
+		final EvaluatedMoveList moveList = generateMoves(position, depth);
+		final int moveCount = moveList.getSize();
+
+		if (moveCount == 0) {
+			final int evaluation = (position.isCheck()) ? -Evaluation.getMateEvaluation(depth) : Evaluation.DRAW;
+
+			return createResult(evaluation);
+		}
+
+		final SplitPoint splitPoint = new SplitPoint(parent, depth, position, register, horizon, calculatePositionExtension(position, horizon), alpha, beta);
+
+		if (depth == 0)
+			rootSplitPoint = splitPoint;
+
+		// Young brothers wait - search the first move alone
+		final Move firstMove = new Move();
+		moveList.getMove(moveCount - 1, firstMove);
+
+		final SearchResult firstResult = searchMove(splitPoint, firstMove, alpha, beta);
+
+		if (!splitPoint.updateByMove(firstMove, firstResult) && moveCount > 1) {
+			final List<MoveSearchTask> taskList = new ArrayList<>(moveCount - 1);
+
+			for (int i = moveCount - 2; i >= 0; i--) {
+				final Move move = new Move();
+				moveList.getMove(i, move);
+
+				final MoveSearchTask moveTask = new MoveSearchTask(splitPoint, move);
+				moveTask.fork();
+
+				taskList.add(moveTask);
+			}
+
+			joinMoveTasks(splitPoint, taskList);
+		}
+
+		final SearchResult result = createResult(splitPoint);
+
+		if (horizon > 0) {
+			hashRecord.setEvaluationAndType(result.getEvaluation(), alpha, beta, depth);
+			hashRecord.setHorizon(horizon);
+
+			evaluationHashTable.updateRecord(position, hashRecord);
+
+			final MoveList principalVariation = result.getPrincipalVariation();
+
+			if (principalVariation.getSize() > 0)
+				bestMoveHashTable.updateRecord(position, horizon, principalVariation.getCompressedMove(0));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Waits for all move tasks of the split point.
+	 * @param splitPoint split point
+	 * @param taskList list of forked tasks
+	 */
+	private static void joinMoveTasks(final SplitPoint splitPoint, final List<MoveSearchTask> taskList) {
+		SearchTerminatedException terminatedException = null;
+
+		for (int i = taskList.size() - 1; i >= 0; i--) {
+			try {
+				taskList.get(i).join();
+			}
+			catch (SearchTerminatedException ex) {
+				terminatedException = ex;
+			}
+		}
+
+		if (splitPoint.isNodeAborted())
+			throw new SearchTerminatedException();
+
+		// Children are terminated only by beta cutoff of this node or by termination of some parent
+		if (terminatedException != null && !splitPoint.cutoff)
+			throw terminatedException;
+	}
+
+	/**
+	 * Searches move in given split point.
+	 * @param splitPoint split point
+	 * @param move move
+	 * @param alpha lower boundary from the point of view of split point
+	 * @param beta upper boundary from the point of view of split point
+	 * @return result of the move from the point of view of the split point, principal variation begins by the move
+	 */
+	private SearchResult searchMove(final SplitPoint splitPoint, final Move move, final int alpha, final int beta) {
+		final Position childPosition = splitPoint.position.copy();
+		childPosition.makeMove(move);
+
+		final RepeatedPositionRegister parentRegister = splitPoint.repeatedPositionRegister;
+		final RepeatedPositionRegister childRegister = new RepeatedPositionRegister();
+		childRegister.clearAndReserve(parentRegister.getSize() + 1);
+		childRegister.pushAll(parentRegister);
+		childRegister.pushPosition(childPosition, move, false);
+
+		final int childDepth = splitPoint.depth + 1;
+		final int childHorizon = splitPoint.horizon + calculateMoveExtension(splitPoint, childPosition, move) - SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
+		final int childAlpha = -beta;
+		final int childBeta = -alpha;
+
+		final FinitePositionEvaluator finiteEvaluator = new FinitePositionEvaluator();
+		finiteEvaluator.setRepeatedPositionRegister(childRegister);
+		finiteEvaluator.setTablebaseEvaluator(tablebaseEvaluator);
+		finiteEvaluator.setPieceTypeEvaluations(pieceTypeEvaluations);
+
+		final SearchResult childResult;
+
+		if (finiteEvaluator.evaluate(childPosition, childDepth, childHorizon, childAlpha, childBeta))
+			childResult = createResult(finiteEvaluator.getEvaluation());
+		else {
+			if (childDepth < maxSplitDepth && childHorizon >= MIN_SPLIT_HORIZON)
+				childResult = searchNode(splitPoint, childPosition, childRegister, childDepth, childHorizon, childAlpha, childBeta);
+			else
+				childResult = searchLeaf(splitPoint, childPosition, childRegister, childDepth, childHorizon, childAlpha, childBeta);
+		}
+
+		final SearchResult result = createResult(-childResult.getEvaluation());
+		final MoveList principalVariation = result.getPrincipalVariation();
+		principalVariation.add(move);
+		principalVariation.addAll(childResult.getPrincipalVariation());
+
+		return result;
+	}
+
+	/**
+	 * Calculates extension of the position in the same way as the serial engine.
+	 * @param position position
+	 * @param horizon horizon of the node
+	 * @return position extension
+	 */
+	private int calculatePositionExtension(final Position position, final int horizon) {
+		if (horizon < searchSettings.getMinExtensionHorizon())
+			return 0;
+
+		final MobilityCalculator mobilityCalculator = new MobilityCalculator();
+		mobilityCalculator.calculate(position);
+
+		final SearchExtensionCalculator extensionCalculator = new SearchExtensionCalculator();
+		extensionCalculator.setSearchSettings(searchSettings);
+
+		return extensionCalculator.getExtension(position, mobilityCalculator, position.isCheck(), horizon);
+	}
+
+	/**
+	 * Calculates total extension of the move in the same way as the serial engine.
+	 * @param splitPoint split point where the move is made
+	 * @param childPosition position after the move
+	 * @param move move
+	 * @return 1 if the move is extended, 0 if not
+	 */
+	private int calculateMoveExtension(final SplitPoint splitPoint, final Position childPosition, final Move move) {
+		final int moveExtension;
+
+		if (splitPoint.horizon >= searchSettings.getMinExtensionHorizon()) {
+			final int beginMaterialEvaluation = splitPoint.position.getMaterialEvaluation();
+			moveExtension = moveExtensionEvaluator.getExtension(childPosition, move, task.getRootMaterialEvaluation(), beginMaterialEvaluation);
+		}
+		else
+			moveExtension = 0;
+
+		final long positionDependentRandomNumber = childPosition.getHash() & EXTENSION_HASH_MASK;
+
+		return (positionDependentRandomNumber < splitPoint.positionExtension + moveExtension) ? 1 : 0;
+	}
+
+	/**
+	 * Searches node by serial engine. Serial engine searches given node as its root
+	 * so mate evaluations must be shifted by the depth.
+	 * @param owner split point that owns the leaf
+	 * @param position position of the node
+	 * @param register repeated positions including the node
+	 * @param depth depth of the node
+	 * @param horizon horizon of the node
+	 * @param alpha lower boundary
+	 * @param beta upper boundary
+	 * @return result of the node
+	 */
+	private SearchResult searchLeaf(final SplitPoint owner, final Position position, final RepeatedPositionRegister register, final int depth, final int horizon, final int alpha, final int beta) {
+		final SearchTask leafTask = new SearchTask();
+		leafTask.getPosition().assign(position);
+		leafTask.setHorizon(horizon);
+		leafTask.setAlpha(getLeafBoundary(alpha, depth));
+		leafTask.setBeta(getLeafBoundary(beta, depth));
+		leafTask.setRepeatedPositionRegister(register);
+		leafTask.setRootMaterialEvaluation(task.getRootMaterialEvaluation());
+		leafTask.setInitialSearch(false);
+
+		// Leaf gets remaining node budget, leaves running in parallel can together exceed it slightly
+		final long maxNodeCount = task.getMaxNodeCount();
+
+		if (maxNodeCount != ISearchManager.NODE_COUNT_INFINITY) {
+			final long remainingNodeCount = maxNodeCount - getNodeCount();
+
+			if (remainingNodeCount <= 0) {
+				stopByNodeLimit();
+				throw new SearchTerminatedException();
+			}
+
+			leafTask.setMaxNodeCount(remainingNodeCount);
+		}
+
+		final SearchResult result;
+		runningLeafTaskMap.put(leafTask, owner);
+
+		try {
+			if (owner.isAborted())
+				throw new SearchTerminatedException();
+
+			final ISearchEngine engine = acquireWorkerEngine();
+
+			try {
+				result = engine.search(leafTask);
+			}
+			finally {
+				releaseWorkerEngine(engine);
+			}
+		}
+		finally {
+			runningLeafTaskMap.remove(leafTask);
+		}
+
+		if (result.isSearchTerminated()) {
+			if (getNodeCount() >= maxNodeCount)
+				stopByNodeLimit();
+
+			throw new SearchTerminatedException();
+		}
+
+		result.setEvaluation(HashRecord.normalizeMateEvaluation(result.getEvaluation(), -depth));
+
+		return result;
+	}
+
+	/**
+	 * Terminates whole search because the node budget of the task was exhausted.
+	 */
+	private void stopByNodeLimit() {
+		searchStopped = true;
+		terminateAbortedLeaves();
+	}
+
+	/**
+	 * Converts boundary in given depth to the boundary in root of serial engine.
+	 * @param boundary boundary
+	 * @param depth depth of the node
+	 * @return converted boundary
+	 */
+	private static int getLeafBoundary(final int boundary, final int depth) {
+		final int normalizedBoundary = HashRecord.normalizeMateEvaluation(boundary, depth);
+
+		return Math.max(Math.min(normalizedBoundary, Evaluation.MAX), Evaluation.MIN);
+	}
+
+	/**
+	 * Generates legal moves in given position and sorts them from worst to best ones.
+	 * @param position position
+	 * @param depth depth of the node
+	 * @return sorted list of moves
+	 */
+	private EvaluatedMoveList generateMoves(final Position position, final int depth) {
+		final EvaluatedMoveList moveList = new EvaluatedMoveList(PseudoLegalMoveGenerator.MAX_MOVES_IN_POSITION);
+		final EvaluatedMoveList taskMoveList = task.getRootMoveList();
+
+		if (depth == 0 && taskMoveList.getSize() > 0)
+			moveList.assign(taskMoveList);
+		else {
+			final HashRecord estimateHashRecord = new HashRecord();
+			final LegalMoveGenerator generator = new LegalMoveGenerator();
+
+			generator.setWalker(move -> {
+				moveList.addRecord(move, estimateMove(position, move, estimateHashRecord));
+				return true;
+			});
+
+			generator.setPosition(position);
+			generator.generateMoves();
+		}
+
+		// Best move from hash table first
+		final int compressedBestMove = bestMoveHashTable.getRecord(position);
+		final boolean hashMoveIgnored = depth == 0 && task.isRootHashMoveIgnored();
+
+		if (compressedBestMove != Move.NONE_COMPRESSED_MOVE && !hashMoveIgnored) {
+			final Move move = new Move();
+
+			for (int i = 0; i < moveList.getSize(); i++) {
+				moveList.getMove(i, move);
+
+				if (move.getCompressedMove() == compressedBestMove)
+					moveList.setRecord(i, move, HASH_BEST_MOVE_ESTIMATE);
+			}
+		}
+
+		moveList.sortMoves(0, moveList.getSize());
+
+		return moveList;
+	}
+
+	/**
+	 * Estimates move by the hash table. Moves that are not in the hash table are sorted by captured piece.
+	 * @param position position before the move
+	 * @param move move
+	 * @param estimateHashRecord precreated hash record
+	 * @return estimate
+	 */
+	private int estimateMove(final Position position, final Move move, final HashRecord estimateHashRecord) {
+		position.makeMove(move);
+
+		try {
+			if (evaluationHashTable.getDeepestRecord(position, estimateHashRecord))
+				return -estimateHashRecord.getEvaluation();
+		}
+		finally {
+			position.undoMove(move);
+		}
+
+		return NOT_HASHED_MOVE_ESTIMATE + PieceTypeEvaluations.DEFAULT.getPieceTypeEvaluation(move.getCapturedPieceType());
+	}
+
+	private static SearchResult createResult(final int evaluation) {
+		final SearchResult result = new SearchResult();
+		result.setEvaluation(evaluation);
+
+		return result;
+	}
+
+	/**
+	 * Creates result of given split point.
+	 * Expects that calling thread owns the monitor of split point.
+	 * @param splitPoint split point
+	 * @return result
+	 */
+	private SearchResult createResult(final SplitPoint splitPoint) {
+		synchronized (splitPoint) {
+			final SearchResult result = createResult(splitPoint.evaluation);
+			result.getPrincipalVariation().assign(splitPoint.principalVariation);
+			result.setHorizon(splitPoint.horizon);
+			result.setNodeCount(getNodeCount());
+
+			if (splitPoint.depth == 0)
+				result.getRootMoveList().assign(rootMoveList);
+
+			return result;
+		}
+	}
+
+	/**
+	 * Searches task by single serial engine. Used for tasks with too low horizon
+	 * and for multi PV tasks because the split point doesn't keep exact evaluations
+	 * of more lines.
+	 * @return search result
+	 */
+	private SearchResult searchBySerialEngine() {
+		final ISearchEngine engine = acquireWorkerEngine();
+
+		try {
+			return engine.search(task);
+		}
+		finally {
+			releaseWorkerEngine(engine);
+		}
+	}
+
+	/**
+	 * Searches given task and returns results. Changes state from STOPPED
+	 * to SEARCHING and when search is finished changes state from SEARCHING
+	 * to STOPPED.
+	 * @param task search task
+	 */
+	@Override
+	public SearchResult search(final SearchTask task) {
+		synchronized (monitor) {
+			checkEngineState(EngineState.STOPPED);
+
+			this.task = task;
+			this.engineState = EngineState.SEARCHING;
+			this.searchStopped = task.isTerminated();
+			this.rootMoveList.clear();
+			this.rootSplitPoint = null;
+			this.finishedNodeCount.set(0);
+		}
+
+		try {
+			if (task.getHorizon() < MIN_SPLIT_HORIZON || maxSplitDepth <= 0 || task.getMultiPvCount() > 1) {
+				final SearchResult result = searchBySerialEngine();
+
+				for (ISearchEngineHandler handler: handlerRegistrar.getHandlers())
+					handler.onResultUpdate(result);
+
+				return result;
+			}
+
+			return pool.invoke(new RootSearchTask());
+		}
+		catch (SearchTerminatedException ex) {
+			final SplitPoint splitPoint = rootSplitPoint;
+			final SearchResult result = (splitPoint != null) ? createResult(splitPoint) : createResult(Evaluation.MIN);
+			result.setHorizon(task.getHorizon());
+			result.setNodeCount(getNodeCount());
+			result.setSearchTerminated(true);
+
+			return result;
+		}
+		finally {
+			synchronized (monitor) {
+				this.task = null;
+				this.rootSplitPoint = null;
+				this.engineState = EngineState.STOPPED;
+			}
+		}
+	}
+
+	/**
+	 * Stops the searching.
+	 * Method returns immediately and ensures that method search returns as soon
+	 * as possible in the future.
+	 */
+	@Override
+	public void stopSearching() {
+		synchronized (monitor) {
+			if (engineState == EngineState.SEARCHING) {
+				this.engineState = EngineState.STOPPING;
+				this.searchStopped = true;
+
+				if (task != null)
+					task.setTerminated(true);
+
+				terminateAbortedLeaves();
+
+				Logger.logMessage("ParallelSearchEngine stopSearching");
+			}
+		}
+	}
+
+	/**
+	 * Returns current state of the engine.
+	 * @return engine state
+	 */
+	@Override
+	public EngineState getEngineState() {
+		synchronized (monitor) {
+			return engineState;
+		}
+	}
+
+	/**
+	 * Clips task boundaries.
+	 * @param alpha lower boundary
+	 * @param beta upper boundary
+	 */
+	@Override
+	public void updateTaskBoundaries(final int alpha, final int beta) {
+		synchronized (monitor) {
+			if (task != null) {
+				task.setAlpha(Math.max(task.getAlpha(), alpha));
+				task.setBeta(Math.min(task.getBeta(), beta));
+			}
+		}
+	}
+
+	/**
+	 * Returns number of searched nodes.
+	 * @return number of searched nodes
+	 */
+	@Override
+	public long getNodeCount() {
+		long nodeCount = finishedNodeCount.get();
+
+		for (ISearchEngine engine: runningEngineSet)
+			nodeCount += engine.getNodeCount();
+
+		return nodeCount;
+	}
+
+	/**
+	 * Adds published statistics of the worker engines into given statistics.
+	 * @param statistics target statistics
+	 */
+	@Override
+	public void addStatistics (final SearchStatistics statistics) {
+		for (ISearchEngine engine: workerEngineList)
+			engine.addStatistics(statistics);
+	}
+
+	/**
+	 * Sets maximal total depth of the search.
+	 * Engine must be in STOPPED state.
+	 * @param maxTotalDepth maximal total depth of the search
+	 */
+	@Override
+	public void setMaximalDepth(final int maxTotalDepth) {
+		synchronized (monitor) {
+			checkEngineState(EngineState.STOPPED);
+
+			this.maxTotalDepth = maxTotalDepth;
+
+			for (ISearchEngine engine: workerEngineList)
+				engine.setMaximalDepth(maxTotalDepth);
+		}
+	}
+
+	/**
+	 * Sets piece type evaluations.
+	 * Engine must be in STOPPED state.
+	 */
+	@Override
+	public void setPieceTypeEvaluations(final PieceTypeEvaluations pieceTypeEvaluations) {
+		synchronized (monitor) {
+			checkEngineState(EngineState.STOPPED);
+
+			this.pieceTypeEvaluations = pieceTypeEvaluations;
+			this.moveExtensionEvaluator.setPieceTypeEvaluations(pieceTypeEvaluations);
+
+			for (ISearchEngine engine: workerEngineList)
+				engine.setPieceTypeEvaluations(pieceTypeEvaluations);
+		}
+	}
+
+	/**
+	 * Sets hash table for the manager. Engine must be in STOPPED state.
+	 */
+	@Override
+	public void setHashTable(final IEvaluationHashTable evaluationHashTable, final IBestMoveHashTable bestMoveHashTable) {
+		synchronized (monitor) {
+			checkEngineState(EngineState.STOPPED);
+
+			this.evaluationHashTable = evaluationHashTable;
+			this.bestMoveHashTable = bestMoveHashTable;
+
+			for (ISearchEngine engine: workerEngineList)
+				engine.setHashTable(evaluationHashTable, bestMoveHashTable);
+		}
+	}
+
+	@Override
+	public void setCombinedPositionEvaluationTable(final CombinedPositionEvaluationTable table) {
+		synchronized (monitor) {
+			checkEngineState(EngineState.STOPPED);
+
+			this.combinedPositionEvaluationTable = table;
+
+			for (ISearchEngine engine: workerEngineList)
+				engine.setCombinedPositionEvaluationTable(table);
+		}
+	}
+
+	@Override
+	public SearchSettings getSearchSettings() {
+		synchronized (monitor) {
+			return searchSettings;
+		}
+	}
+
+	@Override
+	public void setSearchSettings(final SearchSettings searchSettings) {
+		synchronized (monitor) {
+			checkEngineState(EngineState.STOPPED);
+
+			this.searchSettings = searchSettings;
+			this.moveExtensionEvaluator.setSettings(searchSettings);
+
+			for (ISearchEngine engine: workerEngineList)
+				engine.setSearchSettings(searchSettings);
+		}
+	}
+
+	@Override
+	public void setTablebaseEvaluator(final TablebasePositionEvaluator evaluator) {
+		synchronized (monitor) {
+			checkEngineState(EngineState.STOPPED);
+
+			this.tablebaseEvaluator = evaluator;
+
+			for (ISearchEngine engine: workerEngineList)
+				engine.setTablebaseEvaluator(evaluator);
+		}
+	}
+
+	/**
+	 * Returns registrar for search engine handlers.
+	 * @return registrar
+	 */
+	@Override
+	public IHandlerRegistrar<ISearchEngineHandler> getHandlerRegistrar() {
+		return handlerRegistrar;
+	}
+
+	/**
+	 * Clears the engine.
+	 * Engine must be in STOPPED state.
+	 */
+	@Override
+	public void clear() {
+		synchronized (monitor) {
+			checkEngineState(EngineState.STOPPED);
+
+			for (ISearchEngine engine: workerEngineList)
+				engine.clear();
+		}
+	}
+
+	/**
+	 * Shuts down the thread pool and disposes worker engines.
+	 * Engine must be in STOPPED state and it cannot be used after this call.
+	 */
+	@Override
+	public void dispose() {
+		synchronized (monitor) {
+			checkEngineState(EngineState.STOPPED);
+
+			pool.shutdown();
+
+			for (ISearchEngine engine: workerEngineList)
+				engine.dispose();
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package bishop.engine;
+
+import bishop.base.PieceTypeEvaluations;
+
+/**
+ * Factory of parallel search engines. Subtrees below split depth are searched
+ * by engines from worker engine factory.
+ */
+public final class ParallelSearchEngineFactory implements ISearchEngineFactory {
+
+	private final ISearchEngineFactory workerEngineFactory;
+	private int maxSplitDepth = ParallelSearchEngine.DEFAULT_MAX_SPLIT_DEPTH;
+	private PieceTypeEvaluations pieceTypeEvaluations;
+
+	public ParallelSearchEngineFactory(final ISearchEngineFactory workerEngineFactory) {
+		this.workerEngineFactory = workerEngineFactory;
+	}
+
+	public int getMaxSplitDepth() {
+		return maxSplitDepth;
+	}
+
+	public void setMaxSplitDepth(final int maxSplitDepth) {
+		this.maxSplitDepth = maxSplitDepth;
+	}
+
+	public void setPieceTypeEvaluations (final PieceTypeEvaluations pieceTypeEvaluations) {
+		this.pieceTypeEvaluations = pieceTypeEvaluations;
+	}
+
+	/**
+	 * Creates new instance of search engine that uses all available processors.
+	 * @return new engine
+	 */
+	@Override
+	public ISearchEngine createEngine() {
+		return createEngine(Runtime.getRuntime().availableProcessors());
+	}
+
+	@Override
+	public boolean isParallel() {
+		return true;
+	}
+
+	/**
+	 * Creates new instance of search engine that uses given number of threads.
+	 * @param threadCount number of threads
+	 * @return new engine
+	 */
+	@Override
+	public ISearchEngine createEngine(final int threadCount) {
+		final ParallelSearchEngine engine = new ParallelSearchEngine(workerEngineFactory, threadCount, maxSplitDepth);
+
+		if (pieceTypeEvaluations != null)
+			engine.setPieceTypeEvaluations(pieceTypeEvaluations);
+
+		return engine;
+	}
+
+}
@@ -0,0 +1,121 @@
+package bishop.engine;
+
+import bishop.base.Move;
+import bishop.base.MoveList;
+
+/**
+ * List of best lines in the root position used by multi PV search.
+ * Lines are sorted from the best to the worst one and just given number
+ * of the best lines is kept.
+ * @author Ing. Petr Ležák
+ */
+public final class PrincipalVariationList {
+
+	private final int[] evaluations;
+	private final MoveList[] principalVariations;
+	private int size;
+
+	public PrincipalVariationList (final int capacity) {
+		this.evaluations = new int[capacity];
+		this.principalVariations = new MoveList[capacity];
+
+		for (int i = 0; i < capacity; i++)
+			principalVariations[i] = new MoveList();
+	}
+
+	public int getCapacity() {
+		return evaluations.length;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public boolean isFull() {
+		return size == evaluations.length;
+	}
+
+	/**
+	 * Returns evaluation of the line.
+	 * @param index index of the line, 0 is the best one
+	 * @return evaluation of the line
+	 */
+	public int getEvaluation (final int index) {
+		return evaluations[index];
+	}
+
+	/**
+	 * Returns principal variation of the line.
+	 * @param index index of the line, 0 is the best one
+	 * @return principal variation
+	 */
+	public MoveList getPrincipalVariation (final int index) {
+		return principalVariations[index];
+	}
+
+	/**
+	 * Returns evaluation of the worst kept line.
+	 * @return evaluation of the worst line or Evaluation.MIN if the list is not full
+	 */
+	public int getWorstEvaluation() {
+		return (isFull()) ? evaluations[size - 1] : Evaluation.MIN;
+	}
+
+	/**
+	 * Adds line into the list. If the list is full and the line is not
+	 * better than the worst line it is ignored.
+	 * @param move first move of the line
+	 * @param evaluation evaluation of the line
+	 * @param childVariation principal variation after the move
+	 */
+	public void addLine (final Move move, final int evaluation, final MoveList childVariation) {
+		int index = (isFull()) ? size - 1 : size;
+
+		if (isFull()) {
+			if (evaluation <= evaluations[index])
+				return;
+		}
+		else
+			size++;
+
+		// Move worse lines one place down, the MoveList of the dropped line is reused
+		final MoveList variation = principalVariations[index];
+
+		while (index > 0 && evaluations[index - 1] < evaluation) {
+			evaluations[index] = evaluations[index - 1];
+			principalVariations[index] = principalVariations[index - 1];
+			index--;
+		}
+
+		evaluations[index] = evaluation;
+		principalVariations[index] = variation;
+
+		variation.clear();
+		variation.add(move);
+		variation.addAll(childVariation);
+	}
+
+	public void assign (final PrincipalVariationList orig) {
+		if (orig.getCapacity() != this.getCapacity())
+			throw new RuntimeException("Different capacity of principal variation list");
+
+		this.size = orig.size;
+
+		for (int i = 0; i < size; i++) {
+			this.evaluations[i] = orig.evaluations[i];
+			this.principalVariations[i].assign(orig.principalVariations[i]);
+		}
+	}
+
+	public PrincipalVariationList copy() {
+		final PrincipalVariationList copy = new PrincipalVariationList(getCapacity());
+		copy.assign(this);
+
+		return copy;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+}
@@ -10,7 +10,10 @@ public final class SearchInfo {
 
 	private Position position;
 	private MoveList principalVariation;   // Best found variation
+	private PrincipalVariationList principalVariationList;   // Best lines in multi PV search or null
 	private int evaluation;
+	private int evaluationType = HashRecordType.VALUE;   // Exact value or bound if the evaluation is out of the aspiration window
+	private int aspirationResearchCount;   // Number of searches repeated because of aspiration window failure
 	private int horizon;   // Horizon of the search
 	private long nodeCount;   // Number of searched nodes
 	private long elapsedTime;   // [ms]
@@ -24,6 +27,18 @@ public final class SearchInfo {
 		this.principalVariation = principalVariation;
 	}
 	
+	/**
+	 * Returns best lines of the last finished iteration.
+	 * @return list of lines or null if the search is not multi PV or no iteration was finished
+	 */
+	public PrincipalVariationList getPrincipalVariationList() {
+		return principalVariationList;
+	}
+
+	public void setPrincipalVariationList(final PrincipalVariationList principalVariationList) {
+		this.principalVariationList = principalVariationList;
+	}
+
 	public int getHorizon() {
 		return horizon;
 	}
@@ -56,6 +71,27 @@ public final class SearchInfo {
 		this.evaluation = evaluation;
 	}
 
+	/**
+	 * Returns type of the evaluation.
+	 * @return HashRecordType.VALUE for exact evaluation, HashRecordType.LOWER_BOUND or HashRecordType.UPPER_BOUND
+	 * if the search has failed high or low in the aspiration window
+	 */
+	public int getEvaluationType() {
+		return evaluationType;
+	}
+
+	public void setEvaluationType(final int evaluationType) {
+		this.evaluationType = evaluationType;
+	}
+
+	public int getAspirationResearchCount() {
+		return aspirationResearchCount;
+	}
+
+	public void setAspirationResearchCount(final int aspirationResearchCount) {
+		this.aspirationResearchCount = aspirationResearchCount;
+	}
+
 	public Position getPosition() {
 		return position;
 	}
@@ -5,7 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -18,21 +18,40 @@ public final class SearchManagerImpl implements ISearchManager {
 
 	private static final int MIN_HORIZON = 3 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
 
+	// Lazy SMP - helper threads are searching with staggered horizons. Helpers with even index
+	// are one step ahead of the main engine and iterates by one step, helpers with odd index
+	// are searching the same horizon as the main engine with perturbed root move order
+	// and skips every second horizon.
+	private static final int HELPER_HORIZON_OFFSET_CYCLE = 2;
+	private static final int HELPER_HORIZON_INCREMENT_CYCLE = 2;
+
+	// Aspiration windows - iteration is searched with narrow window around evaluation from
+	// previous iteration. If the evaluation falls out of the window the window is widened
+	// by given multiplier and the iteration is searched again.
+	private static final int ASPIRATION_MIN_HORIZON = 4 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
+	private static final int ASPIRATION_INITIAL_WINDOW = PieceTypeEvaluations.PAWN_EVALUATION / 4;
+	private static final int ASPIRATION_WINDOW_MULTIPLIER = 4;
+
 	// Settings
 	private ISearchEngineFactory engineFactory;
 	private int maxHorizon;
-	private long maxTimeForMove;
+	private final TimeManager timeManager = new TimeManager();
 	private final HandlerRegistrarImpl<ISearchManagerHandler> handlerRegistrar;
 	private int threadCount = 1;
 	private CombinedPositionEvaluationTable combinedPositionEvaluationTable = CombinedPositionEvaluationTable.ZERO_TABLE;
 	private long searchInfoTimeout = 500; // ms
+	private int multiPvCount = 1;
+	private long maxNodeCount = NODE_COUNT_INFINITY;
+	private boolean deterministicMode;
 	
-	private final List<ISearchEngine> searchEngineList = new ArrayList<>();
+	private final List<ISearchEngine> searchEngineList = new CopyOnWriteArrayList<>();   // Iterated without lock by getStatistics
 	
 	// Data for the search
 	private SearchSettings searchSettings;
 	private long searchStartTime;
-	private long totalNodeCount;
+	private long timeLimitStartTime;   // Beginning of the time measured by the time manager
+	private boolean pondering;   // Search runs in the time of the opponent, time limits are not applied
+	private long finishedNodeCount;   // Number of nodes of finished searches of all engines
 	private int startHorizon;
 	private boolean bookSearchEnabled;
 	private boolean singleSearchEnabled;
@@ -58,11 +77,28 @@ public final class SearchManagerImpl implements ISearchManager {
 	private long lastSearchInfoTime;
 	private final List<String> additionalInfo = new ArrayList<>();
 	private final Random random = new Random();
+	private final List<ISearchEngine> runningEngineList = new ArrayList<>();
+	private int aspirationAlpha;   // Window of the current task of the main engine
+	private int aspirationBeta;
+	private int aspirationResearchCount;   // Number of searches repeated because of aspiration window failure
+	private SearchResult failedAspirationResult;   // Result of last failed search in current iteration or null
+	private PrincipalVariationList principalVariationList;   // Best lines from last finished iteration in multi PV search or null
+
+	// Lazy SMP helpers
+	private final Object helperMonitor = new Object();
+	private final List<Future<?>> helperFutureList = new ArrayList<>();
+	private SearchTask[] helperTasks;
+	private boolean helperSearchStopped;
+	private volatile EvaluatedMoveList helperRootMoveList;   // Root moves from last finished iteration of the main engine
 	
 	private final ISearchEngineHandler engineHandler = new ISearchEngineHandler() {
 		@Override
 		public void onResultUpdate(final SearchResult result) {
 			synchronized (monitor) {
+				// Fail low in aspiration window - the result is not better than the previous one
+				if (result.getEvaluation() < aspirationAlpha)
+					return;
+
 				searchResult = result;
 				updateNodeCountInResult();
 				
@@ -81,20 +117,28 @@ public final class SearchManagerImpl implements ISearchManager {
 		this.handlerRegistrar = new HandlerRegistrarImpl<>();
 		
 		this.setMaxHorizon(256);
-		this.maxTimeForMove = TIME_FOR_MOVE_INFINITY;
 		this.rootPosition = new Position();
 		
 		this.searchSettings = new SearchSettings();
 	}
 	
 	private void updateNodeCountInResult() {
-		long nodeCount = 0;
+		this.searchResult.setNodeCount(getTotalNodeCount());
+	}
+	
+	/**
+	 * Returns number of nodes searched by all engines from the beginning of the search.
+	 * Expects that calling thread owns the monitor.
+	 * @return number of nodes
+	 */
+	private long getTotalNodeCount() {
+		long nodeCount = finishedNodeCount;
 		
-		for (ISearchEngine engine: searchEngineList) {
+		for (ISearchEngine engine: runningEngineList) {
 			nodeCount += engine.getNodeCount();
 		}
 		
-		this.searchResult.setNodeCount(nodeCount);
+		return nodeCount;
 	}
 	
 	/**
@@ -137,12 +181,24 @@ public final class SearchManagerImpl implements ISearchManager {
 		if (horizon > maxHorizon)
 			searchFinished = true;
 		
-		if (horizon > startHorizon && (System.currentTimeMillis() - searchStartTime) > maxTimeForMove) {
+		if (horizon > startHorizon && !pondering && getTotalNodeCount() >= maxNodeCount)
+			searchFinished = true;
+		
+		if (horizon > startHorizon && !pondering && timeManager.isHardLimitExceeded(getTimeLimitElapsedTime())) {
 			searchFinished = true;
 			Logger.logMessage("Updating " + horizon + ", " + startHorizon);
 		}
 	}
 	
+	/**
+	 * Returns time elapsed from the beginning of the time measured by the time manager.
+	 * Expects that calling thread owns the monitor.
+	 * @return elapsed time [ms]
+	 */
+	private long getTimeLimitElapsedTime() {
+		return System.currentTimeMillis() - timeLimitStartTime;
+	}
+	
 	private void sendResult() {
 		if (!isResultSent) {
 			updateSearchInfo();
@@ -165,10 +221,20 @@ public final class SearchManagerImpl implements ISearchManager {
 			info.setPosition (rootPosition);
 			info.setElapsedTime(System.currentTimeMillis() - searchStartTime);
 			info.setHorizon(searchResult.getHorizon());
-			info.setNodeCount(totalNodeCount + searchResult.getNodeCount());
+			info.setNodeCount(searchResult.getNodeCount());
 			info.setPrincipalVariation(searchResult.getPrincipalVariation());
 			info.setEvaluation(searchResult.getEvaluation());
+			info.setEvaluationType((searchResult.getEvaluation() > aspirationBeta) ? HashRecordType.LOWER_BOUND : HashRecordType.VALUE);
+			info.setAspirationResearchCount(aspirationResearchCount);
+			info.setPrincipalVariationList(principalVariationList);
 			info.getAdditionalInfo().addAll(additionalInfo);
+
+			if (failedAspirationResult != null) {
+				final int failedEvaluation = failedAspirationResult.getEvaluation();
+
+				info.setEvaluation(failedEvaluation);
+				info.setEvaluationType((failedEvaluation < aspirationAlpha) ? HashRecordType.UPPER_BOUND : HashRecordType.LOWER_BOUND);
+			}
 			
 			for (ISearchManagerHandler handler: handlerRegistrar.getHandlers())
 				handler.onSearchInfoUpdate(info);
@@ -219,16 +285,26 @@ public final class SearchManagerImpl implements ISearchManager {
 	private void createSearchEngines() {
 		searchEngineList.clear();
 		
-		for (int i = 0; i < threadCount; i++) {
-			final ISearchEngine engine = engineFactory.createEngine();
+		// Parallel engine uses all threads by itself
+		final boolean isParallel = engineFactory.isParallel();
+		final int engineCount = (isParallel) ? 1 : threadCount;
+		
+		for (int i = 0; i < engineCount; i++) {
+			final ISearchEngine engine = (isParallel) ? engineFactory.createEngine(threadCount) : engineFactory.createEngine();
 			engine.setSearchSettings(searchSettings);
-			engine.getHandlerRegistrar().addHandler(engineHandler);
+			
+			// Result is owned by the main engine, helpers just fills the hash table
+			if (i == 0)
+				engine.getHandlerRegistrar().addHandler(engineHandler);
+			
 			engine.setTablebaseEvaluator(tablebaseEvaluator);
 			engine.setHashTable(evaluationHashTable, bestMoveHashTable);
 			engine.setCombinedPositionEvaluationTable(combinedPositionEvaluationTable);
 			
 			searchEngineList.add(engine);
 		}
+		
+		helperTasks = new SearchTask[engineCount - 1];
 	}
 
 	private void createCheckingThread() {
@@ -291,7 +367,12 @@ public final class SearchManagerImpl implements ISearchManager {
 				search();
 				
 				synchronized (monitor) {
-					sendResult();
+					// Result of pondering is sent after ponder hit, it is dropped on ponder miss
+					while (pondering && managerState == ManagerState.SEARCHING)
+						monitor.wait();
+					
+					if (!pondering)
+						sendResult();
 					
 					while (managerState == ManagerState.SEARCHING)
 						monitor.wait();
@@ -308,7 +389,10 @@ public final class SearchManagerImpl implements ISearchManager {
 				
 				if (managerState == ManagerState.SEARCHING && isSearchRunning)
 				{
-					final long timeout = lastSearchInfoTime + searchInfoTimeout - System.currentTimeMillis();
+					final long currentTime = System.currentTimeMillis();
+					final long infoTimeout = lastSearchInfoTime + searchInfoTimeout - currentTime;
+					final long limitTimeout = timeManager.getRemainingTime(currentTime - timeLimitStartTime) + 1;
+					final long timeout = (searchFinished || pondering) ? infoTimeout : Math.min(infoTimeout, limitTimeout);
 
 					if (timeout > 0)
 						monitor.wait(timeout);
@@ -347,74 +431,322 @@ public final class SearchManagerImpl implements ISearchManager {
 		horizon = startHorizon;
 		
 		EvaluatedMoveList previousEvaluatedMoveList = null;
+		final ISearchEngine mainEngine = searchEngineList.get(0);
+		
+		startHelperSearches();
 		
+		try {
+			while (true) {
+				final SearchResult result = searchIteration(mainEngine, previousEvaluatedMoveList, initialSearch);
+				
+				previousEvaluatedMoveList = result.getRootMoveList();
+				helperRootMoveList = previousEvaluatedMoveList;
+				
+				synchronized (monitor) {
+					// Finished iteration is kept even if the search is finished by the node limit
+					// that can be exceeded by the helpers
+					if (!result.isSearchTerminated()) {
+						this.searchResult = result;
+						this.failedAspirationResult = null;
+						this.principalVariationList = result.getPrincipalVariationList();
+						updateNodeCountInResult();
+						this.searchInfoChanged = true;
+					}
+					
+					updateSearchFinished();
+					
+					if (searchFinished || managerState != ManagerState.SEARCHING)
+						return;
+					
+					horizon += SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
+					initialSearch = false;
+					
+					// Partial result of the iteration over maximal horizon depends on timing
+					if (deterministicMode && horizon > maxHorizon) {
+						searchFinished = true;
+						return;
+					}
+					
+					// Do not start iteration that would not be finished in time
+					final long elapsedTime = getTimeLimitElapsedTime();
+					timeManager.onIterationFinished(elapsedTime, searchResult.getNodeCount());
+					
+					if (!pondering && !timeManager.canStartIteration(elapsedTime)) {
+						searchFinished = true;
+						return;
+					}
+				}
+			}
+		}
+		finally {
+			stopHelperSearches();
+			
+			// All engines are finished now so the result contains exact number of nodes
+			synchronized (monitor) {
+				if (searchResult != null)
+					updateNodeCountInResult();
+			}
+		}
+	}
+
+	/**
+	 * Searches one iteration of the iterative deepening by the main engine.
+	 * The search starts with aspiration window around the evaluation from the previous
+	 * iteration. If the evaluation falls out of the window the window is widened
+	 * and the search is repeated.
+	 * @param engine main engine
+	 * @param rootMoveList moves in the root from previous iteration, can be null
+	 * @param initialSearch if this is the initial search
+	 * @return result with the evaluation inside the window or terminated result
+	 */
+	private SearchResult searchIteration (final ISearchEngine engine, final EvaluatedMoveList rootMoveList, final boolean initialSearch) {
+		final SearchResult previousResult;
+
+		synchronized (monitor) {
+			previousResult = this.searchResult;
+		}
+
+		int windowSize = ASPIRATION_INITIAL_WINDOW;
+		int alpha = Evaluation.MIN;
+		int beta = Evaluation.MAX;
+
+		// Multi PV search needs exact evaluation of the worse lines so it uses full window
+		if (previousResult != null && horizon >= ASPIRATION_MIN_HORIZON && multiPvCount == 1) {
+			final int previousEvaluation = previousResult.getEvaluation();
+
+			alpha = getAspirationAlpha(previousEvaluation, windowSize);
+			beta = getAspirationBeta(previousEvaluation, windowSize);
+		}
+
 		while (true) {
-			final SearchTask task = new SearchTask();
-			task.getPosition().assign(rootPosition);
-			task.setHorizon(horizon);
+			final SearchTask task = createSearchTask(horizon, rootMoveList);
 			task.setInitialSearch(initialSearch);
+			task.setAlpha(alpha);
+			task.setBeta(beta);
 
-			if (this.searchResult != null)
-				task.getPrincipalVariation().assign(this.searchResult.getPrincipalVariation());
-			
-			final int materialEvaluation = rootPosition.getMaterialEvaluation();
-			task.setRootMaterialEvaluation(materialEvaluation);
-			
-			final RepeatedPositionRegister repeatedPositionRegister = new RepeatedPositionRegister();
-			repeatedPositionRegister.clearAndReserve(1);
-			repeatedPositionRegister.pushPosition(rootPosition, null);
-			
-			task.setRepeatedPositionRegister(repeatedPositionRegister);
-			
-			if (previousEvaluatedMoveList != null) {
-				final EvaluatedMoveList taskMoveList = task.getRootMoveList();
-				taskMoveList.assign(previousEvaluatedMoveList);
-				taskMoveList.sortMoves(0, taskMoveList.getSize());
+			synchronized (monitor) {
+				// Main engine stops exactly at the node limit, helpers are limited by the checking thread
+				if (maxNodeCount != NODE_COUNT_INFINITY)
+					task.setMaxNodeCount(Math.max(maxNodeCount - getTotalNodeCount(), 0));
+				
+				if (this.searchResult != null)
+					task.getPrincipalVariation().assign(this.searchResult.getPrincipalVariation());
+
+				aspirationAlpha = alpha;
+				aspirationBeta = beta;
+			}
+
+			final SearchResult result = searchByEngine(engine, task);
+			final int evaluation = result.getEvaluation();
+
+			if (result.isSearchTerminated() || (evaluation >= alpha && evaluation <= beta))
+				return result;
+
+			windowSize *= ASPIRATION_WINDOW_MULTIPLIER;
+
+			synchronized (monitor) {
+				aspirationResearchCount++;
+				failedAspirationResult = result;
+				searchInfoChanged = true;
 			}
+
+			if (evaluation < alpha)
+				alpha = getAspirationAlpha(evaluation, windowSize);
+			else
+				beta = getAspirationBeta(evaluation, windowSize);
+		}
+	}
+
+	/**
+	 * Returns lower boundary of the aspiration window. Full window is used for mate evaluations.
+	 * @param evaluation expected evaluation
+	 * @param windowSize size of the window
+	 * @return alpha
+	 */
+	private static int getAspirationAlpha (final int evaluation, final int windowSize) {
+		final int alpha = evaluation - windowSize;
+
+		return (alpha > -Evaluation.MATE_MIN && evaluation < Evaluation.MATE_MIN) ? alpha : Evaluation.MIN;
+	}
+
+	/**
+	 * Returns upper boundary of the aspiration window. Full window is used for mate evaluations.
+	 * @param evaluation expected evaluation
+	 * @param windowSize size of the window
+	 * @return beta
+	 */
+	private static int getAspirationBeta (final int evaluation, final int windowSize) {
+		final int beta = evaluation + windowSize;
+
+		return (beta < Evaluation.MATE_MIN && evaluation > -Evaluation.MATE_MIN) ? beta : Evaluation.MAX;
+	}
+	
+	/**
+	 * Creates task for searching root position.
+	 * @param taskHorizon horizon of the task
+	 * @param rootMoveList moves in the root from previous iteration, can be null
+	 * @return task
+	 */
+	private SearchTask createSearchTask(final int taskHorizon, final EvaluatedMoveList rootMoveList) {
+		final SearchTask task = new SearchTask();
+		task.getPosition().assign(rootPosition);
+		task.setHorizon(taskHorizon);
+		task.setMultiPvCount(multiPvCount);
+
+		final int materialEvaluation = rootPosition.getMaterialEvaluation();
+		task.setRootMaterialEvaluation(materialEvaluation);
+		
+		final RepeatedPositionRegister repeatedPositionRegister = new RepeatedPositionRegister();
+		repeatedPositionRegister.clearAndReserve(1);
+		repeatedPositionRegister.pushPosition(rootPosition, null);
+		
+		task.setRepeatedPositionRegister(repeatedPositionRegister);
+		
+		if (rootMoveList != null) {
+			final EvaluatedMoveList taskMoveList = task.getRootMoveList();
+			taskMoveList.assign(rootMoveList);
+			taskMoveList.sortMoves(0, taskMoveList.getSize());
+		}
+		
+		return task;
+	}
+	
+	/**
+	 * Searches given task by given engine and maintains node counts.
+	 * @param engine search engine
+	 * @param task task to search
+	 * @return search result
+	 */
+	private SearchResult searchByEngine (final ISearchEngine engine, final SearchTask task) {
+		synchronized (monitor) {
+			runningEngineList.add(engine);
+		}
+		
+		try {
+			return engine.search(task);
+		}
+		finally {
+			synchronized (monitor) {
+				runningEngineList.remove(engine);
+				finishedNodeCount += engine.getNodeCount();
+			}
+		}
+	}
+	
+	/**
+	 * Starts helper engines - all engines except the first one.
+	 */
+	private void startHelperSearches() {
+		synchronized (helperMonitor) {
+			helperSearchStopped = false;
+			helperRootMoveList = null;
 			
-			final List<Callable<SearchResult>> callableList = new ArrayList<>(threadCount);
+			if (deterministicMode)
+				return;
 			
-			for (int i = 0; i < threadCount; i++) {
+			for (int i = 1; i < searchEngineList.size(); i++) {
+				final int helperIndex = i - 1;
 				final ISearchEngine engine = searchEngineList.get(i);
 				
-				callableList.add(() -> engine.search(task));
+				helperFutureList.add(parallel.getExecutor().submit(() -> doHelperSearch(helperIndex, engine)));
 			}
+		}
+	}
+	
+	/**
+	 * Terminates helper engines and waits until they finish.
+	 */
+	private void stopHelperSearches() throws InterruptedException, ExecutionException {
+		synchronized (helperMonitor) {
+			helperSearchStopped = true;
 			
-			final List<Future<SearchResult>> futureList = parallel.getExecutor().invokeAll(callableList);
-			SearchResult bestResult = null;
+			for (SearchTask task: helperTasks) {
+				if (task != null)
+					task.setTerminated(true);
+			}
+		}
+		
+		for (Future<?> future: helperFutureList)
+			future.get();
+		
+		helperFutureList.clear();
+	}
+	
+	/**
+	 * Iterative deepening of one helper engine. Helper has its own schedule of horizons,
+	 * but it never searches horizon lower than the main engine.
+	 * @param helperIndex index of the helper
+	 * @param engine helper engine
+	 */
+	private void doHelperSearch (final int helperIndex, final ISearchEngine engine) {
+		final int horizonOffset = ((helperIndex + 1) % HELPER_HORIZON_OFFSET_CYCLE) * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
+		final int horizonIncrement = (1 + helperIndex % HELPER_HORIZON_INCREMENT_CYCLE) * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
+		int helperHorizon = startHorizon + horizonOffset;
+		
+		while (helperHorizon <= maxHorizon) {
+			final SearchTask task = createSearchTask(helperHorizon, helperRootMoveList);
+			task.setInitialSearch(false);
+			task.setRootHashMoveIgnored(true);
+			perturbRootMoveOrder(task.getRootMoveList(), helperIndex);
 			
-			for (Future<SearchResult> future: futureList) {
-				final SearchResult result = future.get();
+			synchronized (helperMonitor) {
+				if (helperSearchStopped)
+					return;
 				
-				if (bestResult == null || result.getEvaluation() > bestResult.getEvaluation())
-					bestResult = result;
+				helperTasks[helperIndex] = task;
 			}
 			
-			previousEvaluatedMoveList = bestResult.getRootMoveList();
+			searchByEngine(engine, task);
 			
-			synchronized (monitor) {
-				updateSearchFinished();
+			synchronized (helperMonitor) {
+				helperTasks[helperIndex] = null;
 				
-				if (searchFinished || managerState != ManagerState.SEARCHING)
+				if (helperSearchStopped)
 					return;
-				
-				horizon += SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
-				initialSearch = false;
-				
-				this.searchResult = bestResult;
-				updateNodeCountInResult();
-				this.searchInfoChanged = true;
-				
-				totalNodeCount += searchResult.getNodeCount();
-				this.searchResult.setNodeCount(0);
 			}
+			
+			final int mainHorizon;
+			
+			synchronized (monitor) {
+				mainHorizon = horizon;
+			}
+			
+			helperHorizon = Math.max(helperHorizon + horizonIncrement, mainHorizon + horizonOffset);
 		}
 	}
 	
+	/**
+	 * Moves (k+1)-th best move to the first place of the root move list so every
+	 * helper starts in different subtree than the main engine. Helper tasks ignores
+	 * hash best move in the root so the perturbed move is really searched first.
+	 * @param rootMoveList root moves sorted from worst to best ones
+	 * @param helperIndex index of the helper
+	 */
+	private static void perturbRootMoveOrder (final EvaluatedMoveList rootMoveList, final int helperIndex) {
+		final int size = rootMoveList.getSize();
+		
+		if (size > 1)
+			moveToTop(rootMoveList, size - 2 - helperIndex % (size - 1));
+	}
+	
+	/**
+	 * Moves move with given index to the place where it will be searched first.
+	 * @param rootMoveList root moves sorted from worst to best ones
+	 * @param index index of the move
+	 */
+	private static void moveToTop (final EvaluatedMoveList rootMoveList, final int index) {
+		rootMoveList.exchangeMoves(index, rootMoveList.getSize() - 1);
+	}
+	
 	private Move initializeSearch() {
 		this.horizon = startHorizon;
 		
 		this.searchResult = null;
+		this.failedAspirationResult = null;
+		this.principalVariationList = null;
+		this.aspirationAlpha = Evaluation.MIN;
+		this.aspirationBeta = Evaluation.MAX;
+		this.aspirationResearchCount = 0;
 		additionalInfo.clear();
 		
 		if (singleSearchEnabled) {
@@ -429,9 +761,6 @@ public final class SearchManagerImpl implements ISearchManager {
 		if (bookMove != null && bookSearchEnabled)
 			return bookMove;
 
-		evaluationHashTable.clear();
-		bestMoveHashTable.clear();
-
 		for (ISearchEngine engine: searchEngineList)
 			engine.clear();
 		
@@ -494,7 +823,10 @@ public final class SearchManagerImpl implements ISearchManager {
 		Utils.joinThread(checkingThread);
 		Utils.joinThread(searchingThread);
 		parallel.shutdown();
-		
+
+		for (ISearchEngine engine: searchEngineList)
+			engine.dispose();
+
 		searchEngineList.clear();
 		
 		synchronized (monitor) {
@@ -532,14 +864,65 @@ public final class SearchManagerImpl implements ISearchManager {
 		}
 	}
 	
+	/**
+	 * Sets number of best lines searched with exact evaluation.
+	 * Manager must be in STOPPED or WAITING state.
+	 * @param count number of lines
+	 */
+	@Override
+	public void setMultiPvCount (final int count) {
+		if (count < 1)
+			throw new RuntimeException("Wrong number of lines: " + count);
+		
+		synchronized (monitor) {
+			checkManagerState (ManagerState.STOPPED, ManagerState.WAITING);
+			this.multiPvCount = count;
+		}
+	}
+	
+	/**
+	 * Sets maximal number of nodes searched for one move.
+	 * Manager must be in STOPPED or WAITING state.
+	 * @param count maximal number of nodes
+	 */
+	@Override
+	public void setMaxNodeCount (final long count) {
+		synchronized (monitor) {
+			checkManagerState (ManagerState.STOPPED, ManagerState.WAITING);
+			this.maxNodeCount = count;
+		}
+	}
+	
+	/**
+	 * Enables or disables deterministic mode.
+	 * Manager must be in STOPPED or WAITING state.
+	 * @param deterministic true to enable deterministic mode
+	 */
+	@Override
+	public void setDeterministicMode (final boolean deterministic) {
+		synchronized (monitor) {
+			checkManagerState (ManagerState.STOPPED, ManagerState.WAITING);
+			this.deterministicMode = deterministic;
+		}
+	}
+	
 	/**
 	 * Sets maximal time for move.
 	 * @param time maximal time for search of one move
 	 */
 	public void setMaxTimeForMove (final long time) {
+		setTimeLimits(time, time);
+	}
+	
+	/**
+	 * Sets time limits for the search of one move.
+	 * @param softLimit time after that new iteration is not started [ms]
+	 * @param hardLimit time after that the search is terminated [ms]
+	 */
+	public void setTimeLimits (final long softLimit, final long hardLimit) {
 		synchronized (monitor) {
 			checkManagerState (ManagerState.STOPPED, ManagerState.WAITING);
-			this.maxTimeForMove = time;
+			timeManager.setLimits(softLimit, hardLimit);
 		}
 	}
 	
@@ -549,10 +932,24 @@ public final class SearchManagerImpl implements ISearchManager {
 	 * @param position position to search
 	 */
 	public void startSearching (final Position position) {
+		startSearching(position, false);
+	}
+	
+	/**
+	 * Starts pondering of given position.
+	 * Changes state from WAITING to SEARCHING. Time limits are not applied
+	 * and the result is not sent until ponderHit is called.
+	 * @param position position after the expected move of the opponent
+	 */
+	public void startPondering (final Position position) {
+		startSearching(position, true);
+	}
+	
+	private void startSearching (final Position position, final boolean ponder) {
 		synchronized (monitor) {
 			checkManagerState (ManagerState.WAITING);
 			
-			Logger.logMessage("Starting search");
+			Logger.logMessage((ponder) ? "Starting pondering" : "Starting search");
 			
 			this.startHorizon = Math.min(MIN_HORIZON, maxHorizon);
 			this.searchFinished = false;
@@ -564,16 +961,67 @@ public final class SearchManagerImpl implements ISearchManager {
 			this.rootPosition.refreshCachedData();
 			
 			searchStartTime = System.currentTimeMillis();
-			totalNodeCount = 0;
+			timeLimitStartTime = searchStartTime;
+			pondering = ponder;
+			finishedNodeCount = 0;
+			timeManager.startSearch();
 			managerState = ManagerState.SEARCHING;
 			
-			evaluationHashTable.clear();
-			bestMoveHashTable.clear();
+			if (deterministicMode) {
+				// Search must not depend on the previous searches
+				evaluationHashTable.clear();
+
+				if (bestMoveHashTable != evaluationHashTable)
+					bestMoveHashTable.clear();
+
+				for (ISearchEngine engine: searchEngineList)
+					engine.clear();
+			}
+			else {
+				// Records from previous searches are kept and aged out by the replacement
+				evaluationHashTable.nextGeneration();
+
+				if (bestMoveHashTable != evaluationHashTable)
+					bestMoveHashTable.nextGeneration();
+			}
+			
+			monitor.notifyAll();
+		}
+	}
+	
+	/**
+	 * Changes pondering to normal search. The search continues with iterations
+	 * and hash table filled during pondering. Time limits are measured from now.
+	 * Manager must be in SEARCHING state and pondering.
+	 */
+	public void ponderHit() {
+		synchronized (monitor) {
+			checkManagerState (ManagerState.SEARCHING);
+			
+			if (!pondering)
+				throw new RuntimeException("Manager is not pondering");
+			
+			Logger.logMessage("Ponder hit");
+			
+			final long currentTime = System.currentTimeMillis();
+			timeManager.restartClock(currentTime - timeLimitStartTime);
+			timeLimitStartTime = currentTime;
+			pondering = false;
 			
 			monitor.notifyAll();
 		}
 	}
 	
+	/**
+	 * Checks if the manager is pondering.
+	 * @return true if search was started by startPondering and ponderHit was not called yet
+	 */
+	public boolean isPondering() {
+		synchronized (monitor) {
+			return pondering && managerState == ManagerState.SEARCHING;
+		}
+	}
+	
 	/**
 	 * Stops searching.
 	 * Changes state from SEARCHING to TERMINATING and later to WAITING.
@@ -626,6 +1074,21 @@ public final class SearchManagerImpl implements ISearchManager {
 		}
 	}
 	
+	/**
+	 * Returns statistics of the current or last search summed over all engines.
+	 * Method doesn't lock the manager or the engines so it can be called during the search.
+	 * @return snapshot of the statistics
+	 */
+	@Override
+	public SearchStatistics getStatistics() {
+		final SearchStatistics statistics = new SearchStatistics();
+
+		for (ISearchEngine engine: searchEngineList)
+			engine.addStatistics(statistics);
+
+		return statistics;
+	}
+
 	/**
 	 * Returns current state of the manager.
 	 * @return manager state
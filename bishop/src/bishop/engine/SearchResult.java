@@ -11,6 +11,7 @@ public final class SearchResult implements ISearchResult {
 	private int horizon;
 	private boolean searchTerminated;
 	private final EvaluatedMoveList rootMoveList;   // List of evaluated moves in the root
+	private PrincipalVariationList principalVariationList;   // Best lines in multi PV search or null
 	
 	public SearchResult() {
 		this.principalVariation = new MoveList();
@@ -47,6 +48,7 @@ public final class SearchResult implements ISearchResult {
 		result.nodeCount = this.nodeCount;
 		result.horizon = horizon;
 		result.searchTerminated = searchTerminated;
+		result.principalVariationList = (principalVariationList != null) ? principalVariationList.copy() : null;
 		
 		return result;
 	}
@@ -77,4 +79,16 @@ public final class SearchResult implements ISearchResult {
 		return rootMoveList;
 	}
 
+	/**
+	 * Returns best lines of the root position.
+	 * @return list of lines or null if the search was not multi PV
+	 */
+	public PrincipalVariationList getPrincipalVariationList() {
+		return principalVariationList;
+	}
+
+	public void setPrincipalVariationList(final PrincipalVariationList principalVariationList) {
+		this.principalVariationList = principalVariationList;
+	}
+
 }
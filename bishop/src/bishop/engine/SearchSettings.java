@@ -20,7 +20,11 @@ public final class SearchSettings {
 			"simpleCheckExtension, attackCheckExtension, forcedMoveExtension, mateExtension, rankAttackExtension, " +
 			"pawnOnSevenRankExtension, protectingPawnOnSixRankExtension, " +
 			"recaptureMinExtension, recaptureMaxExtension, " +
-			"recaptureBeginMinTreshold, recaptureBeginMaxTreshold, recaptureTargetTreshold, maxEstimateForZeroWindowSearch";
+			"recaptureBeginMinTreshold, recaptureBeginMaxTreshold, recaptureTargetTreshold, maxEstimateForZeroWindowSearch, " +
+			"lateMoveReductionMinHorizon, lateMoveReductionMinMoveIndex, lateMoveReductionMoveIndexStep, " +
+			"lateMoveReduction, lateMoveMaxReduction, lateMoveReductionPvNodeDecrease, lateMoveReductionMaxEstimate, lateMoveReductionMinGameStage, " +
+			"frontierFutilityMargin, preFrontierFutilityMargin, razoringMaxHorizon, razoringMargin, " +
+			"internalIterativeDeepeningMinHorizon, internalIterativeDeepeningReduction";
 
 	private int maxQuiescenceDepth;
 	private int nullMoveReduction;
@@ -43,6 +47,26 @@ public final class SearchSettings {
 	private int maxFullQuiescenceSearchDepth;
 	private int maxEstimateForZeroWindowSearch;
 
+	// Late move reductions, horizon is in units of HORIZON_STEP_WITHOUT_EXTENSION / 2
+	private int lateMoveReductionMinHorizon;
+	private int lateMoveReductionMinMoveIndex;
+	private int lateMoveReductionMoveIndexStep;
+	private int lateMoveReduction;
+	private int lateMoveMaxReduction;
+	private int lateMoveReductionPvNodeDecrease;
+	private int lateMoveReductionMaxEstimate;
+	private int lateMoveReductionMinGameStage;
+
+	// Futility pruning and razoring
+	private int frontierFutilityMargin;
+	private int preFrontierFutilityMargin;
+	private int razoringMaxHorizon;
+	private int razoringMargin;
+
+	// Internal iterative deepening
+	private int internalIterativeDeepeningMinHorizon;
+	private int internalIterativeDeepeningReduction;
+
 	public SearchSettings() {
 		maxQuiescenceDepth = 17;
 		maxFullQuiescenceSearchDepth = 5;
@@ -67,6 +91,23 @@ public final class SearchSettings {
 		recaptureBeginMaxTreshold = roundToInt (9.0 * PieceTypeEvaluations.PAWN_EVALUATION);
 		recaptureTargetTreshold = roundToInt (9.0 * PieceTypeEvaluations.PAWN_EVALUATION);
 		maxEstimateForZeroWindowSearch = 1411974;
+
+		lateMoveReductionMinHorizon = 6;
+		lateMoveReductionMinMoveIndex = 3;
+		lateMoveReductionMoveIndexStep = 8;
+		lateMoveReduction = 2;
+		lateMoveMaxReduction = 4;
+		lateMoveReductionPvNodeDecrease = 1;
+		lateMoveReductionMaxEstimate = 1411974;
+		lateMoveReductionMinGameStage = 4;
+
+		frontierFutilityMargin = roundToInt (2.0 * PieceTypeEvaluations.PAWN_EVALUATION);
+		preFrontierFutilityMargin = roundToInt (4.0 * PieceTypeEvaluations.PAWN_EVALUATION);
+		razoringMaxHorizon = 4;
+		razoringMargin = roundToInt (4.0 * PieceTypeEvaluations.PAWN_EVALUATION);
+
+		internalIterativeDeepeningMinHorizon = 10;
+		internalIterativeDeepeningReduction = 4;
 	}
 	
 	private static int makeExtension(final double extension) {
@@ -209,6 +250,118 @@ public final class SearchSettings {
 		this.maxFullQuiescenceSearchDepth = maxFullQuiescenceSearchDepth;
 	}
 
+	public int getLateMoveReductionMinHorizon() {
+		return lateMoveReductionMinHorizon;
+	}
+
+	public void setLateMoveReductionMinHorizon(final int lateMoveReductionMinHorizon) {
+		this.lateMoveReductionMinHorizon = lateMoveReductionMinHorizon;
+	}
+
+	public int getLateMoveReductionMinMoveIndex() {
+		return lateMoveReductionMinMoveIndex;
+	}
+
+	public void setLateMoveReductionMinMoveIndex(final int lateMoveReductionMinMoveIndex) {
+		this.lateMoveReductionMinMoveIndex = lateMoveReductionMinMoveIndex;
+	}
+
+	public int getLateMoveReductionMoveIndexStep() {
+		return lateMoveReductionMoveIndexStep;
+	}
+
+	public void setLateMoveReductionMoveIndexStep(final int lateMoveReductionMoveIndexStep) {
+		this.lateMoveReductionMoveIndexStep = lateMoveReductionMoveIndexStep;
+	}
+
+	public int getLateMoveReduction() {
+		return lateMoveReduction;
+	}
+
+	public void setLateMoveReduction(final int lateMoveReduction) {
+		this.lateMoveReduction = lateMoveReduction;
+	}
+
+	public int getLateMoveMaxReduction() {
+		return lateMoveMaxReduction;
+	}
+
+	public void setLateMoveMaxReduction(final int lateMoveMaxReduction) {
+		this.lateMoveMaxReduction = lateMoveMaxReduction;
+	}
+
+	public int getLateMoveReductionPvNodeDecrease() {
+		return lateMoveReductionPvNodeDecrease;
+	}
+
+	public void setLateMoveReductionPvNodeDecrease(final int lateMoveReductionPvNodeDecrease) {
+		this.lateMoveReductionPvNodeDecrease = lateMoveReductionPvNodeDecrease;
+	}
+
+	public int getLateMoveReductionMaxEstimate() {
+		return lateMoveReductionMaxEstimate;
+	}
+
+	public void setLateMoveReductionMaxEstimate(final int lateMoveReductionMaxEstimate) {
+		this.lateMoveReductionMaxEstimate = lateMoveReductionMaxEstimate;
+	}
+
+	public int getLateMoveReductionMinGameStage() {
+		return lateMoveReductionMinGameStage;
+	}
+
+	public void setLateMoveReductionMinGameStage(final int lateMoveReductionMinGameStage) {
+		this.lateMoveReductionMinGameStage = lateMoveReductionMinGameStage;
+	}
+
+	public int getFrontierFutilityMargin() {
+		return frontierFutilityMargin;
+	}
+
+	public void setFrontierFutilityMargin(final int frontierFutilityMargin) {
+		this.frontierFutilityMargin = frontierFutilityMargin;
+	}
+
+	public int getPreFrontierFutilityMargin() {
+		return preFrontierFutilityMargin;
+	}
+
+	public void setPreFrontierFutilityMargin(final int preFrontierFutilityMargin) {
+		this.preFrontierFutilityMargin = preFrontierFutilityMargin;
+	}
+
+	public int getRazoringMaxHorizon() {
+		return razoringMaxHorizon;
+	}
+
+	public void setRazoringMaxHorizon(final int razoringMaxHorizon) {
+		this.razoringMaxHorizon = razoringMaxHorizon;
+	}
+
+	public int getRazoringMargin() {
+		return razoringMargin;
+	}
+
+	public void setRazoringMargin(final int razoringMargin) {
+		this.razoringMargin = razoringMargin;
+	}
+
+	public int getInternalIterativeDeepeningMinHorizon() {
+		return internalIterativeDeepeningMinHorizon;
+	}
+
+	public void setInternalIterativeDeepeningMinHorizon(final int internalIterativeDeepeningMinHorizon) {
+		this.internalIterativeDeepeningMinHorizon = internalIterativeDeepeningMinHorizon;
+	}
+
+	public int getInternalIterativeDeepeningReduction() {
+		return internalIterativeDeepeningReduction;
+	}
+
+	public void setInternalIterativeDeepeningReduction(final int internalIterativeDeepeningReduction) {
+		this.internalIterativeDeepeningReduction = internalIterativeDeepeningReduction;
+	}
+
 	public void assign(final SearchSettings orig) {
 		maxQuiescenceDepth = orig.maxQuiescenceDepth;
 		maxCheckSearchDepth = orig.maxCheckSearchDepth;
@@ -231,6 +384,23 @@ public final class SearchSettings {
 		recaptureBeginMinTreshold = orig.recaptureBeginMinTreshold;
 		recaptureBeginMaxTreshold = orig.recaptureBeginMaxTreshold;
 		recaptureTargetTreshold = orig.recaptureTargetTreshold;
+
+		lateMoveReductionMinHorizon = orig.lateMoveReductionMinHorizon;
+		lateMoveReductionMinMoveIndex = orig.lateMoveReductionMinMoveIndex;
+		lateMoveReductionMoveIndexStep = orig.lateMoveReductionMoveIndexStep;
+		lateMoveReduction = orig.lateMoveReduction;
+		lateMoveMaxReduction = orig.lateMoveMaxReduction;
+		lateMoveReductionPvNodeDecrease = orig.lateMoveReductionPvNodeDecrease;
+		lateMoveReductionMaxEstimate = orig.lateMoveReductionMaxEstimate;
+		lateMoveReductionMinGameStage = orig.lateMoveReductionMinGameStage;
+
+		frontierFutilityMargin = orig.frontierFutilityMargin;
+		preFrontierFutilityMargin = orig.preFrontierFutilityMargin;
+		razoringMaxHorizon = orig.razoringMaxHorizon;
+		razoringMargin = orig.razoringMargin;
+
+		internalIterativeDeepeningMinHorizon = orig.internalIterativeDeepeningMinHorizon;
+		internalIterativeDeepeningReduction = orig.internalIterativeDeepeningReduction;
 	}
 
 	private static void printExtension(final PrintWriter writer, final int value) {
@@ -281,7 +451,24 @@ public final class SearchSettings {
 			printRelativeEvaluation(printWriter, recaptureBeginMaxTreshold);
 			printRelativeEvaluation(printWriter, recaptureTargetTreshold);
 
-			printWriter.print(maxEstimateForZeroWindowSearch);
+			printWriter.print(maxEstimateForZeroWindowSearch + ", ");
+
+			printWriter.print(lateMoveReductionMinHorizon + ", ");
+			printWriter.print(lateMoveReductionMinMoveIndex + ", ");
+			printWriter.print(lateMoveReductionMoveIndexStep + ", ");
+			printWriter.print(lateMoveReduction + ", ");
+			printWriter.print(lateMoveMaxReduction + ", ");
+			printWriter.print(lateMoveReductionPvNodeDecrease + ", ");
+			printWriter.print(lateMoveReductionMaxEstimate + ", ");
+			printWriter.print(lateMoveReductionMinGameStage + ", ");
+
+			printRelativeEvaluation(printWriter, frontierFutilityMargin);
+			printRelativeEvaluation(printWriter, preFrontierFutilityMargin);
+			printWriter.print(razoringMaxHorizon + ", ");
+			printRelativeEvaluation(printWriter, razoringMargin);
+
+			printWriter.print(internalIterativeDeepeningMinHorizon + ", ");
+			printWriter.print(internalIterativeDeepeningReduction);
 
 			printWriter.flush();
 			return stringWriter.toString();
@@ -0,0 +1,153 @@
+package bishop.engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Statistics of the search.
+ * Each engine owns one instance and it is the only thread that updates the counters.
+ * Counters are updated without any synchronization and they are published from time
+ * to time by release stores into the published array. Other threads reads just the
+ * published values so they can aggregate the statistics without locking the engine.
+ * Both arrays are padded by one cache line on both sides so the counters of one engine
+ * never shares cache line with data of other threads.
+ * Instance that is not owned by any engine can be used as a snapshot - method addPublishedTo
+ * adds published counters of the engine into the local counters of the snapshot.
+ * @author Ing. Petr Ležák
+ */
+public final class SearchStatistics {
+
+	public static final int NODE_COUNT = 0;
+	public static final int QUIESCENCE_NODE_COUNT = 1;
+	public static final int HASH_HIT_COUNT = 2;
+	public static final int HASH_MISS_COUNT = 3;
+	public static final int HASH_CUTOFF_COUNT = 4;
+	public static final int NULL_MOVE_CUTOFF_COUNT = 5;
+	public static final int LATE_MOVE_REDUCTION_COUNT = 6;
+	public static final int LATE_MOVE_RESEARCH_COUNT = 7;
+	public static final int FUTILITY_PRUNING_COUNT = 8;
+	public static final int RAZORING_COUNT = 9;
+	public static final int INTERNAL_ITERATIVE_DEEPENING_COUNT = 10;
+	public static final int FIRST_BETA_CUTOFF_INDEX = 11;
+
+	// Beta cutoffs by index of the move, the last item contains all cutoffs with higher index
+	public static final int BETA_CUTOFF_INDEX_COUNT = 16;
+
+	public static final int COUNTER_COUNT = FIRST_BETA_CUTOFF_INDEX + BETA_CUTOFF_INDEX_COUNT;
+
+	private static final int PADDING = 8;   // One cache line of longs
+	private static final int ARRAY_SIZE = COUNTER_COUNT + 2 * PADDING;
+
+	private final long[] counters = new long[ARRAY_SIZE];
+	private final AtomicLongArray publishedCounters = new AtomicLongArray(ARRAY_SIZE);
+
+	/**
+	 * Increments given counter.
+	 * Can be called just by the owner.
+	 * @param counter index of the counter
+	 */
+	public void increment (final int counter) {
+		counters[PADDING + counter]++;
+	}
+
+	/**
+	 * Registers beta cutoff.
+	 * Can be called just by the owner.
+	 * @param moveIndex index of the move that caused the cutoff
+	 */
+	public void addBetaCutoff (final int moveIndex) {
+		final int boundedIndex = Math.min(moveIndex, BETA_CUTOFF_INDEX_COUNT - 1);
+
+		counters[PADDING + FIRST_BETA_CUTOFF_INDEX + boundedIndex]++;
+	}
+
+	/**
+	 * Returns local value of given counter.
+	 * Can be called just by the owner.
+	 * @param counter index of the counter
+	 * @return value of the counter
+	 */
+	public long get (final int counter) {
+		return counters[PADDING + counter];
+	}
+
+	public long getBetaCutoffCount (final int moveIndex) {
+		return get(FIRST_BETA_CUTOFF_INDEX + moveIndex);
+	}
+
+	/**
+	 * Returns total number of beta cutoffs.
+	 * @return number of beta cutoffs
+	 */
+	public long getTotalBetaCutoffCount() {
+		long count = 0;
+
+		for (int i = 0; i < BETA_CUTOFF_INDEX_COUNT; i++)
+			count += getBetaCutoffCount(i);
+
+		return count;
+	}
+
+	/**
+	 * Returns ratio of successful hash probes.
+	 * @return hit rate or 0 if there was no probe
+	 */
+	public double getHashHitRate() {
+		final long hitCount = get(HASH_HIT_COUNT);
+		final long probeCount = hitCount + get(HASH_MISS_COUNT);
+
+		return (probeCount > 0) ? (double) hitCount / (double) probeCount : 0.0;
+	}
+
+	/**
+	 * Publishes local counters so they can be read by other threads.
+	 * Can be called just by the owner.
+	 */
+	public void publish() {
+		for (int i = PADDING; i < PADDING + COUNTER_COUNT; i++)
+			publishedCounters.lazySet(i, counters[i]);
+	}
+
+	/**
+	 * Clears the counters and publishes them.
+	 * Can be called just by the owner.
+	 */
+	public void clear() {
+		for (int i = PADDING; i < PADDING + COUNTER_COUNT; i++) {
+			counters[i] = 0;
+			publishedCounters.lazySet(i, 0);
+		}
+	}
+
+	/**
+	 * Adds published counters of this statistics into local counters of given statistics.
+	 * Can be called by any thread.
+	 * @param target target statistics
+	 */
+	public void addPublishedTo (final SearchStatistics target) {
+		for (int i = PADDING; i < PADDING + COUNTER_COUNT; i++)
+			target.counters[i] += publishedCounters.get(i);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("nodes ").append(get(NODE_COUNT));
+		builder.append(", quiescence nodes ").append(get(QUIESCENCE_NODE_COUNT));
+		builder.append(", hash hits ").append(get(HASH_HIT_COUNT));
+		builder.append(", hash misses ").append(get(HASH_MISS_COUNT));
+		builder.append(", hash cutoffs ").append(get(HASH_CUTOFF_COUNT));
+		builder.append(", null move cutoffs ").append(get(NULL_MOVE_CUTOFF_COUNT));
+		builder.append(", late move reductions ").append(get(LATE_MOVE_REDUCTION_COUNT));
+		builder.append(", late move re-searches ").append(get(LATE_MOVE_RESEARCH_COUNT));
+		builder.append(", futility prunings ").append(get(FUTILITY_PRUNING_COUNT));
+		builder.append(", razorings ").append(get(RAZORING_COUNT));
+		builder.append(", internal iterative deepenings ").append(get(INTERNAL_ITERATIVE_DEEPENING_COUNT));
+		builder.append(", beta cutoffs by move index");
+
+		for (int i = 0; i < BETA_CUTOFF_INDEX_COUNT; i++)
+			builder.append(' ').append(getBetaCutoffCount(i));
+
+		return builder.toString();
+	}
+
+}
@@ -14,10 +14,13 @@ public final class SearchTask {
 	private final MoveList principalVariation;   // Hint from previous iteration
 	private boolean initialSearch;
 	private RepeatedPositionRegister positionRegister;
-	private boolean terminated;
+	private volatile boolean terminated;
 	private int rootMaterialEvaluation;
 	private final Move move;
 	private final EvaluatedMoveList rootMoveList;   // Optional moves in the root sorted from worst to best ones
+	private int multiPvCount;   // Number of best lines with exact evaluation
+	private long maxNodeCount;   // Search is terminated after this number of nodes
+	private boolean rootHashMoveIgnored;   // Root moves are searched in order of the root move list
 	
 	public SearchTask() {
 		horizon = 0;
@@ -29,6 +32,9 @@ public final class SearchTask {
 		terminated = false;
 		move = new Move();
 		rootMoveList = new EvaluatedMoveList(PseudoLegalMoveGenerator.MAX_MOVES_IN_POSITION);
+		multiPvCount = 1;
+		maxNodeCount = ISearchManager.NODE_COUNT_INFINITY;
+		rootHashMoveIgnored = false;
 	}
 	
 	public Position getPosition() {
@@ -59,6 +65,40 @@ public final class SearchTask {
 		this.beta = beta;
 	}
 
+	public int getMultiPvCount() {
+		return multiPvCount;
+	}
+
+	public void setMultiPvCount(final int multiPvCount) {
+		this.multiPvCount = multiPvCount;
+	}
+
+	public long getMaxNodeCount() {
+		return maxNodeCount;
+	}
+
+	/**
+	 * Sets maximal number of nodes of the task. The engine terminates the task
+	 * exactly when the number of nodes is reached so the search is reproducible.
+	 * @param maxNodeCount maximal number of nodes
+	 */
+	public void setMaxNodeCount(final long maxNodeCount) {
+		this.maxNodeCount = maxNodeCount;
+	}
+
+	public boolean isRootHashMoveIgnored() {
+		return rootHashMoveIgnored;
+	}
+
+	/**
+	 * Sets if the best move from the hash table should be ignored in the root.
+	 * Root moves are then searched exactly in order of the root move list.
+	 * @param rootHashMoveIgnored true if hash best move should be ignored in the root
+	 */
+	public void setRootHashMoveIgnored(final boolean rootHashMoveIgnored) {
+		this.rootHashMoveIgnored = rootHashMoveIgnored;
+	}
+
 	public MoveList getPrincipalVariation() {
 		return principalVariation;
 	}
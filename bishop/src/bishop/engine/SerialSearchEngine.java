@@ -2,6 +2,7 @@ package bishop.engine;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 
 import bishop.base.*;
@@ -16,40 +17,6 @@ public final class SerialSearchEngine implements ISearchEngine {
 	private static final int MAX_POSITIONAL_EVALUATION = 3 * PieceTypeEvaluations.PAWN_EVALUATION;
 
 	public class NodeRecord implements ISearchResult {
-		private class MoveWalker implements IMoveWalker {
-			private final HashRecord estimateHashRecord = new HashRecord();
-
-			public boolean processMove(final Move move) {
-				int estimate;
-
-				if (move.equals(hashBestMove))
-					estimate = HASH_BEST_MOVE_ESTIMATE;
-				else {
-					estimate = moveEstimator.getMoveEstimate(NodeRecord.this, currentPosition.getOnTurn(), move);
-
-					// Sort moves by hash table in depth 0.
-					if (depth == 0) {
-						currentPosition.makeMove(move);
-
-						for (int horizon = SerialSearchEngine.MAX_HORIZON - 1; horizon >= 0; horizon--) {
-							if (evaluationHashTable.getRecord(currentPosition, horizon, estimateHashRecord)) {
-								estimate = -estimateHashRecord.getEvaluation();
-								break;
-							}
-						}
-
-						currentPosition.undoMove(move);
-					}
-				}
-
-				moveStack.setRecord(moveStackTop, move, estimate);
-				moveStackTop++;
-
-				return true;
-			}
-		};
-
-		private final MoveWalker moveWalker;
 		private final QuiescencePseudoLegalMoveGenerator quiescenceLegalMoveGenerator;
 		private final PseudoLegalMoveGenerator pseudoLegalMoveGenerator;
 		private final int depth;
@@ -65,11 +32,12 @@ public final class SerialSearchEngine implements ISearchEngine {
 		private final Move firstLegalMove = new Move();
 		private final Move principalMove = new Move();
 		private boolean allMovesGenerated;
+		private boolean isTacticalStage;
 		private boolean isQuiescenceSearch;
 		private boolean isCheckSearch;
 		private boolean isCheck;
-		private int legalMoveCount;
-		private int bestLegalMoveIndex;
+		private int searchedMoveCount;
+		private int staticEvaluation;
 		private final MobilityCalculator mobilityCalculator = new MobilityCalculator();
 		private int evaluation;
 		private int alpha;
@@ -77,22 +45,20 @@ public final class SerialSearchEngine implements ISearchEngine {
 
 		// Precreated objects to prevent reallocation
 		private final HashRecord hashRecord = new HashRecord();
+		private final HashRecord estimateHashRecord = new HashRecord();
 		private final Move nullMove = new Move();
 		private final Move precalculatedMove = new Move();
 		private final Move precreatedCurrentMove = new Move();
+		private final Move stagedKillerMove = new Move();
 
 		public NodeRecord(final int depth, final int maxPrincipalDepth, final NodeRecord nextRecord) {
 			this.depth = depth;
 			this.nextRecord = nextRecord;
 			this.principalVariation = new MoveList(maxPrincipalDepth);
 
-			moveWalker = new MoveWalker();
-
+			// Moves are generated directly into the move stack so the generators have no walker
 			quiescenceLegalMoveGenerator = new QuiescencePseudoLegalMoveGenerator();
-			quiescenceLegalMoveGenerator.setWalker(moveWalker);
-
 			pseudoLegalMoveGenerator = new PseudoLegalMoveGenerator();
-			pseudoLegalMoveGenerator.setWalker(moveWalker);
 		}
 
 		public Move getKillerMove() {
@@ -129,8 +95,7 @@ public final class SerialSearchEngine implements ISearchEngine {
 			this.beta = beta;
 			this.firstLegalMove.clear();
 			this.allMovesGenerated = false;
-			this.legalMoveCount = 0;
-			this.bestLegalMoveIndex = -1;
+			this.searchedMoveCount = 0;
 		}
 
 		public void clear() {
@@ -148,8 +113,7 @@ public final class SerialSearchEngine implements ISearchEngine {
 			isQuiescenceSearch = false;
 			isCheck = false;
 			isCheckSearch = false;
-			legalMoveCount = 0;
-			bestLegalMoveIndex = 0;
+			searchedMoveCount = 0;
 			hashRecord.clear();
 			nullMove.clear();
 			precalculatedMove.clear();
@@ -166,6 +130,7 @@ public final class SerialSearchEngine implements ISearchEngine {
 
 		private void alphaBeta (final int horizon) {
 			receiveUpdates();
+			staticEvaluation = Evaluation.UNKNOWN;
 
 			final int onTurn = currentPosition.getOnTurn();
 			mobilityCalculator.calculate(currentPosition, (depth > 0) ? nodeStack[depth - 1].mobilityCalculator : null);
@@ -185,21 +150,113 @@ public final class SerialSearchEngine implements ISearchEngine {
 				return;
 
 			// Try to find position in hash table
-			if (updateRecordByHash(horizon))
+			if (updateRecordByHash(horizon)) {
+				statistics.increment(SearchStatistics.HASH_CUTOFF_COUNT);
 				return;
+			}
 
 			final int reducedHorizon = shouldReduceHorizon(horizon) ? 0 : horizon;
 			initialize(reducedHorizon);
 
+			if (shouldRazor(reducedHorizon) && razor(reducedHorizon)) {
+				statistics.increment(SearchStatistics.RAZORING_COUNT);
+				return;
+			}
+
+			if (shouldUseInternalIterativeDeepening(reducedHorizon)) {
+				statistics.increment(SearchStatistics.INTERNAL_ITERATIVE_DEEPENING_COUNT);
+				internalIterativeDeepening(reducedHorizon);
+			}
+
 			performSearch(horizon, reducedHorizon);
 
 			updateHashRecord(reducedHorizon);
-			updateBestMovePerIndexCounts();
+		}
+
+		/**
+		 * Checks if the best move should be obtained by internal iterative deepening.
+		 * It is used just in PV nodes with high horizon when there is no best move in the hash table.
+		 * @param reducedHorizon horizon
+		 * @return true if internal iterative deepening should be done
+		 */
+		private boolean shouldUseInternalIterativeDeepening(final int reducedHorizon) {
+			return depth > 0 &&
+			       !isQuiescenceSearch &&
+			       alpha != beta &&
+			       hashBestMove.getMoveType() == MoveType.INVALID &&
+			       reducedHorizon >= searchSettings.getInternalIterativeDeepeningMinHorizon() &&
+			       reducedHorizon > searchSettings.getInternalIterativeDeepeningReduction();
+		}
+
+		/**
+		 * Searches the node with reduced horizon and uses the best move as hash best move
+		 * of the full search. Then the node is prepared for full search.
+		 * @param reducedHorizon horizon of the full search
+		 */
+		private void internalIterativeDeepening(final int reducedHorizon) {
+			final int iidAlpha = alpha;
+			final int iidBeta = beta;
+			final int iidMoveStackTop = moveStackTop;
+			final int iidHorizon = reducedHorizon - searchSettings.getInternalIterativeDeepeningReduction();
+
+			performSearch(iidHorizon, iidHorizon);
+
+			if (principalVariation.getSize() > 0)
+				principalVariation.assignToMove(0, hashBestMove);
+
+			moveStackTop = iidMoveStackTop;
+			principalVariation.clear();
+			openNode(iidAlpha, iidBeta);
+			initialize(reducedHorizon);
+		}
+
+		/**
+		 * Checks if the node should be razored - searched by quiescence search because
+		 * the static evaluation is far below alpha. Razoring is used just in zero window
+		 * search near the horizon.
+		 * @param reducedHorizon horizon
+		 * @return true if the node should be razored
+		 */
+		private boolean shouldRazor(final int reducedHorizon) {
+			if (depth == 0 || isQuiescenceSearch || isCheck || alpha != beta ||
+			    reducedHorizon > searchSettings.getRazoringMaxHorizon() ||
+			    alpha <= -Evaluation.MATE_MIN || alpha >= Evaluation.MATE_MIN)
+				return false;
+
+			return getStaticEvaluation() + searchSettings.getRazoringMargin() < alpha;
+		}
+
+		/**
+		 * Searches the node by quiescence search. If the quiescence search confirms that the evaluation
+		 * is below alpha the result is kept, otherwise the node is prepared for full search.
+		 * @param reducedHorizon horizon of the full search
+		 * @return true if the node was razored
+		 */
+		private boolean razor(final int reducedHorizon) {
+			final int razoringAlpha = alpha;
+			final int razoringBeta = beta;
+			final int razoringMoveStackTop = moveStackTop;
+
+			initialize(0);
+			performSearch(0, 0);
+
+			if (evaluation < razoringAlpha)
+				return true;
+
+			moveStackTop = razoringMoveStackTop;
+			principalVariation.clear();
+			openNode(razoringAlpha, razoringBeta);
+			initialize(reducedHorizon);
+
+			return false;
 		}
 
 		private void initialize(int reducedHorizon) {
 			isQuiescenceSearch = (reducedHorizon <= 0);
 
+			if (isQuiescenceSearch)
+				statistics.increment(SearchStatistics.QUIESCENCE_NODE_COUNT);
+
 			final int onTurn = currentPosition.getOnTurn();
 			final int oppositeColor = Color.getOppositeColor(onTurn);
 			final int ownKingSquare = currentPosition.getKingPosition(onTurn);
@@ -235,8 +292,10 @@ public final class SerialSearchEngine implements ISearchEngine {
 				moveListEnd = moveStackTop;
 
 				// Null move heuristic
-				if (nullMoveHeuristic(reducedHorizon))
+				if (nullMoveHeuristic(reducedHorizon)) {
+					statistics.increment(SearchStatistics.NULL_MOVE_CUTOFF_COUNT);
 					return;
+				}
 
 				// Try best move from hash table first
 				final boolean precalculatedBetaCutoff = evaluateHashBestMove(reducedHorizon, positionExtension);
@@ -256,13 +315,14 @@ public final class SerialSearchEngine implements ISearchEngine {
 		}
 
 		private boolean evaluatePosition(boolean isMaxDepth) {
-			final int positionEvaluation = calculatePositionEvaluation();
+			final int positionEvaluation = getStaticEvaluation();
 
 			if ((isQuiescenceSearch && !isCheckSearch) || isMaxDepth) {
 				evaluation = positionEvaluation;
 				alpha = Math.max(alpha, evaluation);
 
 				nodeCount++;
+				statistics.increment(SearchStatistics.NODE_COUNT);
 
 				if (evaluation > beta) {
 					final int mateEvaluation = Evaluation.getMateEvaluation(depth);
@@ -325,7 +385,7 @@ public final class SerialSearchEngine implements ISearchEngine {
 			}
 
 			if (precalculatedMoveFound) {
-				evaluateMove(precalculatedMove, reducedHorizon, positionExtension, alpha, beta);
+				evaluateMove(precalculatedMove, reducedHorizon, positionExtension, getMoveAlpha(), beta);
 
 				if (updateCurrentRecordAfterEvaluation(precalculatedMove, reducedHorizon, nextRecord)) {
 					precalculatedBetaCutoff = true;
@@ -334,43 +394,352 @@ public final class SerialSearchEngine implements ISearchEngine {
 			return precalculatedBetaCutoff;
 		}
 
+		/**
+		 * Evaluates all moves except the hash best move.
+		 * In the full-width search below the root the moves are generated in stages - good
+		 * tactical moves, killer move, quiet moves together with bad tactical moves. Quiet moves
+		 * are not generated at all if some earlier stage makes beta cutoff.
+		 * @param reducedHorizon horizon
+		 * @param positionExtension extension of the position
+		 */
 		private void evaluateAllMoves(final int reducedHorizon, final int positionExtension) {
-			generateMoves(reducedHorizon);
+			// The killer move of previous node on this depth must not exclude the move from the list
+			stagedKillerMove.clear();
+
+			if (isQuiescenceSearch || depth == 0) {
+				generateMoves(reducedHorizon);
+				evaluateGeneratedMoves(reducedHorizon, positionExtension, Integer.MIN_VALUE, false);
+
+				return;
+			}
 
+			// Good tactical moves, bad ones remains in the list
+			generateStagedMoves(PseudoLegalMoveGenerator.MOVES_TACTICAL);
+
+			if (evaluateGeneratedMoves(reducedHorizon, positionExtension, BAD_TACTICAL_MOVE_ESTIMATE + 1, true))
+				return;
+
+			if (evaluateKillerMove(reducedHorizon, positionExtension))
+				return;
+
+			// Quiet moves and bad tactical moves
+			generateStagedMoves(PseudoLegalMoveGenerator.MOVES_QUIET);
+			allMovesGenerated = true;
+
+			evaluateGeneratedMoves(reducedHorizon, positionExtension, Integer.MIN_VALUE, false);
+		}
+
+		/**
+		 * Evaluates generated moves from the best one.
+		 * @param reducedHorizon horizon
+		 * @param positionExtension extension of the position
+		 * @param minEstimate evaluation stops when the best remaining move has lower estimate
+		 * @param estimateOnDemand true if the estimate of the move must be calculated by move estimator
+		 * @return true in case of beta cutoff
+		 */
+		private boolean evaluateGeneratedMoves(final int reducedHorizon, final int positionExtension, final int minEstimate, final boolean estimateOnDemand) {
 			while (moveListEnd > moveListBegin) {
 				selectBestMove();
 
+				final int storedEstimate = moveStack.getEvaluation(moveListEnd - 1);
+
+				if (storedEstimate < minEstimate)
+					return false;
+
+				final int moveData = moveStack.getMoveData(moveListEnd - 1);
+
+				if (moveData == precalculatedMove.getData() || moveData == stagedKillerMove.getData()) {
+					moveListEnd--;
+					continue;
+				}
+
 				final Move move = precreatedCurrentMove;
 				moveStack.getMove(moveListEnd - 1, move);
 
-				if (!move.equals(precalculatedMove) && shouldEvaluateMove (move)) {
-					final int beginMaterialEvaluation = currentPosition.getMaterialEvaluation();
-					currentPosition.makeMove(move);
+				if (shouldEvaluateMove (move)) {
+					final int estimate = (estimateOnDemand) ? moveEstimator.getMoveEstimate(this, currentPosition.getOnTurn(), move) : storedEstimate;
 
-					if (firstLegalMove.getMoveType() != MoveType.INVALID && alpha != beta && moveStack.getEvaluation(moveListEnd - 1) < searchSettings.getMaxEstimateForZeroWindowSearch()) {
-						evaluateMadeMove (move, reducedHorizon, positionExtension, alpha, alpha, beginMaterialEvaluation);
-						final int childEvaluation = -nextRecord.evaluation;
+					if (evaluateMoveFromList(move, estimate, reducedHorizon, positionExtension))
+						return true;
+				}
 
-						if (childEvaluation > alpha && childEvaluation <= beta) {
-							evaluateMadeMove(move, reducedHorizon, positionExtension, childEvaluation, beta, beginMaterialEvaluation);
-							final int updatedChildEvaluation = -nextRecord.evaluation;
+				moveListEnd--;
+			}
 
-							assert (updatedChildEvaluation >= childEvaluation);
-						}
-					}
-					else
-						evaluateMadeMove(move, reducedHorizon, positionExtension, alpha, beta, beginMaterialEvaluation);
+			return false;
+		}
+
+		/**
+		 * Evaluates killer move if it is quiet pseudo-legal move in current position.
+		 * @param reducedHorizon horizon
+		 * @param positionExtension extension of the position
+		 * @return true in case of beta cutoff
+		 */
+		private boolean evaluateKillerMove(final int reducedHorizon, final int positionExtension) {
+			if (originalKillerMove.getMoveType() == MoveType.INVALID)
+				return false;
 
-					currentPosition.undoMove(move);
+			if (!stagedKillerMove.uncompressMove(originalKillerMove.getCompressedMove(), currentPosition) ||
+			    stagedKillerMove.equals(precalculatedMove) || isTacticalMove(stagedKillerMove)) {
+				stagedKillerMove.clear();
 
-					if (updateCurrentRecordAfterEvaluation(move, reducedHorizon, nextRecord))
-						break;
+				return false;
+			}
+
+			final int estimate = moveEstimator.getMoveEstimate(this, currentPosition.getOnTurn(), stagedKillerMove);
+
+			return evaluateMoveFromList(stagedKillerMove, estimate, reducedHorizon, positionExtension);
+		}
+
+		/**
+		 * Evaluates move with principal variation search and updates the node.
+		 * @param move move
+		 * @param estimate estimate of the move
+		 * @param reducedHorizon horizon
+		 * @param positionExtension extension of the position
+		 * @return true in case of beta cutoff
+		 */
+		private boolean evaluateMoveFromList(final Move move, final int estimate, final int reducedHorizon, final int positionExtension) {
+			final int beginMaterialEvaluation = currentPosition.getMaterialEvaluation();
+			final int moveAlpha = getMoveAlpha();
+			final int futilityEvaluation = getFutilityEvaluation(move, reducedHorizon);
+			final int lateMoveReduction = getLateMoveReduction(move, estimate, reducedHorizon, moveAlpha != beta);
+			final boolean isFutile = futilityEvaluation < moveAlpha;
+			final int moveData = move.getData();
+			currentPosition.makeMove(moveData);
+
+			final boolean isQuietWithoutCheck = (isFutile || lateMoveReduction > 0) && !currentPosition.isCheck();
+
+			if (isFutile && isQuietWithoutCheck) {
+				currentPosition.undoMove(moveData);
+				statistics.increment(SearchStatistics.FUTILITY_PRUNING_COUNT);
+
+				// The move cannot be better than the futility evaluation
+				evaluation = Math.max(evaluation, futilityEvaluation);
+
+				return false;
+			}
+
+			if (lateMoveReduction > 0 && isQuietWithoutCheck) {
+				statistics.increment(SearchStatistics.LATE_MOVE_REDUCTION_COUNT);
+
+				evaluateMadeMove (move, reducedHorizon - lateMoveReduction, positionExtension, moveAlpha, moveAlpha, beginMaterialEvaluation);
+				final int childEvaluation = -nextRecord.evaluation;
+
+				// Reduced search proves that the move is not better than alpha
+				if (childEvaluation <= moveAlpha) {
+					currentPosition.undoMove(moveData);
+
+					return updateCurrentRecordAfterEvaluation(move, reducedHorizon, nextRecord);
 				}
 
-				moveListEnd--;
+				statistics.increment(SearchStatistics.LATE_MOVE_RESEARCH_COUNT);
+			}
+
+			if (firstLegalMove.getMoveType() != MoveType.INVALID && moveAlpha != beta && estimate < searchSettings.getMaxEstimateForZeroWindowSearch()) {
+				final long windowDependentPruningCount = getWindowDependentPruningCount();
+
+				evaluateMadeMove (move, reducedHorizon, positionExtension, moveAlpha, moveAlpha, beginMaterialEvaluation);
+				final int childEvaluation = -nextRecord.evaluation;
+
+				if (childEvaluation > moveAlpha && childEvaluation <= beta) {
+					evaluateMadeMove(move, reducedHorizon, positionExtension, childEvaluation, beta, beginMaterialEvaluation);
+					final int updatedChildEvaluation = -nextRecord.evaluation;
+
+					assert (updatedChildEvaluation >= childEvaluation || getWindowDependentPruningCount() != windowDependentPruningCount);
+				}
+			}
+			else
+				evaluateMadeMove(move, reducedHorizon, positionExtension, moveAlpha, beta, beginMaterialEvaluation);
+
+			currentPosition.undoMove(moveData);
+
+			return updateCurrentRecordAfterEvaluation(move, reducedHorizon, nextRecord);
+		}
+
+		/**
+		 * Returns number of cases when futility pruning, late move reduction or razoring was applied.
+		 * These methods depend on the window so the search with different window can return inconsistent bound.
+		 * @return number of window dependent prunings
+		 */
+		private long getWindowDependentPruningCount() {
+			return statistics.get(SearchStatistics.FUTILITY_PRUNING_COUNT) +
+			       statistics.get(SearchStatistics.LATE_MOVE_REDUCTION_COUNT) +
+			       statistics.get(SearchStatistics.RAZORING_COUNT);
+		}
+
+		private void generateStagedMoves(final int generatedMoves) {
+			isTacticalStage = (generatedMoves == PseudoLegalMoveGenerator.MOVES_TACTICAL);
+
+			generatePseudoLegalMoves(moveListEnd, generatedMoves);
+
+			isTacticalStage = false;
+			moveListEnd = moveStackTop;
+		}
+
+		/**
+		 * Generates pseudo-legal moves directly into the move stack and estimates them.
+		 * @param beginIndex index of first generated move
+		 * @param generatedMoves which moves are generated, see PseudoLegalMoveGenerator.MOVES_*
+		 */
+		private void generatePseudoLegalMoves(final int beginIndex, final int generatedMoves) {
+			pseudoLegalMoveGenerator.setPosition(currentPosition);
+			pseudoLegalMoveGenerator.setReduceMovesInCheck(isCheck);
+			pseudoLegalMoveGenerator.setGeneratedMoves(generatedMoves);
+			moveStackTop = pseudoLegalMoveGenerator.generateMoves(moveStack, beginIndex);
+
+			estimateMoves(beginIndex);
+		}
+
+		/**
+		 * Sets estimates of the moves generated into the move stack from given index.
+		 * @param beginIndex index of first generated move
+		 */
+		private void estimateMoves(final int beginIndex) {
+			final Move move = precreatedCurrentMove;
+			final int hashBestMoveData = hashBestMove.getData();
+
+			for (int i = beginIndex; i < moveStackTop; i++) {
+				final int moveData = moveStack.getMoveData(i);
+
+				if (moveData == hashBestMoveData)
+					moveStack.setEvaluation(i, HASH_BEST_MOVE_ESTIMATE);
+				else {
+					moveStack.getMove(i, move);
+					moveStack.setEvaluation(i, estimateMove(move, moveData));
+				}
 			}
 		}
 
+		/**
+		 * Calculates estimate of given move used for move ordering.
+		 * @param move move
+		 * @param moveData data of the move
+		 * @return estimate
+		 */
+		private int estimateMove(final Move move, final int moveData) {
+			if (isTacticalStage)
+				return getTacticalMoveEstimate(move);
+
+			int estimate = moveEstimator.getMoveEstimate(this, currentPosition.getOnTurn(), move);
+
+			// Sort moves by hash table in depth 0.
+			if (depth == 0) {
+				currentPosition.makeMove(moveData);
+
+				if (evaluationHashTable.getDeepestRecord(currentPosition, estimateHashRecord))
+					estimate = -estimateHashRecord.getEvaluation();
+
+				currentPosition.undoMove(moveData);
+			}
+
+			return estimate;
+		}
+
+		/**
+		 * Returns MVV/LVA estimate of tactical move or BAD_TACTICAL_MOVE_ESTIMATE if
+		 * the move loses material according to static exchange evaluation.
+		 * @param move tactical move
+		 * @return estimate
+		 */
+		private int getTacticalMoveEstimate(final Move move) {
+			final PieceTypeEvaluations pte = PieceTypeEvaluations.DEFAULT;
+			final int movingPieceType = move.getMovingPieceType();
+			final int capturedPieceType = move.getCapturedPieceType();
+			int victimEvaluation = pte.getPieceTypeEvaluation(capturedPieceType);
+
+			if (move.getMoveType() == MoveType.PROMOTION) {
+				final int promotionPieceType = move.getPromotionPieceType();
+
+				if (capturedPieceType == PieceType.NONE && promotionPieceType != PieceType.QUEEN)
+					return BAD_TACTICAL_MOVE_ESTIMATE;
+
+				victimEvaluation += pte.getPieceTypeEvaluation(promotionPieceType) - pte.getPieceTypeEvaluation(PieceType.PAWN);
+			}
+			else if (capturedPieceType != PieceType.NONE && pte.getPieceTypeEvaluation(capturedPieceType) < pte.getPieceTypeEvaluation(movingPieceType)) {
+				if (!staticExchangeEvaluator.isMoveNonLosing(currentPosition.getOnTurn(), move))
+					return BAD_TACTICAL_MOVE_ESTIMATE;
+			}
+
+			return MVV_LVA_VICTIM_MULTIPLIER * victimEvaluation - pte.getPieceTypeEvaluation(movingPieceType);
+		}
+
+		/**
+		 * Returns optimistic evaluation of quiet move near the horizon used by futility pruning.
+		 * The move can be pruned if this evaluation is below alpha.
+		 * @param move move
+		 * @param reducedHorizon horizon of the node
+		 * @return optimistic evaluation of the move or Evaluation.MAX if the move cannot be pruned
+		 */
+		private int getFutilityEvaluation(final Move move, final int reducedHorizon) {
+			if (depth == 0 || isCheck || isQuiescenceSearch ||
+			    reducedHorizon > 2 * HORIZON_STEP_WITHOUT_EXTENSION ||
+			    firstLegalMove.getMoveType() == MoveType.INVALID ||
+			    alpha <= -Evaluation.MATE_MIN || alpha >= Evaluation.MATE_MIN ||
+			    isTacticalMove(move))
+				return Evaluation.MAX;
+
+			final int margin = (reducedHorizon <= HORIZON_STEP_WITHOUT_EXTENSION) ?
+					searchSettings.getFrontierFutilityMargin() :
+					searchSettings.getPreFrontierFutilityMargin();
+
+			return getStaticEvaluation() + margin;
+		}
+
+		/**
+		 * Returns reduction of the horizon for late quiet moves.
+		 * Moves are reduced only in full-width search out of check and after first legal move.
+		 * The reduction is not used in endings with low game stage because the mating lines there
+		 * consist of quiet moves. For the same reason moves are not reduced when the window contains
+		 * mate evaluation. The reduction grows with the index of the move and it is smaller in PV nodes.
+		 * @param move move
+		 * @param estimate estimate of the move
+		 * @param reducedHorizon horizon of the node
+		 * @param isPvNode if the node is searched with nonzero window
+		 * @return reduction of the horizon, 0 if the move should not be reduced
+		 */
+		private int getLateMoveReduction(final Move move, final int estimate, final int reducedHorizon, final boolean isPvNode) {
+			final int minMoveIndex = searchSettings.getLateMoveReductionMinMoveIndex();
+
+			if (depth == 0 || isCheck || isQuiescenceSearch ||
+			    reducedHorizon < searchSettings.getLateMoveReductionMinHorizon() ||
+			    searchedMoveCount < minMoveIndex ||
+			    firstLegalMove.getMoveType() == MoveType.INVALID ||
+			    estimate >= searchSettings.getLateMoveReductionMaxEstimate() ||
+			    isTacticalMove(move) ||
+			    alpha >= Evaluation.MATE_MIN || beta <= -Evaluation.MATE_MIN ||
+			    currentPosition.getGameStage() < searchSettings.getLateMoveReductionMinGameStage())
+				return 0;
+
+			final int indexReduction = (searchedMoveCount - minMoveIndex) / Math.max(searchSettings.getLateMoveReductionMoveIndexStep(), 1);
+			int reduction = Math.min(searchSettings.getLateMoveReduction() + indexReduction, searchSettings.getLateMoveMaxReduction());
+
+			if (isPvNode)
+				reduction -= searchSettings.getLateMoveReductionPvNodeDecrease();
+
+			// Do not reduce into the quiescence search
+			return Math.max(Math.min(reduction, reducedHorizon - HORIZON_STEP_WITHOUT_EXTENSION - 1), 0);
+		}
+
+		private boolean isTacticalMove (final Move move) {
+			final int moveType = move.getMoveType();
+
+			return move.getCapturedPieceType() != PieceType.NONE || moveType == MoveType.PROMOTION || moveType == MoveType.EN_PASSANT;
+		}
+
+		/**
+		 * Returns alpha used for evaluation of the moves. In multi PV search the root
+		 * moves are evaluated with alpha given by the worst of the best lines so each
+		 * of the best lines gets exact evaluation.
+		 * @return alpha for the moves
+		 */
+		private int getMoveAlpha() {
+			if (depth == 0 && rootLineList != null)
+				return Math.max(task.getAlpha(), rootLineList.getWorstEvaluation());
+			else
+				return alpha;
+		}
+
 		private boolean shouldEvaluateMove (final Move move)
 		{
 			if (!isQuiescenceSearch || isCheckSearch || move.getMoveType() == MoveType.PROMOTION)
@@ -389,6 +758,19 @@ public final class SerialSearchEngine implements ISearchEngine {
 			return staticExchangeEvaluator.isMoveNonLosing(onTurn, move);
 		}
 
+		/**
+		 * Returns static evaluation of the position. The evaluation is calculated just once
+		 * in the node. It is exact only inside the window, out of the window it is a bound
+		 * closer to the window than the exact evaluation.
+		 * @return static evaluation from the view of side on turn
+		 */
+		private int getStaticEvaluation() {
+			if (staticEvaluation == Evaluation.UNKNOWN)
+				staticEvaluation = calculatePositionEvaluation();
+
+			return staticEvaluation;
+		}
+
 		private int calculatePositionEvaluation() {
 			final int onTurn = currentPosition.getOnTurn();
 
@@ -411,6 +793,16 @@ public final class SerialSearchEngine implements ISearchEngine {
 				relativeEvaluation += Evaluation.getRelative(boundedPositionalEvaluation, onTurn);
 			}
 
+			// Alone king cannot win. Finite evaluator uses this fact to prune the search
+			// so the evaluation must agree with it.
+			final IMaterialHashRead materialHash = currentPosition.getMaterialHash();
+
+			if (materialHash.isAloneKing(onTurn))
+				relativeEvaluation = Math.min(relativeEvaluation, Evaluation.DRAW);
+
+			if (materialHash.isAloneKing(Color.getOppositeColor(onTurn)))
+				relativeEvaluation = Math.max(relativeEvaluation, Evaluation.DRAW);
+
 			return relativeEvaluation;
 		}
 
@@ -446,8 +838,9 @@ public final class SerialSearchEngine implements ISearchEngine {
 		 */
 		private boolean updateRecordByHash(final int horizon) {
 			final int compressedBestMove = bestMoveHashTable.getRecord(currentPosition);
+			final boolean hashMoveIgnored = depth == 0 && task.isRootHashMoveIgnored();
 
-			if (compressedBestMove != Move.NONE_COMPRESSED_MOVE)
+			if (compressedBestMove != Move.NONE_COMPRESSED_MOVE && !hashMoveIgnored)
 				hashBestMove.uncompressMove(compressedBestMove, currentPosition);
 			else
 				hashBestMove.clear();
@@ -507,13 +900,11 @@ public final class SerialSearchEngine implements ISearchEngine {
 
 					quiescenceLegalMoveGenerator.setGenerateChecks(horizon > -maxCheckSearchDepth);
 					quiescenceLegalMoveGenerator.setPosition(currentPosition);
-					quiescenceLegalMoveGenerator.generateMoves();
+					moveStackTop = quiescenceLegalMoveGenerator.generateMoves(moveStack, moveListBegin);
+					estimateMoves(moveListBegin);
 				}
 				else {
-					pseudoLegalMoveGenerator.setPosition(currentPosition);
-					pseudoLegalMoveGenerator.setReduceMovesInCheck(isCheck);
-					pseudoLegalMoveGenerator.generateMoves();
-
+					generatePseudoLegalMoves(moveListBegin, PseudoLegalMoveGenerator.MOVES_ALL);
 					allMovesGenerated = true;
 				}
 
@@ -536,9 +927,11 @@ public final class SerialSearchEngine implements ISearchEngine {
 		private void evaluateMove(final Move move, final int horizon, final int positionExtension, final int alpha, final int beta) {
 			final int beginMaterialEvaluation = currentPosition.getMaterialEvaluation();
 
-			currentPosition.makeMove(move);
+			final int moveData = move.getData();
+
+			currentPosition.makeMove(moveData);
 			evaluateMadeMove(move, horizon, positionExtension, alpha, beta, beginMaterialEvaluation);
-			currentPosition.undoMove(move);
+			currentPosition.undoMove(moveData);
 		}
 
 		private void evaluateMadeMove(final Move move, final int horizon, final int positionExtension, final int alpha, final int beta, final int beginMaterialEvaluation) {
@@ -601,18 +994,29 @@ public final class SerialSearchEngine implements ISearchEngine {
 				// Update alpha and beta
 				if (evaluation > beta) {
 					killerMove.assign(move);
+					statistics.addBetaCutoff(searchedMoveCount);
 
 					betaCutoff = true;
 				}
-
-				bestLegalMoveIndex = legalMoveCount;
-				legalMoveCount++;
 			}
 
+			searchedMoveCount++;
+
 			// Send result and update root move list if depth = 0
 			if (depth == 0) {
-				if (isLegalMove)
-					evaluatedMoveList.addRecord(move, evaluation);
+				if (rootLineList != null) {
+					// Evaluation of the move is exact if it is over the alpha used for the search
+					if (isLegalMove) {
+						if (parentEvaluation > getMoveAlpha())
+							rootLineList.addLine(move, parentEvaluation, result.getPrincipalVariation());
+
+						evaluatedMoveList.addRecord(move, parentEvaluation);
+					}
+				}
+				else {
+					if (isLegalMove)
+						evaluatedMoveList.addRecord(move, evaluation);
+				}
 
 				for (ISearchEngineHandler handler: handlerRegistrar.getHandlers()) {
 					final SearchResult partialResult = getResult(horizon);
@@ -637,15 +1041,6 @@ public final class SerialSearchEngine implements ISearchEngine {
 			}
 		}
 
-		private void updateBestMovePerIndexCounts() {
-			if (GlobalSettings.isDebug()) {
-				final int index = bestLegalMoveIndex;
-
-				if (index >= 0)
-					bestMovePerIndexCounts[index]++;
-			}
-		}
-
 		/**
 		 * Checks if there is mate in the position.
 		 * At zero horizon method checks legal moves itself, otherwise it uses number of moves
@@ -684,9 +1079,7 @@ public final class SerialSearchEngine implements ISearchEngine {
 				return false;
 
 			final boolean success = readHashRecordImpl(horizon);
-
-			if (GlobalSettings.isDebug())
-				hashSuccessRatio.addInvocation(success);
+			statistics.increment((success) ? SearchStatistics.HASH_HIT_COUNT : SearchStatistics.HASH_MISS_COUNT);
 
 			return success;
 		}
@@ -699,6 +1092,10 @@ public final class SerialSearchEngine implements ISearchEngine {
 	private static final int RECEIVE_UPDATES_COUNT = 8192;
 
 	private static final int HASH_BEST_MOVE_ESTIMATE = Integer.MAX_VALUE;
+
+	// Tactical moves losing material are searched after quiet moves
+	private static final int BAD_TACTICAL_MOVE_ESTIMATE = Integer.MIN_VALUE + 1;
+	private static final int MVV_LVA_VICTIM_MULTIPLIER = 16;
 	
 	// Settings
 	private int maxTotalDepth;
@@ -712,9 +1109,12 @@ public final class SerialSearchEngine implements ISearchEngine {
 	private final Position currentPosition;
 	private int moveStackTop;
 	private long nodeCount;
-	private volatile long reportedNodeCount;
+	private long maxNodeCount;
+	private final AtomicLong reportedNodeCount = new AtomicLong();   // Published copy of nodeCount
+	private final SearchStatistics statistics = new SearchStatistics();
 	private final RepeatedPositionRegister repeatedPositionRegister;
 	private final EvaluatedMoveList evaluatedMoveList;
+	private PrincipalVariationList rootLineList;   // Best lines in multi PV search or null
 
 	// Synchronization
 	private EngineState engineState;
@@ -733,16 +1133,12 @@ public final class SerialSearchEngine implements ISearchEngine {
 	private final MateFinder mateFinder;
 	private StaticExchangeEvaluator staticExchangeEvaluator;
 	
-	private static final long[] bestMovePerIndexCounts = new long[PseudoLegalMoveGenerator.MAX_MOVES_IN_POSITION];
-	
 	private static final int MAX_ATTACK = AttackCalculator.MAX_REASONABLE_ATTACK_EVALUATION;
 
 	private static final int WIN_MATE_DEPTH = 1;
 	private static final int LOSE_MATE_DEPTH = 1;
 	private static final int MAX_MATE_DEPTH = Math.max(WIN_MATE_DEPTH, LOSE_MATE_DEPTH);
 	private static final int MAX_MATE_EXTENSION = 4;
-	
-	private static final RatioCalculator hashSuccessRatio = new RatioCalculator();
 
 	
 	public SerialSearchEngine() {
@@ -791,19 +1187,30 @@ public final class SerialSearchEngine implements ISearchEngine {
 		throw new RuntimeException("Engine is not in expected state, but in state " + engineState.name());
 	}
 	
+	/**
+	 * Checks termination of the task and publishes the node count.
+	 * Termination flag of the task is volatile so it is checked in every node without
+	 * taking the monitor - the engine reacts to stop within one node. Node count and
+	 * statistics are published by release stores just once per RECEIVE_UPDATES_COUNT nodes.
+	 */
 	private void receiveUpdates() {
+		// Node limit is checked in every node so the search is terminated deterministically
+		if (nodeCount >= maxNodeCount)
+			throw new SearchTerminatedException();
+
+		if (task.isTerminated()) {
+			reportedNodeCount.lazySet(nodeCount);
+			statistics.publish();
+			Logger.logMessage("SerialSearchEngine task termination received");
+
+			throw new SearchTerminatedException();
+		}
+
 		receiveUpdatesCounter++;
 		
 		if (receiveUpdatesCounter >= RECEIVE_UPDATES_COUNT) {
-			synchronized (monitor) {
-				reportedNodeCount = nodeCount;
-				
-				if (task.isTerminated()) {
-					Logger.logMessage("SerialSearchEngine task termination received");
-					throw new SearchTerminatedException();
-				}
-			}
-			
+			reportedNodeCount.lazySet(nodeCount);
+			statistics.publish();
 			receiveUpdatesCounter = 0;
 		}
 	}
@@ -837,12 +1244,14 @@ public final class SerialSearchEngine implements ISearchEngine {
 
 		moveStackTop = 0;
 		evaluatedMoveList.clear();
+		initializeRootLineList(task.getMultiPvCount());
 
 		for (int i = 0; i < maxTotalDepth; i++)
 			nodeStack[i].killerMove.clear();
 
 		nodeCount = 0;
-		reportedNodeCount = nodeCount;
+		maxNodeCount = task.getMaxNodeCount();
+		reportedNodeCount.set(nodeCount);
 		
 		// Do the search
 		boolean terminated = false;
@@ -856,10 +1265,22 @@ public final class SerialSearchEngine implements ISearchEngine {
 		
 		final SearchResult result = getResult(task.getHorizon());
 		result.setSearchTerminated(terminated);
+		statistics.publish();
 
 		return result;
 	}
 
+	private void initializeRootLineList (final int multiPvCount) {
+		if (multiPvCount > 1) {
+			if (rootLineList == null || rootLineList.getCapacity() != multiPvCount)
+				rootLineList = new PrincipalVariationList(multiPvCount);
+			else
+				rootLineList.clear();
+		}
+		else
+			rootLineList = null;
+	}
+
 	/**
 	 * Clips task boundaries.
 	 * @param alpha lower boundary
@@ -927,7 +1348,6 @@ public final class SerialSearchEngine implements ISearchEngine {
 	 * Engine must be in STOPPED state.
 	 * @param evaluator position evaluator
 	 */
-	@Override
 	public void setPositionEvaluator(final IPositionEvaluator evaluator) {
 		synchronized (monitor) {
 			checkEngineState(EngineState.STOPPED);
@@ -991,18 +1411,11 @@ public final class SerialSearchEngine implements ISearchEngine {
 	}
 	
 	private void printStatistics() {
-		Logger.logMessage("Mate search");
+		final SearchStatistics snapshot = new SearchStatistics();
+		addStatistics(snapshot);
 
-		final double hitRatio = hashSuccessRatio.getRatio();
-		
-		Logger.logMessage("Hash hitratio = " + hitRatio);
-
-		System.out.println("Best move perindex counts: ");
-		
-		for (int i = 0; i < bestMovePerIndexCounts.length; i++) {
-			if (bestMovePerIndexCounts[i] > 0)
-				System.out.println(i + " " + bestMovePerIndexCounts[i]);
-		}
+		Logger.logMessage("Search statistics: " + snapshot);
+		Logger.logMessage("Hash hitratio = " + snapshot.getHashHitRate());
 
 		moveEstimator.log();
 	}
@@ -1013,16 +1426,19 @@ public final class SerialSearchEngine implements ISearchEngine {
 	 * @return result of the search
 	 */
 	private SearchResult getResult(final int horizon) {
-		reportedNodeCount = nodeCount;
+		reportedNodeCount.set(nodeCount);
 
 		final SearchResult result = new SearchResult();
 
 		result.setEvaluation(nodeStack[0].evaluation);
 		result.getPrincipalVariation().assign(nodeStack[0].principalVariation);
-		result.setNodeCount(reportedNodeCount);
+		result.setNodeCount(nodeCount);
 		result.getRootMoveList().assign(evaluatedMoveList);
 		result.setHorizon(horizon);
 
+		if (rootLineList != null)
+			result.setPrincipalVariationList(rootLineList.copy());
+
 		return result;
 	}
 
@@ -1043,7 +1459,7 @@ public final class SerialSearchEngine implements ISearchEngine {
 	 * @return number of searched nodes
 	 */
 	public long getNodeCount() {
-		return reportedNodeCount;
+		return reportedNodeCount.get();
 	}
 
 	/**
@@ -1128,6 +1544,30 @@ public final class SerialSearchEngine implements ISearchEngine {
 			nodeRecord.clear();
 
 		moveEstimator.clear();
+		statistics.clear();
+	}
+
+	/**
+	 * Closes the move estimator.
+	 * Engine must be in STOPPED state and it cannot be used after this call.
+	 */
+	@Override
+	public void dispose() {
+		synchronized (monitor) {
+			checkEngineState(EngineState.STOPPED);
+
+			moveEstimator.close();
+		}
+	}
+
+	/**
+	 * Adds published statistics of the engine into given statistics.
+	 * Method doesn't lock the engine so it can be called during the search.
+	 * @param target target statistics
+	 */
+	@Override
+	public void addStatistics (final SearchStatistics target) {
+		statistics.addPublishedTo(target);
 	}
 
 
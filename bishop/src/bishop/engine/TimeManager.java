@@ -0,0 +1,150 @@
+package bishop.engine;
+
+/**
+ * Time manager of the iterative deepening.
+ * The manager records time and number of nodes of finished iterations and predicts
+ * the time of the next iteration. Number of nodes of the next iteration is estimated
+ * from the effective branching factor (ratio of node counts of last two iterations),
+ * the time is calculated from the node rate of the last iteration.
+ * The search is controlled by two limits:
+ * - soft limit - new iteration is not started after the soft limit
+ * - hard limit - search is terminated after the hard limit; new iteration is not started
+ *   if it is predicted that it would not finish before the hard limit
+ * All times are measured from the beginning of the search.
+ * @author Ing. Petr Ležák
+ */
+public final class TimeManager {
+
+	public static final double MIN_BRANCHING_FACTOR = 1.5;
+	public static final double MAX_BRANCHING_FACTOR = 10.0;
+	public static final double DEFAULT_BRANCHING_FACTOR = 4.0;
+
+	private long softLimit;   // [ms]
+	private long hardLimit;   // [ms]
+
+	private int finishedIterationCount;
+	private long lastIterationEndTime;   // [ms]
+	private long lastIterationEndNodeCount;
+	private long lastIterationTime;   // [ms]
+	private long lastIterationNodeCount;
+	private long previousIterationNodeCount;
+
+	public TimeManager() {
+		setLimits(ISearchManager.TIME_FOR_MOVE_INFINITY, ISearchManager.TIME_FOR_MOVE_INFINITY);
+	}
+
+	/**
+	 * Sets time limits of the search.
+	 * @param softLimit time after that new iteration is not started [ms]
+	 * @param hardLimit time after that the search is terminated [ms]
+	 */
+	public void setLimits (final long softLimit, final long hardLimit) {
+		this.softLimit = softLimit;
+		this.hardLimit = Math.max(hardLimit, softLimit);
+	}
+
+	public long getSoftLimit() {
+		return softLimit;
+	}
+
+	public long getHardLimit() {
+		return hardLimit;
+	}
+
+	/**
+	 * Clears statistics of iterations at the beginning of the search.
+	 */
+	public void startSearch() {
+		finishedIterationCount = 0;
+		lastIterationEndTime = 0;
+		lastIterationEndNodeCount = 0;
+		lastIterationTime = 0;
+		lastIterationNodeCount = 0;
+		previousIterationNodeCount = 0;
+	}
+
+	/**
+	 * Moves the beginning of the time measurement to given time.
+	 * Statistics of finished iterations are kept so the prediction works
+	 * when pondering changes to normal search.
+	 * @param elapsedTime time of the new beginning measured from the old one [ms]
+	 */
+	public void restartClock (final long elapsedTime) {
+		lastIterationEndTime -= elapsedTime;
+	}
+
+	/**
+	 * Records finished iteration.
+	 * @param elapsedTime time from the beginning of the search [ms]
+	 * @param nodeCount number of nodes searched from the beginning of the search
+	 */
+	public void onIterationFinished (final long elapsedTime, final long nodeCount) {
+		previousIterationNodeCount = lastIterationNodeCount;
+		lastIterationTime = elapsedTime - lastIterationEndTime;
+		lastIterationNodeCount = nodeCount - lastIterationEndNodeCount;
+		lastIterationEndTime = elapsedTime;
+		lastIterationEndNodeCount = nodeCount;
+		finishedIterationCount++;
+	}
+
+	/**
+	 * Returns effective branching factor.
+	 * @return ratio of node counts of last two iterations
+	 */
+	public double getBranchingFactor() {
+		if (previousIterationNodeCount <= 0 || lastIterationNodeCount <= 0)
+			return DEFAULT_BRANCHING_FACTOR;
+
+		final double branchingFactor = (double) lastIterationNodeCount / (double) previousIterationNodeCount;
+
+		return Math.min(Math.max(branchingFactor, MIN_BRANCHING_FACTOR), MAX_BRANCHING_FACTOR);
+	}
+
+	/**
+	 * Returns predicted time of the next iteration.
+	 * @return predicted time [ms]
+	 */
+	public long getPredictedIterationTime() {
+		if (lastIterationNodeCount <= 0)
+			return (long) (getBranchingFactor() * lastIterationTime);
+
+		final double predictedNodeCount = getBranchingFactor() * lastIterationNodeCount;
+		final double nodeRate = (double) lastIterationNodeCount / (double) Math.max(lastIterationTime, 1);   // [nodes / ms]
+
+		return (long) (predictedNodeCount / nodeRate);
+	}
+
+	/**
+	 * Checks if next iteration should be started.
+	 * The first iteration is always started.
+	 * @param elapsedTime time from the beginning of the search [ms]
+	 * @return true if iteration should be started
+	 */
+	public boolean canStartIteration (final long elapsedTime) {
+		if (finishedIterationCount == 0)
+			return true;
+
+		if (elapsedTime >= softLimit)
+			return false;
+
+		return elapsedTime + getPredictedIterationTime() <= hardLimit;
+	}
+
+	/**
+	 * Checks if the hard limit was exceeded.
+	 * @param elapsedTime time from the beginning of the search [ms]
+	 * @return true if search should be terminated
+	 */
+	public boolean isHardLimitExceeded (final long elapsedTime) {
+		return elapsedTime > hardLimit;
+	}
+
+	/**
+	 * Returns time remaining to the hard limit.
+	 * @param elapsedTime time from the beginning of the search [ms]
+	 * @return remaining time [ms]
+	 */
+	public long getRemainingTime (final long elapsedTime) {
+		return hardLimit - elapsedTime;
+	}
+}
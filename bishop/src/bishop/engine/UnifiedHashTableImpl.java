@@ -0,0 +1,301 @@
+package bishop.engine;
+
+import bishop.base.Position;
+import utils.HugeAtomicLongArray;
+
+/**
+ * Hash table that stores evaluation and best move of the position in one slot.
+ * Each slot consists of two longs - the first one contains the hash xored with the data,
+ * the second one contains the data. The data holds horizon, evaluation, type, generation
+ * and compressed best move. Both longs are next to each other so the search engine
+ * pays just one cache miss for reading the best move and the evaluation of the node.
+ * Longs of the slot are not written atomically together. If two threads writes the same slot
+ * concurrently the slot can contain the key from one write and the data from the other one.
+ * Such slot is not recognized when read because the hash would not match.
+ * One slot holds record of one position regardless of the horizon, the record with higher cost
+ * wins. So the deep record blocks shallower records of the same position and it answers just
+ * the probes with the same horizon - the table saves the cache miss at the cost of lower hit rate
+ * than the separate tables (see HashTableType). The table implements both IEvaluationHashTable and IBestMoveHashTable so the same
+ * instance should be passed as both tables.
+ * The slots are stored in HugeAtomicLongArray so the table is not limited to 2^31 items.
+ * @author Ing. Petr Ležák
+ */
+public final class UnifiedHashTableImpl implements IEvaluationHashTable, IBestMoveHashTable {
+
+	private HugeAtomicLongArray table;
+	private long itemCount;
+	private final HashTableGeneration generation = new HashTableGeneration(GENERATION_BITS, MAX_GENERATION_AGE);
+
+	private static final int HORIZON_SHIFT              = 0;
+	private static final int EVALUATION_SHIFT           = 8;
+	private static final int TYPE_SHIFT                 = 28;
+	private static final int COMPRESSED_BEST_MOVE_SHIFT = 32;
+	private static final int GENERATION_SHIFT           = 48;
+
+	private static final long HORIZON_MASK              = 0x00000000000000FFL;
+	private static final long EVALUATION_MASK           = 0x000000000FFFFF00L;
+	private static final long TYPE_MASK                 = 0x0000000030000000L;
+	private static final long COMPRESSED_BEST_MOVE_MASK = 0x00007FFF00000000L;
+	private static final long GENERATION_MASK           = 0x00FF000000000000L;
+
+	private static final int GENERATION_BITS = 8;
+	private static final int MAX_GENERATION_AGE = 32;
+
+	private static final int EVALUATION_OFFSET = Evaluation.MIN;
+
+	private static final int SLOT_SHIFT = 1;   // Slot has 2 longs
+
+	public static final int MIN_EXPONENT = 0;
+	public static final int MAX_EXPONENT = 36;
+	public static final long MIN_ITEM_COUNT = 1L << MIN_EXPONENT;
+	public static final long MAX_ITEM_COUNT = 1L << MAX_EXPONENT;
+	public static final int ITEM_SIZE = 2 * Long.BYTES;   // Size of hash item [B]
+
+	public UnifiedHashTableImpl(final int exponent) {
+		resize(exponent);
+	}
+
+	/**
+	 * Changes size of the table.
+	 * @param exponent binary logarithm of number of items
+	 */
+	public void resize (final int exponent) {
+		if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT)
+			throw new RuntimeException("Exponent out of range: " + exponent);
+
+		resizeToItemCount(1L << exponent);
+	}
+
+	/**
+	 * Changes size of the table so it fits into given memory.
+	 * @param memorySize size of the memory [B]
+	 */
+	public void resizeToMemory (final long memorySize) {
+		resizeToItemCount(Math.min(Math.max(memorySize / ITEM_SIZE, MIN_ITEM_COUNT), MAX_ITEM_COUNT));
+	}
+
+	private void resizeToItemCount (final long count) {
+		if (table == null || itemCount != count) {
+			table = null;   // Release the old table before allocating the new one
+			table = new HugeAtomicLongArray(count << SLOT_SHIFT);
+			itemCount = count;
+		}
+	}
+
+	public long getItemCount() {
+		return itemCount;
+	}
+
+	private long getSlotIndex (final long hash) {
+		return EvaluationHashTableImpl.getItemIndex(hash, itemCount) << SLOT_SHIFT;
+	}
+
+	/**
+	 * Reads data of the slot with given hash.
+	 * @param hash hash of the position
+	 * @return data of the slot or 0 if the slot doesn't contain the position
+	 */
+	private long readData (final long hash) {
+		final long index = getSlotIndex(hash);
+		final long data = table.get(index + 1);
+		final long key = table.get(index);
+
+		if ((key ^ data) == hash)
+			return data;
+		else
+			return 0;
+	}
+
+	@Override
+	public boolean getRecord (final Position position, final int expectedHorizon, final HashRecord record) {
+		return getRecord(position.getHash(), expectedHorizon, record);
+	}
+
+	public boolean getRecord (final long hash, final int expectedHorizon, final HashRecord record) {
+		final long data = readData(hash);
+		final int horizon = (int) ((data & HORIZON_MASK) >>> HORIZON_SHIFT);
+
+		if (horizon == expectedHorizon)
+			return readRecord(data, record);
+
+		record.setType(HashRecordType.INVALID);
+
+		return false;
+	}
+
+	/**
+	 * Returns hash record with the highest horizon for given position.
+	 * The slot contains just one record of the position so this is one probe.
+	 * @param position position
+	 * @param record storage for the record
+	 * @return true if record is found, false if not
+	 */
+	@Override
+	public boolean getDeepestRecord (final Position position, final HashRecord record) {
+		return getDeepestRecord(position.getHash(), record);
+	}
+
+	public boolean getDeepestRecord (final long hash, final HashRecord record) {
+		return readRecord(readData(hash), record);
+	}
+
+	private static boolean readRecord (final long data, final HashRecord record) {
+		final int type = (int) ((data & TYPE_MASK) >>> TYPE_SHIFT);
+
+		if (type == HashRecordType.INVALID) {
+			record.setType(HashRecordType.INVALID);
+
+			return false;
+		}
+
+		final int horizon = (int) ((data & HORIZON_MASK) >>> HORIZON_SHIFT);
+		final int evaluation = (int) ((data & EVALUATION_MASK) >>> EVALUATION_SHIFT) + EVALUATION_OFFSET;
+
+		record.setEvaluation(evaluation);
+		record.setHorizon(horizon);
+		record.setType(type);
+
+		return true;
+	}
+
+	@Override
+	public int getRecord (final Position position) {
+		return getRecord(position.getHash());
+	}
+
+	/**
+	 * Returns best move for given position.
+	 * @param hash hash code of position
+	 * @return compressed best move or Move.NONE_COMPRESSED_MOVE
+	 */
+	public int getRecord (final long hash) {
+		final long data = readData(hash);
+
+		return (int) ((data & COMPRESSED_BEST_MOVE_MASK) >>> COMPRESSED_BEST_MOVE_SHIFT);
+	}
+
+	@Override
+	public void updateRecord (final Position position, final HashRecord record) {
+		updateRecord(position.getHash(), record);
+	}
+
+	/**
+	 * Updates evaluation of given position.
+	 * Best move stored in the slot is kept if the slot contains the same position.
+	 * @param hash hash code of position
+	 * @param record hash record
+	 */
+	public void updateRecord (final long hash, final HashRecord record) {
+		final long biasedEvaluation = record.getEvaluation() - EVALUATION_OFFSET;
+
+		long evaluationData = 0;
+		evaluationData |= ((long) record.getHorizon() << HORIZON_SHIFT) & HORIZON_MASK;
+		evaluationData |= (biasedEvaluation << EVALUATION_SHIFT) & EVALUATION_MASK;
+		evaluationData |= ((long) record.getType() << TYPE_SHIFT) & TYPE_MASK;
+		evaluationData |= ((long) generation.getGeneration() << GENERATION_SHIFT) & GENERATION_MASK;
+
+		final int newCost = EvaluationHashTableImpl.getCost(record.getHorizon(), record.getType());
+		final long index = getSlotIndex(hash);
+		final long oldData = table.get(index + 1);
+		final long oldKey = table.get(index);
+
+		if (newCost < getDataCost(oldData))
+			return;
+
+		// Same position - keep the best move
+		if ((oldKey ^ oldData) == hash)
+			evaluationData |= oldData & COMPRESSED_BEST_MOVE_MASK;
+
+		writeSlot(index, hash, evaluationData);
+	}
+
+	@Override
+	public void updateRecord (final Position position, final int horizon, final int compressedBestMove) {
+		updateRecord(position.getHash(), horizon, compressedBestMove);
+	}
+
+	/**
+	 * Updates best move of given position.
+	 * Evaluation stored in the slot is kept if the slot contains the same position,
+	 * otherwise the best move is stored only if the slot contains cheaper record.
+	 * @param hash hash code of position
+	 * @param horizon horizon
+	 * @param compressedBestMove compressed best move
+	 */
+	public void updateRecord (final long hash, final int horizon, final int compressedBestMove) {
+		final long moveData = ((long) compressedBestMove << COMPRESSED_BEST_MOVE_SHIFT) & COMPRESSED_BEST_MOVE_MASK;
+		final long index = getSlotIndex(hash);
+		final long oldData = table.get(index + 1);
+		final long oldKey = table.get(index);
+
+		if ((oldKey ^ oldData) == hash) {
+			final int oldHorizon = (int) ((oldData & HORIZON_MASK) >>> HORIZON_SHIFT);
+
+			if (horizon >= oldHorizon || getDataAge(oldData) > 0)
+				writeSlot(index, hash, (oldData & ~COMPRESSED_BEST_MOVE_MASK) | moveData);
+		}
+		else {
+			long data = moveData;
+			data |= ((long) horizon << HORIZON_SHIFT) & HORIZON_MASK;
+			data |= ((long) HashRecordType.INVALID << TYPE_SHIFT) & TYPE_MASK;
+			data |= ((long) generation.getGeneration() << GENERATION_SHIFT) & GENERATION_MASK;
+
+			if (EvaluationHashTableImpl.getCost(horizon, HashRecordType.INVALID) >= getDataCost(oldData))
+				writeSlot(index, hash, data);
+		}
+	}
+
+	private void writeSlot (final long index, final long hash, final long data) {
+		table.set(index + 1, data);
+		table.set(index, hash ^ data);
+	}
+
+	private int getDataAge (final long data) {
+		final int dataGeneration = (int) ((data & GENERATION_MASK) >>> GENERATION_SHIFT);
+
+		return generation.getAge(dataGeneration);
+	}
+
+	private int getDataCost (final long data) {
+		final int horizon = (int) ((data & HORIZON_MASK) >>> HORIZON_SHIFT);
+		final int type = (int) ((data & TYPE_MASK) >>> TYPE_SHIFT);
+
+		return EvaluationHashTableImpl.getCost(horizon, type, getDataAge(data));
+	}
+
+	/**
+	 * Starts new generation of records.
+	 * Records from previous generations are kept, but they are preferred in the replacement.
+	 */
+	@Override
+	public void nextGeneration() {
+		if (generation.next())
+			sweepGenerations();
+	}
+
+	/**
+	 * Saturates the age of the slots. Each slot is rewritten just once when it reaches the maximal age.
+	 */
+	private void sweepGenerations() {
+		for (long index = 0; index < table.getSize(); index += 1 << SLOT_SHIFT) {
+			final long data = table.get(index + 1);
+			final int dataGeneration = (int) ((data & GENERATION_MASK) >>> GENERATION_SHIFT);
+			final int sweptGeneration = generation.getSweptGeneration(dataGeneration);
+
+			if (data != 0 && sweptGeneration != dataGeneration) {
+				final long hash = table.get(index) ^ data;
+				final long sweptData = (data & ~GENERATION_MASK) | (((long) sweptGeneration << GENERATION_SHIFT) & GENERATION_MASK);
+				writeSlot(index, hash, sweptData);
+			}
+		}
+	}
+
+	/**
+	 * Clears the table.
+	 */
+	@Override
+	public void clear() {
+		table.clear();
+	}
+
+}
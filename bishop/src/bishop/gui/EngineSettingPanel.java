@@ -4,9 +4,11 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 
+import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.JTextField;
 
 import bishop.controller.EngineSettings;
@@ -22,12 +24,20 @@ public class EngineSettingPanel extends JPanel implements ILocalizedComponent {
 	private JLabel labelThreadCount;
 	private JTextField fieldThreadCount;
 	
-	private JLabel labelHashTableExponent;
-	private JSpinner spinnerHashTableExponent;
-	private BinarySizeSpinnerModel hashTableSpinnerModel;
+	private JLabel labelHashTableSize;
+	private JSpinner spinnerHashTableSize;
+	private SpinnerNumberModel hashTableSpinnerModel;
 
 	private JLabel labelTablebaseDirectory;
 	private JTextField fieldTablebaseDirectory;
+	
+	private JCheckBox checkBoxPonderingEnabled;
+	
+	private JLabel labelAnalysisLineCount;
+	private JSpinner spinnerAnalysisLineCount;
+	private SpinnerNumberModel analysisLineCountSpinnerModel;
+
+	private static final int HASH_TABLE_SIZE_STEP = 64;   // [MB]
 
 	
 	public EngineSettingPanel(final IApplication application) {
@@ -69,11 +79,11 @@ public class EngineSettingPanel extends JPanel implements ILocalizedComponent {
 			)
 		);
 
-		// Hash table exponent
-		labelHashTableExponent = new JLabel();
+		// Hash table size
+		labelHashTableSize = new JLabel();
 		
 		this.add (
-			labelHashTableExponent,
+			labelHashTableSize,
 			new GridBagConstraints(
 				0, 1, 1, 1,
 				0.0, 0.0,
@@ -83,10 +93,10 @@ public class EngineSettingPanel extends JPanel implements ILocalizedComponent {
 			)
 		);
 		
-		spinnerHashTableExponent = new JSpinner();
+		spinnerHashTableSize = new JSpinner();
 			
 		this.add(
-			spinnerHashTableExponent,
+			spinnerHashTableSize,
 			new GridBagConstraints(
 				1, 1, 1, 1,
 				1.0, 0.0,
@@ -96,8 +106,8 @@ public class EngineSettingPanel extends JPanel implements ILocalizedComponent {
 			)
 		);
 		
-		hashTableSpinnerModel = new BinarySizeSpinnerModel(EngineSettings.MIN_HASH_TABLE_EXPONENT, EngineSettings.HASH_TABLE_EXPONENT_OFFSET, EngineSettings.MIN_HASH_TABLE_EXPONENT, EngineSettings.MAX_HASH_TABLE_EXPONENT);
-		spinnerHashTableExponent.setModel(hashTableSpinnerModel);
+		hashTableSpinnerModel = new SpinnerNumberModel(EngineSettings.DEFAULT_HASH_TABLE_SIZE, EngineSettings.MIN_HASH_TABLE_SIZE, EngineSettings.MAX_HASH_TABLE_SIZE, HASH_TABLE_SIZE_STEP);
+		spinnerHashTableSize.setModel(hashTableSpinnerModel);
 		
 		// Tablebase directory
 		labelTablebaseDirectory = new JLabel();
@@ -123,24 +133,73 @@ public class EngineSettingPanel extends JPanel implements ILocalizedComponent {
 				0, 0
 			)
 		);
+		
+		// Pondering
+		checkBoxPonderingEnabled = new JCheckBox();
+		
+		this.add (checkBoxPonderingEnabled,
+			new GridBagConstraints(
+				1, 3, 1, 1,
+				1.0, 0.0,
+				GridBagConstraints.WEST, GridBagConstraints.NONE,
+				new Insets(0, 0, 5, 0),
+				0, 0
+			)
+		);
+		
+		// Analysis line count
+		labelAnalysisLineCount = new JLabel();
+		
+		this.add (
+			labelAnalysisLineCount,
+			new GridBagConstraints(
+				0, 4, 1, 1,
+				0.0, 0.0,
+				GridBagConstraints.EAST, GridBagConstraints.NONE,
+				new Insets(0, 0, 0, 5),
+				0, 0
+			)
+		);
+		
+		spinnerAnalysisLineCount = new JSpinner();
+		
+		this.add(
+			spinnerAnalysisLineCount,
+			new GridBagConstraints(
+				1, 4, 1, 1,
+				1.0, 0.0,
+				GridBagConstraints.CENTER, GridBagConstraints.HORIZONTAL,
+				new Insets(0, 0, 0, 0),
+				0, 0
+			)
+		);
+		
+		analysisLineCountSpinnerModel = new SpinnerNumberModel(EngineSettings.DEFAULT_ANALYSIS_LINE_COUNT, EngineSettings.MIN_ANALYSIS_LINE_COUNT, EngineSettings.MAX_ANALYSIS_LINE_COUNT, 1);
+		spinnerAnalysisLineCount.setModel(analysisLineCountSpinnerModel);
 	}
 
 	public void loadSettings(final EngineSettings engineSettings) {
 		fieldThreadCount.setText(Integer.toString(engineSettings.getThreadCount()));
-		hashTableSpinnerModel.setExponent(engineSettings.getHashTableExponent());
+		hashTableSpinnerModel.setValue(engineSettings.getHashTableSize());
 		fieldTablebaseDirectory.setText(engineSettings.getTablebaseDirectory());
+		checkBoxPonderingEnabled.setSelected(engineSettings.isPonderingEnabled());
+		analysisLineCountSpinnerModel.setValue(engineSettings.getAnalysisLineCount());
 	}
 
 	public void saveSettings(final EngineSettings engineSettings) {
 		engineSettings.setThreadCount(Integer.parseInt(fieldThreadCount.getText()));
-		engineSettings.setHashTableExponent(hashTableSpinnerModel.getExponent());
+		engineSettings.setHashTableSize(hashTableSpinnerModel.getNumber().intValue());
 		engineSettings.setTablebaseDirectory(fieldTablebaseDirectory.getText());
+		engineSettings.setPonderingEnabled(checkBoxPonderingEnabled.isSelected());
+		engineSettings.setAnalysisLineCount(analysisLineCountSpinnerModel.getNumber().intValue());
 	}
 
 	public void updateLanguage(final ILocalization localization) {
 		labelThreadCount.setText(localization.translateString("EngineSettingPanel.labelThreadCount.text"));
-		labelHashTableExponent.setText(localization.translateString("EngineSettingPanel.labelHashTableExponent.text"));
+		labelHashTableSize.setText(localization.translateString("EngineSettingPanel.labelHashTableSize.text"));
 		labelTablebaseDirectory.setText(localization.translateString("EngineSettingPanel.labelTablebaseDirectory.text"));
+		checkBoxPonderingEnabled.setText(localization.translateString("EngineSettingPanel.checkBoxPonderingEnabled.text"));
+		labelAnalysisLineCount.setText(localization.translateString("EngineSettingPanel.labelAnalysisLineCount.text"));
 	}
 
 }
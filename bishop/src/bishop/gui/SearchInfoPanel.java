@@ -4,6 +4,8 @@ import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import javax.swing.JLabel;
@@ -24,6 +26,7 @@ import bishop.engine.Evaluation;
 import bishop.engine.ISearchEngine;
 import bishop.engine.ISearchManager;
 import bishop.engine.ISearchManagerHandler;
+import bishop.engine.PrincipalVariationList;
 import bishop.engine.SearchInfo;
 import utils.IoUtils;
 
@@ -302,7 +305,19 @@ public class SearchInfoPanel extends JPanel implements ISearchManagerHandler, IL
 			final long nodesPerSecond = (elapsedTime > 0) ? (1000*nodeCount / elapsedTime) : 0;
 			fieldNodesPerSecond.setText(IoUtils.countToString(nodesPerSecond));
 			
-			final String additionalInfo = info.getAdditionalInfo().stream().collect(Collectors.joining("\n"));
+			final List<String> infoLines = new ArrayList<>();
+			final PrincipalVariationList principalVariationList = info.getPrincipalVariationList();
+			
+			if (principalVariationList != null && application.getRegimeType() != RegimeType.PLAY) {
+				for (int i = 0; i < principalVariationList.getSize(); i++) {
+					final String variationStr = principalVariationList.getPrincipalVariation(i).toString(position, notation);
+					infoLines.add((i + 1) + ". " + Evaluation.toString(principalVariationList.getEvaluation(i)) + " " + variationStr);
+				}
+			}
+			
+			infoLines.addAll(info.getAdditionalInfo());
+			
+			final String additionalInfo = infoLines.stream().collect(Collectors.joining("\n"));
 			fieldAdditionalInfo.setText(additionalInfo);
 		}
 		catch (RuntimeException ex) {
@@ -0,0 +1,147 @@
+package bishop.perft;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import bishop.base.Fen;
+import bishop.base.Position;
+import bishop.controller.EngineSettings;
+
+
+/**
+ * Entry point of the parallel perft.
+ * Usage: Main [options] depth [fen]
+ * Options:
+ *   -threads count     number of threads, default is number of processors
+ *   -hash size         size of the shared hash table [MB], default is 0 that disables the table
+ *   -generator type    pseudo, legal or all (default)
+ *   -divide            writes number of nodes for each root move
+ *   -expect count      expected number of nodes
+ * Position defaults to the initial position. The hash table is disabled by default so the nodes
+ * per second measures the move generation and not the hits in the table. If the table is enabled
+ * it is cleared before each generator so the generators are measured under the same conditions. The program exits with code 1
+ * if the generators differ or if the number of nodes differs from the expected one.
+ * @author Ing. Petr Ležák
+ */
+public class Main {
+
+	private static final int DEFAULT_HASH_TABLE_SIZE = 0;   // [MB]
+	private static final String INITIAL_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+	private static final long NODE_COUNT_UNKNOWN = -1;
+
+	public static void main (final String[] args) {
+		try {
+			int threadCount = Runtime.getRuntime().availableProcessors();
+			int hashTableSize = DEFAULT_HASH_TABLE_SIZE;
+			String generatorName = "all";
+			boolean divide = false;
+			long expectedNodeCount = NODE_COUNT_UNKNOWN;
+
+			int index = 0;
+
+			while (index < args.length && args[index].startsWith("-")) {
+				final String option = args[index];
+
+				if (option.equals("-divide")) {
+					divide = true;
+					index++;
+					continue;
+				}
+
+				final String value = args[index + 1];
+
+				switch (option) {
+					case "-threads":
+						threadCount = Integer.parseInt(value);
+						break;
+
+					case "-hash":
+						hashTableSize = Integer.parseInt(value);
+						break;
+
+					case "-generator":
+						generatorName = value;
+						break;
+
+					case "-expect":
+						expectedNodeCount = Long.parseLong(value);
+						break;
+
+					default:
+						throw new RuntimeException("Unknown option " + option);
+				}
+
+				index += 2;
+			}
+
+			if (index >= args.length)
+				throw new RuntimeException("Depth is not specified");
+
+			final int depth = Integer.parseInt(args[index]);
+			final String fen = (index + 1 < args.length) ? joinArguments(args, index + 1) : INITIAL_POSITION;
+			final Position position = Fen.positionFromString(fen);
+
+			final List<PerftGeneratorType> generatorTypes = new ArrayList<>();
+
+			if (generatorName.equals("all")) {
+				for (PerftGeneratorType type: PerftGeneratorType.values())
+					generatorTypes.add(type);
+			}
+			else
+				generatorTypes.add(PerftGeneratorType.forName(generatorName));
+
+			final PerftHashTable hashTable = (hashTableSize > 0) ? new PerftHashTable((long) hashTableSize * EngineSettings.MEGABYTE) : null;
+			final ParallelPerft perft = new ParallelPerft(threadCount, hashTable);
+			boolean success = true;
+			long firstNodeCount = NODE_COUNT_UNKNOWN;
+
+			for (PerftGeneratorType generatorType: generatorTypes) {
+				if (hashTable != null)
+					hashTable.clear();
+
+				final PerftResult result = perft.calculate(position, depth, generatorType);
+
+				if (divide) {
+					for (int i = 0; i < result.getRootMoveCount(); i++)
+						System.out.println(result.getRootMove(i) + ": " + result.getNodeCount(i));
+				}
+
+				final long nodeCount = result.getTotalNodeCount();
+
+				System.out.println("Generator " + generatorType.getName() + ": depth " + depth + ", nodes " + nodeCount + ", time " + result.getElapsedTime() + " ms, nps " + result.getNodesPerSecond() + ((hashTable != null) ? " (with hash table)" : ""));
+
+				if (firstNodeCount == NODE_COUNT_UNKNOWN)
+					firstNodeCount = nodeCount;
+				else if (nodeCount != firstNodeCount) {
+					System.out.println("Generators differ: " + firstNodeCount + " != " + nodeCount);
+					success = false;
+				}
+
+				if (expectedNodeCount != NODE_COUNT_UNKNOWN && nodeCount != expectedNodeCount) {
+					System.out.println("Expected " + expectedNodeCount + " nodes, got " + nodeCount);
+					success = false;
+				}
+			}
+
+			System.exit((success) ? 0 : 1);
+		}
+		catch (Exception ex) {
+			ex.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	private static String joinArguments (final String[] args, final int beginIndex) {
+		final StringBuilder builder = new StringBuilder();
+
+		for (int i = beginIndex; i < args.length; i++) {
+			if (i > beginIndex)
+				builder.append(' ');
+
+			builder.append(args[i]);
+		}
+
+		return builder.toString();
+	}
+
+}
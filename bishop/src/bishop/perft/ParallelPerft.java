@@ -0,0 +1,108 @@
+package bishop.perft;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import bishop.base.LegalMoveGenerator;
+import bishop.base.Move;
+import bishop.base.MoveList;
+import bishop.base.Position;
+
+/**
+ * Perft that splits the root moves between threads.
+ * Each thread owns its calculator and takes the root moves one by one so the threads
+ * are balanced even if the subtrees have different sizes. All threads share one lock-free
+ * hash table so the transpositions found by one thread are used by the others.
+ * @author Ing. Petr Ležák
+ */
+public final class ParallelPerft {
+
+	private final int threadCount;
+	private final PerftHashTable hashTable;
+
+	/**
+	 * Creates perft.
+	 * @param threadCount number of threads
+	 * @param hashTable shared hash table or null
+	 */
+	public ParallelPerft (final int threadCount, final PerftHashTable hashTable) {
+		this.threadCount = threadCount;
+		this.hashTable = hashTable;
+	}
+
+	/**
+	 * Calculates number of leaf nodes in given depth for each root move.
+	 * @param position root position
+	 * @param depth depth in plies, must be positive
+	 * @param generatorType type of the move generator
+	 * @return result
+	 */
+	public PerftResult calculate (final Position position, final int depth, final PerftGeneratorType generatorType) throws InterruptedException, ExecutionException {
+		if (depth <= 0)
+			throw new RuntimeException("Depth must be positive: " + depth);
+
+		final MoveList rootMoves = new MoveList();
+		final LegalMoveGenerator rootGenerator = new LegalMoveGenerator();
+		rootGenerator.setPosition(position);
+		rootGenerator.setWalker(m -> {
+			rootMoves.add(m);
+
+			return true;
+		});
+
+		rootGenerator.generateMoves();
+
+		final long[] nodeCounts = new long[rootMoves.getSize()];
+		final AtomicInteger nextMoveIndex = new AtomicInteger();
+		final int workerCount = Math.max(Math.min(threadCount, rootMoves.getSize()), 1);
+		final List<Callable<Void>> workerList = new ArrayList<>();
+
+		for (int i = 0; i < workerCount; i++) {
+			final PerftCalculator calculator = new PerftCalculator(generatorType, hashTable);
+
+			workerList.add(() -> {
+				final Position childPosition = new Position();
+				final Move move = new Move();
+
+				while (true) {
+					final int index = nextMoveIndex.getAndIncrement();
+
+					if (index >= nodeCounts.length)
+						break;
+
+					childPosition.assign(position);
+					rootMoves.assignToMove(index, move);
+					childPosition.makeMove(move);
+
+					nodeCounts[index] = calculator.calculate(childPosition, depth - 1);
+				}
+
+				return null;
+			});
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+		final long beginTime = System.currentTimeMillis();
+
+		try {
+			final List<Future<Void>> futureList = executor.invokeAll(workerList);
+
+			for (Future<Void> future: futureList)
+				future.get();
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		final long elapsedTime = System.currentTimeMillis() - beginTime;
+
+		return new PerftResult(generatorType, depth, rootMoves, nodeCounts, elapsedTime);
+	}
+
+}
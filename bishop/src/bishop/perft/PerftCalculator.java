@@ -0,0 +1,120 @@
+package bishop.perft;
+
+import bishop.base.IMoveGenerator;
+import bishop.base.MoveStack;
+import bishop.base.Position;
+import bishop.base.PseudoLegalMoveGenerator;
+import bishop.base.PseudoLegalMoveGeneratorBase;
+
+/**
+ * Single threaded calculator of the number of leaf nodes in given depth.
+ * The calculator counts just nodes so it can use the hash table and bulk counting
+ * of the last ply with legal move generator. Calculator is not thread safe but more
+ * calculators can share one hash table. Pseudo-legal moves are generated directly into
+ * the move stack and made from their packed form.
+ * @author Ing. Petr Ležák
+ */
+public final class PerftCalculator {
+
+	private static final int MIN_HASH_DEPTH = 2;
+
+	private final PerftGeneratorType generatorType;
+	private final boolean checkLegality;
+	private final IMoveGenerator moveGenerator;
+	private final PseudoLegalMoveGeneratorBase directMoveGenerator;
+	private final PerftHashTable hashTable;
+	private final Position position = new Position();
+	private MoveStack moveStack = new MoveStack(0);
+	private int moveStackTop;
+
+	/**
+	 * Creates calculator.
+	 * @param generatorType type of move generator
+	 * @param hashTable shared hash table or null
+	 */
+	public PerftCalculator (final PerftGeneratorType generatorType, final PerftHashTable hashTable) {
+		this.generatorType = generatorType;
+		this.checkLegality = generatorType.generatesIllegalMoves();
+		this.moveGenerator = generatorType.createGenerator();
+		this.hashTable = hashTable;
+
+		this.directMoveGenerator = (moveGenerator instanceof PseudoLegalMoveGeneratorBase) ? (PseudoLegalMoveGeneratorBase) moveGenerator : null;
+
+		moveGenerator.setPosition(position);
+		moveGenerator.setWalker(m -> {
+			moveStack.setRecord(moveStackTop, m, 0);
+			moveStackTop++;
+
+			return true;
+		});
+	}
+
+	public PerftGeneratorType getGeneratorType() {
+		return generatorType;
+	}
+
+	/**
+	 * Calculates number of leaf nodes.
+	 * @param beginPosition root position
+	 * @param depth depth in plies
+	 * @return number of leaf nodes
+	 */
+	public long calculate (final Position beginPosition, final int depth) {
+		position.assign(beginPosition);
+		moveStackTop = 0;
+
+		final int moveStackCapacity = depth * PseudoLegalMoveGenerator.MAX_MOVES_IN_POSITION;
+
+		if (moveStack.getSize() < moveStackCapacity)
+			moveStack = new MoveStack(moveStackCapacity);
+
+		return calculateNodeCount(depth);
+	}
+
+	private long calculateNodeCount (final int depth) {
+		if (depth == 0)
+			return 1;
+
+		final boolean useHash = hashTable != null && depth >= MIN_HASH_DEPTH;
+
+		if (useHash) {
+			final long storedNodeCount = hashTable.getNodeCount(position.getHash(), depth);
+
+			if (storedNodeCount != PerftHashTable.NOT_FOUND)
+				return storedNodeCount;
+		}
+
+		final int moveStackBegin = moveStackTop;
+
+		if (directMoveGenerator != null)
+			moveStackTop = directMoveGenerator.generateMoves(moveStack, moveStackBegin);
+		else
+			moveGenerator.generateMoves();
+
+		final int moveStackEnd = moveStackTop;
+
+		long nodeCount = 0;
+
+		if (depth == 1 && !checkLegality)
+			nodeCount = moveStackEnd - moveStackBegin;
+		else {
+			for (int i = moveStackBegin; i < moveStackEnd; i++) {
+				final int moveData = moveStack.getMoveData(i);
+				position.makeMove(moveData);
+
+				if (!checkLegality || !position.isKingNotOnTurnAttacked())
+					nodeCount += calculateNodeCount(depth - 1);
+
+				position.undoMove(moveData);
+			}
+		}
+
+		moveStackTop = moveStackBegin;
+
+		if (useHash)
+			hashTable.putNodeCount(position.getHash(), depth, nodeCount);
+
+		return nodeCount;
+	}
+
+}
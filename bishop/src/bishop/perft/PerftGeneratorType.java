@@ -0,0 +1,58 @@
+package bishop.perft;
+
+import bishop.base.IMoveGenerator;
+import bishop.base.LegalMoveGenerator;
+import bishop.base.PseudoLegalMoveGenerator;
+
+/**
+ * Move generator used by the perft.
+ * @author Ing. Petr Ležák
+ */
+public enum PerftGeneratorType {
+	PSEUDO_LEGAL ("pseudo") {
+		@Override
+		public IMoveGenerator createGenerator() {
+			return new PseudoLegalMoveGenerator();
+		}
+	},
+
+	LEGAL ("legal") {
+		@Override
+		public IMoveGenerator createGenerator() {
+			return new LegalMoveGenerator();
+		}
+	};
+
+	private final String name;
+
+	private PerftGeneratorType (final String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Creates new instance of the generator.
+	 * @return generator
+	 */
+	public abstract IMoveGenerator createGenerator();
+
+	/**
+	 * Returns if generated moves can leave the king in check.
+	 * @return true if moves must be checked for legality after they are made
+	 */
+	public boolean generatesIllegalMoves() {
+		return this == PSEUDO_LEGAL;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public static PerftGeneratorType forName (final String name) {
+		for (PerftGeneratorType type: values()) {
+			if (type.name.equals(name))
+				return type;
+		}
+
+		throw new RuntimeException("Unknown move generator " + name);
+	}
+}
@@ -0,0 +1,87 @@
+package bishop.perft;
+
+import bishop.engine.EvaluationHashTableImpl;
+import utils.HugeAtomicLongArray;
+
+/**
+ * Lock-free hash table of perft node counts shared by all threads of the perft.
+ * The record is keyed by the hash of the position and by the remaining depth.
+ * Each slot consists of two longs - the first one contains the key xored with the node count,
+ * the second one contains the node count. If two threads writes the same slot concurrently
+ * the slot can contain the key from one write and the count from the other one.
+ * Such slot is not recognized when read because the key would not match.
+ * Newer record always replaces the older one.
+ * @author Ing. Petr Ležák
+ */
+public final class PerftHashTable {
+
+	private static final int SLOT_SHIFT = 1;   // Slot has 2 longs
+	private static final long DEPTH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	public static final int ITEM_SIZE = 2 * Long.BYTES;   // Size of hash item [B]
+	public static final long NOT_FOUND = -1;
+
+	private final HugeAtomicLongArray table;
+	private final long itemCount;
+
+	/**
+	 * Creates table that fits into given memory.
+	 * @param memorySize size of the memory [B]
+	 */
+	public PerftHashTable (final long memorySize) {
+		this.itemCount = Math.max(memorySize / ITEM_SIZE, 1);
+		this.table = new HugeAtomicLongArray(itemCount << SLOT_SHIFT);
+	}
+
+	public long getItemCount() {
+		return itemCount;
+	}
+
+	private static long getKey (final long hash, final int depth) {
+		return hash ^ (depth * DEPTH_MULTIPLIER);
+	}
+
+	private long getSlotIndex (final long key) {
+		return EvaluationHashTableImpl.getItemIndex(key, itemCount) << SLOT_SHIFT;
+	}
+
+	/**
+	 * Returns stored number of nodes.
+	 * @param hash hash of the position
+	 * @param depth remaining depth
+	 * @return number of nodes or NOT_FOUND
+	 */
+	public long getNodeCount (final long hash, final int depth) {
+		final long key = getKey(hash, depth);
+		final long index = getSlotIndex(key);
+		final long nodeCount = table.get(index + 1);
+		final long storedKey = table.get(index);
+
+		if (nodeCount > 0 && (storedKey ^ nodeCount) == key)
+			return nodeCount;
+		else
+			return NOT_FOUND;
+	}
+
+	/**
+	 * Stores number of nodes.
+	 * @param hash hash of the position
+	 * @param depth remaining depth
+	 * @param nodeCount number of nodes
+	 */
+	public void putNodeCount (final long hash, final int depth, final long nodeCount) {
+		final long key = getKey(hash, depth);
+		final long index = getSlotIndex(key);
+
+		table.set(index, key ^ nodeCount);
+		table.set(index + 1, nodeCount);
+	}
+
+	/**
+	 * Removes all records.
+	 */
+	public void clear() {
+		table.clear();
+	}
+
+}
@@ -0,0 +1,67 @@
+package bishop.perft;
+
+import bishop.base.Move;
+import bishop.base.MoveList;
+
+/**
+ * Result of the perft - number of leaf nodes for each root move.
+ * @author Ing. Petr Ležák
+ */
+public final class PerftResult {
+
+	private final PerftGeneratorType generatorType;
+	private final int depth;
+	private final MoveList rootMoves;
+	private final long[] nodeCounts;
+	private final long elapsedTime;   // [ms]
+
+	public PerftResult (final PerftGeneratorType generatorType, final int depth, final MoveList rootMoves, final long[] nodeCounts, final long elapsedTime) {
+		this.generatorType = generatorType;
+		this.depth = depth;
+		this.rootMoves = rootMoves;
+		this.nodeCounts = nodeCounts;
+		this.elapsedTime = elapsedTime;
+	}
+
+	public PerftGeneratorType getGeneratorType() {
+		return generatorType;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public int getRootMoveCount() {
+		return rootMoves.getSize();
+	}
+
+	public Move getRootMove (final int index) {
+		return rootMoves.get(index);
+	}
+
+	public long getNodeCount (final int index) {
+		return nodeCounts[index];
+	}
+
+	public long getTotalNodeCount() {
+		long totalNodeCount = 0;
+
+		for (long nodeCount: nodeCounts)
+			totalNodeCount += nodeCount;
+
+		return totalNodeCount;
+	}
+
+	/**
+	 * Returns time of the calculation.
+	 * @return elapsed time [ms]
+	 */
+	public long getElapsedTime() {
+		return elapsedTime;
+	}
+
+	public long getNodesPerSecond() {
+		return 1000 * getTotalNodeCount() / Math.max(elapsedTime, 1);
+	}
+
+}
@@ -0,0 +1,243 @@
+package bishop.uci;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URL;
+import java.util.List;
+import java.util.function.Supplier;
+
+import bishop.base.CombinedPositionEvaluationTable;
+import bishop.base.Fen;
+import bishop.base.PieceTypeEvaluations;
+import bishop.controller.BlockingSearch;
+import bishop.controller.EngineSettings;
+import bishop.controller.SearchResources;
+import bishop.engine.CountingHashTable;
+import bishop.engine.HashTableType;
+import bishop.engine.HashTables;
+import bishop.engine.IPositionEvaluation;
+import bishop.engine.ISearchManager;
+import bishop.engine.ISearchEngineFactory;
+import bishop.engine.ParallelSearchEngineFactory;
+import bishop.engine.PositionEvaluationCoeffs;
+import bishop.engine.SearchResult;
+import bishop.engine.SearchStatistics;
+import bishop.engine.SerialSearchEngine;
+import bishop.engine.SerialSearchEngineFactory;
+import bishop.engine.TablebasePositionEvaluator;
+
+/**
+ * Benchmark that searches fixed set of positions to fixed depth.
+ * The search runs in deterministic mode with one thread and fixed hash table size
+ * so the total number of nodes is a signature of the build - it changes just when
+ * the search or the evaluation changes. Nodes per second measure the speed of the host.
+ * Benchmark can also run with more threads, either with helper engines (Lazy SMP)
+ * or with split point search, to compare both parallel searches on the same hardware.
+ * Search with more threads is not deterministic so the number of nodes is not a signature.
+ * Type of the hash tables can be selected to compare their hit rates and node counts.
+ * @author Ing. Petr Ležák
+ */
+public final class Bench {
+
+	public static final int DEFAULT_DEPTH = 7;
+
+	private static final int HASH_TABLE_SIZE = 16;   // [MB]
+
+	private static final String[] POSITIONS = {
+		"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+		"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 10",
+		"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 11",
+		"4rrk1/pp1n3p/3q2pQ/2p1pb2/2PP4/2P3N1/P2B2PP/4RRK1 b - - 7 19",
+		"rq3rk1/ppp2ppp/1bnpb3/3N2B1/3NP3/7P/PPPQ1PP1/2KR3R w - - 7 14",
+		"r1bq1r1k/1pp1n1pp/1p1p4/4p2Q/4Pp2/1BNP4/PPP2PPP/3R1RK1 w - - 2 14",
+		"r3r1k1/2p2ppp/p1p1bn2/8/1q2P3/2NPQN2/PPP3PP/R4RK1 b - - 2 15",
+		"r1bbk1nr/pp3p1p/2n5/1N4p1/2Np1B2/8/PPP2PPP/2KR1B1R w kq - 0 13",
+		"r1bq1rk1/ppp1nppp/4n3/3p3Q/3P4/1BP1B3/PP1N2PP/R4RK1 w - - 1 16",
+		"4r1k1/r1q2ppp/ppp2n2/4P3/5Rb1/1N1BQ3/PPP3PP/R5K1 w - - 1 17",
+		"2rqkb1r/ppp2p2/2npb1p1/1N1Nn2p/2P1PP2/8/PP2B1PP/R1BQK2R b KQ - 0 11",
+		"6k1/6p1/6Pp/ppp5/3pn2P/1P3K2/1PP2P2/3N4 b - - 0 1",
+		"3b4/5kp1/1p1p1p1p/pP1PpP1P/P1P1P3/3KN3/8/8 w - - 0 1",
+		"8/8/8/8/5kp1/P7/8/1K1N4 w - - 0 80",
+		"1r3k2/4q3/2Pp3b/3Bp3/2Q2p2/1p1P2P1/1P2KP2/3N4 w - - 0 1",
+		"5k2/7R/4P2p/5K2/p1r2P1p/8/8/8 b - - 0 1"
+	};
+
+	private final URL rootUrl;
+	private int depth = DEFAULT_DEPTH;
+	private int threadCount = 1;
+	private boolean splitSearch = false;
+	private HashTableType hashTableType = HashTableType.DEFAULT;
+
+	private BlockingSearch search;
+	private CountingHashTable hashTable;
+
+	public Bench (final URL rootUrl) {
+		this.rootUrl = rootUrl;
+	}
+
+	/**
+	 * Sets depth of the search.
+	 * @param depth depth in plies
+	 */
+	public void setDepth (final int depth) {
+		this.depth = depth;
+	}
+
+	/**
+	 * Sets number of threads of the search.
+	 * @param threadCount number of threads
+	 */
+	public void setThreadCount (final int threadCount) {
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Selects parallel search.
+	 * @param splitSearch true for split point search, false for helper engines (Lazy SMP)
+	 */
+	public void setSplitSearch (final boolean splitSearch) {
+		this.splitSearch = splitSearch;
+	}
+
+	/**
+	 * Sets type of the hash tables.
+	 * @param hashTableType type of the hash tables
+	 */
+	public void setHashTableType (final HashTableType hashTableType) {
+		this.hashTableType = hashTableType;
+	}
+
+	/**
+	 * Configures the benchmark by arguments '[depth] [-threads count] [-split] [-table type]'.
+	 * @param arguments arguments
+	 */
+	public void configure (final List<String> arguments) {
+		int index = 0;
+
+		while (index < arguments.size()) {
+			final String argument = arguments.get(index);
+
+			switch (argument) {
+				case "-threads":
+					setThreadCount(Integer.parseInt(arguments.get(index + 1)));
+					index += 2;
+					break;
+
+				case "-split":
+					setSplitSearch(true);
+					index++;
+					break;
+
+				case "-table":
+					setHashTableType(HashTableType.forName(arguments.get(index + 1)));
+					index += 2;
+					break;
+
+				default:
+					setDepth(Integer.parseInt(argument));
+					index++;
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Runs the benchmark and writes results into given stream.
+	 * @param output target stream
+	 * @return total number of nodes
+	 */
+	public long run (final PrintStream output) throws IOException, InterruptedException {
+		initializeManager();
+
+		try {
+			long totalNodeCount = 0;
+			long totalTime = 0;
+			long totalProbeCount = 0;
+			long totalHitCount = 0;
+			long totalBetaCutoffCount = 0;
+			long firstMoveBetaCutoffCount = 0;
+
+			for (int i = 0; i < POSITIONS.length; i++) {
+				hashTable.resetStatistics();
+
+				final long beginTime = System.currentTimeMillis();
+				final SearchResult result = search.search(Fen.positionFromString(POSITIONS[i]));
+				final long elapsedTime = System.currentTimeMillis() - beginTime;
+
+				final long nodeCount = result.getNodeCount();
+				totalNodeCount += nodeCount;
+				totalTime += elapsedTime;
+				totalProbeCount += hashTable.getProbeCount();
+				totalHitCount += hashTable.getHitCount();
+
+				final SearchStatistics statistics = search.getManager().getStatistics();
+				totalBetaCutoffCount += statistics.getTotalBetaCutoffCount();
+				firstMoveBetaCutoffCount += statistics.getBetaCutoffCount(0);
+
+				output.printf("Position %d/%d: depth %d, nodes %d, time to depth %d ms, nps %d, hash hit rate %.1f%%, best move %s%n",
+					i + 1, POSITIONS.length,
+					result.getHorizon() / SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION,
+					nodeCount, elapsedTime, getNodesPerSecond(nodeCount, elapsedTime),
+					100.0 * hashTable.getHitRate(),
+					(result.getPrincipalVariation().getSize() > 0) ? result.getPrincipalVariation().get(0).toString() : "none");
+			}
+
+			final double hitRate = (totalProbeCount > 0) ? (double) totalHitCount / (double) totalProbeCount : 0.0;
+			final double firstMoveCutoffRate = (totalBetaCutoffCount > 0) ? (double) firstMoveBetaCutoffCount / (double) totalBetaCutoffCount : 0.0;
+
+			output.println("===========================");
+			output.println("Depth         : " + depth);
+			output.println("Threads       : " + threadCount + ((splitSearch) ? " (split point search)" : ""));
+			output.println("Hash tables   : " + hashTableType.getName());
+			output.println("Total time    : " + totalTime + " ms");
+			output.println("Nodes searched: " + totalNodeCount);
+			output.println("Nodes/second  : " + getNodesPerSecond(totalNodeCount, totalTime));
+			output.printf("Hash hit rate : %.1f%%%n", 100.0 * hitRate);
+			output.printf("First cutoffs : %.1f%%%n", 100.0 * firstMoveCutoffRate);
+			output.flush();
+
+			return totalNodeCount;
+		}
+		finally {
+			search.stop();
+		}
+	}
+
+	private void initializeManager() {
+		final PositionEvaluationCoeffs evaluationCoeffs = SearchResources.createEvaluationCoeffs(rootUrl);
+		final Supplier<IPositionEvaluation> evaluationFactory = SearchResources.createEvaluationFactory(evaluationCoeffs);
+		final PieceTypeEvaluations pieceTypeEvaluations = evaluationCoeffs.getPieceTypeEvaluations();
+		final SerialSearchEngineFactory serialEngineFactory = SearchResources.createSerialEngineFactory(evaluationFactory, pieceTypeEvaluations);
+
+		final ISearchEngineFactory engineFactory;
+
+		if (splitSearch) {
+			final ParallelSearchEngineFactory splitEngineFactory = new ParallelSearchEngineFactory(serialEngineFactory);
+			splitEngineFactory.setPieceTypeEvaluations(pieceTypeEvaluations);
+
+			engineFactory = splitEngineFactory;
+		}
+		else
+			engineFactory = serialEngineFactory;
+
+		final HashTables hashTables = hashTableType.createHashTables();
+		hashTables.resizeToMemory(HASH_TABLE_SIZE * EngineSettings.MEGABYTE);
+		hashTable = new CountingHashTable(hashTables.getEvaluationHashTable(), hashTables.getBestMoveHashTable());
+
+		search = new BlockingSearch(engineFactory, pieceTypeEvaluations, new CombinedPositionEvaluationTable(evaluationCoeffs), new TablebasePositionEvaluator(new File("")));
+
+		final ISearchManager manager = search.getManager();
+		manager.setHashTable(hashTable, hashTable);
+		manager.setThreadCount(threadCount);
+		manager.setDeterministicMode(threadCount == 1);
+		manager.setMaxHorizon(depth * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION);
+
+		search.start();
+	}
+
+	private static long getNodesPerSecond (final long nodeCount, final long time) {
+		return 1000 * nodeCount / Math.max(time, 1);
+	}
+
+}
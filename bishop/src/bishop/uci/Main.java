@@ -0,0 +1,55 @@
+package bishop.uci;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Arrays;
+
+import utils.Logger;
+import bishop.base.GlobalSettings;
+
+
+/**
+ * Entry point of the headless UCI engine.
+ * Resources (evaluation coefficients, book) are read from the current directory.
+ * Argument -debug enables debug mode with log written to standard error output.
+ * Argument bench [depth] [-threads count] [-split] [-table separate|bucketed|unified] runs the benchmark and exits.
+ * @author Ing. Petr Ležák
+ */
+public class Main {
+
+	public static void main (final String[] args) {
+		int benchIndex = -1;
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-debug")) {
+				GlobalSettings.setDebug(true);
+				Logger.setStream(System.err);
+			}
+
+			if (args[i].equals("bench"))
+				benchIndex = i;
+		}
+
+		try {
+			final URL rootUrl = new File(".").toURI().toURL();
+
+			if (benchIndex >= 0) {
+				final Bench bench = new Bench(rootUrl);
+
+				bench.configure(Arrays.asList(args).subList(benchIndex + 1, args.length));
+
+				bench.run(System.out);
+				System.exit(0);
+			}
+
+			final UciEngine engine = new UciEngine(rootUrl, System.in, System.out);
+
+			engine.run();
+		}
+		catch (Exception ex) {
+			ex.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+}
@@ -0,0 +1,563 @@
+package bishop.uci;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import bishop.base.Color;
+import bishop.base.CombinedPositionEvaluationTable;
+import bishop.base.Fen;
+import bishop.base.Move;
+import bishop.base.MoveList;
+import bishop.base.MoveParser;
+import bishop.base.PieceType;
+import bishop.base.PieceTypeEvaluations;
+import bishop.base.Position;
+import bishop.base.Square;
+import bishop.controller.EngineSettings;
+import bishop.controller.SearchResources;
+import bishop.engine.BookReader;
+import bishop.engine.Evaluation;
+import bishop.engine.HashRecordType;
+import bishop.engine.HashTableType;
+import bishop.engine.HashTables;
+import bishop.engine.IPositionEvaluation;
+import bishop.engine.ISearchManager;
+import bishop.engine.ISearchManager.ManagerState;
+import bishop.engine.ISearchManagerHandler;
+import bishop.engine.ParallelSearchEngineFactory;
+import bishop.engine.PositionEvaluationCoeffs;
+import bishop.engine.PrincipalVariationList;
+import bishop.engine.SearchInfo;
+import bishop.engine.SearchResult;
+import bishop.engine.SerialSearchEngine;
+import bishop.engine.SerialSearchEngineFactory;
+import bishop.engine.TablebasePositionEvaluator;
+import utils.Logger;
+
+/**
+ * Headless engine that communicates by the UCI protocol.
+ * Commands are read from the input stream by the calling thread and they are executed
+ * one by one by the command thread. The search manager is controlled just from the command
+ * thread, notifications of the manager are passed to the command thread as new commands.
+ * @author Ing. Petr Ležák
+ */
+public final class UciEngine {
+
+	private static final String ENGINE_NAME = "Bishop";
+	private static final String ENGINE_AUTHOR = "Petr Lezak";
+
+	private static final int MAX_HORIZON = 256;
+	private static final int MAX_THREAD_COUNT = 256;
+
+	private static final String BOOK_PATH = "book.dat";
+
+	// Time allocation
+	private static final int DEFAULT_MOVES_TO_GO = 30;
+	private static final long MOVE_OVERHEAD = 50;   // Time reserved for the communication [ms]
+	private static final int HARD_LIMIT_MULTIPLIER = 3;
+
+	private static final String OPTION_HASH = "Hash";
+	private static final String OPTION_THREADS = "Threads";
+	private static final String OPTION_PONDER = "Ponder";
+	private static final String OPTION_OWN_BOOK = "OwnBook";
+	private static final String OPTION_MULTI_PV = "MultiPV";
+	private static final String OPTION_TABLEBASE_PATH = "TablebasePath";
+	private static final String OPTION_SPLIT_SEARCH = "SplitSearch";
+	private static final String OPTION_HASH_TABLE_TYPE = "HashTableType";
+
+	private final URL rootUrl;
+	private final BufferedReader input;
+	private final PrintStream output;
+	private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor();
+
+	private HashTables hashTables;
+	private final ISearchManager searchManager;
+	private final SerialSearchEngineFactory serialEngineFactory;
+	private final ParallelSearchEngineFactory splitEngineFactory;
+	private BookReader book;
+
+	// Options
+	private int hashTableSize = EngineSettings.DEFAULT_HASH_TABLE_SIZE;   // [MB]
+	private int threadCount = 1;
+	private boolean ownBook = true;
+	private int multiPvCount = 1;
+	private String tablebasePath = "";
+	private boolean splitSearch = false;
+	private HashTableType hashTableType = HashTableType.DEFAULT;
+
+	// State of the command thread
+	private final Position position = new Position();
+	private boolean searchActive;
+	private boolean infiniteSearch;
+	private volatile int searchId;
+
+	private final ISearchManagerHandler searchManagerHandler = new ISearchManagerHandler() {
+		@Override
+		public void onSearchComplete(final ISearchManager manager) {
+			final int completedSearchId = searchId;
+
+			commandExecutor.execute(() -> onSearchCompleted(completedSearchId));
+		}
+
+		@Override
+		public void onSearchInfoUpdate(final SearchInfo info) {
+			sendSearchInfo(info);
+		}
+	};
+
+	public UciEngine (final URL rootUrl, final InputStream input, final PrintStream output) {
+		this.rootUrl = rootUrl;
+		this.input = new BufferedReader(new InputStreamReader(input));
+		this.output = output;
+
+		final PositionEvaluationCoeffs evaluationCoeffs = SearchResources.createEvaluationCoeffs(rootUrl);
+		final Supplier<IPositionEvaluation> evaluationFactory = SearchResources.createEvaluationFactory(evaluationCoeffs);
+		final PieceTypeEvaluations pieceTypeEvaluations = evaluationCoeffs.getPieceTypeEvaluations();
+
+		serialEngineFactory = SearchResources.createSerialEngineFactory(evaluationFactory, pieceTypeEvaluations);
+
+		splitEngineFactory = new ParallelSearchEngineFactory(serialEngineFactory);
+		splitEngineFactory.setPieceTypeEvaluations(pieceTypeEvaluations);
+
+		hashTables = hashTableType.createHashTables();
+		hashTables.resizeToMemory(hashTableSize * EngineSettings.MEGABYTE);
+
+		searchManager = SearchResources.createSearchManager(serialEngineFactory, pieceTypeEvaluations, new CombinedPositionEvaluationTable(evaluationCoeffs), new TablebasePositionEvaluator(new File(tablebasePath)));
+		hashTables.setToManager(searchManager);
+		searchManager.setThreadCount(threadCount);
+		searchManager.getHandlerRegistrar().addHandler(searchManagerHandler);
+
+		try {
+			book = new BookReader(new URL(rootUrl, BOOK_PATH));
+			searchManager.setBook(book);
+		}
+		catch (IOException | RuntimeException ex) {
+			Logger.logMessage("Book was not loaded: " + ex.getMessage());
+			book = null;
+		}
+
+		position.setInitialPosition();
+	}
+
+	/**
+	 * Reads commands from the input and executes them until quit command is received
+	 * or the input is closed.
+	 */
+	public void run() throws IOException, InterruptedException, ExecutionException {
+		searchManager.start();
+
+		while (true) {
+			final String line = input.readLine();
+
+			if (line == null)
+				break;
+
+			final List<String> tokens = Arrays.asList(line.trim().split("\\s+"));
+
+			if (tokens.get(0).equals("quit"))
+				break;
+
+			commandExecutor.execute(() -> processCommand(tokens));
+		}
+
+		// Manager can send notifications until it is stopped so the executor is shut down after quit
+		commandExecutor.submit(this::quit).get();
+		commandExecutor.shutdown();
+		commandExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+	}
+
+	private void processCommand (final List<String> tokens) {
+		try {
+			switch (tokens.get(0)) {
+				case "uci":
+					processUci();
+					break;
+
+				case "isready":
+					send("readyok");
+					break;
+
+				case "setoption":
+					processSetOption(tokens);
+					break;
+
+				case "ucinewgame":
+					stopSearch();
+					hashTables.clear();
+					break;
+
+				case "position":
+					processPosition(tokens);
+					break;
+
+				case "go":
+					processGo(tokens);
+					break;
+
+				case "stop":
+					stopSearch();
+					break;
+
+				case "bench":
+					processBench(tokens);
+					break;
+
+				case "ponderhit":
+					if (searchActive && searchManager.isPondering())
+						searchManager.ponderHit();
+
+					break;
+
+				case "":
+					break;
+
+				default:
+					send("info string Unknown command " + tokens.get(0));
+					break;
+			}
+		}
+		catch (Exception ex) {
+			Logger.logException(ex);
+			send("info string Error " + ex.getMessage());
+		}
+	}
+
+	private void processUci() {
+		send("id name " + ENGINE_NAME);
+		send("id author " + ENGINE_AUTHOR);
+		send("option name " + OPTION_HASH + " type spin default " + hashTableSize + " min " + EngineSettings.MIN_HASH_TABLE_SIZE + " max " + EngineSettings.MAX_HASH_TABLE_SIZE);
+		send("option name " + OPTION_THREADS + " type spin default " + threadCount + " min 1 max " + MAX_THREAD_COUNT);
+		send("option name " + OPTION_PONDER + " type check default true");
+		send("option name " + OPTION_OWN_BOOK + " type check default " + ownBook);
+		send("option name " + OPTION_MULTI_PV + " type spin default " + multiPvCount + " min " + EngineSettings.MIN_ANALYSIS_LINE_COUNT + " max " + EngineSettings.MAX_ANALYSIS_LINE_COUNT);
+		send("option name " + OPTION_TABLEBASE_PATH + " type string default <empty>");
+		send("option name " + OPTION_SPLIT_SEARCH + " type check default " + splitSearch);
+
+		final StringBuilder hashTableTypeOption = new StringBuilder("option name " + OPTION_HASH_TABLE_TYPE + " type combo default " + hashTableType.getName());
+
+		for (HashTableType type: HashTableType.values())
+			hashTableTypeOption.append(" var ").append(type.getName());
+
+		send(hashTableTypeOption.toString());
+		send("uciok");
+	}
+
+	/**
+	 * Processes command 'setoption name id [value x]'. Name and value can contain spaces.
+	 * @param tokens tokens of the command
+	 */
+	private void processSetOption (final List<String> tokens) {
+		final int nameIndex = tokens.indexOf("name");
+		final int valueIndex = tokens.indexOf("value");
+
+		if (nameIndex < 0)
+			throw new RuntimeException("Option name is missing");
+
+		final int nameEnd = (valueIndex >= 0) ? valueIndex : tokens.size();
+		final String name = String.join(" ", tokens.subList(nameIndex + 1, nameEnd));
+		final String value = (valueIndex >= 0) ? String.join(" ", tokens.subList(valueIndex + 1, tokens.size())) : "";
+
+		stopSearch();
+
+		if (name.equalsIgnoreCase(OPTION_HASH)) {
+			hashTableSize = Math.min(Math.max(Integer.parseInt(value), EngineSettings.MIN_HASH_TABLE_SIZE), EngineSettings.MAX_HASH_TABLE_SIZE);
+			hashTables.resizeToMemory(hashTableSize * EngineSettings.MEGABYTE);
+		}
+		else if (name.equalsIgnoreCase(OPTION_THREADS)) {
+			threadCount = Math.min(Math.max(Integer.parseInt(value), 1), MAX_THREAD_COUNT);
+
+			// Engines are created when the manager is started
+			searchManager.stop();
+			searchManager.setThreadCount(threadCount);
+			searchManager.start();
+		}
+		else if (name.equalsIgnoreCase(OPTION_PONDER)) {
+			// Pondering is controlled by 'go ponder'
+		}
+		else if (name.equalsIgnoreCase(OPTION_OWN_BOOK))
+			ownBook = Boolean.parseBoolean(value);
+		else if (name.equalsIgnoreCase(OPTION_MULTI_PV))
+			multiPvCount = Math.min(Math.max(Integer.parseInt(value), EngineSettings.MIN_ANALYSIS_LINE_COUNT), EngineSettings.MAX_ANALYSIS_LINE_COUNT);
+		else if (name.equalsIgnoreCase(OPTION_TABLEBASE_PATH)) {
+			tablebasePath = value.equals("<empty>") ? "" : value;
+
+			searchManager.stop();
+			searchManager.setTablebaseEvaluator(new TablebasePositionEvaluator(new File(tablebasePath)));
+			searchManager.start();
+		}
+		else if (name.equalsIgnoreCase(OPTION_SPLIT_SEARCH)) {
+			splitSearch = Boolean.parseBoolean(value);
+
+			// Threads are used by split point search instead of helper engines
+			searchManager.stop();
+			searchManager.setEngineFactory((splitSearch) ? splitEngineFactory : serialEngineFactory);
+			searchManager.start();
+		}
+		else if (name.equalsIgnoreCase(OPTION_HASH_TABLE_TYPE)) {
+			hashTableType = HashTableType.forName(value);
+
+			// New tables are created with minimal size and resized after the old ones are released
+			searchManager.stop();
+			hashTables = hashTableType.createHashTables();
+			hashTables.setToManager(searchManager);
+			hashTables.resizeToMemory(hashTableSize * EngineSettings.MEGABYTE);
+			searchManager.start();
+		}
+		else
+			send("info string Unknown option " + name);
+	}
+
+	/**
+	 * Processes command 'bench [depth] [-threads count] [-split] [-table type]'. Benchmark uses its own search manager
+	 * and hash table so it does not change the state of the engine.
+	 * @param tokens tokens of the command
+	 */
+	private void processBench (final List<String> tokens) throws IOException, InterruptedException {
+		stopSearch();
+
+		final Bench bench = new Bench(rootUrl);
+
+		bench.configure(tokens.subList(1, tokens.size()));
+
+		bench.run(output);
+	}
+
+	/**
+	 * Processes command 'position [fen fenstring | startpos] moves move1 ... movei'.
+	 * @param tokens tokens of the command
+	 */
+	private void processPosition (final List<String> tokens) throws IOException {
+		final int movesIndex = tokens.indexOf("moves");
+		final int positionEnd = (movesIndex >= 0) ? movesIndex : tokens.size();
+
+		if (tokens.size() > 1 && tokens.get(1).equals("fen")) {
+			final Fen fen = new Fen();
+			fen.readFenFromString(String.join(" ", tokens.subList(2, positionEnd)));
+
+			position.assign(fen.getPosition());
+		}
+		else
+			position.setInitialPosition();
+
+		if (movesIndex >= 0) {
+			for (String moveString: tokens.subList(movesIndex + 1, tokens.size()))
+				position.makeMove(parseMove(position, moveString));
+		}
+	}
+
+	/**
+	 * Parses move in coordinate notation.
+	 * @param position position before the move
+	 * @param moveString move in coordinate notation, i.e. e2e4 or e7e8q
+	 * @return parsed move
+	 */
+	public static Move parseMove (final Position position, final String moveString) throws IOException {
+		final MoveParser parser = new MoveParser();
+		parser.initPosition(position);
+		parser.filterByBeginSquare(Square.read(new StringReader(moveString.substring(0, 2))));
+		parser.filterByTargetSquare(Square.read(new StringReader(moveString.substring(2, 4))));
+
+		if (moveString.length() > 4)
+			parser.filterByPromotionPieceType(PieceType.fromChar(moveString.charAt(4)));
+
+		final List<Move> moveList = parser.getMoveList();
+
+		if (moveList.size() != 1)
+			throw new RuntimeException("Illegal move " + moveString);
+
+		return moveList.get(0);
+	}
+
+	/**
+	 * Processes command 'go' with its parameters.
+	 * @param tokens tokens of the command
+	 */
+	private void processGo (final List<String> tokens) {
+		stopSearch();
+
+		final int onTurn = position.getOnTurn();
+		int maxHorizon = MAX_HORIZON;
+		long maxNodeCount = ISearchManager.NODE_COUNT_INFINITY;
+		long softLimit = ISearchManager.TIME_FOR_MOVE_INFINITY;
+		long hardLimit = ISearchManager.TIME_FOR_MOVE_INFINITY;
+		long remainingTime = -1;
+		long increment = 0;
+		int movesToGo = DEFAULT_MOVES_TO_GO;
+		boolean ponder = false;
+		boolean infinite = false;
+
+		for (int i = 1; i < tokens.size(); i++) {
+			switch (tokens.get(i)) {
+				case "depth":
+					maxHorizon = Integer.parseInt(tokens.get(++i)) * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
+					break;
+
+				case "nodes":
+					maxNodeCount = Long.parseLong(tokens.get(++i));
+					break;
+
+				case "movetime":
+					softLimit = Long.parseLong(tokens.get(++i));
+					hardLimit = softLimit;
+					break;
+
+				case "wtime":
+				case "btime":
+					if (tokens.get(i).equals((onTurn == Color.WHITE) ? "wtime" : "btime"))
+						remainingTime = Long.parseLong(tokens.get(i + 1));
+
+					i++;
+					break;
+
+				case "winc":
+				case "binc":
+					if (tokens.get(i).equals((onTurn == Color.WHITE) ? "winc" : "binc"))
+						increment = Long.parseLong(tokens.get(i + 1));
+
+					i++;
+					break;
+
+				case "movestogo":
+					movesToGo = Math.max(Integer.parseInt(tokens.get(++i)), 1);
+					break;
+
+				case "ponder":
+					ponder = true;
+					break;
+
+				case "infinite":
+					infinite = true;
+					break;
+			}
+		}
+
+		if (remainingTime >= 0) {
+			final long availableTime = Math.max(remainingTime - MOVE_OVERHEAD, 0);
+
+			softLimit = Math.min(availableTime / movesToGo + increment, availableTime);
+			hardLimit = Math.min(HARD_LIMIT_MULTIPLIER * softLimit, availableTime);
+		}
+
+		searchManager.setMaxHorizon(maxHorizon);
+		searchManager.setMaxNodeCount(maxNodeCount);
+		searchManager.setTimeLimits(softLimit, hardLimit);
+		searchManager.setMultiPvCount(multiPvCount);
+		searchManager.setBookSearchEnabled(ownBook && book != null);
+		searchManager.setSingleMoveSearchEnabled(!infinite);
+
+		searchId++;
+		searchActive = true;
+		infiniteSearch = infinite;
+
+		if (ponder)
+			searchManager.startPondering(position);
+		else
+			searchManager.startSearching(position);
+	}
+
+	private void onSearchCompleted (final int completedSearchId) {
+		// Result of infinite search is sent after stop command
+		if (completedSearchId == searchId && searchActive && !infiniteSearch)
+			finishSearch();
+	}
+
+	/**
+	 * Stops running search and sends the best move.
+	 */
+	private void stopSearch() {
+		if (searchActive)
+			finishSearch();
+	}
+
+	private void finishSearch() {
+		if (searchManager.getManagerState() == ManagerState.SEARCHING)
+			searchManager.stopSearching();
+
+		searchActive = false;
+
+		final SearchResult result = searchManager.getResult();
+		final MoveList principalVariation = (result != null) ? result.getPrincipalVariation() : new MoveList();
+
+		if (principalVariation.getSize() > 1)
+			send("bestmove " + principalVariation.get(0) + " ponder " + principalVariation.get(1));
+		else if (principalVariation.getSize() > 0)
+			send("bestmove " + principalVariation.get(0));
+		else
+			send("bestmove 0000");
+	}
+
+	private void quit() {
+		stopSearch();
+		searchManager.stop();
+	}
+
+	private void sendSearchInfo (final SearchInfo info) {
+		final MoveList principalVariation = info.getPrincipalVariation();
+
+		if (principalVariation == null)
+			return;
+
+		final long elapsedTime = info.getElapsedTime();
+		final long nodesPerSecond = (elapsedTime > 0) ? 1000 * info.getNodeCount() / elapsedTime : 0;
+		final String statistics = " nodes " + info.getNodeCount() + " time " + elapsedTime + " nps " + nodesPerSecond;
+		final int depth = info.getHorizon() / SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
+		final PrincipalVariationList principalVariationList = info.getPrincipalVariationList();
+
+		if (principalVariationList != null) {
+			for (int i = 0; i < principalVariationList.getSize(); i++) {
+				send("info multipv " + (i + 1) + " depth " + depth + " score " + getScoreString(principalVariationList.getEvaluation(i)) +
+				     statistics + " pv " + principalVariationList.getPrincipalVariation(i));
+			}
+		}
+		else {
+			String bound = "";
+
+			if (info.getEvaluationType() == HashRecordType.LOWER_BOUND)
+				bound = " lowerbound";
+
+			if (info.getEvaluationType() == HashRecordType.UPPER_BOUND)
+				bound = " upperbound";
+
+			send("info depth " + depth + " score " + getScoreString(info.getEvaluation()) + bound + statistics + " pv " + principalVariation);
+		}
+
+		for (String line: info.getAdditionalInfo())
+			send("info string " + line);
+	}
+
+	/**
+	 * Converts evaluation into UCI score.
+	 * @param evaluation evaluation from the view of the side on turn
+	 * @return score in centipawns or mate in moves
+	 */
+	public static String getScoreString (final int evaluation) {
+		if (evaluation >= Evaluation.MATE_MIN)
+			return "mate " + ((Evaluation.MATE_ZERO_DEPTH - evaluation) / 2 + 1);
+
+		if (evaluation <= -Evaluation.MATE_MIN)
+			return "mate -" + ((evaluation + Evaluation.MATE_ZERO_DEPTH) / 2);
+
+		return "cp " + (100L * evaluation / PieceTypeEvaluations.PAWN_EVALUATION);
+	}
+
+	private void send (final String line) {
+		synchronized (output) {
+			output.println(line);
+			output.flush();
+		}
+	}
+
+}
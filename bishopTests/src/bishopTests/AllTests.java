@@ -52,6 +52,7 @@ public class AllTests {
 		QuiescencePseudoLegalMoveGeneratorTest.class,
 		UncompressMoveTest.class,
 		PerftTest.class,
+		ParallelPerftTest.class,
 		MobilityCalculatorTest.class,
 		AttackCalculatorTest.class,
 		ReverseMoveGeneratorTest.class,
@@ -64,6 +65,10 @@ public class AllTests {
 		StaticExchangeEvaluatorTest.class,
 		SearchEngineTest.class,
 		SearchManagerTest.class,
+		TimeManagerTest.class,
+		UciEngineTest.class,
+		EpdRecordTest.class,
+		ParallelSearchEngineTest.class,
 		NotationTest.class,
 		PgnTest.class,
 		RangeTest.class,
@@ -76,7 +81,11 @@ public class AllTests {
 		ChunkTest.class,
 		TableDefinitionTest.class,
 		EvaluationHashTableTest.class,
+		BucketedEvaluationHashTableTest.class,
 		BestMoveHashTableTest.class,
+		UnifiedHashTableTest.class,
+		CountingHashTableTest.class,
+		SearchStatisticsTest.class,
 		PawnStructureEvaluatorTest.class,
 		PositionIoTest.class,
 		SimpleLinearModelTest.class,
@@ -27,10 +27,11 @@ public class BestMoveHashTableTest {
 	@Test
 	public void testHashTable() {
 		final Random rnd = new Random();
-		final int exponent = 8;
-		final long mask = (1L << exponent) - 1;
+		final int itemCount = 1000;
 		
-		final BestMoveHashTableImpl hashTable = new BestMoveHashTableImpl(exponent);
+		final BestMoveHashTableImpl hashTable = new BestMoveHashTableImpl(0);
+		hashTable.resizeToMemory(itemCount * BestMoveHashTableImpl.ITEM_SIZE);
+		Assert.assertEquals(itemCount, hashTable.getItemCount());
 		final Map<Integer, Data> expectedMap = new HashMap<>();
 		
 		for (int i = 0; i < 10000; i++) {
@@ -39,7 +40,7 @@ public class BestMoveHashTableTest {
 			final long hash = rnd.nextLong();
 			hashTable.updateRecord(hash, horizon, compressedMove);
 
-			final int index = (int) (hash & mask);
+			final int index = (int) EvaluationHashTableImpl.getItemIndex(hash, itemCount);
 			final Data existingData = expectedMap.get(index);
 			
 			if (existingData == null || horizon >= existingData.horizon)
@@ -52,4 +53,41 @@ public class BestMoveHashTableTest {
 			Assert.assertEquals(entry.getValue().compressedMove, compressedMove);
 		}
 	}
+
+	@Test
+	public void testGenerations() {
+		final BestMoveHashTableImpl hashTable = new BestMoveHashTableImpl(8);
+		final long hash = 0x123456789ABCDEF0L;
+
+		hashTable.updateRecord(hash, 10, 1234);
+		hashTable.updateRecord(hash, 8, 4321);
+
+		Assert.assertEquals(1234, hashTable.getRecord(hash));
+
+		// Old record is kept in new generation, but it is replaced by record with lower horizon
+		hashTable.nextGeneration();
+		Assert.assertEquals(1234, hashTable.getRecord(hash));
+
+		hashTable.updateRecord(hash, 8, 4321);
+		Assert.assertEquals(4321, hashTable.getRecord(hash));
+	}
+
+	/**
+	 * Checks that the record stays old after many generations when the generation stored in the item wraps around.
+	 */
+	@Test
+	public void testOldRecordAfterManyGenerations() {
+		final long hash = 0x123456789ABCDEF0L;
+
+		for (int generationCount = 1; generationCount <= 600; generationCount++) {
+			final BestMoveHashTableImpl hashTable = new BestMoveHashTableImpl(8);
+			hashTable.updateRecord(hash, 10, 1234);
+
+			for (int i = 0; i < generationCount; i++)
+				hashTable.nextGeneration();
+
+			hashTable.updateRecord(hash, 8, 4321);
+			Assert.assertEquals("Generation count " + generationCount, 4321, hashTable.getRecord(hash));
+		}
+	}
 }
@@ -0,0 +1,125 @@
+package bishopTests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import bishop.engine.BucketedEvaluationHashTableImpl;
+import bishop.engine.HashRecord;
+import bishop.engine.HashRecordType;
+
+
+public class BucketedEvaluationHashTableTest {
+
+	private static final int EXPONENT = 8;
+	private static final long BASE_HASH = 0x123456789ABCDEF0L;
+
+	private static HashRecord createRecord (final int horizon, final int evaluation) {
+		final HashRecord record = new HashRecord();
+		record.setEvaluation(evaluation);
+		record.setHorizon(horizon);
+		record.setType(HashRecordType.VALUE);
+
+		return record;
+	}
+
+	/**
+	 * Returns hash that differs from BASE_HASH but belongs to the same bucket.
+	 */
+	private static long getHashInSameBucket (final int index) {
+		return BASE_HASH + ((long) index << 40);
+	}
+
+	@Test
+	public void testWholeBucketIsUsed() {
+		final BucketedEvaluationHashTableImpl hashTable = new BucketedEvaluationHashTableImpl(EXPONENT);
+
+		for (int i = 0; i < BucketedEvaluationHashTableImpl.BUCKET_SIZE; i++)
+			hashTable.updateRecord(getHashInSameBucket(i), createRecord(10 + i, i));
+
+		for (int i = 0; i < BucketedEvaluationHashTableImpl.BUCKET_SIZE; i++) {
+			final HashRecord record = new HashRecord();
+
+			Assert.assertTrue(hashTable.getRecord(getHashInSameBucket(i), 10 + i, record));
+			Assert.assertEquals(createRecord(10 + i, i), record);
+		}
+	}
+
+	@Test
+	public void testCheapestRecordIsReplaced() {
+		final BucketedEvaluationHashTableImpl hashTable = new BucketedEvaluationHashTableImpl(EXPONENT);
+		final int count = BucketedEvaluationHashTableImpl.BUCKET_SIZE + 1;
+
+		for (int i = 0; i < count; i++)
+			hashTable.updateRecord(getHashInSameBucket(i), createRecord(10 + i, i));
+
+		final HashRecord record = new HashRecord();
+		Assert.assertFalse(hashTable.getRecord(getHashInSameBucket(0), 10, record));
+
+		for (int i = 1; i < count; i++)
+			Assert.assertTrue(hashTable.getRecord(getHashInSameBucket(i), 10 + i, record));
+
+		// Record with lower cost than all records in the bucket is not stored
+		hashTable.updateRecord(getHashInSameBucket(count), createRecord(10, 0));
+		Assert.assertFalse(hashTable.getRecord(getHashInSameBucket(count), 10, record));
+
+		// Records from older generations are replaced
+		hashTable.nextGeneration();
+		hashTable.updateRecord(getHashInSameBucket(count), createRecord(10, 0));
+		Assert.assertTrue(hashTable.getRecord(getHashInSameBucket(count), 10, record));
+	}
+
+	@Test
+	public void testSameRecordIsUpdated() {
+		final BucketedEvaluationHashTableImpl hashTable = new BucketedEvaluationHashTableImpl(EXPONENT);
+
+		hashTable.updateRecord(BASE_HASH, createRecord(10, 100));
+		hashTable.updateRecord(BASE_HASH, createRecord(10, 200));
+
+		for (int i = 1; i < BucketedEvaluationHashTableImpl.BUCKET_SIZE; i++)
+			hashTable.updateRecord(getHashInSameBucket(i), createRecord(20 + i, i));
+
+		final HashRecord record = new HashRecord();
+		Assert.assertTrue(hashTable.getRecord(BASE_HASH, 10, record));
+		Assert.assertEquals(createRecord(10, 200), record);
+	}
+
+	@Test
+	public void testDeepestRecord() {
+		final BucketedEvaluationHashTableImpl hashTable = new BucketedEvaluationHashTableImpl(EXPONENT);
+		final HashRecord record = new HashRecord();
+
+		Assert.assertFalse(hashTable.getDeepestRecord(BASE_HASH, record));
+
+		hashTable.updateRecord(BASE_HASH, createRecord(10, 100));
+		hashTable.updateRecord(BASE_HASH, createRecord(14, 300));
+		hashTable.updateRecord(BASE_HASH, createRecord(12, 200));
+		hashTable.updateRecord(getHashInSameBucket(1), createRecord(20, 400));
+
+		Assert.assertTrue(hashTable.getDeepestRecord(BASE_HASH, record));
+		Assert.assertEquals(createRecord(14, 300), record);
+	}
+
+	/**
+	 * Checks that the records stay old after many generations when the generation stored in the items wraps around.
+	 */
+	@Test
+	public void testOldRecordsAfterManyGenerations() {
+		final int count = BucketedEvaluationHashTableImpl.BUCKET_SIZE;
+
+		for (int generationCount = 1; generationCount <= 300; generationCount++) {
+			final BucketedEvaluationHashTableImpl hashTable = new BucketedEvaluationHashTableImpl(EXPONENT);
+
+			for (int i = 0; i < count; i++)
+				hashTable.updateRecord(getHashInSameBucket(i), createRecord(10 + i, i));
+
+			for (int i = 0; i < generationCount; i++)
+				hashTable.nextGeneration();
+
+			// Record with lower horizon than all records in the bucket
+			hashTable.updateRecord(getHashInSameBucket(count), createRecord(9, 0));
+
+			final HashRecord record = new HashRecord();
+			Assert.assertTrue("Generation count " + generationCount, hashTable.getRecord(getHashInSameBucket(count), 9, record));
+		}
+	}
+}
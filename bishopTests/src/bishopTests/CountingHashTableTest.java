@@ -0,0 +1,46 @@
+package bishopTests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import bishop.base.Position;
+import bishop.engine.CountingHashTable;
+import bishop.engine.HashRecord;
+import bishop.engine.HashRecordType;
+import bishop.engine.UnifiedHashTableImpl;
+
+public class CountingHashTableTest {
+
+	@Test
+	public void testCounting() {
+		final UnifiedHashTableImpl unifiedHashTable = new UnifiedHashTableImpl(8);
+		final CountingHashTable hashTable = new CountingHashTable(unifiedHashTable, unifiedHashTable);
+
+		final Position position = new Position();
+		position.setInitialPosition();
+
+		final HashRecord record = new HashRecord();
+		Assert.assertFalse(hashTable.getRecord(position, 4, record));
+		Assert.assertEquals(0.0, hashTable.getHitRate(), 0.0);
+
+		record.setEvaluation(100);
+		record.setHorizon(4);
+		record.setType(HashRecordType.VALUE);
+		hashTable.updateRecord(position, record);
+
+		Assert.assertTrue(hashTable.getRecord(position, 4, record));
+		Assert.assertTrue(hashTable.getRecord(position, 4, record));
+		Assert.assertFalse(hashTable.getRecord(position, 6, record));
+
+		Assert.assertEquals(4, hashTable.getProbeCount());
+		Assert.assertEquals(2, hashTable.getHitCount());
+		Assert.assertEquals(0.5, hashTable.getHitRate(), 1e-9);
+
+		hashTable.resetStatistics();
+		Assert.assertEquals(0, hashTable.getProbeCount());
+
+		// Clear is passed to the underlying table
+		hashTable.clear();
+		Assert.assertFalse(unifiedHashTable.getRecord(position, 4, record));
+	}
+}
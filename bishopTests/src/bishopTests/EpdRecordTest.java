@@ -0,0 +1,48 @@
+package bishopTests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import bishop.base.Fen;
+import bishop.base.Move;
+import bishop.base.Position;
+import bishop.batch.EpdRecord;
+
+public class EpdRecordTest {
+
+	@Test
+	public void testEpd() throws Exception {
+		final EpdRecord record = EpdRecord.parse("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - bm Bb5 Bc4; id \"test 1\";");
+		final Position expectedPosition = Fen.positionFromString("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 0 1");
+
+		Assert.assertEquals(expectedPosition, record.getPosition());
+		Assert.assertEquals("test 1", record.getId());
+		Assert.assertEquals(2, record.getBestMoves().size());
+		Assert.assertEquals("f1b5", record.getBestMoves().get(0).toString());
+		Assert.assertEquals("f1c4", record.getBestMoves().get(1).toString());
+		Assert.assertTrue(record.getAvoidMoves().isEmpty());
+
+		Assert.assertTrue(record.isSolvedBy(record.getBestMoves().get(1)));
+		Assert.assertFalse(record.isSolvedBy(new Move()));
+	}
+
+	@Test
+	public void testAvoidMove() throws Exception {
+		final EpdRecord record = EpdRecord.parse("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - am Ra8;");
+		final Move avoidMove = record.getAvoidMoves().get(0);
+
+		Assert.assertEquals("", record.getId());
+		Assert.assertTrue(record.hasExpectedMoves());
+		Assert.assertFalse(record.isSolvedBy(avoidMove));
+		Assert.assertTrue(record.isSolvedBy(new Move()));
+	}
+
+	@Test
+	public void testFen() throws Exception {
+		final String fen = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+		final EpdRecord record = EpdRecord.parse(fen);
+
+		Assert.assertEquals(Fen.positionFromString(fen), record.getPosition());
+		Assert.assertFalse(record.hasExpectedMoves());
+	}
+}
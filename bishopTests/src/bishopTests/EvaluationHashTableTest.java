@@ -37,10 +37,11 @@ public class EvaluationHashTableTest {
 	@Test
 	public void testHashTable() {
 		final Random rnd = new Random();
-		final int exponent = 8;
-		final long mask = (1L << exponent) - 1;
+		final int itemCount = 1000;
 		
-		final EvaluationHashTableImpl hashTable = new EvaluationHashTableImpl(exponent);
+		final EvaluationHashTableImpl hashTable = new EvaluationHashTableImpl(0);
+		hashTable.resizeToMemory(itemCount * EvaluationHashTableImpl.ITEM_SIZE);
+		Assert.assertEquals(itemCount, hashTable.getItemCount());
 		final Map<Integer, Data> expectedMap = new HashMap<>();
 		
 		for (int i = 0; i < 10000; i++) {
@@ -49,7 +50,7 @@ public class EvaluationHashTableTest {
 			hashTable.updateRecord(hash, record);
 
 			final int horizon = record.getHorizon();
-			final int index = (int) ((hash + horizon) & mask);
+			final int index = (int) ((EvaluationHashTableImpl.getItemIndex(hash, itemCount) + horizon) % itemCount);
 			final Data existingData = expectedMap.get(index);
 
 			if (existingData == null ||
@@ -65,4 +66,73 @@ public class EvaluationHashTableTest {
 			Assert.assertEquals(entry.getValue().record, record);
 		}
 	}
+
+	@Test
+	public void testGenerations() {
+		final EvaluationHashTableImpl hashTable = new EvaluationHashTableImpl(8);
+		final long hash = 0x123456789ABCDEF0L;
+		final long otherHash = hash + (1L << 25);   // Index greater by 2 so the record with horizon 8 shares the item
+
+		final HashRecord oldRecord = new HashRecord();
+		oldRecord.setEvaluation(100);
+		oldRecord.setHorizon(10);
+		oldRecord.setType(HashRecordType.VALUE);
+		hashTable.updateRecord(hash, oldRecord);
+
+		// Record with lower horizon doesn't replace record from the same generation
+		final HashRecord newRecord = new HashRecord();
+		newRecord.setEvaluation(200);
+		newRecord.setHorizon(8);
+		newRecord.setType(HashRecordType.VALUE);
+		hashTable.updateRecord(otherHash, newRecord);
+
+		final HashRecord record = new HashRecord();
+		Assert.assertTrue(hashTable.getRecord(hash, oldRecord.getHorizon(), record));
+		Assert.assertEquals(oldRecord, record);
+
+		// Old record is kept in new generation, but it is replaced by record with lower horizon
+		hashTable.nextGeneration();
+
+		Assert.assertTrue(hashTable.getRecord(hash, oldRecord.getHorizon(), record));
+		Assert.assertEquals(oldRecord, record);
+
+		hashTable.updateRecord(otherHash, newRecord);
+
+		Assert.assertFalse(hashTable.getRecord(hash, oldRecord.getHorizon(), record));
+		Assert.assertTrue(hashTable.getRecord(otherHash, newRecord.getHorizon(), record));
+		Assert.assertEquals(newRecord, record);
+	}
+
+	/**
+	 * Checks that the record stays old after many generations when the generation stored in the item wraps around.
+	 */
+	@Test
+	public void testOldRecordAfterManyGenerations() {
+		final long hash = 0x123456789ABCDEF0L;
+		final long otherHash = hash + (1L << 25);   // Index greater by 2 so the record with horizon 8 shares the item
+
+		final HashRecord oldRecord = new HashRecord();
+		oldRecord.setEvaluation(100);
+		oldRecord.setHorizon(10);
+		oldRecord.setType(HashRecordType.VALUE);
+
+		final HashRecord newRecord = new HashRecord();
+		newRecord.setEvaluation(200);
+		newRecord.setHorizon(8);
+		newRecord.setType(HashRecordType.VALUE);
+
+		for (int generationCount = 1; generationCount <= 300; generationCount++) {
+			final EvaluationHashTableImpl hashTable = new EvaluationHashTableImpl(8);
+			hashTable.updateRecord(hash, oldRecord);
+
+			for (int i = 0; i < generationCount; i++)
+				hashTable.nextGeneration();
+
+			hashTable.updateRecord(otherHash, newRecord);
+
+			final HashRecord record = new HashRecord();
+			Assert.assertTrue("Generation count " + generationCount, hashTable.getRecord(otherHash, newRecord.getHorizon(), record));
+			Assert.assertEquals(newRecord, record);
+		}
+	}
 }
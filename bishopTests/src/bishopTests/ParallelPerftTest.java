@@ -0,0 +1,80 @@
+package bishopTests;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import bishop.base.Fen;
+import bishop.base.Position;
+import bishop.perft.ParallelPerft;
+import bishop.perft.PerftGeneratorType;
+import bishop.perft.PerftHashTable;
+import bishop.perft.PerftResult;
+
+public class ParallelPerftTest {
+
+	private static final int THREAD_COUNT = 2;
+	private static final long HASH_TABLE_SIZE = 1 << 20;   // [B]
+
+	private static class TestCase {
+		private final String position;
+		private final long[] nodeCounts;
+
+		public TestCase (final String position, final long ...nodeCounts) {
+			this.position = position;
+			this.nodeCounts = nodeCounts;
+		}
+	}
+
+	private static final TestCase[] TEST_CASES = {
+		new TestCase("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", 20, 400, 8902, 197281),
+		new TestCase("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 48, 2039, 97862),
+		new TestCase("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2812, 43238, 674624),
+		new TestCase("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 264, 9467, 422333)
+	};
+
+	private static void checkPerft (final PerftHashTable hashTable) throws IOException, InterruptedException, ExecutionException {
+		final ParallelPerft perft = new ParallelPerft(THREAD_COUNT, hashTable);
+
+		for (PerftGeneratorType generatorType: PerftGeneratorType.values()) {
+			for (TestCase testCase: TEST_CASES) {
+				final Position position = Fen.positionFromString(testCase.position);
+
+				for (int i = 0; i < testCase.nodeCounts.length; i++) {
+					final PerftResult result = perft.calculate(position, i + 1, generatorType);
+
+					Assert.assertEquals(testCase.nodeCounts[i], result.getTotalNodeCount());
+					Assert.assertEquals(testCase.nodeCounts[0], result.getRootMoveCount());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testWithoutHash() throws IOException, InterruptedException, ExecutionException {
+		checkPerft(null);
+	}
+
+	@Test
+	public void testWithHash() throws IOException, InterruptedException, ExecutionException {
+		checkPerft(new PerftHashTable(HASH_TABLE_SIZE));
+	}
+
+	@Test
+	public void testHashTable() {
+		final PerftHashTable hashTable = new PerftHashTable(HASH_TABLE_SIZE);
+		final long hash = 0x123456789ABCDEF0L;
+
+		Assert.assertEquals(PerftHashTable.NOT_FOUND, hashTable.getNodeCount(hash, 3));
+
+		hashTable.putNodeCount(hash, 3, 1234);
+		Assert.assertEquals(1234, hashTable.getNodeCount(hash, 3));
+		Assert.assertEquals(PerftHashTable.NOT_FOUND, hashTable.getNodeCount(hash, 4));
+
+		hashTable.clear();
+		Assert.assertEquals(PerftHashTable.NOT_FOUND, hashTable.getNodeCount(hash, 3));
+	}
+
+}
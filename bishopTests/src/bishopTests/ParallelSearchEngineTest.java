@@ -0,0 +1,173 @@
+package bishopTests;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.StringReader;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import bishop.base.*;
+import bishop.engine.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelSearchEngineTest {
+	private static final PieceTypeEvaluations pte = PieceTypeEvaluations.DEFAULT;
+	private static final int THREAD_COUNT = 4;
+	private static final String KIWIPETE_FEN = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+	private static class TestValue {
+		public String positionFen;
+		public int depth;
+		public int evaluation;
+		public String moveString;
+
+		public TestValue (final String positionFen, final int depth, final int evaluation, final String moveString) {
+			this.positionFen = positionFen;
+			this.depth = depth;
+			this.evaluation = evaluation;
+			this.moveString = moveString;
+		}
+	}
+
+	private static final TestValue[] TEST_VALUES = {
+		new TestValue("3k1R2/8/3K4/8/8/8/8/8 b - - 0 1", 3, -Evaluation.getMateEvaluation(0), null),
+		new TestValue("2k5/8/2K1R3/8/8/8/8/8 w - - 0 1", 3, Evaluation.getMateEvaluation(1), "e6e8"),
+		new TestValue("7k/8/8/6RK/8/8/8/8 w - - 0 1", 5, Evaluation.getMateEvaluation(5), "h5g6"),
+		new TestValue("8/8/8/8/6rk/8/8/7K b - - 0 1", 5, Evaluation.getMateEvaluation(5), "h4g3"),
+		new TestValue("k3r3/8/8/3N4/8/8/8/K7 w - - 0 1", 3, Evaluation.DRAW, "d5c7"),
+		new TestValue("QR6/7k/8/8/7q/8/6P1/6K1 b - - 0 1", 4, Evaluation.DRAW, "h4e1"),
+		new TestValue("8/1k1K3R/8/8/8/8/8/8 w - - 0 1", 7, Evaluation.getMateEvaluation(7), "h7h6")
+	};
+
+	@Test
+	public void testExpectedResult() throws IOException {
+		for (int maxSplitDepth = 1; maxSplitDepth <= ParallelSearchEngine.DEFAULT_MAX_SPLIT_DEPTH; maxSplitDepth++) {
+			final ISearchEngine engine = configureEngine(maxSplitDepth);
+
+			for (TestValue testValue: TEST_VALUES) {
+				final Fen fen = new Fen();
+				fen.readFen(new PushbackReader(new StringReader(testValue.positionFen)));
+
+				final SearchResult result = search(engine, fen, SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION * testValue.depth);
+				final MoveList principalVariation = result.getPrincipalVariation();
+				System.out.println (principalVariation.toString());
+
+				Assert.assertFalse(result.isSearchTerminated());
+				Assert.assertEquals(testValue.positionFen, testValue.evaluation, result.getEvaluation());
+
+				if (testValue.moveString != null)
+					Assert.assertEquals(testValue.positionFen, testValue.moveString, principalVariation.get(0).toString());
+				else
+					Assert.assertEquals(0, principalVariation.getSize());
+			}
+		}
+	}
+
+	/**
+	 * Checks that the node budget of the task is passed to the leaves.
+	 */
+	@Test
+	public void testNodeLimit() throws IOException {
+		final long maxNodeCount = 20000;
+		final ISearchEngine engine = configureEngine(ParallelSearchEngine.DEFAULT_MAX_SPLIT_DEPTH);
+		final Fen fen = new Fen();
+		fen.readFen(new PushbackReader(new StringReader(KIWIPETE_FEN)));
+
+		final SearchTask task = createTask(fen, 10 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION);
+		task.setMaxNodeCount(maxNodeCount);
+
+		final SearchResult result = engine.search(task);
+
+		// Leaves running in parallel can exceed the budget, each of them at most by the budget
+		Assert.assertTrue(result.isSearchTerminated());
+		Assert.assertTrue(engine.getNodeCount() <= (THREAD_COUNT + 1) * maxNodeCount);
+	}
+
+	/**
+	 * Checks that disposed engine doesn't accept new tasks to its thread pool.
+	 */
+	@Test
+	public void testDispose() throws IOException {
+		final ISearchEngine engine = configureEngine(ParallelSearchEngine.DEFAULT_MAX_SPLIT_DEPTH);
+		final Fen fen = new Fen();
+		fen.readFen(new PushbackReader(new StringReader(KIWIPETE_FEN)));
+
+		search(engine, fen, 4 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION);
+		engine.dispose();
+
+		try {
+			search(engine, fen, 4 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION);
+			Assert.fail("Disposed engine has searched the task");
+		}
+		catch (RejectedExecutionException ex) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Checks that multi PV task returns the best lines.
+	 */
+	@Test
+	public void testMultiPv() throws IOException {
+		final int lineCount = 3;
+		final ISearchEngine engine = configureEngine(ParallelSearchEngine.DEFAULT_MAX_SPLIT_DEPTH);
+		final Fen fen = new Fen();
+		fen.readFen(new PushbackReader(new StringReader(KIWIPETE_FEN)));
+
+		final SearchTask task = createTask(fen, 4 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION);
+		task.setMultiPvCount(lineCount);
+
+		final SearchResult result = engine.search(task);
+		final PrincipalVariationList lineList = result.getPrincipalVariationList();
+
+		Assert.assertTrue(lineList != null);
+		Assert.assertEquals(lineCount, lineList.getSize());
+		Assert.assertEquals(result.getEvaluation(), lineList.getEvaluation(0));
+	}
+
+	private ISearchEngine configureEngine(final int maxSplitDepth) {
+		final SerialSearchEngineFactory workerEngineFactory = new SerialSearchEngineFactory();
+		final Supplier<IPositionEvaluation> evaluationFactory = AlgebraicPositionEvaluation.getAlgebraicTestingFactory();
+
+		workerEngineFactory.setPositionEvaluatorFactory(new MaterialPositionEvaluatorFactory(evaluationFactory));
+		workerEngineFactory.setMaximalDepth(20);
+		workerEngineFactory.setPieceTypeEvaluations(pte);
+
+		final ParallelSearchEngineFactory engineFactory = new ParallelSearchEngineFactory(workerEngineFactory);
+		engineFactory.setMaxSplitDepth(maxSplitDepth);
+		engineFactory.setPieceTypeEvaluations(pte);
+
+		final ISearchEngine engine = engineFactory.createEngine(THREAD_COUNT);
+		engine.setSearchSettings(new SearchSettings());
+		engine.setHashTable(new EvaluationHashTableImpl(20), new BestMoveHashTableImpl(20));
+
+		return engine;
+	}
+
+	private SearchResult search(final ISearchEngine engine, final Fen fen, final int horizon) {
+		return engine.search(createTask(fen, horizon));
+	}
+
+	private SearchTask createTask(final Fen fen, final int horizon) {
+		final SearchTask task = new SearchTask();
+		task.setHorizon(horizon);
+
+		final Position position = fen.getPosition();
+		final RepeatedPositionRegister register = new RepeatedPositionRegister();
+
+		register.clearAndReserve(1);
+		register.pushPosition(position, null);
+
+		task.setRepeatedPositionRegister(register);
+		task.getPosition().assign(position);
+		task.setAlpha(Evaluation.MIN);
+		task.setBeta(Evaluation.MAX);
+
+		final DefaultAdditiveMaterialEvaluator materialEvaluator = new DefaultAdditiveMaterialEvaluator(pte);
+		final int materialEvaluation = materialEvaluator.evaluateMaterial(position.getMaterialHash());
+		task.setRootMaterialEvaluation(materialEvaluation);
+
+		return task;
+	}
+}
@@ -1,5 +1,6 @@
 package bishopTests;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -7,7 +8,16 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.junit.Assert;
+import org.junit.Test;
+
+import bishop.base.Fen;
 import bishop.base.IMoveGenerator;
+import bishop.base.Move;
+import bishop.base.MoveStack;
+import bishop.base.MoveType;
+import bishop.base.PieceType;
+import bishop.base.Position;
 import bishop.base.PseudoLegalMoveGenerator;
 
 public class PseudoLegalMoveGeneratorTest extends MoveGeneratorTestBase {
@@ -177,6 +187,98 @@ public class PseudoLegalMoveGeneratorTest extends MoveGeneratorTestBase {
 		};
 	}
 	
+	private static Set<String> generateMoves (final Position position, final boolean reduceInCheck, final int generatedMoves) {
+		final PseudoLegalMoveGenerator generator = new PseudoLegalMoveGenerator();
+		generator.setReduceMovesInCheck(reduceInCheck);
+		generator.setGeneratedMoves(generatedMoves);
+		generator.setPosition(position);
+
+		final Set<String> moveSet = new HashSet<>();
+
+		generator.setWalker(move -> {
+			final boolean isTactical = move.getCapturedPieceType() != PieceType.NONE || move.getMoveType() == MoveType.PROMOTION || move.getMoveType() == MoveType.EN_PASSANT;
+
+			if (generatedMoves == PseudoLegalMoveGenerator.MOVES_TACTICAL)
+				Assert.assertTrue(isTactical);
+
+			if (generatedMoves == PseudoLegalMoveGenerator.MOVES_QUIET)
+				Assert.assertFalse(isTactical);
+
+			Assert.assertTrue(moveSet.add(move.toString()));
+
+			return true;
+		});
+
+		generator.generateMoves();
+
+		return moveSet;
+	}
+
+	/**
+	 * Checks that tactical and quiet moves are disjoint and together they are all moves.
+	 */
+	@Test
+	public void testGeneratedMoves() throws IOException {
+		for (PositionWithMoves testCase: getPseudoLegalTestValues()) {
+			final Position position = Fen.positionFromString(testCase.getPositionFen());
+
+			for (boolean reduceInCheck: new boolean[] {false, true}) {
+				final Set<String> allMoves = generateMoves(position, reduceInCheck, PseudoLegalMoveGenerator.MOVES_ALL);
+				final Set<String> tacticalMoves = generateMoves(position, reduceInCheck, PseudoLegalMoveGenerator.MOVES_TACTICAL);
+				final Set<String> quietMoves = generateMoves(position, reduceInCheck, PseudoLegalMoveGenerator.MOVES_QUIET);
+
+				final Set<String> stagedMoves = new HashSet<>(tacticalMoves);
+				stagedMoves.addAll(quietMoves);
+
+				Assert.assertEquals(testCase.getPositionFen(), tacticalMoves.size() + quietMoves.size(), stagedMoves.size());
+				Assert.assertEquals(testCase.getPositionFen(), allMoves, stagedMoves);
+			}
+		}
+	}
+
+	/**
+	 * Checks that moves generated into move stack are the same as moves passed to the walker
+	 * and that they can be made and undone in packed form.
+	 */
+	@Test
+	public void testGenerateIntoMoveStack() throws IOException {
+		final int beginIndex = 5;
+		final MoveStack moveStack = new MoveStack(beginIndex + PseudoLegalMoveGenerator.MAX_MOVES_IN_POSITION);
+		final Move move = new Move();
+
+		for (PositionWithMoves testCase: getPseudoLegalTestValues()) {
+			final Position position = Fen.positionFromString(testCase.getPositionFen());
+			final Set<String> walkerMoves = generateMoves(position, false, PseudoLegalMoveGenerator.MOVES_ALL);
+
+			final PseudoLegalMoveGenerator generator = new PseudoLegalMoveGenerator();
+			generator.setPosition(position);
+
+			final int endIndex = generator.generateMoves(moveStack, beginIndex);
+			final Set<String> stackMoves = new HashSet<>();
+
+			for (int i = beginIndex; i < endIndex; i++) {
+				moveStack.getMove(i, move);
+				Assert.assertEquals(0, moveStack.getEvaluation(i));
+				Assert.assertTrue(stackMoves.add(move.toString()));
+
+				final Position copy = position.copy();
+				final int moveData = moveStack.getMoveData(i);
+
+				copy.makeMove(moveData);
+				Assert.assertEquals(Move.getTargetSquare(moveData), move.getTargetSquare());
+
+				final Position expectedPosition = position.copy();
+				expectedPosition.makeMove(move);
+				Assert.assertEquals(expectedPosition, copy);
+
+				copy.undoMove(moveData);
+				Assert.assertEquals(position, copy);
+			}
+
+			Assert.assertEquals(testCase.getPositionFen(), walkerMoves, stackMoves);
+		}
+	}
+
 	@Override
 	protected List<List<Object>> getParameterCombinations() {
 		final List<List<Object>> result = new ArrayList<>();
@@ -1,8 +1,11 @@
 package bishopTests;
 
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.io.PushbackReader;
 import java.io.StringReader;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import bishop.base.*;
@@ -12,6 +15,7 @@ import org.junit.Test;
 
 public class SearchEngineTest {
 	private static final PieceTypeEvaluations pte = PieceTypeEvaluations.DEFAULT;
+	private static final String KIWIPETE_FEN = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
 	
 	private static class TestValue {
 		public String positionFen;
@@ -85,6 +89,236 @@ public class SearchEngineTest {
 		}
 	}
 
+	/**
+	 * Checks that multi PV search returns the best lines with exact evaluations.
+	 */
+	@Test
+	public void testMultiPv() throws Exception {
+		final int lineCount = 4;
+		final SerialSearchEngine engine = configureEngine(true);
+
+		for (TestValue testValue: TEST_VALUES) {
+			final Fen fen = new Fen();
+			fen.readFen(new PushbackReader(new StringReader(testValue.positionFen)));
+
+			for (int horizon = 0; horizon < 4 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION; horizon++) {
+				final SearchTask singlePvTask = createTask(fen, horizon, Evaluation.MIN, Evaluation.MAX);
+				final SearchResult singlePvResult = engine.search(singlePvTask);
+				Assert.assertTrue(singlePvResult.getPrincipalVariationList() == null);
+
+				final SearchTask multiPvTask = createTask(fen, horizon, Evaluation.MIN, Evaluation.MAX);
+				multiPvTask.setMultiPvCount(lineCount);
+
+				final SearchResult multiPvResult = engine.search(multiPvTask);
+				final PrincipalVariationList lineList = multiPvResult.getPrincipalVariationList();
+				Assert.assertEquals(singlePvResult.getEvaluation(), multiPvResult.getEvaluation());
+
+				if (multiPvResult.getPrincipalVariation().getSize() == 0) {
+					Assert.assertEquals(0, lineList.getSize());
+					continue;
+				}
+
+				Assert.assertTrue(lineList.getSize() > 0);
+				Assert.assertEquals(multiPvResult.getEvaluation(), lineList.getEvaluation(0));
+
+				for (int i = 0; i < lineList.getSize(); i++) {
+					if (i > 0)
+						Assert.assertTrue(lineList.getEvaluation(i - 1) >= lineList.getEvaluation(i));
+
+					// Search of the first move of the line alone gives the same evaluation
+					final SearchTask lineTask = createTask(fen, horizon, Evaluation.MIN, Evaluation.MAX);
+					lineTask.getRootMoveList().addRecord(lineList.getPrincipalVariation(i).get(0), 0);
+
+					final SearchResult lineResult = engine.search(lineTask);
+					Assert.assertEquals(testValue.positionFen, lineResult.getEvaluation(), lineList.getEvaluation(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Position evaluator that pauses the search after given number of evaluations until the stop
+	 * is requested and then counts the evaluations done after the stop.
+	 */
+	private static class StoppingPositionEvaluator implements IPositionEvaluator {
+		private final IPositionEvaluator baseEvaluator;
+		private final long stopEvaluationCount;
+		private final CountDownLatch pauseLatch = new CountDownLatch(1);
+		private final CountDownLatch resumeLatch = new CountDownLatch(1);
+		private long evaluationCount;
+
+		public StoppingPositionEvaluator (final IPositionEvaluator baseEvaluator, final long stopEvaluationCount) {
+			this.baseEvaluator = baseEvaluator;
+			this.stopEvaluationCount = stopEvaluationCount;
+		}
+
+		@Override
+		public IPositionEvaluation evaluateTactical(final Position position, final MobilityCalculator mobilityCalculator) {
+			evaluationCount++;
+
+			if (evaluationCount == stopEvaluationCount) {
+				pauseLatch.countDown();
+
+				try {
+					resumeLatch.await();
+				}
+				catch (InterruptedException ex) {
+					throw new RuntimeException(ex);
+				}
+			}
+
+			return baseEvaluator.evaluateTactical(position, mobilityCalculator);
+		}
+
+		@Override
+		public IPositionEvaluation evaluatePositional() {
+			return baseEvaluator.evaluatePositional();
+		}
+
+		@Override
+		public void writeLog(final PrintWriter writer) {
+			baseEvaluator.writeLog(writer);
+		}
+
+		public void awaitPause() throws InterruptedException {
+			pauseLatch.await();
+		}
+
+		public void resume() {
+			resumeLatch.countDown();
+		}
+
+		public long getEvaluationCountAfterStop() {
+			return evaluationCount - stopEvaluationCount;
+		}
+	}
+
+	/**
+	 * Checks that the engine reacts quickly to the stop. The search is paused inside the evaluation
+	 * of some node, stopped from other thread and resumed. Then the test counts the evaluated positions,
+	 * so the latency is measured exactly in nodes and it doesn't depend on the load of the machine.
+	 */
+	@Test
+	public void testStopLatency() throws Exception {
+		final SerialSearchEngine engine = configureEngine(true);
+		final Supplier<IPositionEvaluation> evaluationFactory = AlgebraicPositionEvaluation.getAlgebraicTestingFactory();
+		final StoppingPositionEvaluator evaluator = new StoppingPositionEvaluator(new MaterialPositionEvaluator(evaluationFactory), 100000);
+		engine.setPositionEvaluator(evaluator);
+
+		final Fen fen = new Fen();
+		fen.readFen(new PushbackReader(new StringReader(KIWIPETE_FEN)));
+
+		final SearchTask task = createTask(fen, 15 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION, Evaluation.MIN, Evaluation.MAX);
+		final SearchResult[] result = new SearchResult[1];
+		final Thread thread = new Thread(() -> result[0] = engine.search(task));
+		thread.start();
+
+		evaluator.awaitPause();
+		engine.stopSearching();
+		evaluator.resume();
+		thread.join();
+
+		final long latency = evaluator.getEvaluationCountAfterStop();
+		System.out.println ("Stop latency: " + latency + " nodes");
+
+		Assert.assertTrue(result[0].isSearchTerminated());
+		Assert.assertTrue("Stop latency " + latency + " nodes", latency <= 1);
+	}
+
+	/**
+	 * Checks that late move reductions are used and that they decrease number of nodes.
+	 */
+	@Test
+	public void testLateMoveReductions() throws Exception {
+		final int horizon = 5 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
+
+		final SearchStatistics reducedStatistics = new SearchStatistics();
+		searchWithSettings(KIWIPETE_FEN, horizon, settings -> {}, reducedStatistics);
+
+		final SearchStatistics fullStatistics = new SearchStatistics();
+		searchWithSettings(KIWIPETE_FEN, horizon, settings -> {
+			settings.setLateMoveReduction(0);
+			settings.setLateMoveMaxReduction(0);
+		}, fullStatistics);
+
+		Assert.assertTrue(reducedStatistics.get(SearchStatistics.LATE_MOVE_REDUCTION_COUNT) > 0);
+		Assert.assertEquals(0, fullStatistics.get(SearchStatistics.LATE_MOVE_REDUCTION_COUNT));
+		Assert.assertTrue(reducedStatistics.get(SearchStatistics.NODE_COUNT) < fullStatistics.get(SearchStatistics.NODE_COUNT));
+	}
+
+	/**
+	 * Checks that futility pruning and razoring are used and that they decrease number of nodes.
+	 */
+	@Test
+	public void testFutilityPruning() throws Exception {
+		final int horizon = 5 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
+
+		final SearchStatistics prunedStatistics = new SearchStatistics();
+		searchWithSettings(KIWIPETE_FEN, horizon, settings -> {}, prunedStatistics);
+
+		final SearchStatistics fullStatistics = new SearchStatistics();
+		searchWithSettings(KIWIPETE_FEN, horizon, settings -> {
+			settings.setFrontierFutilityMargin(Evaluation.MAX);
+			settings.setPreFrontierFutilityMargin(Evaluation.MAX);
+			settings.setRazoringMaxHorizon(-1);
+		}, fullStatistics);
+
+		System.out.println ("Futility prunings: " + prunedStatistics.get(SearchStatistics.FUTILITY_PRUNING_COUNT) + ", razorings: " + prunedStatistics.get(SearchStatistics.RAZORING_COUNT));
+
+		Assert.assertTrue(prunedStatistics.get(SearchStatistics.FUTILITY_PRUNING_COUNT) > 0);
+		Assert.assertTrue(prunedStatistics.get(SearchStatistics.RAZORING_COUNT) > 0);
+		Assert.assertEquals(0, fullStatistics.get(SearchStatistics.FUTILITY_PRUNING_COUNT));
+		Assert.assertEquals(0, fullStatistics.get(SearchStatistics.RAZORING_COUNT));
+	}
+
+	/**
+	 * Checks that internal iterative deepening is used when there is no hash table
+	 * and that it does not change the result of the search.
+	 */
+	@Test
+	public void testInternalIterativeDeepening() throws Exception {
+		final int horizon = 6 * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION;
+
+		final SearchStatistics deepeningStatistics = new SearchStatistics();
+		final SearchResult deepeningResult = searchWithSettings(KIWIPETE_FEN, horizon, settings -> {}, deepeningStatistics);
+
+		final SearchStatistics fullStatistics = new SearchStatistics();
+		final SearchResult fullResult = searchWithSettings(KIWIPETE_FEN, horizon, settings -> {
+			settings.setInternalIterativeDeepeningMinHorizon(Integer.MAX_VALUE);
+		}, fullStatistics);
+
+		Assert.assertTrue(deepeningStatistics.get(SearchStatistics.INTERNAL_ITERATIVE_DEEPENING_COUNT) > 0);
+		Assert.assertEquals(0, fullStatistics.get(SearchStatistics.INTERNAL_ITERATIVE_DEEPENING_COUNT));
+		Assert.assertEquals(fullResult.getEvaluation(), deepeningResult.getEvaluation());
+		Assert.assertEquals(fullResult.getPrincipalVariation().get(0), deepeningResult.getPrincipalVariation().get(0));
+	}
+
+	/**
+	 * Checks that the re-search of principal variation search does not return lower evaluation
+	 * than the zero window search. The engine checks it by assertion so the test is meaningful
+	 * just with enabled assertions. Window dependent pruning is switched off because it breaks the rule.
+	 */
+	@Test
+	public void testPrincipalVariationSearchConsistency() throws Exception {
+		final String positionFen = "rq3rk1/ppp2p1p/1b1p1Bp1/Q2Nnb2/3NP3/P6P/1PPK1PP1/3R3R b - - 0 1";
+		final Fen fen = new Fen();
+		fen.readFen(new PushbackReader(new StringReader(positionFen)));
+
+		final SerialSearchEngine engine = configureEngine(true);
+		final SearchSettings settings = new SearchSettings();
+		settings.setLateMoveReduction(0);
+		settings.setLateMoveMaxReduction(0);
+		settings.setFrontierFutilityMargin(Evaluation.MAX);
+		settings.setPreFrontierFutilityMargin(Evaluation.MAX);
+		settings.setRazoringMaxHorizon(-1);
+		engine.setSearchSettings(settings);
+		engine.setHashTable(new EvaluationHashTableImpl(16), new BestMoveHashTableImpl(16));
+		engine.clear();
+
+		for (int depth = 1; depth <= 4; depth++)
+			search(engine, fen, depth * SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION, Evaluation.MIN, Evaluation.MAX);
+	}
+
 	public void runTest() throws IOException, InterruptedException {
 		final SerialSearchEngine engine = configureEngine(true);
 
@@ -151,7 +385,35 @@ public class SearchEngineTest {
 		return nodeCount;
 	}
 
+	/**
+	 * Searches given position by new engine with default settings modified by given modifier.
+	 * @param positionFen FEN of the position
+	 * @param horizon search horizon
+	 * @param settingsModifier modifier of the settings
+	 * @param statistics target statistics, statistics of the search are added into it
+	 * @return search result
+	 */
+	private SearchResult searchWithSettings(final String positionFen, final int horizon, final Consumer<SearchSettings> settingsModifier, final SearchStatistics statistics) throws IOException {
+		final Fen fen = new Fen();
+		fen.readFen(new PushbackReader(new StringReader(positionFen)));
+
+		final SerialSearchEngine engine = configureEngine(true);
+		final SearchSettings settings = new SearchSettings();
+		settingsModifier.accept(settings);
+		engine.setSearchSettings(settings);
+		engine.clear();
+
+		final SearchResult result = search(engine, fen, horizon, Evaluation.MIN, Evaluation.MAX);
+		engine.addStatistics(statistics);
+
+		return result;
+	}
+
 	private SearchResult search(final SerialSearchEngine engine, final Fen fen, final int horizon, final int alpha, final int beta) {
+		return engine.search(createTask(fen, horizon, alpha, beta));
+	}
+
+	private SearchTask createTask(final Fen fen, final int horizon, final int alpha, final int beta) {
 		final SearchTask task = new SearchTask();
 		task.setHorizon(horizon);
 
@@ -170,6 +432,6 @@ public class SearchEngineTest {
 		final int materialEvaluation = materialEvaluator.evaluateMaterial(position.getMaterialHash());
 		task.setRootMaterialEvaluation(materialEvaluation);
 
-		return engine.search(task);
+		return task;
 	}
 }
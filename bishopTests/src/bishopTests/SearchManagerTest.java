@@ -103,6 +103,143 @@ public class SearchManagerTest {
 		manager.getHandlerRegistrar().removeHandler(handler);
 	}
 
+	@Test
+	public void ponderTest() throws Exception {
+		final ISearchManager manager = new SearchManagerImpl();
+		manager.setHashTable(new EvaluationHashTableImpl(16), new BestMoveHashTableImpl(16));
+		
+		final Holder<Integer> completeCount = new Holder<>(0);
+		
+		final ISearchManagerHandler handler = new ISearchManagerHandler() {
+			public void onSearchComplete(ISearchManager manager) {
+				synchronized (completeCount) {
+					completeCount.setValue(completeCount.getValue() + 1);
+					completeCount.notify();
+				}
+			}
+
+			public void onSearchInfoUpdate(final SearchInfo info) {
+			}
+		};
+		
+		manager.getHandlerRegistrar().addHandler(handler);
+		
+		final SerialSearchEngineFactory engineFactory = new SerialSearchEngineFactory();
+		engineFactory.setPositionEvaluatorFactory(new MaterialPositionEvaluatorFactory(AlgebraicPositionEvaluation.getAlgebraicTestingFactory()));
+		engineFactory.setMaximalDepth(25);
+		engineFactory.setPieceTypeEvaluations(pte);
+
+		manager.setEngineFactory(engineFactory);
+		manager.setPieceTypeEvaluations(pte);
+		manager.setMaxHorizon(SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION * 5);
+		manager.start();
+		
+		final Fen fen = new Fen();
+		fen.readFen(new PushbackReader(new StringReader("7k/8/8/6RK/8/8/8/8 w - - 0 1")));
+		
+		// Ponder hit - result is sent after the hit even if the search has already finished
+		manager.startPondering(fen.getPosition());
+		Assert.assertTrue(manager.isPondering());
+		
+		Thread.sleep(500);
+		
+		synchronized (completeCount) {
+			Assert.assertEquals(0, completeCount.getValue().intValue());
+		}
+		
+		manager.ponderHit();
+		Assert.assertFalse(manager.isPondering());
+		
+		synchronized (completeCount) {
+			while (completeCount.getValue() == 0)
+				completeCount.wait();
+		}
+		
+		manager.stopSearching();
+		Assert.assertEquals(Evaluation.getMateEvaluation(5), manager.getResult().getEvaluation());
+		
+		// Ponder miss - result is not sent
+		manager.startPondering(fen.getPosition());
+		manager.stopSearching();
+		
+		synchronized (completeCount) {
+			Assert.assertEquals(1, completeCount.getValue().intValue());
+		}
+		
+		manager.stop();
+		manager.getHandlerRegistrar().removeHandler(handler);
+	}
+
+	@Test
+	public void deterministicTest() throws Exception {
+		final long maxNodeCount = 20000;
+		
+		final ISearchManager manager = new SearchManagerImpl();
+		manager.setHashTable(new EvaluationHashTableImpl(16), new BestMoveHashTableImpl(16));
+		
+		final Holder<Boolean> searchFinished = new Holder<Boolean>();
+		
+		final ISearchManagerHandler handler = new ISearchManagerHandler() {
+			public void onSearchComplete(ISearchManager manager) {
+				synchronized (searchFinished) {
+					searchFinished.setValue(Boolean.TRUE);
+					searchFinished.notify();
+				}
+			}
+
+			public void onSearchInfoUpdate(final SearchInfo info) {
+			}
+		};
+		
+		manager.getHandlerRegistrar().addHandler(handler);
+		
+		final SerialSearchEngineFactory engineFactory = new SerialSearchEngineFactory();
+		engineFactory.setPositionEvaluatorFactory(new MaterialPositionEvaluatorFactory(AlgebraicPositionEvaluation.getAlgebraicTestingFactory()));
+		engineFactory.setMaximalDepth(25);
+		engineFactory.setPieceTypeEvaluations(pte);
+
+		manager.setEngineFactory(engineFactory);
+		manager.setPieceTypeEvaluations(pte);
+		manager.setThreadCount(2);
+		manager.setMaxHorizon(SerialSearchEngine.HORIZON_STEP_WITHOUT_EXTENSION * 20);
+		manager.setMaxNodeCount(maxNodeCount);
+		manager.setDeterministicMode(true);
+		manager.start();
+		
+		final Position position = Fen.positionFromString("r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4");
+		SearchResult previousResult = null;
+		
+		for (int i = 0; i < 3; i++) {
+			synchronized (searchFinished) {
+				searchFinished.setValue(Boolean.FALSE);
+			}
+			
+			manager.startSearching(position);
+			
+			synchronized (searchFinished) {
+				while (!searchFinished.getValue())
+					searchFinished.wait();
+			}
+			
+			manager.stopSearching();
+			
+			final SearchResult result = manager.getResult();
+			Assert.assertEquals(maxNodeCount, result.getNodeCount());
+			Assert.assertEquals(maxNodeCount, manager.getStatistics().get(SearchStatistics.NODE_COUNT));
+			
+			if (previousResult != null) {
+				Assert.assertEquals(previousResult.getEvaluation(), result.getEvaluation());
+				Assert.assertEquals(previousResult.getHorizon(), result.getHorizon());
+				Assert.assertEquals(previousResult.getPrincipalVariation(), result.getPrincipalVariation());
+			}
+			
+			previousResult = result;
+		}
+		
+		manager.stop();
+		manager.getHandlerRegistrar().removeHandler(handler);
+	}
+
 	private void doSearch(final TestValue[] testValueArray,	final ISearchManager manager, final Holder<Boolean> searchFinished, final int threadCount) throws IOException, InterruptedException {
 		final SerialSearchEngineFactory engineFactory = new SerialSearchEngineFactory();
 		final Supplier<IPositionEvaluation> evaluationFactory = AlgebraicPositionEvaluation.getAlgebraicTestingFactory();
@@ -8,6 +8,7 @@ import java.util.Random;
 import bishop.base.Game;
 import bishop.base.PieceType;
 import bishop.base.PieceTypeEvaluations;
+import bishop.engine.GameStage;
 import bishop.engine.ISearchEngine;
 import bishop.engine.MoveEstimator;
 import bishop.engine.SearchSettings;
@@ -173,6 +174,104 @@ public class SearchSettingOptimizer {
 						optimalSettings.getMaxEstimateForZeroWindowSearch()
 				)
 		);
+
+		searchSettings.setLateMoveReductionMinHorizon(
+				getRandom(
+						2, 12,
+						optimalSettings.getLateMoveReductionMinHorizon()
+				)
+		);
+
+		searchSettings.setLateMoveReductionMinMoveIndex(
+				getRandom(
+						1, 10,
+						optimalSettings.getLateMoveReductionMinMoveIndex()
+				)
+		);
+
+		searchSettings.setLateMoveReductionMoveIndexStep(
+				getRandom(
+						1, 20,
+						optimalSettings.getLateMoveReductionMoveIndexStep()
+				)
+		);
+
+		searchSettings.setLateMoveReduction(
+				getRandom(
+						0, 4,
+						optimalSettings.getLateMoveReduction()
+				)
+		);
+
+		searchSettings.setLateMoveMaxReduction(
+				getRandom(
+						searchSettings.getLateMoveReduction(), 8,
+						optimalSettings.getLateMoveMaxReduction()
+				)
+		);
+
+		searchSettings.setLateMoveReductionPvNodeDecrease(
+				getRandom(
+						0, searchSettings.getLateMoveReduction(),
+						optimalSettings.getLateMoveReductionPvNodeDecrease()
+				)
+		);
+
+		searchSettings.setLateMoveReductionMaxEstimate(
+				getRandom(
+						-5 * MoveEstimator.ESTIMATE_MULTIPLIER, 5 * MoveEstimator.ESTIMATE_MULTIPLIER,
+						optimalSettings.getLateMoveReductionMaxEstimate()
+				)
+		);
+
+		searchSettings.setLateMoveReductionMinGameStage(
+				getRandom(
+						GameStage.FIRST, GameStage.LAST,
+						optimalSettings.getLateMoveReductionMinGameStage()
+				)
+		);
+
+		searchSettings.setFrontierFutilityMargin(
+				getRandom(
+						0, queenEvaluation,
+						optimalSettings.getFrontierFutilityMargin()
+				)
+		);
+
+		searchSettings.setPreFrontierFutilityMargin(
+				getRandom(
+						searchSettings.getFrontierFutilityMargin(), queenEvaluation,
+						optimalSettings.getPreFrontierFutilityMargin()
+				)
+		);
+
+		searchSettings.setRazoringMaxHorizon(
+				getRandom(
+						0, 8,
+						optimalSettings.getRazoringMaxHorizon()
+				)
+		);
+
+		searchSettings.setRazoringMargin(
+				getRandom(
+						0, queenEvaluation,
+						optimalSettings.getRazoringMargin()
+				)
+		);
+
+		searchSettings.setInternalIterativeDeepeningMinHorizon(
+				getRandom(
+						4, 20,
+						optimalSettings.getInternalIterativeDeepeningMinHorizon()
+				)
+		);
+
+		searchSettings.setInternalIterativeDeepeningReduction(
+				getRandom(
+						2, 8,
+						optimalSettings.getInternalIterativeDeepeningReduction()
+				)
+		);
 	}
 
 	private void optimize(final String[] args) {
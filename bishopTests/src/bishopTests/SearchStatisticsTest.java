@@ -0,0 +1,56 @@
+package bishopTests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import bishop.engine.SearchStatistics;
+
+public class SearchStatisticsTest {
+
+	@Test
+	public void testPublishing() {
+		final SearchStatistics statistics = new SearchStatistics();
+		statistics.increment(SearchStatistics.NODE_COUNT);
+		statistics.increment(SearchStatistics.NODE_COUNT);
+		statistics.increment(SearchStatistics.HASH_HIT_COUNT);
+		statistics.increment(SearchStatistics.HASH_MISS_COUNT);
+		statistics.increment(SearchStatistics.HASH_MISS_COUNT);
+		statistics.increment(SearchStatistics.HASH_MISS_COUNT);
+
+		Assert.assertEquals(2, statistics.get(SearchStatistics.NODE_COUNT));
+		Assert.assertEquals(0.25, statistics.getHashHitRate(), 1e-9);
+
+		// Counters are not visible before they are published
+		final SearchStatistics snapshot = new SearchStatistics();
+		statistics.addPublishedTo(snapshot);
+		Assert.assertEquals(0, snapshot.get(SearchStatistics.NODE_COUNT));
+
+		statistics.publish();
+		statistics.addPublishedTo(snapshot);
+		statistics.addPublishedTo(snapshot);
+		Assert.assertEquals(4, snapshot.get(SearchStatistics.NODE_COUNT));
+		Assert.assertEquals(6, snapshot.get(SearchStatistics.HASH_MISS_COUNT));
+
+		statistics.clear();
+		Assert.assertEquals(0, statistics.get(SearchStatistics.NODE_COUNT));
+
+		final SearchStatistics clearedSnapshot = new SearchStatistics();
+		statistics.addPublishedTo(clearedSnapshot);
+		Assert.assertEquals(0, clearedSnapshot.get(SearchStatistics.NODE_COUNT));
+	}
+
+	@Test
+	public void testBetaCutoffs() {
+		final SearchStatistics statistics = new SearchStatistics();
+		statistics.addBetaCutoff(0);
+		statistics.addBetaCutoff(0);
+		statistics.addBetaCutoff(3);
+		statistics.addBetaCutoff(SearchStatistics.BETA_CUTOFF_INDEX_COUNT + 10);
+
+		Assert.assertEquals(2, statistics.getBetaCutoffCount(0));
+		Assert.assertEquals(1, statistics.getBetaCutoffCount(3));
+		Assert.assertEquals(1, statistics.getBetaCutoffCount(SearchStatistics.BETA_CUTOFF_INDEX_COUNT - 1));
+		Assert.assertEquals(4, statistics.getTotalBetaCutoffCount());
+	}
+
+}
@@ -0,0 +1,58 @@
+package bishopTests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import bishop.engine.TimeManager;
+
+public class TimeManagerTest {
+
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	public void testBranchingFactor() {
+		final TimeManager timeManager = new TimeManager();
+		timeManager.startSearch();
+
+		Assert.assertEquals(TimeManager.DEFAULT_BRANCHING_FACTOR, timeManager.getBranchingFactor(), EPSILON);
+
+		timeManager.onIterationFinished(10, 1000);
+		timeManager.onIterationFinished(40, 4000);
+		Assert.assertEquals(3.0, timeManager.getBranchingFactor(), EPSILON);
+		Assert.assertEquals(90, timeManager.getPredictedIterationTime());
+
+		timeManager.onIterationFinished(41, 4001);
+		Assert.assertEquals(TimeManager.MIN_BRANCHING_FACTOR, timeManager.getBranchingFactor(), EPSILON);
+	}
+
+	@Test
+	public void testLimits() {
+		final TimeManager timeManager = new TimeManager();
+		timeManager.setLimits(500, 1000);
+		timeManager.startSearch();
+
+		// First iteration is always started
+		Assert.assertTrue(timeManager.canStartIteration(2000));
+
+		timeManager.onIterationFinished(100, 10000);
+		timeManager.onIterationFinished(400, 40000);
+
+		// Predicted iteration: 3 * 300 ms
+		Assert.assertEquals(900, timeManager.getPredictedIterationTime());
+		Assert.assertTrue(timeManager.canStartIteration(100));
+		Assert.assertFalse(timeManager.canStartIteration(101));
+
+		// Soft limit
+		timeManager.setLimits(50, 1000);
+		Assert.assertFalse(timeManager.canStartIteration(60));
+
+		// Statistics are kept when the clock is restarted
+		timeManager.restartClock(400);
+		timeManager.onIterationFinished(900, 130000);
+		Assert.assertEquals(3.0, timeManager.getBranchingFactor(), EPSILON);
+		Assert.assertEquals(2700, timeManager.getPredictedIterationTime());
+
+		Assert.assertFalse(timeManager.isHardLimitExceeded(1000));
+		Assert.assertTrue(timeManager.isHardLimitExceeded(1001));
+	}
+}
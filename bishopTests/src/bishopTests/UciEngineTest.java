@@ -0,0 +1,51 @@
+package bishopTests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import bishop.base.Fen;
+import bishop.base.Move;
+import bishop.base.MoveType;
+import bishop.base.PieceType;
+import bishop.base.PieceTypeEvaluations;
+import bishop.base.Position;
+import bishop.engine.Evaluation;
+import bishop.uci.UciEngine;
+
+public class UciEngineTest {
+
+	@Test
+	public void testParseMove() throws Exception {
+		final Position position = Fen.positionFromString("4k3/1P6/8/8/8/8/8/4K2R w K - 0 1");
+
+		final Move castling = UciEngine.parseMove(position, "e1g1");
+		Assert.assertEquals(MoveType.CASTLING, castling.getMoveType());
+		Assert.assertEquals("e1g1", castling.toString());
+
+		final Move promotion = UciEngine.parseMove(position, "b7b8n");
+		Assert.assertEquals(MoveType.PROMOTION, promotion.getMoveType());
+		Assert.assertEquals(PieceType.KNIGHT, promotion.getPromotionPieceType());
+	}
+
+	@Test
+	public void testParseIllegalMove() throws Exception {
+		final Position position = Fen.positionFromString("4k3/8/8/8/8/8/8/4K2R w - - 0 1");
+
+		try {
+			UciEngine.parseMove(position, "e1g1");
+			Assert.fail("Castling without castling rights was parsed");
+		}
+		catch (RuntimeException ex) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testScoreString() {
+		Assert.assertEquals("cp 150", UciEngine.getScoreString(3 * PieceTypeEvaluations.PAWN_EVALUATION / 2));
+		Assert.assertEquals("cp -100", UciEngine.getScoreString(-PieceTypeEvaluations.PAWN_EVALUATION));
+		Assert.assertEquals("mate 1", UciEngine.getScoreString(Evaluation.getMateEvaluation(1)));
+		Assert.assertEquals("mate 3", UciEngine.getScoreString(Evaluation.getMateEvaluation(5)));
+		Assert.assertEquals("mate -2", UciEngine.getScoreString(-Evaluation.getMateEvaluation(4)));
+	}
+}
@@ -0,0 +1,103 @@
+package bishopTests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import bishop.base.Move;
+import bishop.engine.HashRecord;
+import bishop.engine.HashRecordType;
+import bishop.engine.UnifiedHashTableImpl;
+
+
+public class UnifiedHashTableTest {
+
+	private static final int EXPONENT = 8;
+	private static final long HASH = 0x123456789ABCDEF0L;
+	private static final long OTHER_HASH = HASH + (1L << 40);   // Hash with the same slot
+
+	private static HashRecord createRecord (final int horizon, final int evaluation, final int type) {
+		final HashRecord record = new HashRecord();
+		record.setEvaluation(evaluation);
+		record.setHorizon(horizon);
+		record.setType(type);
+
+		return record;
+	}
+
+	@Test
+	public void testEvaluationAndBestMoveAreStoredTogether() {
+		final UnifiedHashTableImpl hashTable = new UnifiedHashTableImpl(EXPONENT);
+
+		hashTable.updateRecord(HASH, createRecord(10, -1234, HashRecordType.LOWER_BOUND));
+		hashTable.updateRecord(HASH, 10, 4321);
+
+		final HashRecord record = new HashRecord();
+		Assert.assertTrue(hashTable.getRecord(HASH, 10, record));
+		Assert.assertEquals(createRecord(10, -1234, HashRecordType.LOWER_BOUND), record);
+		Assert.assertEquals(4321, hashTable.getRecord(HASH));
+
+		// Update of the evaluation keeps the best move
+		hashTable.updateRecord(HASH, createRecord(12, 55, HashRecordType.VALUE));
+		Assert.assertTrue(hashTable.getRecord(HASH, 12, record));
+		Assert.assertEquals(createRecord(12, 55, HashRecordType.VALUE), record);
+		Assert.assertEquals(4321, hashTable.getRecord(HASH));
+
+		// Different horizon is not returned
+		Assert.assertFalse(hashTable.getRecord(HASH, 10, record));
+		Assert.assertEquals(HashRecordType.INVALID, record.getType());
+
+		Assert.assertTrue(hashTable.getDeepestRecord(HASH, record));
+		Assert.assertEquals(createRecord(12, 55, HashRecordType.VALUE), record);
+		Assert.assertFalse(hashTable.getDeepestRecord(OTHER_HASH, record));
+	}
+
+	@Test
+	public void testReplacement() {
+		final UnifiedHashTableImpl hashTable = new UnifiedHashTableImpl(EXPONENT);
+		final HashRecord record = new HashRecord();
+
+		hashTable.updateRecord(HASH, createRecord(20, 100, HashRecordType.VALUE));
+		hashTable.updateRecord(HASH, 20, 1234);
+
+		// Cheaper record of other position doesn't replace the slot
+		hashTable.updateRecord(OTHER_HASH, createRecord(10, 200, HashRecordType.VALUE));
+		hashTable.updateRecord(OTHER_HASH, 10, 4321);
+
+		Assert.assertFalse(hashTable.getRecord(OTHER_HASH, 10, record));
+		Assert.assertEquals(Move.NONE_COMPRESSED_MOVE, hashTable.getRecord(OTHER_HASH));
+		Assert.assertEquals(1234, hashTable.getRecord(HASH));
+
+		// Records from older generations are replaced
+		hashTable.nextGeneration();
+		hashTable.nextGeneration();
+
+		hashTable.updateRecord(OTHER_HASH, createRecord(10, 200, HashRecordType.VALUE));
+		hashTable.updateRecord(OTHER_HASH, 10, 4321);
+
+		Assert.assertTrue(hashTable.getRecord(OTHER_HASH, 10, record));
+		Assert.assertEquals(createRecord(10, 200, HashRecordType.VALUE), record);
+		Assert.assertEquals(4321, hashTable.getRecord(OTHER_HASH));
+		Assert.assertEquals(Move.NONE_COMPRESSED_MOVE, hashTable.getRecord(HASH));
+	}
+
+	/**
+	 * Checks that the record stays old after many generations when the generation stored in the slot wraps around.
+	 */
+	@Test
+	public void testOldRecordAfterManyGenerations() {
+		for (int generationCount = 2; generationCount <= 600; generationCount++) {
+			final UnifiedHashTableImpl hashTable = new UnifiedHashTableImpl(EXPONENT);
+			hashTable.updateRecord(HASH, createRecord(20, 100, HashRecordType.VALUE));
+			hashTable.updateRecord(HASH, 20, 1234);
+
+			for (int i = 0; i < generationCount; i++)
+				hashTable.nextGeneration();
+
+			hashTable.updateRecord(OTHER_HASH, createRecord(10, 200, HashRecordType.VALUE));
+
+			final HashRecord record = new HashRecord();
+			Assert.assertTrue("Generation count " + generationCount, hashTable.getRecord(OTHER_HASH, 10, record));
+			Assert.assertEquals(createRecord(10, 200, HashRecordType.VALUE), record);
+		}
+	}
+}
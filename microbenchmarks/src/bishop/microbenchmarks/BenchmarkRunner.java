@@ -0,0 +1,100 @@
+package bishop.microbenchmarks;
+
+import java.io.PrintStream;
+
+/**
+ * Runner of the microbenchmarks.
+ * Each benchmark is run in warmup iterations that are not measured so the code
+ * is compiled by the JIT compiler and then in measurement iterations. Each iteration
+ * calls the benchmark repeatedly for given time. Result is the time per operation
+ * averaged over the measurement iterations with its standard deviation.
+ * The runner replaces JMH. JMH could be vendored into libs like svgSalamander.jar, but it needs
+ * jmh-core, jmh-generator-annprocess, jopt-simple and commons-math3 and the annotation processor
+ * must be configured in every IDE project of the module. Unlike JMH the runner doesn't fork the JVM,
+ * so the benchmarks run in one JVM share the JIT profile. Use the filter of Main to run a benchmark
+ * alone when its result is compared between versions of the code.
+ * @author Ing. Petr Ležák
+ */
+public final class BenchmarkRunner {
+
+	public static final int DEFAULT_WARMUP_ITERATION_COUNT = 5;
+	public static final int DEFAULT_MEASUREMENT_ITERATION_COUNT = 5;
+	public static final long DEFAULT_ITERATION_TIME = 1000;   // [ms]
+
+	private static final long NANOSECONDS_IN_MILLISECOND = 1000000;
+
+	private final Blackhole blackhole = new Blackhole();
+	private int warmupIterationCount = DEFAULT_WARMUP_ITERATION_COUNT;
+	private int measurementIterationCount = DEFAULT_MEASUREMENT_ITERATION_COUNT;
+	private long iterationTime = DEFAULT_ITERATION_TIME;
+
+	public void setWarmupIterationCount (final int count) {
+		this.warmupIterationCount = count;
+	}
+
+	public void setMeasurementIterationCount (final int count) {
+		this.measurementIterationCount = count;
+	}
+
+	/**
+	 * Sets time of one iteration.
+	 * @param time time [ms]
+	 */
+	public void setIterationTime (final long time) {
+		this.iterationTime = time;
+	}
+
+	/**
+	 * Runs given benchmark and writes the result into output.
+	 * @param benchmark benchmark
+	 * @param output target stream
+	 * @return average time of one operation [ns]
+	 */
+	public double run (final IMicrobenchmark benchmark, final PrintStream output) {
+		for (int i = 0; i < warmupIterationCount; i++)
+			runIteration(benchmark);
+
+		final double[] times = new double[measurementIterationCount];
+		double sum = 0;
+
+		for (int i = 0; i < measurementIterationCount; i++) {
+			times[i] = runIteration(benchmark);
+			sum += times[i];
+		}
+
+		final double mean = sum / measurementIterationCount;
+		double squareSum = 0;
+
+		for (double time: times)
+			squareSum += (time - mean) * (time - mean);
+
+		final double deviation = (measurementIterationCount > 1) ? Math.sqrt(squareSum / (measurementIterationCount - 1)) : 0.0;
+
+		output.printf("%-65s %12.2f ns/op  +- %8.2f%n", benchmark.getName(), mean, deviation);
+		output.flush();
+
+		return mean;
+	}
+
+	/**
+	 * Runs one iteration.
+	 * @param benchmark benchmark
+	 * @return time of one operation [ns]
+	 */
+	private double runIteration (final IMicrobenchmark benchmark) {
+		final long iterationNanoTime = iterationTime * NANOSECONDS_IN_MILLISECOND;
+		final long beginTime = System.nanoTime();
+		long elapsedTime;
+		long operationCount = 0;
+
+		do {
+			operationCount += benchmark.run(blackhole);
+			elapsedTime = System.nanoTime() - beginTime;
+		} while (elapsedTime < iterationNanoTime);
+
+		blackhole.publish();
+
+		return (double) elapsedTime / (double) operationCount;
+	}
+
+}
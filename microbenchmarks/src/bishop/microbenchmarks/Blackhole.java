@@ -0,0 +1,37 @@
+package bishop.microbenchmarks;
+
+/**
+ * Consumer of the results of measured operations.
+ * Results are combined into one value that is published after each batch
+ * so the JIT compiler cannot eliminate the measured code as dead.
+ * @author Ing. Petr Ležák
+ */
+public final class Blackhole {
+
+	private long sink;
+	private volatile long publishedSink;
+
+	public void consume (final int value) {
+		sink = 31 * sink + value;
+	}
+
+	public void consume (final long value) {
+		sink = 31 * sink + value;
+	}
+
+	public void consume (final boolean value) {
+		sink = 31 * sink + ((value) ? 1 : 0);
+	}
+
+	/**
+	 * Publishes consumed values.
+	 */
+	public void publish() {
+		publishedSink = sink;
+	}
+
+	public long getPublishedSink() {
+		return publishedSink;
+	}
+
+}
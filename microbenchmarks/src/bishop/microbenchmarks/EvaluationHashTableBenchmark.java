@@ -0,0 +1,72 @@
+package bishop.microbenchmarks;
+
+import java.util.SplittableRandom;
+
+import bishop.engine.EvaluationHashTableImpl;
+import bishop.engine.HashRecord;
+import bishop.engine.HashRecordType;
+
+/**
+ * Measures EvaluationHashTableImpl.getRecord or updateRecord.
+ * Hashes are random like Zobrist hashes of the searched positions and the table
+ * is bigger than the processor cache so the benchmark includes the cache misses.
+ * One operation is one call.
+ * @author Ing. Petr Ležák
+ */
+public final class EvaluationHashTableBenchmark implements IMicrobenchmark {
+
+	private static final int TABLE_EXPONENT = 22;
+	private static final int HASH_COUNT = 1 << 16;
+	private static final int HORIZON = 10;
+	private static final long SEED = 1234;
+
+	private final EvaluationHashTableImpl hashTable = new EvaluationHashTableImpl(TABLE_EXPONENT);
+	private final long[] hashes = new long[HASH_COUNT];
+	private final HashRecord record = new HashRecord();
+	private final boolean update;
+
+	public EvaluationHashTableBenchmark (final boolean update) {
+		this.update = update;
+
+		final SplittableRandom random = new SplittableRandom(SEED);
+
+		for (int i = 0; i < HASH_COUNT; i++)
+			hashes[i] = random.nextLong();
+
+		// Half of the positions is stored so getRecord has both hits and misses
+		for (int i = 0; i < HASH_COUNT; i += 2) {
+			record.setEvaluation(i);
+			record.setHorizon(HORIZON);
+			record.setType(HashRecordType.VALUE);
+
+			hashTable.updateRecord(hashes[i], record);
+		}
+	}
+
+	@Override
+	public String getName() {
+		return (update) ? "EvaluationHashTableImpl.updateRecord" : "EvaluationHashTableImpl.getRecord";
+	}
+
+	@Override
+	public int run (final Blackhole blackhole) {
+		if (update) {
+			for (int i = 0; i < HASH_COUNT; i++) {
+				record.setEvaluation(i);
+				record.setHorizon(HORIZON);
+				record.setType(HashRecordType.VALUE);
+
+				hashTable.updateRecord(hashes[i], record);
+			}
+		}
+		else {
+			for (int i = 0; i < HASH_COUNT; i++) {
+				blackhole.consume(hashTable.getRecord(hashes[i], HORIZON, record));
+				blackhole.consume(record.getEvaluation());
+			}
+		}
+
+		return HASH_COUNT;
+	}
+
+}
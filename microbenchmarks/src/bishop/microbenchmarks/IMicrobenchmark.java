@@ -0,0 +1,21 @@
+package bishop.microbenchmarks;
+
+/**
+ * Measured operation. The benchmark prepares its data in the constructor
+ * and then the runner calls method run repeatedly.
+ * @author Ing. Petr Ležák
+ */
+public interface IMicrobenchmark {
+	/**
+	 * Returns name of the benchmark.
+	 * @return name of the measured operation
+	 */
+	public String getName();
+
+	/**
+	 * Runs one batch of measured operations.
+	 * @param blackhole consumer of results of the operations
+	 * @return number of operations in the batch
+	 */
+	public int run (final Blackhole blackhole);
+}
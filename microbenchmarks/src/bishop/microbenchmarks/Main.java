@@ -0,0 +1,94 @@
+package bishop.microbenchmarks;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import bishop.base.PieceTypeEvaluations;
+import bishop.controller.SearchResources;
+import bishop.engine.IPositionEvaluation;
+import bishop.engine.PositionEvaluationCoeffs;
+
+/**
+ * Runs microbenchmarks of the hot paths of the engine.
+ * Usage: Main [options] [filter]
+ * Options:
+ *   -warmup count      number of warmup iterations
+ *   -iterations count  number of measurement iterations
+ *   -time time         time of one iteration [ms]
+ *   -positions count   maximal number of positions read from the book
+ * Only benchmarks with the name containing the filter are run.
+ * Resources (book.pgn, coeffs.tbl) are read from the current directory.
+ * @author Ing. Petr Ležák
+ */
+public class Main {
+
+	private static final String BOOK_PATH = "book.pgn";
+	private static final int DEFAULT_POSITION_COUNT = 5000;
+
+	public static void main (final String[] args) {
+		try {
+			final BenchmarkRunner runner = new BenchmarkRunner();
+			int positionCount = DEFAULT_POSITION_COUNT;
+			String filter = "";
+
+			for (int i = 0; i < args.length; i++) {
+				switch (args[i]) {
+					case "-warmup":
+						runner.setWarmupIterationCount(Integer.parseInt(args[++i]));
+						break;
+
+					case "-iterations":
+						runner.setMeasurementIterationCount(Integer.parseInt(args[++i]));
+						break;
+
+					case "-time":
+						runner.setIterationTime(Long.parseLong(args[++i]));
+						break;
+
+					case "-positions":
+						positionCount = Integer.parseInt(args[++i]);
+						break;
+
+					default:
+						filter = args[i];
+						break;
+				}
+			}
+
+			final PositionSet positionSet = new PositionSet(positionCount);
+			positionSet.readPgn(BOOK_PATH);
+
+			System.out.println("Positions: " + positionSet.getSize());
+
+			final URL rootUrl = new File(".").toURI().toURL();
+			final PositionEvaluationCoeffs evaluationCoeffs = SearchResources.createEvaluationCoeffs(rootUrl);
+			final Supplier<IPositionEvaluation> evaluationFactory = SearchResources.createEvaluationFactory(evaluationCoeffs);
+			final PieceTypeEvaluations pieceTypeEvaluations = evaluationCoeffs.getPieceTypeEvaluations();
+
+			final List<IMicrobenchmark> benchmarkList = new ArrayList<>();
+			benchmarkList.add(new MoveGenerationBenchmark(positionSet));
+			benchmarkList.add(new MakeMoveBenchmark(positionSet));
+			benchmarkList.add(new MobilityCalculatorBenchmark(positionSet));
+			benchmarkList.add(new PositionEvaluationBenchmark(positionSet, evaluationFactory, false));
+			benchmarkList.add(new PositionEvaluationBenchmark(positionSet, evaluationFactory, true));
+			benchmarkList.add(new StaticExchangeBenchmark(positionSet, pieceTypeEvaluations));
+			benchmarkList.add(new EvaluationHashTableBenchmark(false));
+			benchmarkList.add(new EvaluationHashTableBenchmark(true));
+			benchmarkList.add(new UncompressMoveBenchmark(positionSet));
+			benchmarkList.add(new TableIndexBenchmark());
+
+			for (IMicrobenchmark benchmark: benchmarkList) {
+				if (benchmark.getName().contains(filter))
+					runner.run(benchmark, System.out);
+			}
+		}
+		catch (Exception ex) {
+			ex.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+}
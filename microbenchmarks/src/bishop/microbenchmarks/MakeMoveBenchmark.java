@@ -0,0 +1,58 @@
+package bishop.microbenchmarks;
+
+import bishop.base.Move;
+import bishop.base.MoveList;
+import bishop.base.Position;
+
+/**
+ * Measures Position.makeMove followed by Position.undoMove. One operation is
+ * one pair of calls, all pseudolegal moves of all positions are made.
+ * @author Ing. Petr Ležák
+ */
+public final class MakeMoveBenchmark implements IMicrobenchmark {
+
+	private final Position[] positions;
+	private final MoveList[] moveLists;
+	private final Move move = new Move();
+
+	public MakeMoveBenchmark (final PositionSet positionSet) {
+		final int size = positionSet.getSize();
+
+		positions = new Position[size];
+		moveLists = new MoveList[size];
+
+		for (int i = 0; i < size; i++) {
+			positions[i] = positionSet.getPositionList().get(i).copy();
+			moveLists[i] = PositionSet.generateMoves(positions[i]);
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "Position.makeMove + undoMove";
+	}
+
+	@Override
+	public int run (final Blackhole blackhole) {
+		int operationCount = 0;
+
+		for (int i = 0; i < positions.length; i++) {
+			final Position position = positions[i];
+			final MoveList moveList = moveLists[i];
+			final int moveCount = moveList.getSize();
+
+			for (int j = 0; j < moveCount; j++) {
+				moveList.assignToMove(j, move);
+
+				position.makeMove(move);
+				blackhole.consume(position.getHash());
+				position.undoMove(move);
+			}
+
+			operationCount += moveCount;
+		}
+
+		return operationCount;
+	}
+
+}
@@ -0,0 +1,36 @@
+package bishop.microbenchmarks;
+
+import bishop.base.Color;
+import bishop.base.Position;
+import bishop.engine.MobilityCalculator;
+
+/**
+ * Measures MobilityCalculator.calculate without parent calculator.
+ * One operation is calculation of one position.
+ * @author Ing. Petr Ležák
+ */
+public final class MobilityCalculatorBenchmark implements IMicrobenchmark {
+
+	private final Position[] positions;
+	private final MobilityCalculator calculator = new MobilityCalculator();
+
+	public MobilityCalculatorBenchmark (final PositionSet positionSet) {
+		this.positions = positionSet.getPositionList().toArray(new Position[0]);
+	}
+
+	@Override
+	public String getName() {
+		return "MobilityCalculator.calculate";
+	}
+
+	@Override
+	public int run (final Blackhole blackhole) {
+		for (Position position: positions) {
+			calculator.calculate(position);
+			blackhole.consume(calculator.getAllAttackedSquares(Color.WHITE));
+		}
+
+		return positions.length;
+	}
+
+}
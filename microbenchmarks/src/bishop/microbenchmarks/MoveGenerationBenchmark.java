@@ -0,0 +1,53 @@
+package bishop.microbenchmarks;
+
+import bishop.base.IMoveWalker;
+import bishop.base.Move;
+import bishop.base.Position;
+import bishop.base.PseudoLegalMoveGenerator;
+
+/**
+ * Measures PseudoLegalMoveGenerator.generateMoves. One operation is generation
+ * of all moves in one position.
+ * @author Ing. Petr Ležák
+ */
+public final class MoveGenerationBenchmark implements IMicrobenchmark {
+
+	private final Position[] positions;
+	private final PseudoLegalMoveGenerator generator = new PseudoLegalMoveGenerator();
+	private int moveCount;
+
+	private final IMoveWalker walker = new IMoveWalker() {
+		@Override
+		public boolean processMove(final Move move) {
+			moveCount++;
+
+			return true;
+		}
+	};
+
+	public MoveGenerationBenchmark (final PositionSet positionSet) {
+		this.positions = positionSet.getPositionList().toArray(new Position[0]);
+
+		generator.setWalker(walker);
+	}
+
+	@Override
+	public String getName() {
+		return "PseudoLegalMoveGenerator.generateMoves";
+	}
+
+	@Override
+	public int run (final Blackhole blackhole) {
+		moveCount = 0;
+
+		for (Position position: positions) {
+			generator.setPosition(position);
+			generator.generateMoves();
+		}
+
+		blackhole.consume(moveCount);
+
+		return positions.length;
+	}
+
+}
@@ -0,0 +1,54 @@
+package bishop.microbenchmarks;
+
+import java.util.function.Supplier;
+
+import bishop.base.Position;
+import bishop.engine.IPositionEvaluation;
+import bishop.engine.MobilityCalculator;
+import bishop.engine.PositionEvaluatorSwitch;
+
+/**
+ * Measures PositionEvaluatorSwitch. Positional evaluation depends on the data
+ * calculated by the tactical evaluation so the positional benchmark measures both
+ * evaluations, the positional part is the difference from the tactical benchmark.
+ * One operation is evaluation of one position.
+ * @author Ing. Petr Ležák
+ */
+public final class PositionEvaluationBenchmark implements IMicrobenchmark {
+
+	private final Position[] positions;
+	private final MobilityCalculator[] mobilityCalculators;
+	private final PositionEvaluatorSwitch evaluator;
+	private final boolean positional;
+
+	public PositionEvaluationBenchmark (final PositionSet positionSet, final Supplier<IPositionEvaluation> evaluationFactory, final boolean positional) {
+		this.positions = positionSet.getPositionList().toArray(new Position[0]);
+		this.mobilityCalculators = new MobilityCalculator[positions.length];
+		this.evaluator = new PositionEvaluatorSwitch(evaluationFactory);
+		this.positional = positional;
+
+		for (int i = 0; i < positions.length; i++) {
+			mobilityCalculators[i] = new MobilityCalculator();
+			mobilityCalculators[i].calculate(positions[i]);
+		}
+	}
+
+	@Override
+	public String getName() {
+		return (positional) ? "PositionEvaluatorSwitch.evaluateTactical + evaluatePositional" : "PositionEvaluatorSwitch.evaluateTactical";
+	}
+
+	@Override
+	public int run (final Blackhole blackhole) {
+		for (int i = 0; i < positions.length; i++) {
+			final IPositionEvaluation tacticalEvaluation = evaluator.evaluateTactical(positions[i], mobilityCalculators[i]);
+			blackhole.consume(tacticalEvaluation.getEvaluation());
+
+			if (positional)
+				blackhole.consume(evaluator.evaluatePositional().getEvaluation());
+		}
+
+		return positions.length;
+	}
+
+}
@@ -0,0 +1,107 @@
+package bishop.microbenchmarks;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import bishop.base.Game;
+import bishop.base.IGameNode;
+import bishop.base.ITreeIterator;
+import bishop.base.Move;
+import bishop.base.MoveList;
+import bishop.base.PgnReader;
+import bishop.base.Position;
+import bishop.base.PseudoLegalMoveGenerator;
+
+/**
+ * Set of distinct positions read from PGN file, typically from the opening book.
+ * Variations are walked too so the book gives many realistic positions.
+ * @author Ing. Petr Ležák
+ */
+public final class PositionSet {
+
+	private final List<Position> positionList = new ArrayList<>();
+	private final Set<Long> hashSet = new HashSet<>();
+	private final int maxPositionCount;
+
+	public PositionSet (final int maxPositionCount) {
+		this.maxPositionCount = maxPositionCount;
+	}
+
+	/**
+	 * Reads positions from given PGN file.
+	 * @param pgnPath path to the PGN file
+	 */
+	public void readPgn (final String pgnPath) throws IOException {
+		final PgnReader reader = new PgnReader();
+
+		try (FileInputStream stream = new FileInputStream(pgnPath)) {
+			reader.readPgnFromStream(stream);
+		}
+
+		for (Game game: reader.getGameList()) {
+			if (positionList.size() >= maxPositionCount)
+				break;
+
+			addNodes(game.getRootIterator());
+		}
+	}
+
+	private void addNodes (final ITreeIterator<IGameNode> iterator) {
+		if (positionList.size() >= maxPositionCount)
+			return;
+
+		final Position position = iterator.getItem().getTargetPosition();
+
+		if (hashSet.add(position.getHash()))
+			positionList.add(position.copy());
+
+		if (iterator.hasChild()) {
+			final ITreeIterator<IGameNode> childIterator = iterator.copy();
+			childIterator.moveFirstChild();
+
+			while (true) {
+				addNodes(childIterator);
+
+				if (!childIterator.hasNextSibling())
+					break;
+
+				childIterator.moveNextSibling();
+			}
+		}
+	}
+
+	public List<Position> getPositionList() {
+		return Collections.unmodifiableList(positionList);
+	}
+
+	public int getSize() {
+		return positionList.size();
+	}
+
+	/**
+	 * Generates pseudolegal moves in given position.
+	 * @param position position
+	 * @return list of moves
+	 */
+	public static MoveList generateMoves (final Position position) {
+		final MoveList moveList = new MoveList();
+		final PseudoLegalMoveGenerator generator = new PseudoLegalMoveGenerator();
+
+		generator.setPosition(position);
+		generator.setWalker((final Move move) -> {
+			moveList.add(move);
+
+			return true;
+		});
+
+		generator.generateMoves();
+
+		return moveList;
+	}
+
+}
@@ -0,0 +1,75 @@
+package bishop.microbenchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import bishop.base.Move;
+import bishop.base.MoveList;
+import bishop.base.PieceType;
+import bishop.base.PieceTypeEvaluations;
+import bishop.base.Position;
+import bishop.engine.StaticExchangeEvaluator;
+
+/**
+ * Measures StaticExchangeEvaluator.getStaticExchangeEvaluationOfMove on captures.
+ * One operation is evaluation of one capture.
+ * @author Ing. Petr Ležák
+ */
+public final class StaticExchangeBenchmark implements IMicrobenchmark {
+
+	private final StaticExchangeEvaluator[] evaluators;
+	private final int[] onTurns;
+	private final MoveList[] captureLists;
+	private final Move move = new Move();
+
+	public StaticExchangeBenchmark (final PositionSet positionSet, final PieceTypeEvaluations pieceTypeEvaluations) {
+		final List<StaticExchangeEvaluator> evaluatorList = new ArrayList<>();
+		final List<Integer> onTurnList = new ArrayList<>();
+		final List<MoveList> captureListList = new ArrayList<>();
+
+		for (Position position: positionSet.getPositionList()) {
+			final MoveList captureList = new MoveList();
+
+			for (Move generatedMove: PositionSet.generateMoves(position)) {
+				if (generatedMove.getCapturedPieceType() != PieceType.NONE)
+					captureList.add(generatedMove);
+			}
+
+			if (captureList.getSize() > 0) {
+				evaluatorList.add(new StaticExchangeEvaluator(position.copy(), pieceTypeEvaluations));
+				onTurnList.add(position.getOnTurn());
+				captureListList.add(captureList);
+			}
+		}
+
+		evaluators = evaluatorList.toArray(new StaticExchangeEvaluator[0]);
+		onTurns = onTurnList.stream().mapToInt(Integer::intValue).toArray();
+		captureLists = captureListList.toArray(new MoveList[0]);
+	}
+
+	@Override
+	public String getName() {
+		return "StaticExchangeEvaluator.getStaticExchangeEvaluationOfMove";
+	}
+
+	@Override
+	public int run (final Blackhole blackhole) {
+		int operationCount = 0;
+
+		for (int i = 0; i < evaluators.length; i++) {
+			final StaticExchangeEvaluator evaluator = evaluators[i];
+			final MoveList captureList = captureLists[i];
+			final int captureCount = captureList.getSize();
+
+			for (int j = 0; j < captureCount; j++) {
+				captureList.assignToMove(j, move);
+				blackhole.consume(evaluator.getStaticExchangeEvaluationOfMove(onTurns[i], move));
+			}
+
+			operationCount += captureCount;
+		}
+
+		return operationCount;
+	}
+
+}
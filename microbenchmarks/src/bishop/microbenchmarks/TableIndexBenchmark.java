@@ -0,0 +1,87 @@
+package bishop.microbenchmarks;
+
+import java.util.SplittableRandom;
+
+import bishop.base.Color;
+import bishop.base.MaterialHash;
+import bishop.base.Piece;
+import bishop.base.PieceType;
+import bishop.base.Position;
+import bishop.base.PositionValidator;
+import bishop.base.Rank;
+import bishop.base.Square;
+import bishop.tablebase.TableDefinition;
+import bishop.tablebase.TableWriter;
+
+/**
+ * Measures TableDefinition.calculateTableIndex on random legal positions
+ * of the KRP-KR ending. One operation is calculation of one index.
+ * @author Ing. Petr Ležák
+ */
+public final class TableIndexBenchmark implements IMicrobenchmark {
+
+	private static final String MATERIAL = "01001-01000";
+	private static final int POSITION_COUNT = 10000;
+	private static final long SEED = 1234;
+
+	private static final Piece[] PIECES = {
+		Piece.withColorAndType(Color.WHITE, PieceType.KING),
+		Piece.withColorAndType(Color.BLACK, PieceType.KING),
+		Piece.withColorAndType(Color.WHITE, PieceType.ROOK),
+		Piece.withColorAndType(Color.BLACK, PieceType.ROOK),
+		Piece.withColorAndType(Color.WHITE, PieceType.PAWN)
+	};
+
+	private final TableDefinition definition;
+	private final Position[] positions = new Position[POSITION_COUNT];
+
+	public TableIndexBenchmark() {
+		definition = new TableDefinition(TableWriter.VERSION, new MaterialHash(MATERIAL, Color.WHITE));
+
+		final SplittableRandom random = new SplittableRandom(SEED);
+		final PositionValidator validator = new PositionValidator();
+		int count = 0;
+
+		while (count < POSITION_COUNT) {
+			final Position position = new Position();
+			position.clearPosition();
+
+			for (Piece piece: PIECES) {
+				int square;
+
+				do {
+					square = random.nextInt(Square.FIRST, Square.LAST);
+				} while (position.getSquareContent(square) != null || (piece.getPieceType() == PieceType.PAWN && !isPawnRank(square)));
+
+				position.setSquareContent(square, piece);
+			}
+
+			position.setOnTurn(Color.WHITE);
+			position.refreshCachedData();
+			validator.setPosition(position);
+
+			if (validator.checkPosition())
+				positions[count++] = position;
+		}
+	}
+
+	private static boolean isPawnRank (final int square) {
+		final int rank = Square.getRank(square);
+
+		return rank != Rank.R1 && rank != Rank.R8;
+	}
+
+	@Override
+	public String getName() {
+		return "TableDefinition.calculateTableIndex";
+	}
+
+	@Override
+	public int run (final Blackhole blackhole) {
+		for (Position position: positions)
+			blackhole.consume(definition.calculateTableIndex(position));
+
+		return positions.length;
+	}
+
+}
@@ -0,0 +1,54 @@
+package bishop.microbenchmarks;
+
+import bishop.base.Move;
+import bishop.base.MoveList;
+import bishop.base.Position;
+
+/**
+ * Measures Move.uncompressMove on all pseudolegal moves of the positions.
+ * One operation is uncompression of one move.
+ * @author Ing. Petr Ležák
+ */
+public final class UncompressMoveBenchmark implements IMicrobenchmark {
+
+	private final Position[] positions;
+	private final int[][] compressedMoves;
+	private final Move move = new Move();
+
+	public UncompressMoveBenchmark (final PositionSet positionSet) {
+		final int size = positionSet.getSize();
+
+		positions = positionSet.getPositionList().toArray(new Position[0]);
+		compressedMoves = new int[size][];
+
+		for (int i = 0; i < size; i++) {
+			final MoveList moveList = PositionSet.generateMoves(positions[i]);
+			compressedMoves[i] = new int[moveList.getSize()];
+
+			for (int j = 0; j < moveList.getSize(); j++)
+				compressedMoves[i][j] = moveList.getCompressedMove(j);
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "Move.uncompressMove";
+	}
+
+	@Override
+	public int run (final Blackhole blackhole) {
+		int operationCount = 0;
+
+		for (int i = 0; i < positions.length; i++) {
+			final Position position = positions[i];
+
+			for (int compressedMove: compressedMoves[i])
+				blackhole.consume(move.uncompressMove(compressedMove, position));
+
+			operationCount += compressedMoves[i].length;
+		}
+
+		return operationCount;
+	}
+
+}
@@ -0,0 +1,73 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Array of longs with atomic operations and long indices.
+ * The array is divided into pages of AtomicLongArray so it can be larger than 2^31 items.
+ * @author Ing. Petr Ležák
+ */
+public class HugeAtomicLongArray {
+
+	private static final int PAGE_SHIFT = 24;
+	private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+	private static final long PAGE_MASK = PAGE_SIZE - 1;
+
+	private final AtomicLongArray[] pages;
+	private final long size;
+
+	public HugeAtomicLongArray(final long size) {
+		if (size < 0)
+			throw new RuntimeException("Negative size: " + size);
+
+		final long pageCount = (size + PAGE_SIZE - 1) >>> PAGE_SHIFT;
+
+		if (pageCount > Integer.MAX_VALUE)
+			throw new RuntimeException("Size too large: " + size);
+
+		this.pages = new AtomicLongArray[(int) pageCount];
+		this.size = size;
+
+		for (int i = 0; i < pages.length; i++) {
+			final long pageBegin = (long) i << PAGE_SHIFT;
+			final int pageSize = (int) Math.min(size - pageBegin, PAGE_SIZE);
+
+			pages[i] = new AtomicLongArray(pageSize);
+		}
+	}
+
+	public long get (final long index) {
+		return pages[(int) (index >>> PAGE_SHIFT)].get((int) (index & PAGE_MASK));
+	}
+
+	public void set (final long index, final long value) {
+		pages[(int) (index >>> PAGE_SHIFT)].set((int) (index & PAGE_MASK), value);
+	}
+
+	public void lazySet (final long index, final long value) {
+		pages[(int) (index >>> PAGE_SHIFT)].lazySet((int) (index & PAGE_MASK), value);
+	}
+
+	public boolean compareAndSet (final long index, final long expectedValue, final long newValue) {
+		return pages[(int) (index >>> PAGE_SHIFT)].compareAndSet((int) (index & PAGE_MASK), expectedValue, newValue);
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Sets all items of the array to zero.
+	 */
+	public void clear() {
+		// Non-volatile writes
+		for (AtomicLongArray page: pages) {
+			for (int i = page.length() - 1; i >= 0; i--)
+				page.lazySet(i, 0);
+		}
+
+		// Volatile write to flush cache
+		if (size > 0)
+			set(0, 0);
+	}
+}
@@ -60,6 +60,28 @@ public class IntUtils {
 		return (divident + divisor - 1) / divisor;
 	}
 
+	/**
+	 * Returns upper 64 bits of the 128 bit product of two unsigned numbers.
+	 * @param a first factor
+	 * @param b second factor
+	 * @return floor (a * b / 2^64)
+	 */
+	public static long unsignedMultiplyHigh(final long a, final long b) {
+		final long aLow = a & 0xFFFFFFFFL;
+		final long aHigh = a >>> 32;
+		final long bLow = b & 0xFFFFFFFFL;
+		final long bHigh = b >>> 32;
+
+		final long lowLow = aLow * bLow;
+		final long lowHigh = aLow * bHigh;
+		final long highLow = aHigh * bLow;
+		final long highHigh = aHigh * bHigh;
+
+		final long middle = (lowLow >>> 32) + (lowHigh & 0xFFFFFFFFL) + (highLow & 0xFFFFFFFFL);
+
+		return highHigh + (lowHigh >>> 32) + (highLow >>> 32) + (middle >>> 32);
+	}
+
 	public static String intToStringWithSignum(final int x) {
 		if (x > 0)
 			return "+" + Integer.toString(x);
@@ -0,0 +1,35 @@
+package utilsTest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import utils.HugeAtomicLongArray;
+
+public class HugeAtomicLongArrayTest {
+
+	private static final long PAGE_SIZE = 1L << 24;
+
+	@Test
+	public void testPageBoundary() {
+		final long size = PAGE_SIZE + 3;
+		final HugeAtomicLongArray array = new HugeAtomicLongArray(size);
+		Assert.assertEquals(size, array.getSize());
+
+		final long[] indices = { 0, PAGE_SIZE - 1, PAGE_SIZE, size - 1 };
+
+		for (long index: indices)
+			array.set(index, ~index);
+
+		for (long index: indices)
+			Assert.assertEquals(~index, array.get(index));
+
+		Assert.assertTrue(array.compareAndSet(PAGE_SIZE, ~PAGE_SIZE, 1234));
+		Assert.assertFalse(array.compareAndSet(PAGE_SIZE, ~PAGE_SIZE, 4321));
+		Assert.assertEquals(1234, array.get(PAGE_SIZE));
+
+		array.clear();
+
+		for (long index: indices)
+			Assert.assertEquals(0, array.get(index));
+	}
+}
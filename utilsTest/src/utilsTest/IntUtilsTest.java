@@ -1,5 +1,8 @@
 package utilsTest;
 
+import java.math.BigInteger;
+import java.util.Random;
+
 import org.junit.Assert;
 import org.junit.Test;
 import utils.IntUtils;
@@ -67,4 +70,24 @@ public class IntUtilsTest {
 		Assert.assertEquals(0x7FFF_FFFF_FFFF_FFFFL, IntUtils.getLowestBitsLong(63));
 		Assert.assertEquals(0xFFFF_FFFF_FFFF_FFFFL, IntUtils.getLowestBitsLong(64));
 	}
+
+	@Test
+	public void testUnsignedMultiplyHigh() {
+		final Random rnd = new Random(1234);
+
+		for (int i = 0; i < 1000; i++) {
+			final long a = rnd.nextLong();
+			final long b = rnd.nextLong();
+			final BigInteger product = toUnsignedBigInteger(a).multiply(toUnsignedBigInteger(b));
+
+			Assert.assertEquals(product.shiftRight(64).longValue(), IntUtils.unsignedMultiplyHigh(a, b));
+		}
+
+		Assert.assertEquals(0xFFFF_FFFF_FFFF_FFFEL, IntUtils.unsignedMultiplyHigh(0xFFFF_FFFF_FFFF_FFFFL, 0xFFFF_FFFF_FFFF_FFFFL));
+		Assert.assertEquals(0L, IntUtils.unsignedMultiplyHigh(0xFFFF_FFFF_FFFF_FFFFL, 1));
+	}
+
+	private static BigInteger toUnsignedBigInteger (final long x) {
+		return new BigInteger(Long.toUnsignedString(x));
+	}
 }